@@ -0,0 +1,245 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Clase para recorridos BFS paralelos que optimizan la dirección (Beamer
+ * et al.). El recorrido avanza por niveles; cada nivel puede expandirse de
+ * arriba hacia abajo, revisando los vecinos de los vértices de la frontera, o
+ * de abajo hacia arriba, buscando para cada vértice no visitado un vecino en
+ * la frontera. En gráficas de diámetro pequeño los niveles de en medio
+ * contienen casi todos los vértices, y de abajo hacia arriba cada vértice deja
+ * de buscar en cuanto encuentra un padre.</p>
+ *
+ * <p>El recorrido cambia a abajo hacia arriba cuando las aristas de la
+ * frontera superan a las aristas de los vértices no visitados entre {@link
+ * #ALFA}, y regresa a arriba hacia abajo cuando la frontera tiene menos de
+ * <i>n</i> entre {@link #BETA} vértices. Las fronteras son mapas de bits
+ * sobre los índices de la {@link GraficaCompacta}.</p>
+ */
+public class BFSDireccional<T> {
+
+    /** El parámetro para cambiar a abajo hacia arriba. */
+    public static final int ALFA = 14;
+    /** El parámetro para regresar a arriba hacia abajo. */
+    public static final int BETA = 24;
+
+    /* Número de palabras del mapa de bits a partir del cual una tarea se
+     * divide. */
+    private static final int UMBRAL = 64;
+
+    /* Clase interna privada para las tareas que expanden un nivel. Cada tarea
+     * expande un rango de palabras del mapa de bits y regresa el número de
+     * vértices del siguiente nivel y la suma de sus grados. */
+    private class Expande extends RecursiveTask<long[]> {
+
+        /* Versión de la forma serializada. */
+        private static final long serialVersionUID = 1L;
+
+        /* La primera palabra del rango. */
+        private int ini;
+        /* La palabra siguiente a la última del rango. */
+        private int fin;
+        /* Si el nivel se expande de abajo hacia arriba. */
+        private boolean abajoArriba;
+
+        /* Construye una tarea para las palabras [ini, fin). */
+        public Expande(int ini, int fin, boolean abajoArriba) {
+            this.ini = ini;
+            this.fin = fin;
+            this.abajoArriba = abajoArriba;
+        }
+
+        /* Expande el rango, dividiéndolo si es grande. */
+        @Override protected long[] compute() {
+            if (fin - ini > UMBRAL) {
+                int m = (ini + fin) >>> 1;
+                Expande izquierda = new Expande(ini, m, abajoArriba);
+                izquierda.fork();
+                long[] r = new Expande(m, fin, abajoArriba).compute();
+                long[] l = izquierda.join();
+                r[0] += l[0];
+                r[1] += l[1];
+                return r;
+            }
+            return abajoArriba ? abajoArriba() : arribaAbajo();
+        }
+
+        /* Revisa los vecinos de los vértices de la frontera en el rango. */
+        private long[] arribaAbajo() {
+            long[] r = new long[2];
+            for (int i = ini; i < fin; i++) {
+                long palabra = frontera.get(i);
+                while (palabra != 0) {
+                    int u = (i << 6) + Long.numberOfTrailingZeros(palabra);
+                    palabra &= palabra - 1;
+                    for (int p = grafica.desplazamientos[u];
+                         p < grafica.desplazamientos[u + 1]; p++) {
+                        int v = grafica.destinos[p];
+                        if (padres.get(v) != -1 ||
+                            !padres.compareAndSet(v, -1, u))
+                            continue;
+                        niveles[v] = nivel + 1;
+                        enciende(siguiente, v);
+                        r[0]++;
+                        r[1] += grado(v);
+                    }
+                }
+            }
+            return r;
+        }
+
+        /* Busca un padre en la frontera para cada vértice no visitado del
+         * rango. Cada tarea es dueña de sus palabras, así que no hay
+         * carreras. */
+        private long[] abajoArriba() {
+            long[] r = new long[2];
+            int n = niveles.length;
+            for (int v = ini << 6; v < Math.min(fin << 6, n); v++) {
+                if (niveles[v] != -1)
+                    continue;
+                for (int p = grafica.desplazamientos[v];
+                     p < grafica.desplazamientos[v + 1]; p++) {
+                    int u = grafica.destinos[p];
+                    if ((frontera.get(u >>> 6) & (1L << u)) == 0)
+                        continue;
+                    padres.set(v, u);
+                    niveles[v] = nivel + 1;
+                    enciende(siguiente, v);
+                    r[0]++;
+                    r[1] += grado(v);
+                    break;
+                }
+            }
+            return r;
+        }
+    }
+
+    /* La gráfica. */
+    private GraficaCompacta<T> grafica;
+    /* El grupo de hilos. */
+    private ForkJoinPool grupo;
+    /* El nivel de cada vértice, o -1. */
+    private int[] niveles;
+    /* El padre de cada vértice, o -1. */
+    private AtomicIntegerArray padres;
+    /* La frontera actual. */
+    private AtomicLongArray frontera;
+    /* La frontera siguiente. */
+    private AtomicLongArray siguiente;
+    /* El nivel que se está expandiendo. */
+    private int nivel;
+
+    /**
+     * Construye un recorrido para la gráfica compacta recibida, usando el
+     * grupo común de hilos.
+     * @param grafica la gráfica compacta.
+     */
+    public BFSDireccional(GraficaCompacta<T> grafica) {
+        this(grafica, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Construye un recorrido para la gráfica compacta recibida.
+     * @param grafica la gráfica compacta.
+     * @param grupo el grupo de hilos donde se expandirán los niveles.
+     * @throws IllegalArgumentException si el grupo es <code>null</code>.
+     */
+    public BFSDireccional(GraficaCompacta<T> grafica, ForkJoinPool grupo) {
+        if (grupo == null)
+            throw new IllegalArgumentException("Grupo inválido");
+        this.grafica = grafica;
+        this.grupo = grupo;
+    }
+
+    /* Regresa el grado del vértice. */
+    private int grado(int v) {
+        return grafica.desplazamientos[v + 1] - grafica.desplazamientos[v];
+    }
+
+    /* Enciende el bit del vértice en el mapa. */
+    private static void enciende(AtomicLongArray mapa, int v) {
+        int i = v >>> 6;
+        long bit = 1L << v;
+        long palabra;
+        do {
+            palabra = mapa.get(i);
+        } while (!mapa.compareAndSet(i, palabra, palabra | bit));
+    }
+
+    /**
+     * Recorre la gráfica por niveles a partir del elemento recibido. Los
+     * niveles y padres del recorrido quedan disponibles en {@link
+     * #getNiveles} y {@link #getPadres}.
+     * @param origen el elemento donde comienza el recorrido.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public synchronized void recorre(T origen) {
+        int s = grafica.indice(origen);
+        int n = grafica.getElementos();
+        int palabras = (n + 63) >>> 6;
+        niveles = new int[n];
+        padres = new AtomicIntegerArray(n);
+        for (int v = 0; v < n; v++) {
+            niveles[v] = -1;
+            padres.set(v, -1);
+        }
+        frontera = new AtomicLongArray(palabras);
+        niveles[s] = 0;
+        padres.set(s, s);
+        enciende(frontera, s);
+        nivel = 0;
+        long vertices = 1;
+        long aristasFrontera = grado(s);
+        long aristasPendientes = grafica.destinos.length - grado(s);
+        boolean abajoArriba = false;
+        while (vertices > 0) {
+            if (!abajoArriba && aristasFrontera > aristasPendientes / ALFA)
+                abajoArriba = true;
+            else if (abajoArriba && vertices < n / BETA)
+                abajoArriba = false;
+            siguiente = new AtomicLongArray(palabras);
+            long[] r = grupo.invoke(new Expande(0, palabras, abajoArriba));
+            vertices = r[0];
+            aristasFrontera = r[1];
+            aristasPendientes -= aristasFrontera;
+            frontera = siguiente;
+            nivel++;
+        }
+        frontera = siguiente = null;
+    }
+
+    /**
+     * Regresa los niveles del último recorrido, indexados por {@link
+     * GraficaCompacta#indice}. El origen tiene nivel 0, y los vértices
+     * inalcanzables nivel -1.
+     * @return los niveles del último recorrido.
+     * @throws IllegalStateException si no se ha hecho ningún recorrido.
+     */
+    public int[] getNiveles() {
+        if (niveles == null)
+            throw new IllegalStateException("No hay recorrido");
+        return niveles.clone();
+    }
+
+    /**
+     * Regresa los padres del último recorrido, indexados por {@link
+     * GraficaCompacta#indice}: el padre de cada vértice es un vecino en el
+     * nivel anterior. El padre del origen es el origen, y el de los vértices
+     * inalcanzables es -1.
+     * @return los padres del último recorrido.
+     * @throws IllegalStateException si no se ha hecho ningún recorrido.
+     */
+    public int[] getPadres() {
+        if (padres == null)
+            throw new IllegalStateException("No hay recorrido");
+        int[] r = new int[padres.length()];
+        for (int v = 0; v < r.length; v++)
+            r[v] = padres.get(v);
+        return r;
+    }
+}
@@ -0,0 +1,148 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para recorridos BFS desde varios orígenes a la vez (MS-BFS). Los
+ * recorridos de un lote avanzan juntos, nivel por nivel: cada vértice guarda
+ * una máscara de bits con los orígenes que ya lo visitaron y otra con los
+ * orígenes para los que está en la frontera, y al revisar una arista se
+ * propaga la máscara completa con un solo <em>or</em>. Cuando los recorridos
+ * se traslapan, cada vez que se toca un vértice o una arista se sirve a
+ * muchos orígenes.</p>
+ *
+ * <p>Un lote puede tener hasta {@link #MAXIMO} orígenes; cada 64 orígenes
+ * ocupan un <code>long</code> de máscara por vértice.</p>
+ */
+public class BFSMultiple<T> {
+
+    /** El número máximo de orígenes en un lote. */
+    public static final int MAXIMO = 512;
+
+    /* La gráfica. */
+    private GraficaCompacta<T> grafica;
+
+    /**
+     * Construye un recorrido múltiple para la gráfica compacta recibida.
+     * @param grafica la gráfica compacta.
+     */
+    public BFSMultiple(GraficaCompacta<T> grafica) {
+        this.grafica = grafica;
+    }
+
+    /**
+     * Regresa el número de aristas de las trayectorias mínimas desde cada
+     * origen hasta todos los vértices de la gráfica.
+     * @param origenes la lista de orígenes.
+     * @return un arreglo con un renglón por origen, en el orden de la lista;
+     *         cada renglón está indexado por {@link GraficaCompacta#indice} y
+     *         tiene -1 en los vértices inalcanzables.
+     * @throws IllegalArgumentException si hay más de {@link #MAXIMO}
+     *         orígenes.
+     * @throws NoSuchElementException si algún origen no está en la gráfica.
+     */
+    public int[][] distancias(Lista<T> origenes) {
+        int k = origenes.getLongitud();
+        if (k > MAXIMO)
+            throw new IllegalArgumentException("Demasiados orígenes");
+        int n = grafica.getElementos();
+        int w = (k + 63) >>> 6;
+        int[][] distancias = new int[k][n];
+        long[] vistos = new long[n * w];
+        long[] frontera = new long[n * w];
+        long[] siguiente = new long[n * w];
+        for (int[] renglon : distancias)
+            for (int v = 0; v < n; v++)
+                renglon[v] = -1;
+        int i = 0;
+        for (T origen : origenes) {
+            int s = grafica.indice(origen);
+            int x = s * w + (i >>> 6);
+            vistos[x] |= 1L << i;
+            frontera[x] |= 1L << i;
+            distancias[i++][s] = 0;
+        }
+
+        boolean activa = k > 0;
+        for (int nivel = 1; activa; nivel++) {
+            for (int v = 0; v < n; v++) {
+                if (!activo(frontera, v * w, w))
+                    continue;
+                for (int p = grafica.desplazamientos[v];
+                     p < grafica.desplazamientos[v + 1]; p++) {
+                    int u = grafica.destinos[p];
+                    for (int j = 0; j < w; j++)
+                        siguiente[u * w + j] |= frontera[v * w + j];
+                }
+            }
+            activa = false;
+            for (int v = 0; v < n; v++) {
+                for (int j = 0; j < w; j++) {
+                    int x = v * w + j;
+                    long nuevos = siguiente[x] & ~vistos[x];
+                    siguiente[x] = 0;
+                    frontera[x] = nuevos;
+                    if (nuevos == 0)
+                        continue;
+                    activa = true;
+                    vistos[x] |= nuevos;
+                    while (nuevos != 0) {
+                        int b = Long.numberOfTrailingZeros(nuevos);
+                        distancias[(j << 6) + b][v] = nivel;
+                        nuevos &= nuevos - 1;
+                    }
+                }
+            }
+        }
+        return distancias;
+    }
+
+    /* Nos dice si alguna de las w palabras a partir de x es distinta de
+     * cero. */
+    private static boolean activo(long[] mascaras, int x, int w) {
+        for (int j = 0; j < w; j++)
+            if (mascaras[x + j] != 0)
+                return true;
+        return false;
+    }
+
+    /**
+     * Regresa una trayectoria mínima hasta el destino, a partir de un renglón
+     * regresado por {@link #distancias}. La trayectoria comienza en el origen
+     * del renglón y se reconstruye caminando hacia atrás por vecinos con un
+     * nivel menos.
+     * @param distancias un renglón regresado por {@link #distancias}.
+     * @param destino el elemento de destino.
+     * @return una lista con los elementos de una trayectoria mínima desde el
+     *         origen del renglón hasta el destino, o una lista vacía si el
+     *         destino es inalcanzable.
+     * @throws IllegalArgumentException si el renglón no corresponde a la
+     *         gráfica.
+     * @throws NoSuchElementException si el destino no está en la gráfica.
+     */
+    public Lista<T> trayectoria(int[] distancias, T destino) {
+        if (distancias.length != grafica.getElementos())
+            throw new IllegalArgumentException("Distancias inválidas");
+        Lista<T> trayectoria = new Lista<T>();
+        int v = grafica.indice(destino);
+        if (distancias[v] == -1)
+            return trayectoria;
+        trayectoria.agregaInicio(destino);
+        while (distancias[v] > 0) {
+            int anterior = -1;
+            for (int p = grafica.desplazamientos[v];
+                 p < grafica.desplazamientos[v + 1]; p++) {
+                int u = grafica.destinos[p];
+                if (distancias[u] == distancias[v] - 1) {
+                    anterior = u;
+                    break;
+                }
+            }
+            if (anterior == -1)
+                throw new IllegalArgumentException("Distancias inválidas");
+            v = anterior;
+            trayectoria.agregaInicio(grafica.elemento(v));
+        }
+        return trayectoria;
+    }
+}
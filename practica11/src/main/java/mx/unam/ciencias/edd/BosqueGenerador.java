@@ -0,0 +1,249 @@
+package mx.unam.ciencias.edd;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * <p>Clase para bosques generadores de peso mínimo. Un bosque generador de
+ * peso mínimo de una gráfica tiene todos sus vértices, y en cada componente
+ * conexa un árbol generador cuya suma de pesos es mínima.</p>
+ *
+ * <p>El bosque se calcula sobre una {@link GraficaCompacta} con uno de tres
+ * algoritmos: Prim, con un {@link MonticuloMinimo} de {@link ValorIndexable};
+ * Kruskal, ordenando las aristas con {@link Arreglos} y uniendo con conjuntos
+ * disjuntos; o Borůvka, que en cada ronda elige en paralelo la arista más
+ * ligera que sale de cada componente. Los tres regresan bosques del mismo
+ * peso, aunque con pesos repetidos pueden elegir aristas distintas.</p>
+ */
+public class BosqueGenerador<T> {
+
+    /* El bosque. */
+    private Grafica<T> bosque;
+    /* El peso del bosque. */
+    private double peso;
+
+    /* Construye el bosque con las aristas elegidas de la gráfica compacta,
+     * dadas por sus posiciones. */
+    private BosqueGenerador(GraficaCompacta<T> grafica, int[] fuentes,
+                            boolean[] elegidas) {
+        bosque = new Grafica<T>();
+        for (T elemento : grafica)
+            bosque.agrega(elemento);
+        for (int p = 0; p < elegidas.length; p++) {
+            if (!elegidas[p])
+                continue;
+            bosque.conecta(grafica.elemento(fuentes[p]),
+                           grafica.elemento(grafica.destinos[p]),
+                           grafica.pesos[p]);
+            peso += grafica.pesos[p];
+        }
+    }
+
+    /**
+     * Regresa el bosque generador de peso mínimo, como una gráfica nueva con
+     * los mismos elementos que la original.
+     * @return el bosque generador de peso mínimo.
+     */
+    public Grafica<T> getBosque() {
+        return bosque;
+    }
+
+    /**
+     * Regresa el peso total del bosque.
+     * @return el peso total del bosque.
+     */
+    public double getPeso() {
+        return peso;
+    }
+
+    /* Regresa el vértice de origen de cada posición de arista. */
+    private static int[] fuentes(GraficaCompacta<?> grafica) {
+        int[] fuentes = new int[grafica.destinos.length];
+        for (int u = 0; u < grafica.getElementos(); u++)
+            for (int p = grafica.desplazamientos[u];
+                 p < grafica.desplazamientos[u + 1]; p++)
+                fuentes[p] = u;
+        return fuentes;
+    }
+
+    /* Compara dos aristas por peso, y en empate por sus extremos; es un
+     * orden total sobre las aristas sin importar la dirección. */
+    private static int compara(GraficaCompacta<?> grafica, int[] fuentes,
+                               int p, int q) {
+        int c = Double.compare(grafica.pesos[p], grafica.pesos[q]);
+        if (c != 0)
+            return c;
+        int ap = Math.min(fuentes[p], grafica.destinos[p]);
+        int aq = Math.min(fuentes[q], grafica.destinos[q]);
+        if (ap != aq)
+            return ap - aq;
+        return Math.max(fuentes[p], grafica.destinos[p]) -
+            Math.max(fuentes[q], grafica.destinos[q]);
+    }
+
+    /**
+     * Calcula un bosque generador de peso mínimo con el algoritmo de Prim.
+     * @param <T> el tipo de los elementos de la gráfica.
+     * @param grafica la gráfica.
+     * @return un bosque generador de peso mínimo de la gráfica.
+     */
+    public static <T> BosqueGenerador<T> prim(Grafica<T> grafica) {
+        return prim(new GraficaCompacta<T>(grafica));
+    }
+
+    /* Calcula un bosque generador de peso mínimo con el algoritmo de Prim.
+     * Todos los vértices entran al montículo con valor infinito; cuando sale
+     * uno con valor infinito comienza un árbol nuevo. */
+    static <T> BosqueGenerador<T> prim(GraficaCompacta<T> grafica) {
+        int n = grafica.getElementos();
+        int[] fuentes = fuentes(grafica);
+        boolean[] elegidas = new boolean[grafica.destinos.length];
+        int[] mejores = new int[n];
+        boolean[] enBosque = new boolean[n];
+        @SuppressWarnings("unchecked") ValorIndexable<Integer>[] entradas =
+            (ValorIndexable<Integer>[])new ValorIndexable<?>[n];
+        Lista<ValorIndexable<Integer>> lista =
+            new Lista<ValorIndexable<Integer>>();
+        for (int v = 0; v < n; v++) {
+            mejores[v] = -1;
+            entradas[v] = new ValorIndexable<Integer>(v,
+                                                      Double.POSITIVE_INFINITY);
+            lista.agrega(entradas[v]);
+        }
+        MonticuloMinimo<ValorIndexable<Integer>> monticulo =
+            new MonticuloMinimo<ValorIndexable<Integer>>(lista, n);
+        while (!monticulo.esVacia()) {
+            int u = monticulo.elimina().getElemento();
+            enBosque[u] = true;
+            if (mejores[u] != -1)
+                elegidas[mejores[u]] = true;
+            for (int p = grafica.desplazamientos[u];
+                 p < grafica.desplazamientos[u + 1]; p++) {
+                int v = grafica.destinos[p];
+                if (enBosque[v] || grafica.pesos[p] >= entradas[v].getValor())
+                    continue;
+                mejores[v] = p;
+                entradas[v].setValor(grafica.pesos[p]);
+                monticulo.reordena(entradas[v]);
+            }
+        }
+        return new BosqueGenerador<T>(grafica, fuentes, elegidas);
+    }
+
+    /**
+     * Calcula un bosque generador de peso mínimo con el algoritmo de Kruskal.
+     * @param <T> el tipo de los elementos de la gráfica.
+     * @param grafica la gráfica.
+     * @return un bosque generador de peso mínimo de la gráfica.
+     */
+    public static <T> BosqueGenerador<T> kruskal(Grafica<T> grafica) {
+        return kruskal(new GraficaCompacta<T>(grafica));
+    }
+
+    /* Calcula un bosque generador de peso mínimo con el algoritmo de
+     * Kruskal. Cada arista aparece dos veces en la gráfica compacta; sólo
+     * ordenamos la que va del vértice menor al mayor. Las uniones se hacen
+     * en un solo hilo, así que usamos los conjuntos disjuntos secuenciales. */
+    static <T> BosqueGenerador<T> kruskal(GraficaCompacta<T> grafica) {
+        int n = grafica.getElementos();
+        int[] fuentes = fuentes(grafica);
+        boolean[] elegidas = new boolean[grafica.destinos.length];
+        Integer[] aristas = new Integer[grafica.getAristas()];
+        int k = 0;
+        for (int p = 0; p < fuentes.length; p++)
+            if (fuentes[p] < grafica.destinos[p])
+                aristas[k++] = p;
+        Arreglos.quickSort(aristas,
+                           (p, q) -> compara(grafica, fuentes, p, q));
+        ConjuntosDisjuntos<Integer> conjuntos =
+            new ConjuntosDisjuntos<Integer>();
+        for (int v = 0; v < n; v++)
+            conjuntos.agrega(v);
+        int faltan = n - 1;
+        for (int i = 0; i < aristas.length && faltan > 0; i++) {
+            int p = aristas[i];
+            if (conjuntos.une(fuentes[p], grafica.destinos[p])) {
+                elegidas[p] = true;
+                faltan--;
+            }
+        }
+        return new BosqueGenerador<T>(grafica, fuentes, elegidas);
+    }
+
+    /**
+     * Calcula un bosque generador de peso mínimo con el algoritmo de Borůvka
+     * en paralelo, usando el grupo común de hilos.
+     * @param <T> el tipo de los elementos de la gráfica.
+     * @param grafica la gráfica.
+     * @return un bosque generador de peso mínimo de la gráfica.
+     */
+    public static <T> BosqueGenerador<T> boruvka(Grafica<T> grafica) {
+        return boruvka(new GraficaCompacta<T>(grafica),
+                       ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Calcula un bosque generador de peso mínimo con el algoritmo de Borůvka
+     * en paralelo.
+     * @param <T> el tipo de los elementos de la gráfica.
+     * @param grafica la gráfica.
+     * @param grupo el grupo de hilos donde se buscarán y unirán las aristas.
+     * @return un bosque generador de peso mínimo de la gráfica.
+     * @throws IllegalArgumentException si el grupo es <code>null</code>.
+     */
+    public static <T> BosqueGenerador<T> boruvka(Grafica<T> grafica,
+                                                 ForkJoinPool grupo) {
+        if (grupo == null)
+            throw new IllegalArgumentException("Grupo inválido");
+        return boruvka(new GraficaCompacta<T>(grafica), grupo);
+    }
+
+    /* Calcula un bosque generador de peso mínimo con el algoritmo de
+     * Borůvka. En cada ronda cada vértice busca la más ligera de sus aristas
+     * que salen de su componente y la propone, con una sola comparación e
+     * intercambio, a la raíz de la componente; después se unen en paralelo
+     * las componentes por las aristas propuestas. Como las aristas se
+     * comparan con un orden total, todas las propuestas están en el mismo
+     * bosque mínimo, y los conjuntos disjuntos descartan las repetidas. */
+    static <T> BosqueGenerador<T> boruvka(GraficaCompacta<T> grafica,
+                                          ForkJoinPool grupo) {
+        int n = grafica.getElementos();
+        int[] fuentes = fuentes(grafica);
+        boolean[] elegidas = new boolean[grafica.destinos.length];
+        ConjuntosDisjuntosConcurrentes conjuntos =
+            new ConjuntosDisjuntosConcurrentes(n);
+        AtomicIntegerArray propuestas = new AtomicIntegerArray(n);
+        int componentes = -1;
+        while (conjuntos.getConjuntos() != componentes) {
+            componentes = conjuntos.getConjuntos();
+            grupo.invoke(new Rango(0, n, u -> propuestas.set(u, -1)));
+            grupo.invoke(new Rango(0, n, u -> {
+                        int r = conjuntos.encuentra(u);
+                        int p = -1;
+                        for (int i = grafica.desplazamientos[u];
+                             i < grafica.desplazamientos[u + 1]; i++)
+                            if (conjuntos.encuentra(grafica.destinos[i]) != r &&
+                                (p == -1 ||
+                                 compara(grafica, fuentes, i, p) < 0))
+                                p = i;
+                        if (p == -1)
+                            return;
+                        while (true) {
+                            int q = propuestas.get(r);
+                            if (q != -1 &&
+                                compara(grafica, fuentes, q, p) <= 0)
+                                break;
+                            if (propuestas.compareAndSet(r, q, p))
+                                break;
+                        }
+                    }));
+            grupo.invoke(new Rango(0, n, r -> {
+                        int p = propuestas.get(r);
+                        if (p != -1 &&
+                            conjuntos.une(fuentes[p], grafica.destinos[p]))
+                            elegidas[p] = true;
+                    }));
+        }
+        return new BosqueGenerador<T>(grafica, fuentes, elegidas);
+    }
+}
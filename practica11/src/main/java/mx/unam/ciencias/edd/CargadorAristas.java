@@ -0,0 +1,612 @@
+package mx.unam.ciencias.edd;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p>Clase para cargar gráficas de archivos de aristas. Agregar cada arista
+ * con {@link Grafica#conecta} busca los dos elementos en el diccionario de
+ * vértices y verifica que la arista no exista; con cientos de millones de
+ * aristas eso domina el tiempo de carga. El cargador construye en cambio la
+ * {@link GraficaCompacta} de una vez, y de ella la {@link Grafica} si hace
+ * falta, sin buscar nada arista por arista.</p>
+ *
+ * <p>El archivo se mapea a memoria en segmentos de 1 GB, y se lee en bloques
+ * de 4 MB repartidos entre los hilos de un {@link ForkJoinPool}; en el
+ * formato de texto cada bloque empieza en el primer renglón que empieza
+ * dentro de él. Los enteros del archivo se vuelven índices consecutivos en
+ * orden creciente, con un arreglo directo si su rango no es mucho mayor que
+ * el número de extremos, u ordenándolos si lo es. Después se cuentan los
+ * grados, se reparten las aristas en el arreglo de destinos y se ordenan los
+ * vecinos de cada vértice, todo en paralelo. Para contar y repartir, los
+ * bloques se dividen en partes contiguas, una por hilo; cada parte cuenta
+ * los grados de sus aristas en su propio histograma, y las sumas acumuladas
+ * de los histogramas le dan a cada parte sus posiciones de escritura en cada
+ * vértice. Así cada arista se lee una vez al contar y otra al repartir, y no
+ * hacen falta operaciones atómicas.</p>
+ *
+ * <p>Las aristas de un vértice a sí mismo se ignoran. Las aristas repetidas
+ * sólo se eliminan si se pide, y entonces se queda la de menor peso; si no se
+ * pide, el archivo no debe tener aristas repetidas.</p>
+ */
+public class CargadorAristas {
+
+    /* Bits del tamaño de cada segmento mapeado. */
+    private static final int BITS_SEGMENTO = 30;
+    /* El tamaño de cada segmento mapeado. */
+    private static final long SEGMENTO = 1L << BITS_SEGMENTO;
+    /* El tamaño de cada bloque que se lee en una tarea. */
+    private static final int BLOQUE = 1 << 22;
+    /* El tamaño de un registro en el formato binario. */
+    private static final int REGISTRO = 16;
+    /* Holgura del rango de los enteros para mapearlos con un arreglo
+     * directo. */
+    private static final int HOLGURA = 1024;
+    /* La menor mantisa que ya no se representa exactamente como double. */
+    private static final long MANTISA_EXACTA = 1L << 53;
+    /* Potencias de 10 que se representan exactamente como double. */
+    private static final double[] POTENCIAS = new double[23];
+    static {
+        POTENCIAS[0] = 1;
+        for (int i = 1; i < POTENCIAS.length; i++)
+            POTENCIAS[i] = 10 * POTENCIAS[i - 1];
+    }
+
+    /* Clase interna privada para las aristas leídas de un bloque. */
+    private static class Bloque {
+
+        /* Los orígenes de las aristas. */
+        public int[] origenes;
+        /* Los destinos de las aristas. */
+        public int[] destinos;
+        /* Los pesos de las aristas. */
+        public double[] pesos;
+        /* El número de aristas. */
+        public int aristas;
+        /* El menor entero leído. */
+        public int minimo;
+        /* El mayor entero leído. */
+        public int maximo;
+
+        /* Construye un bloque vacío con la capacidad recibida. */
+        public Bloque(int capacidad) {
+            origenes = new int[capacidad];
+            destinos = new int[capacidad];
+            pesos = new double[capacidad];
+            minimo = Integer.MAX_VALUE;
+            maximo = Integer.MIN_VALUE;
+        }
+
+        /* Agrega una arista al bloque. */
+        public void agrega(int a, int b, double peso) {
+            if (aristas == origenes.length) {
+                int c = 2 * aristas + 16;
+                origenes = Arrays.copyOf(origenes, c);
+                destinos = Arrays.copyOf(destinos, c);
+                pesos = Arrays.copyOf(pesos, c);
+            }
+            origenes[aristas] = a;
+            destinos[aristas] = b;
+            pesos[aristas++] = peso;
+            minimo = Math.min(minimo, Math.min(a, b));
+            maximo = Math.max(maximo, Math.max(a, b));
+        }
+    }
+
+    /* Clase interna privada para leer renglones de texto de un bloque. */
+    private class Lector {
+
+        /* La posición actual en el archivo. */
+        private long posicion;
+        /* Los bytes del archivo a partir de la base. */
+        private byte[] bufer;
+        /* La posición en el archivo del primer byte del búfer. */
+        private long base;
+        /* El número de bytes en el búfer. */
+        private int llenos;
+
+        /* Construye un lector en la posición recibida. */
+        public Lector(long posicion) {
+            this.posicion = posicion;
+            bufer = new byte[1 << 16];
+        }
+
+        /* Regresa el byte actual, o '\n' al final del archivo. Leer cada
+         * byte del segmento mapeado es varias veces más lento que copiarlos
+         * en bloque a un arreglo. */
+        private byte actual() {
+            long r = posicion - base;
+            if (r < 0 || r >= llenos) {
+                if (posicion >= tamano)
+                    return '\n';
+                llena();
+                r = 0;
+            }
+            return bufer[(int)r];
+        }
+
+        /* Llena el búfer a partir de la posición actual, sin pasar del
+         * segmento. */
+        private void llena() {
+            base = posicion;
+            ByteBuffer segmento =
+                segmentos[(int)(base >>> BITS_SEGMENTO)].duplicate();
+            segmento.position((int)(base & (SEGMENTO - 1)));
+            llenos = Math.min(bufer.length, segmento.remaining());
+            segmento.get(bufer, 0, llenos);
+        }
+
+        /* Se salta los espacios y tabuladores. */
+        private void espacios() {
+            byte c;
+            while ((c = actual()) == ' ' || c == '\t' || c == '\r')
+                posicion++;
+        }
+
+        /* Se salta hasta el siguiente renglón. */
+        private void renglon() {
+            while (actual() != '\n')
+                posicion++;
+            posicion++;
+        }
+
+        /* Regresa una excepción con la posición actual. */
+        private UncheckedIOException error() {
+            return new UncheckedIOException(
+                new IOException("Arista inválida en el byte " + posicion));
+        }
+
+        /* Lee un entero. */
+        private int entero() {
+            boolean negativo = actual() == '-';
+            if (negativo)
+                posicion++;
+            long r = 0;
+            int digitos = 0;
+            byte c;
+            while ((c = actual()) >= '0' && c <= '9' && digitos < 11) {
+                r = 10 * r + (c - '0');
+                posicion++;
+                digitos++;
+            }
+            r = negativo ? -r : r;
+            if (digitos == 0 || digitos == 11 || r != (int)r)
+                throw error();
+            return (int)r;
+        }
+
+        /* Lee un número real. Si la mantisa entera es menor que 2^53 y el
+         * exponente está entre -22 y 22, la mantisa y la potencia de 10 son
+         * exactas como double, y dividir o multiplicar una por la otra
+         * redondea una sola vez, igual que Double.parseDouble; los demás
+         * números se leen con Double.parseDouble. */
+        private double real() {
+            long inicio = posicion;
+            boolean negativo = actual() == '-';
+            if (negativo || actual() == '+')
+                posicion++;
+            long mantisa = 0;
+            int digitos = 0, exponente = 0;
+            byte c;
+            while ((c = actual()) >= '0' && c <= '9') {
+                mantisa = 10 * mantisa + (c - '0');
+                posicion++;
+                digitos++;
+            }
+            if (actual() == '.') {
+                posicion++;
+                while ((c = actual()) >= '0' && c <= '9') {
+                    mantisa = 10 * mantisa + (c - '0');
+                    posicion++;
+                    digitos++;
+                    exponente--;
+                }
+            }
+            if (digitos == 0)
+                throw error();
+            if (actual() == 'e' || actual() == 'E') {
+                posicion++;
+                boolean negativa = actual() == '-';
+                if (negativa || actual() == '+')
+                    posicion++;
+                int e = 0, digitosExponente = 0;
+                while ((c = actual()) >= '0' && c <= '9') {
+                    e = Math.min(10 * e + (c - '0'), 1 << 20);
+                    posicion++;
+                    digitosExponente++;
+                }
+                if (digitosExponente == 0)
+                    throw error();
+                exponente += negativa ? -e : e;
+            }
+            if (digitos > 18 || mantisa >= MANTISA_EXACTA ||
+                exponente < -22 || exponente > 22)
+                return lento(inicio);
+            double r = (exponente < 0) ? mantisa / POTENCIAS[-exponente] :
+                mantisa * POTENCIAS[exponente];
+            return negativo ? -r : r;
+        }
+
+        /* Lee con Double.parseDouble el número que empieza en inicio y
+         * termina en la posición actual. */
+        private double lento(long inicio) {
+            byte[] bytes = new byte[(int)(posicion - inicio)];
+            for (int i = 0; i < bytes.length; i++)
+                bytes[i] = byteEn(inicio + i);
+            try {
+                return Double.parseDouble(new String(bytes, "US-ASCII"));
+            } catch (NumberFormatException | IOException e) {
+                throw error();
+            }
+        }
+
+        /* Lee los renglones que empiezan antes de fin, agregando sus aristas
+         * al bloque. */
+        public void lee(long fin, Bloque bloque) {
+            while (posicion < fin) {
+                espacios();
+                byte c = actual();
+                if (c == '\n' || c == '#' || c == '%') {
+                    renglon();
+                    continue;
+                }
+                int a = entero();
+                if (actual() != ' ' && actual() != '\t')
+                    throw error();
+                espacios();
+                int b = entero();
+                espacios();
+                double peso = 1;
+                if (actual() != '\n') {
+                    peso = real();
+                    espacios();
+                    if (actual() != '\n')
+                        throw error();
+                }
+                if (!(peso > 0))
+                    throw error();
+                bloque.agrega(a, b, peso);
+                renglon();
+            }
+        }
+    }
+
+    /* El grupo de hilos. */
+    private ForkJoinPool grupo;
+    /* Los segmentos del archivo actual. */
+    private MappedByteBuffer[] segmentos;
+    /* El tamaño del archivo actual. */
+    private long tamano;
+
+    /**
+     * Construye un cargador que usa el grupo común de hilos.
+     */
+    public CargadorAristas() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Construye un cargador.
+     * @param grupo el grupo de hilos donde se leerán los archivos.
+     * @throws IllegalArgumentException si el grupo es <code>null</code>.
+     */
+    public CargadorAristas(ForkJoinPool grupo) {
+        if (grupo == null)
+            throw new IllegalArgumentException("Grupo inválido");
+        this.grupo = grupo;
+    }
+
+    /* Regresa el byte del archivo en la posición recibida. */
+    private byte byteEn(long posicion) {
+        return segmentos[(int)(posicion >>> BITS_SEGMENTO)]
+            .get((int)(posicion & (SEGMENTO - 1)));
+    }
+
+    /**
+     * Carga una gráfica compacta de un archivo de aristas. Los elementos de la
+     * gráfica son los enteros que aparecen en el archivo, y sus índices siguen
+     * el orden de los enteros.
+     * @param ruta la ruta del archivo.
+     * @param formato el formato del archivo.
+     * @param sinRepetidas si se eliminan las aristas repetidas.
+     * @return la gráfica compacta del archivo.
+     * @throws IOException si ocurre un error al leer, o si el archivo no
+     *         tiene el formato recibido.
+     * @throws IllegalArgumentException si el formato es <code>null</code>.
+     */
+    public synchronized GraficaCompacta<Integer>
+    carga(String ruta, FormatoAristas formato, boolean sinRepetidas)
+        throws IOException {
+        if (formato == null)
+            throw new IllegalArgumentException("Formato inválido");
+        try (FileChannel canal = FileChannel.open(Paths.get(ruta),
+                                                  StandardOpenOption.READ)) {
+            tamano = canal.size();
+            segmentos = new MappedByteBuffer[
+                (int)((tamano + SEGMENTO - 1) >>> BITS_SEGMENTO)];
+            for (int i = 0; i < segmentos.length; i++) {
+                long inicio = i * SEGMENTO;
+                segmentos[i] = canal.map(FileChannel.MapMode.READ_ONLY, inicio,
+                                         Math.min(SEGMENTO, tamano - inicio));
+            }
+            Bloque[] bloques = lee(formato);
+            segmentos = null;
+            return construye(bloques, sinRepetidas);
+        } catch (UncheckedIOException uioe) {
+            Throwable t = uioe;
+            while (!(t instanceof IOException))
+                t = t.getCause();
+            throw (IOException)t;
+        } finally {
+            segmentos = null;
+        }
+    }
+
+    /**
+     * Carga una gráfica de un archivo de aristas. La gráfica se construye a
+     * partir de la gráfica compacta que regresa {@link #carga}, sin las
+     * verificaciones de {@link Grafica#agrega} y {@link Grafica#conecta}.
+     * @param ruta la ruta del archivo.
+     * @param formato el formato del archivo.
+     * @param sinRepetidas si se eliminan las aristas repetidas.
+     * @return la gráfica del archivo.
+     * @throws IOException si ocurre un error al leer, o si el archivo no
+     *         tiene el formato recibido.
+     * @throws IllegalArgumentException si el formato es <code>null</code>.
+     */
+    public Grafica<Integer> cargaGrafica(String ruta, FormatoAristas formato,
+                                         boolean sinRepetidas)
+        throws IOException {
+        Grafica<Integer> grafica = new Grafica<Integer>();
+        grafica.agregaCompacta(carga(ruta, formato, sinRepetidas));
+        return grafica;
+    }
+
+    /* Lee en paralelo los bloques del archivo. */
+    private Bloque[] lee(FormatoAristas formato) throws IOException {
+        if (formato == FormatoAristas.BINARIO && tamano % REGISTRO != 0)
+            throw new IOException("Tamaño inválido: " + tamano);
+        Bloque[] bloques = new Bloque[(int)((tamano + BLOQUE - 1) / BLOQUE)];
+        grupo.invoke(new Rango(0, bloques.length, 1, i -> {
+                    long ini = (long)i * BLOQUE;
+                    long fin = Math.min(ini + BLOQUE, tamano);
+                    if (formato == FormatoAristas.BINARIO) {
+                        bloques[i] = binario(ini, fin);
+                        return;
+                    }
+                    bloques[i] = new Bloque(BLOQUE / 16);
+                    Lector lector = new Lector(ini);
+                    if (i > 0 && byteEn(ini - 1) != '\n')
+                        lector.renglon();
+                    lector.lee(fin, bloques[i]);
+                }));
+        return bloques;
+    }
+
+    /* Lee los registros binarios en [ini, fin). Los segmentos miden un
+     * múltiplo del tamaño de los registros, así que ningún registro queda
+     * partido entre dos segmentos. */
+    private Bloque binario(long ini, long fin) {
+        Bloque bloque = new Bloque((int)((fin - ini) / REGISTRO));
+        for (long p = ini; p < fin; p += REGISTRO) {
+            MappedByteBuffer segmento = segmentos[(int)(p >>> BITS_SEGMENTO)];
+            int q = (int)(p & (SEGMENTO - 1));
+            double peso = segmento.getDouble(q + 8);
+            if (!(peso > 0))
+                throw new UncheckedIOException(
+                    new IOException("Arista inválida en el byte " + p));
+            bloque.agrega(segmento.getInt(q), segmento.getInt(q + 4), peso);
+        }
+        return bloque;
+    }
+
+    /* Construye la gráfica compacta con las aristas de los bloques. */
+    private GraficaCompacta<Integer> construye(Bloque[] bloques,
+                                               boolean sinRepetidas)
+        throws IOException {
+        long leidas = 0;
+        long minimo = Integer.MAX_VALUE, maximo = Integer.MIN_VALUE;
+        for (Bloque bloque : bloques) {
+            leidas += bloque.aristas;
+            minimo = Math.min(minimo, bloque.minimo);
+            maximo = Math.max(maximo, bloque.maximo);
+        }
+        Integer[] elementos = indices(bloques, leidas, minimo, maximo);
+        int n = elementos.length;
+        int partes = Math.max(1, Math.min(grupo.getParallelism(),
+                                          bloques.length));
+        int[] limites = new int[partes + 1];
+        for (int k = 0; k <= partes; k++)
+            limites[k] = (int)((long)k * bloques.length / partes);
+        /* Cada parte cuenta los grados de sus aristas en su histograma. */
+        int[][] posiciones = new int[partes][];
+        grupo.invoke(new Rango(0, partes, 1, k -> {
+                    int[] grados = new int[n];
+                    for (int i = limites[k]; i < limites[k + 1]; i++) {
+                        Bloque b = bloques[i];
+                        for (int j = 0; j < b.aristas; j++) {
+                            int u = b.origenes[j], v = b.destinos[j];
+                            if (u == v)
+                                continue;
+                            grados[u]++;
+                            grados[v]++;
+                        }
+                    }
+                    posiciones[k] = grados;
+                }));
+        int[] grados = new int[n];
+        grupo.invoke(new Rango(0, n, v -> {
+                    int g = 0;
+                    for (int k = 0; k < partes; k++)
+                        g += posiciones[k][v];
+                    grados[v] = g;
+                }));
+        int[] desplazamientos = new int[n + 1];
+        long total = 0;
+        for (int v = 0; v < n; v++) {
+            desplazamientos[v] = (int)total;
+            total += grados[v];
+            if (total > Integer.MAX_VALUE - 8)
+                throw new IOException("Demasiadas aristas");
+        }
+        desplazamientos[n] = (int)total;
+        /* Las sumas acumuladas de los histogramas son las posiciones donde
+         * cada parte empieza a escribir los vecinos de cada vértice. */
+        grupo.invoke(new Rango(0, n, v -> {
+                    int p = desplazamientos[v];
+                    for (int k = 0; k < partes; k++) {
+                        int g = posiciones[k][v];
+                        posiciones[k][v] = p;
+                        p += g;
+                    }
+                }));
+        int[] destinos = new int[(int)total];
+        double[] pesos = new double[(int)total];
+        grupo.invoke(new Rango(0, partes, 1, k -> {
+                    int[] p = posiciones[k];
+                    for (int i = limites[k]; i < limites[k + 1]; i++) {
+                        Bloque b = bloques[i];
+                        for (int j = 0; j < b.aristas; j++) {
+                            int u = b.origenes[j], v = b.destinos[j];
+                            if (u == v)
+                                continue;
+                            destinos[p[u]] = v;
+                            pesos[p[u]++] = b.pesos[j];
+                            destinos[p[v]] = u;
+                            pesos[p[v]++] = b.pesos[j];
+                        }
+                    }
+                }));
+        Arrays.fill(bloques, null);
+        Arrays.fill(posiciones, null);
+        int[] nuevosGrados = new int[n];
+        grupo.invoke(new Rango(0, n, v -> {
+                    GraficaCompacta.ordenaVecinos(destinos, pesos,
+                                                  desplazamientos[v],
+                                                  desplazamientos[v + 1]);
+                    nuevosGrados[v] = sinRepetidas ?
+                        quitaRepetidas(destinos, pesos, desplazamientos[v],
+                                       desplazamientos[v + 1]) :
+                        desplazamientos[v + 1] - desplazamientos[v];
+                }));
+        if (!sinRepetidas)
+            return new GraficaCompacta<Integer>(elementos, desplazamientos,
+                                                destinos, pesos);
+        int[] compactos = new int[n + 1];
+        for (int v = 0; v < n; v++)
+            compactos[v + 1] = compactos[v] + nuevosGrados[v];
+        if (compactos[n] == total)
+            return new GraficaCompacta<Integer>(elementos, desplazamientos,
+                                                destinos, pesos);
+        int[] nuevosDestinos = new int[compactos[n]];
+        double[] nuevosPesos = new double[compactos[n]];
+        grupo.invoke(new Rango(0, n, v -> {
+                    System.arraycopy(destinos, desplazamientos[v],
+                                     nuevosDestinos, compactos[v],
+                                     nuevosGrados[v]);
+                    System.arraycopy(pesos, desplazamientos[v],
+                                     nuevosPesos, compactos[v],
+                                     nuevosGrados[v]);
+                }));
+        return new GraficaCompacta<Integer>(elementos, compactos,
+                                            nuevosDestinos, nuevosPesos);
+    }
+
+    /* Cambia los enteros de los bloques por índices consecutivos en orden
+     * creciente, y regresa los enteros por índice. Las aristas leídas sólo
+     * deciden si conviene un arreglo directo. */
+    private Integer[] indices(Bloque[] bloques, long leidas, long minimo,
+                              long maximo) {
+        if (leidas == 0)
+            return new Integer[0];
+        long rango = maximo - minimo + 1;
+        int[] mapa;
+        Integer[] elementos;
+        if (rango <= 2 * leidas + HOLGURA) {
+            int[] directo = new int[(int)rango];
+            int base = (int)minimo;
+            grupo.invoke(new Rango(0, bloques.length, 1, i -> {
+                        Bloque b = bloques[i];
+                        for (int j = 0; j < b.aristas; j++) {
+                            directo[b.origenes[j] - base] = 1;
+                            directo[b.destinos[j] - base] = 1;
+                        }
+                    }));
+            int n = 0;
+            for (int r = 0; r < directo.length; r++)
+                if (directo[r] != 0)
+                    n++;
+            elementos = new Integer[n];
+            n = 0;
+            for (int r = 0; r < directo.length; r++)
+                if (directo[r] != 0) {
+                    elementos[n] = base + r;
+                    directo[r] = n++;
+                }
+            grupo.invoke(new Rango(0, bloques.length, 1, i -> {
+                        Bloque b = bloques[i];
+                        for (int j = 0; j < b.aristas; j++) {
+                            b.origenes[j] = directo[b.origenes[j] - base];
+                            b.destinos[j] = directo[b.destinos[j] - base];
+                        }
+                    }));
+            return elementos;
+        }
+        int[] inicios = new int[bloques.length + 1];
+        for (int i = 0; i < bloques.length; i++)
+            inicios[i + 1] = inicios[i] + 2 * bloques[i].aristas;
+        int[] todos = new int[inicios[bloques.length]];
+        grupo.invoke(new Rango(0, bloques.length, 1, i -> {
+                    Bloque b = bloques[i];
+                    System.arraycopy(b.origenes, 0, todos, inicios[i],
+                                     b.aristas);
+                    System.arraycopy(b.destinos, 0, todos,
+                                     inicios[i] + b.aristas, b.aristas);
+                }));
+        Arrays.parallelSort(todos);
+        int n = 0;
+        for (int i = 0; i < todos.length; i++)
+            if (i == 0 || todos[i] != todos[i - 1])
+                todos[n++] = todos[i];
+        mapa = Arrays.copyOf(todos, n);
+        elementos = new Integer[n];
+        for (int i = 0; i < n; i++)
+            elementos[i] = mapa[i];
+        grupo.invoke(new Rango(0, bloques.length, 1, i -> {
+                    Bloque b = bloques[i];
+                    for (int j = 0; j < b.aristas; j++) {
+                        b.origenes[j] = Arrays.binarySearch(mapa,
+                                                            b.origenes[j]);
+                        b.destinos[j] = Arrays.binarySearch(mapa,
+                                                            b.destinos[j]);
+                    }
+                }));
+        return elementos;
+    }
+
+    /* Deja al principio de las posiciones ordenadas [ini, fin) un destino de
+     * cada uno, con el menor de sus pesos, y regresa cuántos quedan. */
+    private static int quitaRepetidas(int[] destinos, double[] pesos, int ini,
+                                      int fin) {
+        if (ini == fin)
+            return 0;
+        int q = ini;
+        for (int i = ini + 1; i < fin; i++) {
+            if (destinos[i] == destinos[q]) {
+                pesos[q] = Math.min(pesos[q], pesos[i]);
+                continue;
+            }
+            q++;
+            destinos[q] = destinos[i];
+            pesos[q] = pesos[i];
+        }
+        return q - ini + 1;
+    }
+}
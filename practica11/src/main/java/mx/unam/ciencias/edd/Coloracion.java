@@ -0,0 +1,364 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * <p>Clase para coloraciones paralelas de gráficas. Una coloración le asigna a
+ * cada vértice un color, que es un entero no negativo, de manera que vecinos
+ * tengan colores distintos. Los colores se regresan en un arreglo indexado
+ * por {@link GraficaCompacta#indice}; a diferencia de {@link Color}, que sólo
+ * sirve para marcar recorridos, no hay un límite en el número de colores.</p>
+ *
+ * <p>Las dos coloraciones son glotonas: cada vértice recibe el menor color que
+ * no tenga un vecino. El orden en que se colorean los vértices está dado por
+ * un {@link OrdenColoracion}. Jones-Plassmann colorea a un vértice en cuanto
+ * todos sus vecinos anteriores en el orden tienen color, por lo que regresa
+ * exactamente la coloración glotona secuencial. La coloración especulativa
+ * colorea en paralelo sin esperar a nadie, y después recolorea en rondas a
+ * los vértices que quedaron del mismo color que un vecino anterior.</p>
+ */
+public class Coloracion<T> {
+
+    /* Número de vértices a partir del cual una tarea se divide. */
+    private static final int UMBRAL = 1024;
+
+    /* Clase interna privada para las tareas de Jones-Plassmann. Cada tarea
+     * empieza con las raíces de un rango de vértices, o con una pila de
+     * vértices listos que le dejó otra tarea, y colorea a cada vecino
+     * posterior en el orden en cuanto queda listo. Si su pila crece demasiado,
+     * le deja la mitad a una tarea nueva. */
+    private class JonesPlassmann extends RecursiveAction {
+
+        /* Versión de la forma serializada. */
+        private static final long serialVersionUID = 1L;
+
+        /* El inicio del rango. */
+        private int ini;
+        /* El fin del rango. */
+        private int fin;
+        /* Los vértices listos, o null si el rango es de vértices. */
+        private int[] listos;
+
+        /* Construye una tarea para los vértices [ini, fin), o para las
+         * posiciones [ini, fin) de los vértices listos. */
+        public JonesPlassmann(int ini, int fin, int[] listos) {
+            this.ini = ini;
+            this.fin = fin;
+            this.listos = listos;
+        }
+
+        /* Colorea a partir de los vértices de la tarea, dividiéndola si es
+         * grande. */
+        @Override protected void compute() {
+            if (fin - ini > UMBRAL) {
+                int m = (ini + fin) >>> 1;
+                invokeAll(new JonesPlassmann(ini, m, listos),
+                          new JonesPlassmann(m, fin, listos));
+                return;
+            }
+            int[] pila = new int[Math.max(fin - ini, 16)];
+            int tope = 0;
+            for (int i = ini; i < fin; i++) {
+                if (listos != null)
+                    pila[tope++] = listos[i];
+                else if (raices[i])
+                    pila[tope++] = i;
+            }
+            Lista<JonesPlassmann> hijas = new Lista<JonesPlassmann>();
+            int[] marcas = new int[16];
+            while (tope > 0) {
+                if (tope > 2 * UMBRAL) {
+                    int mitad = tope / 2;
+                    JonesPlassmann hija = new JonesPlassmann(
+                        0, mitad, Arrays.copyOfRange(pila, tope - mitad, tope));
+                    hija.fork();
+                    hijas.agrega(hija);
+                    tope -= mitad;
+                }
+                int v = pila[--tope];
+                marcas = marca(v, marcas, true);
+                colores[v] = menorColor(v, marcas);
+                for (int p = grafica.desplazamientos[v];
+                     p < grafica.desplazamientos[v + 1]; p++) {
+                    int w = grafica.destinos[p];
+                    if (rangos[w] < rangos[v] ||
+                        anteriores.decrementAndGet(w) != 0)
+                        continue;
+                    if (tope == pila.length)
+                        pila = Arrays.copyOf(pila, 2 * tope);
+                    pila[tope++] = w;
+                }
+            }
+            for (JonesPlassmann hija : hijas)
+                hija.join();
+        }
+    }
+
+    /* La gráfica. */
+    private GraficaCompacta<T> grafica;
+    /* El grupo de hilos. */
+    private ForkJoinPool grupo;
+    /* La posición de cada vértice en el orden de la coloración actual. */
+    private int[] rangos;
+    /* Los colores de la coloración actual. */
+    private int[] colores;
+    /* Si cada vértice es el primero en el orden entre sus vecinos. */
+    private boolean[] raices;
+    /* Cuántos vecinos anteriores en el orden no tienen color todavía. */
+    private AtomicIntegerArray anteriores;
+
+    /**
+     * Construye una coloración para la gráfica compacta recibida, usando el
+     * grupo común de hilos.
+     * @param grafica la gráfica compacta.
+     */
+    public Coloracion(GraficaCompacta<T> grafica) {
+        this(grafica, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Construye una coloración para la gráfica compacta recibida.
+     * @param grafica la gráfica compacta.
+     * @param grupo el grupo de hilos donde se colorearán los vértices.
+     * @throws IllegalArgumentException si el grupo es <code>null</code>.
+     */
+    public Coloracion(GraficaCompacta<T> grafica, ForkJoinPool grupo) {
+        if (grupo == null)
+            throw new IllegalArgumentException("Grupo inválido");
+        this.grafica = grafica;
+        this.grupo = grupo;
+    }
+
+    /* Regresa el grado del vértice. */
+    private int grado(int v) {
+        return grafica.desplazamientos[v + 1] - grafica.desplazamientos[v];
+    }
+
+    /* Marca en el arreglo de marcas los colores de los vecinos del vértice,
+     * sólo de los anteriores en el orden si así se pide. Sólo los colores
+     * hasta el grado del vértice le pueden estorbar, así que el arreglo crece
+     * hasta el grado más uno si hace falta. Las marcas son el índice del
+     * vértice más uno, así que no hay que limpiarlas. */
+    private int[] marca(int v, int[] marcas, boolean soloAnteriores) {
+        int g = grado(v);
+        if (marcas.length <= g)
+            marcas = Arrays.copyOf(marcas, Math.max(2 * marcas.length, g + 1));
+        for (int p = grafica.desplazamientos[v];
+             p < grafica.desplazamientos[v + 1]; p++) {
+            int w = grafica.destinos[p];
+            if (soloAnteriores && rangos[w] > rangos[v])
+                continue;
+            int c = colores[w];
+            if (c >= 0 && c <= g)
+                marcas[c] = v + 1;
+        }
+        return marcas;
+    }
+
+    /* Regresa el menor color que no está marcado para el vértice. */
+    private static int menorColor(int v, int[] marcas) {
+        int c = 0;
+        while (marcas[c] == v + 1)
+            c++;
+        return c;
+    }
+
+    /* Mezcla los bits de un entero, para desempatar vértices del mismo grado
+     * de forma pseudoaleatoria pero reproducible. */
+    private static int mezcla(int x) {
+        x ^= x >>> 16;
+        x *= 0x85ebca6b;
+        x ^= x >>> 13;
+        x *= 0xc2b2ae35;
+        x ^= x >>> 16;
+        return x;
+    }
+
+    /* Regresa los vértices en el orden recibido. */
+    private int[] ordena(OrdenColoracion orden) {
+        if (orden == null)
+            throw new IllegalArgumentException("Orden inválido");
+        switch (orden) {
+        case GRADO_MAYOR: return gradoMayor();
+        case ULTIMO_MENOR: return ultimoMenor();
+        default: throw new IllegalArgumentException("Orden inválido");
+        }
+    }
+
+    /* Regresa los vértices de mayor a menor grado. Los empates se rompen al
+     * azar, porque con el orden de los índices las mallas y otras gráficas
+     * regulares forman cadenas largas de vértices que se esperan entre sí. */
+    private int[] gradoMayor() {
+        int n = grafica.getElementos();
+        long[] claves = new long[n];
+        int maximo = 0;
+        for (int v = 0; v < n; v++) {
+            claves[v] = ((long)mezcla(v) << 32) | v;
+            maximo = Math.max(maximo, grado(v));
+        }
+        Arrays.parallelSort(claves);
+        int[] inicios = new int[maximo + 2];
+        for (int v = 0; v < n; v++)
+            inicios[maximo - grado(v) + 1]++;
+        for (int g = 1; g < inicios.length; g++)
+            inicios[g] += inicios[g - 1];
+        int[] orden = new int[n];
+        for (long clave : claves) {
+            int v = (int)clave;
+            orden[inicios[maximo - grado(v)]++] = v;
+        }
+        return orden;
+    }
+
+    /* Regresa los vértices en el orden del último menor (Matula y Beck): se
+     * quita repetidamente un vértice de grado mínimo entre los que quedan, y
+     * el orden es el inverso. Los vértices están en cubetas por grado dentro
+     * de un arreglo (Batagelj y Zaversnik), así que toma tiempo O(n + m). Con
+     * este orden la coloración glotona usa a lo más la degeneración de la
+     * gráfica más uno colores. */
+    private int[] ultimoMenor() {
+        int n = grafica.getElementos();
+        int[] grados = new int[n];
+        int maximo = 0;
+        for (int v = 0; v < n; v++) {
+            grados[v] = grado(v);
+            maximo = Math.max(maximo, grados[v]);
+        }
+        int[] inicios = new int[maximo + 1];
+        for (int v = 0; v < n; v++)
+            inicios[grados[v]]++;
+        for (int g = 0, suma = 0; g <= maximo; g++) {
+            int c = inicios[g];
+            inicios[g] = suma;
+            suma += c;
+        }
+        int[] vertices = new int[n];
+        int[] posiciones = new int[n];
+        for (int v = 0; v < n; v++) {
+            posiciones[v] = inicios[grados[v]]++;
+            vertices[posiciones[v]] = v;
+        }
+        for (int g = maximo; g > 0; g--)
+            inicios[g] = inicios[g - 1];
+        inicios[0] = 0;
+        for (int i = 0; i < n; i++) {
+            int v = vertices[i];
+            for (int p = grafica.desplazamientos[v];
+                 p < grafica.desplazamientos[v + 1]; p++) {
+                int u = grafica.destinos[p];
+                if (grados[u] <= grados[v])
+                    continue;
+                int gu = grados[u], pu = posiciones[u];
+                int pw = inicios[gu], w = vertices[pw];
+                if (u != w) {
+                    vertices[pu] = w;
+                    posiciones[w] = pu;
+                    vertices[pw] = u;
+                    posiciones[u] = pw;
+                }
+                inicios[gu]++;
+                grados[u]--;
+            }
+        }
+        int[] orden = new int[n];
+        for (int i = 0; i < n; i++)
+            orden[i] = vertices[n - 1 - i];
+        return orden;
+    }
+
+    /* Calcula los rangos de los vértices en el orden recibido, y limpia los
+     * colores. */
+    private int[] prepara(OrdenColoracion orden) {
+        int[] vertices = ordena(orden);
+        int n = vertices.length;
+        rangos = new int[n];
+        for (int i = 0; i < n; i++)
+            rangos[vertices[i]] = i;
+        colores = new int[n];
+        Arrays.fill(colores, -1);
+        return vertices;
+    }
+
+    /**
+     * Colorea la gráfica con Jones-Plassmann. Cada vértice se colorea en
+     * cuanto sus vecinos anteriores en el orden tienen color, así que el
+     * resultado es el mismo que el de colorear uno por uno en el orden.
+     * @param orden el orden en que se colorean los vértices.
+     * @return el color de cada vértice, indexado por {@link
+     *         GraficaCompacta#indice}.
+     * @throws IllegalArgumentException si el orden es <code>null</code>.
+     */
+    public synchronized int[] jonesPlassmann(OrdenColoracion orden) {
+        prepara(orden);
+        int n = rangos.length;
+        raices = new boolean[n];
+        anteriores = new AtomicIntegerArray(n);
+        grupo.invoke(new Rango(0, n, v -> {
+                    int c = 0;
+                    for (int p = grafica.desplazamientos[v];
+                         p < grafica.desplazamientos[v + 1]; p++)
+                        if (rangos[grafica.destinos[p]] < rangos[v])
+                            c++;
+                    anteriores.set(v, c);
+                    raices[v] = c == 0;
+                }));
+        grupo.invoke(new JonesPlassmann(0, n, null));
+        int[] r = colores;
+        rangos = colores = null;
+        raices = null;
+        anteriores = null;
+        return r;
+    }
+
+    /**
+     * Colorea la gráfica especulativamente. En cada ronda los vértices
+     * pendientes se colorean en paralelo viendo los colores de sus vecinos,
+     * que otros hilos pueden estar cambiando; después quedan pendientes para
+     * la siguiente ronda los que tienen el mismo color que un vecino anterior
+     * en el orden.
+     * @param orden el orden en que se colorean los vértices.
+     * @return el color de cada vértice, indexado por {@link
+     *         GraficaCompacta#indice}.
+     * @throws IllegalArgumentException si el orden es <code>null</code>.
+     */
+    public synchronized int[] especulativa(OrdenColoracion orden) {
+        int[] pendientes = prepara(orden);
+        int m = pendientes.length;
+        boolean[] conflictos = new boolean[m];
+        while (m > 0) {
+            int[] actuales = pendientes;
+            /* Las lecturas y escrituras de colores compiten entre hilos; un
+             * color viejo sólo puede provocar un conflicto, que se detecta
+             * después de terminar la ronda. */
+            grupo.invoke(new Rango(0, m, i -> {
+                        int v = actuales[i];
+                        int[] marcas = marca(v, new int[grado(v) + 1], false);
+                        colores[v] = menorColor(v, marcas);
+                    }));
+            grupo.invoke(new Rango(0, m, i -> {
+                        int v = actuales[i];
+                        conflictos[i] = false;
+                        for (int p = grafica.desplazamientos[v];
+                             p < grafica.desplazamientos[v + 1]; p++) {
+                            int w = grafica.destinos[p];
+                            if (colores[w] == colores[v] &&
+                                rangos[w] < rangos[v]) {
+                                conflictos[i] = true;
+                                break;
+                            }
+                        }
+                    }));
+            int k = 0;
+            for (int i = 0; i < m; i++)
+                if (conflictos[i])
+                    pendientes[k++] = actuales[i];
+            m = k;
+        }
+        int[] r = colores;
+        rangos = colores = null;
+        return r;
+    }
+}
@@ -0,0 +1,499 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Clase para las componentes fuertemente conexas de una gráfica dirigida.
+ * Dos vértices están en la misma componente fuerte si cada uno es alcanzable
+ * desde el otro.</p>
+ *
+ * <p>Las componentes se calculan sobre una copia compacta de la gráfica, con
+ * sus aristas salientes y entrantes en arreglos, de dos maneras. La
+ * secuencial es el algoritmo de Tarjan con pilas explícitas, así que no
+ * desborda la pila de llamadas con cadenas de millones de vértices. La
+ * paralela primero poda los vértices sin aristas entrantes o salientes, y
+ * después usa <em>forward-backward</em>: los vértices alcanzables desde un
+ * pivote y que alcanzan al pivote forman su componente, y el resto se divide
+ * en tres subproblemas independientes: los que sólo alcanza el pivote, los
+ * que sólo lo alcanzan, y los demás. Los dos primeros se resuelven en otras
+ * tareas, y los demás en la misma.</p>
+ *
+ * <p>Las componentes se identifican con enteros de 0 a <i>k</i> − 1 en
+ * orden topológico de la condensación: si hay una arista de la componente
+ * <i>a</i> a la componente <i>b</i>, entonces <i>a</i> &lt; <i>b</i>.</p>
+ */
+public class ComponentesFuertes<T> {
+
+    /* Número de vértices a partir del cual un subproblema se divide en
+     * tareas. */
+    private static final int UMBRAL = 1024;
+
+    /* Clase interna privada para las tareas de forward-backward. Cada tarea
+     * resuelve los vértices de un color, que ninguna otra tarea toca. */
+    private class Divide extends RecursiveAction {
+
+        /* Versión de la forma serializada. */
+        private static final long serialVersionUID = 1L;
+
+        /* Los vértices del subproblema que faltan. */
+        private int[] subproblema;
+        /* El número de vértices que faltan. */
+        private int n;
+        /* El color de los vértices del subproblema. */
+        private int propio;
+        /* La cola del recorrido hacia adelante. */
+        private int[] colaAdelante;
+        /* La cola del recorrido hacia atrás. */
+        private int[] colaAtras;
+        /* Las tareas que dividimos. */
+        private RecursiveAction[] tareas;
+        /* El número de tareas que dividimos. */
+        private int t;
+
+        /* Construye una tarea para los vértices del color. */
+        public Divide(int[] subproblema, int propio) {
+            this.subproblema = subproblema;
+            this.propio = propio;
+            n = subproblema.length;
+            colaAdelante = new int[16];
+            colaAtras = new int[16];
+        }
+
+        /* Separa la componente de un pivote aleatorio, divide en tareas los
+         * vértices que sólo alcanza y los que sólo lo alcanzan, y sigue con
+         * el resto. Los vértices recorridos se quitan del resto en tiempo
+         * proporcional a ellos, así que un subproblema con muchas
+         * componentes pequeñas no se vuelve a revisar completo por cada
+         * pivote. */
+        @Override protected void compute() {
+            for (int i = 0; i < n; i++)
+                posiciones[subproblema[i]] = i;
+            while (n > 0) {
+                int pivote =
+                    subproblema[ThreadLocalRandom.current().nextInt(n)];
+                int adelante = colores.getAndIncrement();
+                int atras = colores.getAndIncrement();
+                int componente = cuenta.getAndIncrement();
+                int a = adelante(pivote, adelante);
+                int b = atras(pivote, adelante, atras, componente);
+                for (int i = 0; i < a; i++)
+                    quita(colaAdelante[i]);
+                for (int i = 0; i < b; i++)
+                    if (color[colaAtras[i]] == atras)
+                        quita(colaAtras[i]);
+                divide(filtra(colaAdelante, a, adelante), adelante);
+                divide(filtra(colaAtras, b, atras), atras);
+            }
+            for (int i = 0; i < t; i++)
+                tareas[i].join();
+        }
+
+        /* Quita un vértice de los que faltan. */
+        private void quita(int v) {
+            int i = posiciones[v];
+            int w = subproblema[--n];
+            subproblema[i] = w;
+            posiciones[w] = i;
+        }
+
+        /* Resuelve un subproblema: si es grande lo manda a otra tarea, y si
+         * es pequeño lo resuelve aquí. */
+        private void divide(int[] vertices, int c) {
+            if (vertices.length == 0)
+                return;
+            Divide tarea = new Divide(vertices, c);
+            if (vertices.length < UMBRAL) {
+                tarea.compute();
+                return;
+            }
+            if (tareas == null)
+                tareas = new RecursiveAction[4];
+            else if (t == tareas.length)
+                tareas = Arrays.copyOf(tareas, 2 * t);
+            tareas[t++] = tarea;
+            tarea.fork();
+        }
+
+        /* Pinta del color a los vértices del color de la tarea alcanzables
+         * desde el pivote; regresa cuántos pintó, que quedan en la cola. */
+        private int adelante(int pivote, int a) {
+            int cabeza = 0, rabo = 0;
+            colaAdelante[rabo++] = pivote;
+            color[pivote] = a;
+            while (cabeza < rabo) {
+                int v = colaAdelante[cabeza++];
+                for (int p = desplazamientos[v];
+                     p < desplazamientos[v + 1]; p++) {
+                    int w = destinos[p];
+                    if (color[w] != propio)
+                        continue;
+                    color[w] = a;
+                    if (rabo == colaAdelante.length)
+                        colaAdelante = Arrays.copyOf(colaAdelante, 2 * rabo);
+                    colaAdelante[rabo++] = w;
+                }
+            }
+            return rabo;
+        }
+
+        /* Recorre hacia atrás desde el pivote los vértices del color de la
+         * tarea o del color adelante. Los del color adelante también alcanzan
+         * al pivote, así que forman su componente y salen de todo
+         * subproblema; los del color de la tarea se pintan del color a.
+         * Regresa cuántos recorrió, que quedan en la cola. */
+        private int atras(int pivote, int adelante, int a, int componente) {
+            int cabeza = 0, rabo = 0;
+            colaAtras[rabo++] = pivote;
+            color[pivote] = -1;
+            componentes[pivote] = componente;
+            while (cabeza < rabo) {
+                int v = colaAtras[cabeza++];
+                for (int p = desplazamientosInversos[v];
+                     p < desplazamientosInversos[v + 1]; p++) {
+                    int w = origenes[p];
+                    if (color[w] == adelante) {
+                        color[w] = -1;
+                        componentes[w] = componente;
+                    } else if (color[w] == propio) {
+                        color[w] = a;
+                    } else {
+                        continue;
+                    }
+                    if (rabo == colaAtras.length)
+                        colaAtras = Arrays.copyOf(colaAtras, 2 * rabo);
+                    colaAtras[rabo++] = w;
+                }
+            }
+            return rabo;
+        }
+    }
+
+    /* Los elementos por índice. */
+    private T[] elementos;
+    /* Los índices de los elementos. */
+    private Diccionario<T, Integer> indices;
+    /* Dónde empiezan las aristas salientes de cada vértice. */
+    private int[] desplazamientos;
+    /* Los destinos de las aristas salientes. */
+    private int[] destinos;
+    /* Dónde empiezan las aristas entrantes de cada vértice. */
+    private int[] desplazamientosInversos;
+    /* Los orígenes de las aristas entrantes. */
+    private int[] origenes;
+    /* La componente de cada vértice. */
+    private int[] componentes;
+    /* El número de componentes. */
+    private int k;
+    /* La condensación, o null si no se ha construido. */
+    private GraficaDirigida<Integer> condensacion;
+    /* El color de cada vértice durante forward-backward; -1 si ya tiene
+     * componente. */
+    private int[] color;
+    /* La posición de cada vértice en el arreglo de su subproblema. */
+    private int[] posiciones;
+    /* El siguiente color libre. */
+    private AtomicInteger colores;
+    /* La siguiente componente libre. */
+    private AtomicInteger cuenta;
+
+    /**
+     * Calcula las componentes fuertes de la gráfica dirigida con el
+     * algoritmo iterativo de Tarjan.
+     * @param grafica la gráfica dirigida.
+     */
+    public ComponentesFuertes(GraficaDirigida<T> grafica) {
+        compacta(grafica);
+        tarjan();
+        ordena();
+    }
+
+    /**
+     * Calcula las componentes fuertes de la gráfica dirigida en paralelo con
+     * poda y forward-backward.
+     * @param grafica la gráfica dirigida.
+     * @param grupo el grupo de hilos donde se dividirán los subproblemas.
+     * @throws IllegalArgumentException si el grupo es <code>null</code>.
+     */
+    public ComponentesFuertes(GraficaDirigida<T> grafica, ForkJoinPool grupo) {
+        if (grupo == null)
+            throw new IllegalArgumentException("Grupo inválido");
+        compacta(grafica);
+        forwardBackward(grupo);
+        ordena();
+    }
+
+    /* Copia la gráfica en arreglos de aristas salientes y entrantes. */
+    private void compacta(GraficaDirigida<T> grafica) {
+        int n = grafica.getElementos();
+        @SuppressWarnings("unchecked") T[] a = (T[])new Object[n];
+        elementos = a;
+        indices = new Diccionario<T, Integer>();
+        int i = 0;
+        for (T elemento : grafica) {
+            elementos[i] = elemento;
+            indices.agrega(elemento, i++);
+        }
+        desplazamientos = new int[n + 1];
+        desplazamientosInversos = new int[n + 1];
+        for (int v = 0; v < n; v++)
+            desplazamientos[v + 1] = desplazamientos[v] +
+                grafica.vertice(elementos[v]).getGrado();
+        destinos = new int[desplazamientos[n]];
+        origenes = new int[desplazamientos[n]];
+        for (int v = 0; v < n; v++) {
+            int p = desplazamientos[v];
+            for (VerticeGrafica<T> w : grafica.vertice(elementos[v]).vecinos()) {
+                destinos[p] = indices.get(w.get());
+                desplazamientosInversos[destinos[p++] + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++)
+            desplazamientosInversos[v + 1] += desplazamientosInversos[v];
+        int[] siguientes = new int[n];
+        for (int v = 0; v < n; v++)
+            siguientes[v] = desplazamientosInversos[v];
+        for (int v = 0; v < n; v++)
+            for (int p = desplazamientos[v]; p < desplazamientos[v + 1]; p++)
+                origenes[siguientes[destinos[p]]++] = v;
+    }
+
+    /* Algoritmo de Tarjan con la pila de llamadas explícita: cada vértice en
+     * la pila de llamadas guarda cuál de sus aristas sigue. */
+    private void tarjan() {
+        int n = elementos.length;
+        componentes = new int[n];
+        int[] orden = new int[n];
+        int[] bajo = new int[n];
+        int[] siguientes = new int[n];
+        int[] llamadas = new int[n];
+        int[] pila = new int[n];
+        boolean[] enPila = new boolean[n];
+        for (int v = 0; v < n; v++)
+            orden[v] = -1;
+        int contador = 0, tope = 0;
+        for (int s = 0; s < n; s++) {
+            if (orden[s] != -1)
+                continue;
+            int h = 0;
+            llamadas[h++] = s;
+            orden[s] = bajo[s] = contador++;
+            siguientes[s] = desplazamientos[s];
+            pila[tope++] = s;
+            enPila[s] = true;
+            while (h > 0) {
+                int v = llamadas[h - 1];
+                if (siguientes[v] < desplazamientos[v + 1]) {
+                    int w = destinos[siguientes[v]++];
+                    if (orden[w] == -1) {
+                        orden[w] = bajo[w] = contador++;
+                        siguientes[w] = desplazamientos[w];
+                        pila[tope++] = w;
+                        enPila[w] = true;
+                        llamadas[h++] = w;
+                    } else if (enPila[w]) {
+                        bajo[v] = Math.min(bajo[v], orden[w]);
+                    }
+                    continue;
+                }
+                h--;
+                if (bajo[v] == orden[v]) {
+                    int w;
+                    do {
+                        w = pila[--tope];
+                        enPila[w] = false;
+                        componentes[w] = k;
+                    } while (w != v);
+                    k++;
+                }
+                if (h > 0) {
+                    int u = llamadas[h - 1];
+                    bajo[u] = Math.min(bajo[u], bajo[v]);
+                }
+            }
+        }
+    }
+
+    /* Poda los vértices sin aristas entrantes o salientes, que son
+     * componentes de un solo vértice, y resuelve el resto con
+     * forward-backward en paralelo. */
+    private void forwardBackward(ForkJoinPool grupo) {
+        int n = elementos.length;
+        componentes = new int[n];
+        color = new int[n];
+        int[] entradas = new int[n], salidas = new int[n];
+        int[] cola = new int[n];
+        int cabeza = 0, rabo = 0;
+        for (int v = 0; v < n; v++) {
+            componentes[v] = -1;
+            salidas[v] = desplazamientos[v + 1] - desplazamientos[v];
+            entradas[v] = desplazamientosInversos[v + 1] -
+                desplazamientosInversos[v];
+            if (salidas[v] == 0 || entradas[v] == 0) {
+                componentes[v] = k++;
+                color[v] = -1;
+                cola[rabo++] = v;
+            }
+        }
+        while (cabeza < rabo) {
+            int v = cola[cabeza++];
+            for (int p = desplazamientos[v]; p < desplazamientos[v + 1]; p++) {
+                int w = destinos[p];
+                if (componentes[w] == -1 && --entradas[w] == 0) {
+                    componentes[w] = k++;
+                    color[w] = -1;
+                    cola[rabo++] = w;
+                }
+            }
+            for (int p = desplazamientosInversos[v];
+                 p < desplazamientosInversos[v + 1]; p++) {
+                int w = origenes[p];
+                if (componentes[w] == -1 && --salidas[w] == 0) {
+                    componentes[w] = k++;
+                    color[w] = -1;
+                    cola[rabo++] = w;
+                }
+            }
+        }
+        int[] resto = new int[n - rabo];
+        int r = 0;
+        for (int v = 0; v < n; v++)
+            if (componentes[v] == -1)
+                resto[r++] = v;
+        posiciones = new int[n];
+        colores = new AtomicInteger(1);
+        cuenta = new AtomicInteger(k);
+        grupo.invoke(new Divide(resto, 0));
+        k = cuenta.get();
+        color = posiciones = null;
+    }
+
+    /* Regresa los primeros n vértices de la cola que tienen el color dado. */
+    private int[] filtra(int[] cola, int n, int c) {
+        int m = 0;
+        for (int i = 0; i < n; i++)
+            if (color[cola[i]] == c)
+                m++;
+        int[] r = new int[m];
+        m = 0;
+        for (int i = 0; i < n; i++)
+            if (color[cola[i]] == c)
+                r[m++] = cola[i];
+        return r;
+    }
+
+    /* Renumera las componentes en orden topológico de la condensación, con
+     * el algoritmo de Kahn sobre las aristas entre componentes. */
+    private void ordena() {
+        int[] desplazamientosC = new int[k + 1];
+        int[] entradas = new int[k];
+        for (int v = 0; v < elementos.length; v++)
+            for (int p = desplazamientos[v]; p < desplazamientos[v + 1]; p++)
+                if (componentes[v] != componentes[destinos[p]]) {
+                    desplazamientosC[componentes[v] + 1]++;
+                    entradas[componentes[destinos[p]]]++;
+                }
+        for (int c = 0; c < k; c++)
+            desplazamientosC[c + 1] += desplazamientosC[c];
+        int[] destinosC = new int[desplazamientosC[k]];
+        int[] siguientes = new int[k];
+        for (int c = 0; c < k; c++)
+            siguientes[c] = desplazamientosC[c];
+        for (int v = 0; v < elementos.length; v++)
+            for (int p = desplazamientos[v]; p < desplazamientos[v + 1]; p++)
+                if (componentes[v] != componentes[destinos[p]])
+                    destinosC[siguientes[componentes[v]]++] =
+                        componentes[destinos[p]];
+        int[] nuevos = new int[k];
+        int[] cola = new int[k];
+        int cabeza = 0, rabo = 0;
+        for (int c = 0; c < k; c++)
+            if (entradas[c] == 0)
+                cola[rabo++] = c;
+        while (cabeza < rabo) {
+            int c = cola[cabeza];
+            nuevos[c] = cabeza++;
+            for (int p = desplazamientosC[c]; p < desplazamientosC[c + 1]; p++)
+                if (--entradas[destinosC[p]] == 0)
+                    cola[rabo++] = destinosC[p];
+        }
+        for (int v = 0; v < elementos.length; v++)
+            componentes[v] = nuevos[componentes[v]];
+    }
+
+    /**
+     * Regresa el número de componentes fuertes.
+     * @return el número de componentes fuertes.
+     */
+    public int getComponentes() {
+        return k;
+    }
+
+    /**
+     * Regresa el índice de un elemento en el arreglo de componentes.
+     * @param elemento el elemento.
+     * @return el índice del elemento.
+     * @throws NoSuchElementException si el elemento no estaba en la gráfica.
+     */
+    public int indice(T elemento) {
+        if (elemento == null || !indices.contiene(elemento))
+            throw new NoSuchElementException("Elemento inválido");
+        return indices.get(elemento);
+    }
+
+    /**
+     * Regresa el elemento con el índice recibido.
+     * @param indice el índice del elemento.
+     * @return el elemento con el índice recibido.
+     * @throws ExcepcionIndiceInvalido si el índice no es válido.
+     */
+    public T elemento(int indice) {
+        if (indice < 0 || indice >= elementos.length)
+            throw new ExcepcionIndiceInvalido("Índice inválido: " + indice);
+        return elementos[indice];
+    }
+
+    /**
+     * Regresa la componente de un elemento.
+     * @param elemento el elemento.
+     * @return la componente del elemento.
+     * @throws NoSuchElementException si el elemento no estaba en la gráfica.
+     */
+    public int componente(T elemento) {
+        return componentes[indice(elemento)];
+    }
+
+    /**
+     * Regresa la componente de cada vértice, indexada por {@link #indice}.
+     * @return un arreglo con la componente de cada vértice.
+     */
+    public int[] getIdentificadores() {
+        return componentes.clone();
+    }
+
+    /**
+     * Regresa la condensación de la gráfica: una gráfica dirigida acíclica
+     * con un vértice por componente y una arista de <i>a</i> a <i>b</i> si
+     * alguna arista va de la componente <i>a</i> a la componente <i>b</i>.
+     * @return la condensación de la gráfica.
+     */
+    public GraficaDirigida<Integer> getCondensacion() {
+        if (condensacion != null)
+            return condensacion;
+        condensacion = new GraficaDirigida<Integer>();
+        for (int c = 0; c < k; c++)
+            condensacion.agrega(c);
+        for (int v = 0; v < elementos.length; v++) {
+            for (int p = desplazamientos[v]; p < desplazamientos[v + 1]; p++) {
+                int a = componentes[v], b = componentes[destinos[p]];
+                if (a != b && !condensacion.sonVecinos(a, b))
+                    condensacion.conecta(a, b);
+            }
+        }
+        return condensacion;
+    }
+}
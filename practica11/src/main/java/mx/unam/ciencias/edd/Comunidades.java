@@ -0,0 +1,444 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * <p>Clase para detectar comunidades en gráficas compactas, usando los pesos
+ * de las aristas. Una partición en comunidades se regresa como un arreglo
+ * indexado por {@link GraficaCompacta#indice}, con las comunidades numeradas
+ * de 0 en adelante sin huecos, y se califica con su modularidad: la fracción
+ * del peso de las aristas que queda dentro de las comunidades, menos la
+ * fracción esperada si las aristas se repartieran al azar respetando los
+ * grados.</p>
+ *
+ * <p>La propagación de etiquetas es asíncrona y paralela: en cada iteración
+ * los vértices, en un orden al azar repartido entre los hilos de un {@link
+ * ForkJoinPool}, adoptan la etiqueta de mayor peso entre sus vecinos, viendo
+ * las etiquetas que otros hilos acaban de cambiar. Louvain optimiza la
+ * modularidad por niveles: mueve cada vértice a la comunidad vecina que más
+ * la aumenta hasta que nadie se mueve, contrae cada comunidad en un solo
+ * vértice y repite sobre la gráfica contraída mientras haya cambios.</p>
+ */
+public class Comunidades<T> {
+
+    /** El número máximo de iteraciones por nivel. */
+    public static final int MAXIMO_ITERACIONES = 100;
+    /** La mejora mínima de modularidad para seguir moviendo vértices en un
+     *  nivel de Louvain. */
+    public static final double TOLERANCIA = 1e-6;
+
+    /* Número de vértices a partir del cual una tarea se divide. */
+    private static final int UMBRAL = 1024;
+
+    /* Clase interna privada para sumar pesos por comunidad con
+     * direccionamiento abierto. Las llaves usadas se recuerdan para poder
+     * limpiar la tabla en tiempo proporcional a ellas. */
+    private static class Acumulador {
+
+        /* Las llaves de la tabla, o -1. */
+        private int[] llaves;
+        /* Los pesos acumulados de las llaves. */
+        private double[] valores;
+        /* Las posiciones usadas, en orden de inserción. */
+        private int[] usadas;
+        /* El número de posiciones usadas. */
+        private int elementos;
+
+        /* Construye un acumulador vacío. */
+        public Acumulador() {
+            llaves = new int[16];
+            Arrays.fill(llaves, -1);
+            valores = new double[16];
+            usadas = new int[16];
+        }
+
+        /* Limpia el acumulador, y lo agranda si no le caben n llaves. */
+        public void prepara(int n) {
+            for (int i = 0; i < elementos; i++)
+                llaves[usadas[i]] = -1;
+            elementos = 0;
+            if (2 * n <= llaves.length)
+                return;
+            int c = Integer.highestOneBit(2 * n - 1) << 1;
+            llaves = new int[c];
+            Arrays.fill(llaves, -1);
+            valores = new double[c];
+            usadas = new int[c];
+        }
+
+        /* Regresa la posición de la llave, o la posición vacía donde iría. */
+        private int posicion(int llave) {
+            int mascara = llaves.length - 1;
+            int i = mezcla(llave) & mascara;
+            while (llaves[i] != -1 && llaves[i] != llave)
+                i = (i + 1) & mascara;
+            return i;
+        }
+
+        /* Le suma el peso a la llave. */
+        public void suma(int llave, double peso) {
+            int i = posicion(llave);
+            if (llaves[i] == -1) {
+                llaves[i] = llave;
+                valores[i] = 0;
+                usadas[elementos++] = i;
+            }
+            valores[i] += peso;
+        }
+
+        /* Regresa el peso de la llave, o 0 si no está. */
+        public double get(int llave) {
+            int i = posicion(llave);
+            return (llaves[i] == -1) ? 0 : valores[i];
+        }
+
+        /* Regresa el número de llaves. */
+        public int getElementos() {
+            return elementos;
+        }
+
+        /* Regresa la i-ésima llave insertada. */
+        public int llave(int i) {
+            return llaves[usadas[i]];
+        }
+
+        /* Regresa el peso de la i-ésima llave insertada. */
+        public double valor(int i) {
+            return valores[usadas[i]];
+        }
+    }
+
+    /* Clase interna privada para las tareas de una iteración de propagación
+     * de etiquetas, que regresan cuántos vértices cambiaron de etiqueta. */
+    private class Propaga extends RecursiveTask<Integer> {
+
+        /* Versión de la forma serializada. */
+        private static final long serialVersionUID = 1L;
+
+        /* El inicio del rango en el orden. */
+        private int ini;
+        /* El fin del rango en el orden. */
+        private int fin;
+
+        /* Construye una tarea para las posiciones [ini, fin) del orden. */
+        public Propaga(int ini, int fin) {
+            this.ini = ini;
+            this.fin = fin;
+        }
+
+        /* Propaga las etiquetas del rango, dividiéndolo si es grande. Las
+         * lecturas y escrituras de etiquetas compiten entre hilos; una
+         * etiqueta vieja sólo retrasa la convergencia. */
+        @Override protected Integer compute() {
+            if (fin - ini > UMBRAL) {
+                int m = (ini + fin) >>> 1;
+                Propaga izquierda = new Propaga(ini, m);
+                izquierda.fork();
+                int r = new Propaga(m, fin).compute();
+                return r + izquierda.join();
+            }
+            Acumulador acumulador = new Acumulador();
+            int cambios = 0;
+            for (int i = ini; i < fin; i++) {
+                int v = orden[i];
+                int primera = grafica.desplazamientos[v];
+                int ultima = grafica.desplazamientos[v + 1];
+                if (primera == ultima)
+                    continue;
+                acumulador.prepara(ultima - primera);
+                for (int p = primera; p < ultima; p++)
+                    acumulador.suma(etiquetas[grafica.destinos[p]],
+                                    grafica.pesos[p]);
+                int actual = etiquetas[v];
+                int mejor = actual;
+                double peso = acumulador.get(actual);
+                for (int j = 0; j < acumulador.getElementos(); j++) {
+                    int e = acumulador.llave(j);
+                    double w = acumulador.valor(j);
+                    if (w > peso ||
+                        (w == peso && mejor != actual &&
+                         mezcla(e ^ ronda) > mezcla(mejor ^ ronda))) {
+                        mejor = e;
+                        peso = w;
+                    }
+                }
+                if (mejor != actual) {
+                    etiquetas[v] = mejor;
+                    cambios++;
+                }
+            }
+            return cambios;
+        }
+    }
+
+    /* La gráfica. */
+    private GraficaCompacta<T> grafica;
+    /* El grupo de hilos. */
+    private ForkJoinPool grupo;
+    /* Las etiquetas de la propagación actual. */
+    private int[] etiquetas;
+    /* El orden de la propagación actual. */
+    private int[] orden;
+    /* La iteración de la propagación actual, para desempatar. */
+    private int ronda;
+
+    /**
+     * Construye un detector de comunidades para la gráfica compacta recibida,
+     * usando el grupo común de hilos.
+     * @param grafica la gráfica compacta.
+     */
+    public Comunidades(GraficaCompacta<T> grafica) {
+        this(grafica, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Construye un detector de comunidades para la gráfica compacta recibida.
+     * @param grafica la gráfica compacta.
+     * @param grupo el grupo de hilos donde se propagarán las etiquetas.
+     * @throws IllegalArgumentException si el grupo es <code>null</code>.
+     */
+    public Comunidades(GraficaCompacta<T> grafica, ForkJoinPool grupo) {
+        if (grupo == null)
+            throw new IllegalArgumentException("Grupo inválido");
+        this.grafica = grafica;
+        this.grupo = grupo;
+    }
+
+    /* Mezcla los bits de un entero. */
+    private static int mezcla(int x) {
+        x ^= x >>> 16;
+        x *= 0x85ebca6b;
+        x ^= x >>> 13;
+        x *= 0xc2b2ae35;
+        x ^= x >>> 16;
+        return x;
+    }
+
+    /* Regresa una permutación al azar de los enteros en [0, n). */
+    private static int[] permutacion(int n, Random random) {
+        int[] r = new int[n];
+        for (int i = 0; i < n; i++)
+            r[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = r[i];
+            r[i] = r[j];
+            r[j] = t;
+        }
+        return r;
+    }
+
+    /* Renumera las comunidades de 0 en adelante en orden de aparición, y
+     * regresa cuántas hay. */
+    private static int renumera(int[] comunidades) {
+        int[] nuevas = new int[comunidades.length];
+        Arrays.fill(nuevas, -1);
+        int k = 0;
+        for (int v = 0; v < comunidades.length; v++) {
+            int c = comunidades[v];
+            if (nuevas[c] == -1)
+                nuevas[c] = k++;
+            comunidades[v] = nuevas[c];
+        }
+        return k;
+    }
+
+    /**
+     * Detecta comunidades con propagación asíncrona de etiquetas. Cada vértice
+     * empieza con su propia etiqueta, y en cada iteración adopta la de mayor
+     * peso entre sus vecinos, conservando la suya en un empate; las
+     * iteraciones terminan cuando nadie cambia, o al llegar a {@link
+     * #MAXIMO_ITERACIONES}.
+     * @param random el generador de números aleatorios para el orden.
+     * @return la comunidad de cada vértice, indexada por {@link
+     *         GraficaCompacta#indice}.
+     */
+    public synchronized int[] propagacion(Random random) {
+        int n = grafica.getElementos();
+        etiquetas = new int[n];
+        for (int v = 0; v < n; v++)
+            etiquetas[v] = v;
+        orden = permutacion(n, random);
+        ronda = random.nextInt();
+        for (int i = 0; i < MAXIMO_ITERACIONES; i++, ronda++)
+            if (grupo.invoke(new Propaga(0, n)) == 0)
+                break;
+        int[] r = etiquetas;
+        etiquetas = orden = null;
+        renumera(r);
+        return r;
+    }
+
+    /**
+     * Detecta comunidades con el algoritmo de Louvain.
+     * @param random el generador de números aleatorios para el orden en que
+     *        se mueven los vértices.
+     * @return la comunidad de cada vértice, indexada por {@link
+     *         GraficaCompacta#indice}.
+     */
+    public synchronized int[] louvain(Random random) {
+        int n = grafica.getElementos();
+        int[] desplazamientos = grafica.desplazamientos;
+        int[] destinos = grafica.destinos;
+        double[] pesos = grafica.pesos;
+        double[] lazos = new double[n];
+        int[] comunidades = new int[n];
+        for (int v = 0; v < n; v++)
+            comunidades[v] = v;
+        Acumulador acumulador = new Acumulador();
+        while (true) {
+            int k = lazos.length;
+            int[] nodos = mueve(desplazamientos, destinos, pesos, lazos,
+                                acumulador, random);
+            int c = renumera(nodos);
+            if (c == k)
+                break;
+            for (int v = 0; v < n; v++)
+                comunidades[v] = nodos[comunidades[v]];
+            /* Contrae cada comunidad en un vértice: las aristas internas se
+             * vuelven lazos y las demás se suman por comunidad vecina. */
+            int[] inicios = new int[c + 1];
+            for (int i = 0; i < k; i++)
+                inicios[nodos[i] + 1]++;
+            for (int j = 0; j < c; j++)
+                inicios[j + 1] += inicios[j];
+            int[] miembros = new int[k];
+            int[] posiciones = inicios.clone();
+            for (int i = 0; i < k; i++)
+                miembros[posiciones[nodos[i]]++] = i;
+            int[] nuevosDesplazamientos = new int[c + 1];
+            int[] nuevosDestinos = new int[destinos.length];
+            double[] nuevosPesos = new double[destinos.length];
+            double[] nuevosLazos = new double[c];
+            int q = 0;
+            for (int j = 0; j < c; j++) {
+                nuevosDesplazamientos[j] = q;
+                acumulador.prepara(0);
+                for (int x = inicios[j]; x < inicios[j + 1]; x++) {
+                    int i = miembros[x];
+                    nuevosLazos[j] += lazos[i];
+                    for (int p = desplazamientos[i];
+                         p < desplazamientos[i + 1]; p++) {
+                        int d = nodos[destinos[p]];
+                        if (d == j)
+                            nuevosLazos[j] += pesos[p];
+                        else
+                            acumulador.suma(d, pesos[p]);
+                    }
+                }
+                for (int y = 0; y < acumulador.getElementos(); y++) {
+                    nuevosDestinos[q] = acumulador.llave(y);
+                    nuevosPesos[q++] = acumulador.valor(y);
+                }
+            }
+            nuevosDesplazamientos[c] = q;
+            desplazamientos = nuevosDesplazamientos;
+            destinos = Arrays.copyOf(nuevosDestinos, q);
+            pesos = Arrays.copyOf(nuevosPesos, q);
+            lazos = nuevosLazos;
+        }
+        return comunidades;
+    }
+
+    /* Mueve cada vértice de la gráfica de un nivel a la comunidad vecina que
+     * más aumenta la modularidad, hasta que una pasada completa la aumenta
+     * menos que la tolerancia, y regresa la comunidad de cada vértice. Quitar
+     * al vértice i de su comunidad y meterlo a la comunidad c cambia la
+     * modularidad en 2 (k(i, c) - tot(c) k(i) / 2m) / 2m, donde k(i, c) es el
+     * peso de i a c, tot(c) la suma de los grados de c sin i, k(i) el grado
+     * de i y 2m la suma de todos los grados. */
+    private static int[] mueve(int[] desplazamientos, int[] destinos,
+                               double[] pesos, double[] lazos,
+                               Acumulador acumulador, Random random) {
+        int k = lazos.length;
+        double[] grados = new double[k];
+        double total = 0;
+        for (int i = 0; i < k; i++) {
+            grados[i] = lazos[i];
+            for (int p = desplazamientos[i]; p < desplazamientos[i + 1]; p++)
+                grados[i] += pesos[p];
+            total += grados[i];
+        }
+        int[] comunidades = new int[k];
+        for (int i = 0; i < k; i++)
+            comunidades[i] = i;
+        if (total == 0)
+            return comunidades;
+        double[] totales = grados.clone();
+        int[] orden = permutacion(k, random);
+        for (int iteracion = 0; iteracion < MAXIMO_ITERACIONES; iteracion++) {
+            double mejora = 0;
+            for (int i : orden) {
+                int actual = comunidades[i];
+                acumulador.prepara(desplazamientos[i + 1] -
+                                   desplazamientos[i]);
+                for (int p = desplazamientos[i]; p < desplazamientos[i + 1];
+                     p++)
+                    acumulador.suma(comunidades[destinos[p]], pesos[p]);
+                totales[actual] -= grados[i];
+                double factor = grados[i] / total;
+                int mejor = actual;
+                double permanece = acumulador.get(actual) -
+                    totales[actual] * factor;
+                double ganancia = permanece;
+                for (int j = 0; j < acumulador.getElementos(); j++) {
+                    int c = acumulador.llave(j);
+                    double g = acumulador.valor(j) - totales[c] * factor;
+                    if (g > ganancia + 1e-12) {
+                        mejor = c;
+                        ganancia = g;
+                    }
+                }
+                totales[mejor] += grados[i];
+                comunidades[i] = mejor;
+                mejora += 2 * (ganancia - permanece) / total;
+            }
+            if (mejora < TOLERANCIA)
+                break;
+        }
+        return comunidades;
+    }
+
+    /**
+     * Calcula la modularidad de una partición de la gráfica en comunidades.
+     * @param comunidades la comunidad de cada vértice, indexada por {@link
+     *        GraficaCompacta#indice}, entre 0 y el número de vértices menos
+     *        uno.
+     * @return la modularidad de la partición, o 0 si la gráfica no tiene
+     *         aristas.
+     * @throws IllegalArgumentException si la partición no tiene una
+     *         comunidad válida para cada vértice.
+     */
+    public double modularidad(int[] comunidades) {
+        int n = grafica.getElementos();
+        if (comunidades == null || comunidades.length != n)
+            throw new IllegalArgumentException("Comunidades inválidas");
+        double[] internos = new double[n];
+        double[] totales = new double[n];
+        for (int v = 0; v < n; v++) {
+            int c = comunidades[v];
+            if (c < 0 || c >= n)
+                throw new IllegalArgumentException("Comunidad inválida");
+            for (int p = grafica.desplazamientos[v];
+                 p < grafica.desplazamientos[v + 1]; p++) {
+                int d = comunidades[grafica.destinos[p]];
+                if (d == c)
+                    internos[c] += grafica.pesos[p];
+                totales[c] += grafica.pesos[p];
+            }
+        }
+        double total = 0;
+        for (int c = 0; c < n; c++)
+            total += totales[c];
+        if (total == 0)
+            return 0;
+        double q = 0;
+        for (int c = 0; c < n; c++)
+            q += internos[c] / total - (totales[c] / total) *
+                (totales[c] / total);
+        return q;
+    }
+}
@@ -0,0 +1,151 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para conjuntos disjuntos (<em>union-find</em>). Cada conjunto es
+ * un árbol de elementos, representado por su raíz; la unión cuelga la raíz
+ * del árbol de menor rango de la del otro, y la búsqueda de la raíz comprime
+ * el camino recorrido. Con ambas técnicas una sucesión de <i>m</i>
+ * operaciones toma tiempo <i>O</i>(<i>m</i> α(<i>m</i>)), donde α es la
+ * inversa de la función de Ackermann.</p>
+ *
+ * <p>Los elementos se guardan en un diccionario que les asigna un índice; los
+ * padres y rangos viven en arreglos indexados por él.</p>
+ */
+public class ConjuntosDisjuntos<T> {
+
+    /* Los índices de los elementos. */
+    private Diccionario<T, Integer> indices;
+    /* El padre de cada índice. */
+    private int[] padres;
+    /* El rango de cada índice. */
+    private int[] rangos;
+    /* El número de elementos. */
+    private int elementos;
+    /* El número de conjuntos. */
+    private int conjuntos;
+
+    /**
+     * Construye una estructura de conjuntos disjuntos vacía.
+     */
+    public ConjuntosDisjuntos() {
+        limpia();
+    }
+
+    /**
+     * Agrega un elemento en un nuevo conjunto que sólo lo contiene a él.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si el elemento es <code>null</code> o
+     *         ya había sido agregado.
+     */
+    public void agrega(T elemento) {
+        if (elemento == null || indices.contiene(elemento))
+            throw new IllegalArgumentException("Elemento inválido");
+        if (elementos == padres.length) {
+            int[] p = new int[2 * elementos], r = new int[2 * elementos];
+            System.arraycopy(padres, 0, p, 0, elementos);
+            System.arraycopy(rangos, 0, r, 0, elementos);
+            padres = p;
+            rangos = r;
+        }
+        indices.agrega(elemento, elementos);
+        padres[elementos] = elementos;
+        rangos[elementos++] = 0;
+        conjuntos++;
+    }
+
+    /**
+     * Nos dice si el elemento está en la estructura.
+     * @param elemento el elemento que queremos verificar.
+     * @return <code>true</code> si el elemento está en la estructura,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(T elemento) {
+        return elemento != null && indices.contiene(elemento);
+    }
+
+    /* Regresa el índice de un elemento. */
+    private int indice(T elemento) {
+        if (!contiene(elemento))
+            throw new NoSuchElementException("Elemento inválido");
+        return indices.get(elemento);
+    }
+
+    /* Regresa la raíz del índice, colgando de ella todo el camino. */
+    private int raiz(int i) {
+        int r = i;
+        while (padres[r] != r)
+            r = padres[r];
+        while (padres[i] != r) {
+            int p = padres[i];
+            padres[i] = r;
+            i = p;
+        }
+        return r;
+    }
+
+    /**
+     * Une los conjuntos de los dos elementos.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return <code>true</code> si los elementos estaban en conjuntos
+     *         distintos, <code>false</code> en otro caso.
+     * @throws NoSuchElementException si alguno de los elementos no está en la
+     *         estructura.
+     */
+    public boolean une(T a, T b) {
+        int ra = raiz(indice(a)), rb = raiz(indice(b));
+        if (ra == rb)
+            return false;
+        if (rangos[ra] < rangos[rb]) {
+            int t = ra;
+            ra = rb;
+            rb = t;
+        }
+        padres[rb] = ra;
+        if (rangos[ra] == rangos[rb])
+            rangos[ra]++;
+        conjuntos--;
+        return true;
+    }
+
+    /**
+     * Nos dice si dos elementos están en el mismo conjunto.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return <code>true</code> si los elementos están en el mismo conjunto,
+     *         <code>false</code> en otro caso.
+     * @throws NoSuchElementException si alguno de los elementos no está en la
+     *         estructura.
+     */
+    public boolean mismoConjunto(T a, T b) {
+        return raiz(indice(a)) == raiz(indice(b));
+    }
+
+    /**
+     * Regresa el número de elementos en la estructura.
+     * @return el número de elementos en la estructura.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Regresa el número de conjuntos disjuntos.
+     * @return el número de conjuntos disjuntos.
+     */
+    public int getConjuntos() {
+        return conjuntos;
+    }
+
+    /**
+     * Limpia la estructura, dejándola vacía.
+     */
+    public void limpia() {
+        indices = new Diccionario<T, Integer>();
+        padres = new int[16];
+        rangos = new int[16];
+        elementos = conjuntos = 0;
+    }
+}
@@ -0,0 +1,135 @@
+package mx.unam.ciencias.edd;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * <p>Clase para conjuntos disjuntos sobre los enteros de 0 a <i>n</i> − 1
+ * que pueden usarse desde varios hilos a la vez sin candados.</p>
+ *
+ * <p>Los padres viven en un {@link AtomicIntegerArray}. La unión cuelga la
+ * raíz de menor índice de la de mayor índice con una comparación e
+ * intercambio, y se reintenta si otro hilo movió alguna de las raíces; el
+ * orden fijo por índice evita ciclos sin necesidad de rangos. La búsqueda de
+ * la raíz divide el camino a la mitad, también con comparaciones e
+ * intercambios que pueden fallar sin problema.</p>
+ */
+public class ConjuntosDisjuntosConcurrentes {
+
+    /* El padre de cada elemento. */
+    private AtomicIntegerArray padres;
+    /* El número de conjuntos. */
+    private AtomicInteger conjuntos;
+
+    /**
+     * Construye una estructura donde cada entero de 0 a <i>n</i> − 1 está en
+     * su propio conjunto.
+     * @param n el número de elementos.
+     * @throws IllegalArgumentException si n es negativo.
+     */
+    public ConjuntosDisjuntosConcurrentes(int n) {
+        if (n < 0)
+            throw new IllegalArgumentException("Número de elementos inválido");
+        padres = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++)
+            padres.set(i, i);
+        conjuntos = new AtomicInteger(n);
+    }
+
+    /* Lanza una excepción si el índice no es de un elemento. */
+    private void verificaIndice(int i) {
+        if (i < 0 || i >= padres.length())
+            throw new ExcepcionIndiceInvalido("Índice inválido: " + i);
+    }
+
+    /* Regresa la raíz del elemento, colgando cada elemento del camino de su
+     * abuelo. */
+    private int raiz(int i) {
+        while (true) {
+            int p = padres.get(i);
+            if (p == i)
+                return i;
+            int a = padres.get(p);
+            if (a != p)
+                padres.compareAndSet(i, p, a);
+            i = a;
+        }
+    }
+
+    /**
+     * Regresa el representante del conjunto del elemento. Si hay uniones en
+     * curso, el representante puede cambiar en cuanto se regresa.
+     * @param i el elemento.
+     * @return el representante del conjunto del elemento.
+     * @throws ExcepcionIndiceInvalido si el elemento no es válido.
+     */
+    public int encuentra(int i) {
+        verificaIndice(i);
+        return raiz(i);
+    }
+
+    /**
+     * Une los conjuntos de los dos elementos.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return <code>true</code> si esta llamada unió dos conjuntos distintos,
+     *         <code>false</code> si ya estaban unidos.
+     * @throws ExcepcionIndiceInvalido si alguno de los elementos no es válido.
+     */
+    public boolean une(int a, int b) {
+        verificaIndice(a);
+        verificaIndice(b);
+        while (true) {
+            int ra = raiz(a), rb = raiz(b);
+            if (ra == rb)
+                return false;
+            if (ra > rb) {
+                int t = ra;
+                ra = rb;
+                rb = t;
+            }
+            if (padres.compareAndSet(ra, ra, rb)) {
+                conjuntos.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Nos dice si dos elementos están en el mismo conjunto. Si hay uniones en
+     * curso, la respuesta es correcta para algún momento durante la llamada.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return <code>true</code> si los elementos están en el mismo conjunto,
+     *         <code>false</code> en otro caso.
+     * @throws ExcepcionIndiceInvalido si alguno de los elementos no es válido.
+     */
+    public boolean mismoConjunto(int a, int b) {
+        verificaIndice(a);
+        verificaIndice(b);
+        while (true) {
+            int ra = raiz(a), rb = raiz(b);
+            if (ra == rb)
+                return true;
+            /* Si ra sigue siendo raíz, en este momento eran distintos. */
+            if (padres.get(ra) == ra)
+                return false;
+        }
+    }
+
+    /**
+     * Regresa el número de elementos.
+     * @return el número de elementos.
+     */
+    public int getElementos() {
+        return padres.length();
+    }
+
+    /**
+     * Regresa el número de conjuntos disjuntos.
+     * @return el número de conjuntos disjuntos.
+     */
+    public int getConjuntos() {
+        return conjuntos.get();
+    }
+}
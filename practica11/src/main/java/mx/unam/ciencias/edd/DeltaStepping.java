@@ -0,0 +1,302 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Clase para calcular distancias desde un vértice a todos los demás con el
+ * algoritmo <em>delta-stepping</em>, en paralelo.</p>
+ *
+ * <p>Los vértices se agrupan en cubetas de ancho Δ según su distancia
+ * tentativa. Las cubetas se procesan en orden; dentro de una cubeta, las
+ * aristas ligeras (de peso a lo más Δ) de todos sus vértices se relajan en
+ * paralelo hasta que la cubeta se vacía, y después se relajan en paralelo sus
+ * aristas pesadas. Con Δ igual al menor peso el algoritmo se comporta como
+ * Dijkstra, y con Δ infinito como Bellman-Ford; en medio hay suficiente
+ * trabajo por cubeta para repartirlo entre varios núcleos.</p>
+ *
+ * <p>Las distancias se guardan en un {@link AtomicLongArray} como los bits de
+ * los dobles: para dobles no negativos el orden de los bits es el de los
+ * números, así que bajar una distancia es una comparación e intercambio.</p>
+ */
+public class DeltaStepping<T> {
+
+    /* Número de vértices a partir del cual una tarea se divide. */
+    private static final int UMBRAL = 1024;
+
+    /* Clase interna privada para las tareas que relajan aristas. Cada tarea
+     * relaja las aristas de un rango de la frontera y regresa los vértices
+     * cuya distancia bajó. */
+    private class Relaja extends RecursiveTask<int[]> {
+
+        /* Versión de la forma serializada. */
+        private static final long serialVersionUID = 1L;
+
+        /* La frontera. */
+        private int[] frontera;
+        /* El inicio del rango. */
+        private int ini;
+        /* El fin del rango. */
+        private int fin;
+        /* Si relajamos las aristas ligeras o las pesadas. */
+        private boolean ligeras;
+
+        /* Construye una tarea para el rango [ini, fin) de la frontera. */
+        public Relaja(int[] frontera, int ini, int fin, boolean ligeras) {
+            this.frontera = frontera;
+            this.ini = ini;
+            this.fin = fin;
+            this.ligeras = ligeras;
+        }
+
+        /* Relaja las aristas del rango, dividiéndolo si es grande. */
+        @Override protected int[] compute() {
+            if (fin - ini > UMBRAL) {
+                int m = (ini + fin) >>> 1;
+                Relaja izquierda = new Relaja(frontera, ini, m, ligeras);
+                izquierda.fork();
+                int[] derecha = new Relaja(frontera, m, fin, ligeras).compute();
+                return junta(izquierda.join(), derecha);
+            }
+            int[] mejorados = new int[16];
+            int k = 0;
+            for (int i = ini; i < fin; i++) {
+                int u = frontera[i];
+                double du = Double.longBitsToDouble(distancias.get(u));
+                for (int p = grafica.desplazamientos[u];
+                     p < grafica.desplazamientos[u + 1]; p++) {
+                    double w = grafica.pesos[p];
+                    if ((w <= delta) != ligeras)
+                        continue;
+                    int v = grafica.destinos[p];
+                    if (baja(v, du + w)) {
+                        if (k == mejorados.length)
+                            mejorados = Arrays.copyOf(mejorados, 2 * k);
+                        mejorados[k++] = v;
+                    }
+                }
+            }
+            return Arrays.copyOf(mejorados, k);
+        }
+    }
+
+    /* La gráfica. */
+    private GraficaCompacta<T> grafica;
+    /* El ancho de las cubetas. */
+    private double delta;
+    /* El grupo de hilos. */
+    private ForkJoinPool grupo;
+    /* El mayor peso de la gráfica. */
+    private double maximo;
+    /* Las distancias de la búsqueda en curso, como bits de dobles. */
+    private AtomicLongArray distancias;
+    /* Marcas para no repetir vértices en una frontera. */
+    private int[] marcas;
+    /* La marca actual. */
+    private int marca;
+    /* Marcas para no repetir vértices asentados en una cubeta. */
+    private int[] asentadas;
+    /* La marca actual de los asentados. */
+    private int vuelta;
+
+    /**
+     * Construye un delta-stepping para la gráfica compacta recibida, con Δ
+     * calculado a partir de los pesos y usando el grupo común de hilos.
+     * @param grafica la gráfica compacta.
+     */
+    public DeltaStepping(GraficaCompacta<T> grafica) {
+        this(grafica, deltaSugerida(grafica), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Construye un delta-stepping para la gráfica compacta recibida.
+     * @param grafica la gráfica compacta.
+     * @param delta el ancho de las cubetas.
+     * @param grupo el grupo de hilos donde se relajarán las aristas.
+     * @throws IllegalArgumentException si delta no es positiva o si el grupo
+     *         es <code>null</code>.
+     */
+    public DeltaStepping(GraficaCompacta<T> grafica, double delta,
+                         ForkJoinPool grupo) {
+        if (!(delta > 0) || grupo == null)
+            throw new IllegalArgumentException("Parámetros inválidos");
+        this.grafica = grafica;
+        this.delta = delta;
+        this.grupo = grupo;
+        for (double w : grafica.pesos)
+            maximo = Math.max(maximo, w);
+    }
+
+    /**
+     * Regresa un ancho de cubeta adecuado para la gráfica. Con pesos
+     * aleatorios y grado promedio <i>d</i>, un ancho del orden del peso
+     * promedio entre <i>d</i> mantiene pocas reinserciones por vértice sin
+     * dejar las cubetas vacías; nunca regresa menos que el menor peso.
+     * @param grafica la gráfica compacta.
+     * @return un ancho de cubeta adecuado para la gráfica.
+     */
+    public static double deltaSugerida(GraficaCompacta<?> grafica) {
+        double[] pesos = grafica.pesos;
+        if (pesos.length == 0)
+            return 1;
+        double suma = 0, minimo = Double.POSITIVE_INFINITY;
+        for (double w : pesos) {
+            suma += w;
+            minimo = Math.min(minimo, w);
+        }
+        double grado = (double)pesos.length / grafica.getElementos();
+        return Math.max(minimo, 2 * (suma / pesos.length) / grado);
+    }
+
+    /**
+     * Regresa el ancho de las cubetas.
+     * @return el ancho de las cubetas.
+     */
+    public double getDelta() {
+        return delta;
+    }
+
+    /* Baja la distancia de v a d si es menor; regresa si la bajó. */
+    private boolean baja(int v, double d) {
+        long nueva = Double.doubleToLongBits(d);
+        while (true) {
+            long actual = distancias.get(v);
+            if (nueva >= actual)
+                return false;
+            if (distancias.compareAndSet(v, actual, nueva))
+                return true;
+        }
+    }
+
+    /* Junta los vértices mejorados por dos tareas. */
+    private static int[] junta(int[] a, int[] b) {
+        if (a.length == 0)
+            return b;
+        int[] r = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, r, a.length, b.length);
+        return r;
+    }
+
+    /**
+     * Regresa el peso de las trayectorias mínimas desde el vértice de origen
+     * hasta todos los vértices de la gráfica.
+     * @param origen el vértice origen.
+     * @return un arreglo con el peso de la trayectoria mínima hasta cada
+     *         vértice, indexado por {@link GraficaCompacta#indice}; los
+     *         vértices inalcanzables tienen {@link Double#POSITIVE_INFINITY}.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public synchronized double[] distancias(T origen) {
+        int s = grafica.indice(origen);
+        int n = grafica.getElementos();
+        distancias = new AtomicLongArray(n);
+        long infinito = Double.doubleToLongBits(Double.POSITIVE_INFINITY);
+        for (int v = 0; v < n; v++)
+            distancias.set(v, infinito);
+        distancias.set(s, Double.doubleToLongBits(0));
+
+        /* Las distancias tentativas están a lo más a un peso máximo de la
+         * cubeta actual, así que basta un arreglo circular de cubetas. Si Δ
+         * es muy pequeña acotamos el arreglo, y una cubeta puede guardar
+         * vértices de vueltas futuras. */
+        int c = (int)Math.min(n + 1L, (long)(maximo / delta) + 2);
+        int[][] cubetas = new int[c][];
+        int[] tamanos = new int[c];
+        marcas = new int[n];
+        marca = 0;
+        asentadas = new int[n];
+        vuelta = 0;
+        mete(cubetas, tamanos, 0, s);
+        int pendientes = 1;
+
+        /* Un vértice puede volver a la frontera de la misma cubeta si una
+         * arista ligera baja su distancia otra vez; lo guardamos una sola vez
+         * entre los asentados para relajar sus aristas pesadas una sola vez,
+         * ya con su distancia final. */
+        int[] asentados = new int[16];
+        for (long i = 0; pendientes > 0; i++) {
+            int k = (int)(i % c);
+            int a = 0;
+            vuelta++;
+            while (tamanos[k] > 0) {
+                int antes = tamanos[k];
+                int[] frontera = filtra(cubetas, tamanos, k, i);
+                pendientes -= antes - tamanos[k];
+                if (frontera.length == 0)
+                    break;
+                for (int v : frontera) {
+                    if (asentadas[v] == vuelta)
+                        continue;
+                    asentadas[v] = vuelta;
+                    if (a == asentados.length)
+                        asentados = Arrays.copyOf(asentados, 2 * a);
+                    asentados[a++] = v;
+                }
+                pendientes += reparte(relaja(frontera, frontera.length, true),
+                                      cubetas, tamanos);
+            }
+            if (a > 0)
+                pendientes += reparte(relaja(asentados, a, false), cubetas,
+                                      tamanos);
+        }
+
+        double[] r = new double[n];
+        for (int v = 0; v < n; v++)
+            r[v] = Double.longBitsToDouble(distancias.get(v));
+        distancias = null;
+        marcas = null;
+        asentadas = null;
+        return r;
+    }
+
+    /* Relaja en paralelo las aristas ligeras o pesadas de los primeros n
+     * vértices de la frontera. */
+    private int[] relaja(int[] frontera, int n, boolean ligeras) {
+        return grupo.invoke(new Relaja(frontera, 0, n, ligeras));
+    }
+
+    /* Saca de la cubeta k los vértices que pertenecen a la vuelta i y los
+     * regresa sin repetir. Descarta los vértices cuya distancia ya bajó a una
+     * cubeta anterior, y deja en la cubeta los de vueltas futuras. */
+    private int[] filtra(int[][] cubetas, int[] tamanos, int k, long i) {
+        int[] cubeta = cubetas[k];
+        int[] frontera = new int[tamanos[k]];
+        int f = 0, quedan = 0;
+        marca++;
+        for (int j = 0; j < tamanos[k]; j++) {
+            int v = cubeta[j];
+            long b = (long)(Double.longBitsToDouble(distancias.get(v)) / delta);
+            if (b > i) {
+                cubeta[quedan++] = v;
+            } else if (b == i && marcas[v] != marca) {
+                marcas[v] = marca;
+                frontera[f++] = v;
+            }
+        }
+        tamanos[k] = quedan;
+        return Arrays.copyOf(frontera, f);
+    }
+
+    /* Mete los vértices mejorados a la cubeta de su nueva distancia. Regresa
+     * cuántos metió. */
+    private int reparte(int[] mejorados, int[][] cubetas, int[] tamanos) {
+        for (int v : mejorados) {
+            double d = Double.longBitsToDouble(distancias.get(v));
+            mete(cubetas, tamanos, (int)((long)(d / delta) % cubetas.length),
+                 v);
+        }
+        return mejorados.length;
+    }
+
+    /* Mete un vértice a una cubeta. */
+    private static void mete(int[][] cubetas, int[] tamanos, int k, int v) {
+        if (cubetas[k] == null)
+            cubetas[k] = new int[16];
+        else if (tamanos[k] == cubetas[k].length)
+            cubetas[k] = Arrays.copyOf(cubetas[k], 2 * tamanos[k]);
+        cubetas[k][tamanos[k]++] = v;
+    }
+}
@@ -0,0 +1,586 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para diccionarios con dispersión <em>cuckoo</em>. El diccionario
+ * tiene dos tablas divididas en cubetas de {@link #RANURAS} ranuras cada una;
+ * cada llave sólo puede estar en una cubeta de la primera tabla (elegida por
+ * el primer dispersor), en una cubeta de la segunda tabla (elegida por el
+ * segundo dispersor), o en un pequeño escondite auxiliar.</p>
+ *
+ * <p>Por lo tanto buscar una llave revisa a lo más dos cubetas contiguas en
+ * memoria y el escondite, sin importar cuántas colisiones haya: el tiempo de
+ * búsqueda en el peor caso es <i>O</i>(1). Agregar una llave puede desalojar
+ * a otras a su cubeta alterna, en cadenas de longitud acotada; si una cadena
+ * no termina, la llave sin lugar se guarda en el escondite, de a lo más
+ * {@link #ESCONDITE} entradas. Si el escondite está lleno, las tablas se
+ * reconstruyen con otra mezcla de las dispersiones, y crecen si la carga lo
+ * amerita. Sólo si muchas llaves tienen las mismas dispersiones, lo que
+ * ninguna mezcla puede separar, crece el escondite.</p>
+ */
+public class DiccionarioCuckoo<K, V> implements Iterable<V> {
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador {
+
+        /* La siguiente ranura ocupada; las del escondite van al final. */
+        private int indice;
+
+        /* Construye un nuevo iterador. */
+        public Iterador() {
+            indice = -1;
+            mueveIndice();
+        }
+
+        /* Nos dice si hay una siguiente ranura. */
+        public boolean hasNext() {
+            return indice < llaves.length + escondidos;
+        }
+
+        /* Regresa la siguiente ranura y avanza el iterador. */
+        public int siguiente() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            int i = indice;
+            mueveIndice();
+            return i;
+        }
+
+        /* Mueve el índice a la siguiente ranura ocupada. */
+        private void mueveIndice() {
+            indice++;
+            while (indice < llaves.length && llaves[indice] == null)
+                indice++;
+        }
+    }
+
+    /* Clase interna privada para iteradores de llaves. */
+    private class IteradorLlaves extends Iterador implements Iterator<K> {
+
+        /* Regresa el siguiente elemento. */
+        @Override public K next() {
+            return llave(siguiente());
+        }
+    }
+
+    /* Clase interna privada para iteradores de valores. */
+    private class IteradorValores extends Iterador implements Iterator<V> {
+
+        /* Regresa el siguiente elemento. */
+        @Override public V next() {
+            return valor(siguiente());
+        }
+    }
+
+    /** Número de ranuras por cubeta. */
+    public static final int RANURAS = 4;
+
+    /** Máxima carga permitida por el diccionario. */
+    public static final double MAXIMA_CARGA = 0.9;
+
+    /* Capacidad mínima; decidida arbitrariamente a 2^6. */
+    private static final int MINIMA_CAPACIDAD = 64;
+
+    /** Tamaño del escondite a partir del cual las tablas se reconstruyen. */
+    public static final int ESCONDITE = 8;
+
+    /* Máximo número de desalojos al agregar una llave. */
+    private static final int MAXIMOS_DESALOJOS = 128;
+
+    /* Número de mezclas que se intentan antes de crecer el escondite. */
+    private static final int MAXIMAS_MEZCLAS = 4;
+
+    /* Los dispersores de cada tabla. */
+    private Dispersor<K> dispersor1, dispersor2;
+    /* Las llaves; la primera tabla ocupa la primera mitad del arreglo. */
+    private Object[] llaves;
+    /* Los valores. */
+    private Object[] valores;
+    /* Las dispersiones de cada llave con cada dispersor. */
+    private int[] dispersiones1, dispersiones2;
+    /* Las llaves del escondite. */
+    private Object[] llavesEscondidas;
+    /* Los valores del escondite. */
+    private Object[] valoresEscondidos;
+    /* Las dispersiones de las llaves del escondite. */
+    private int[] escondidas1, escondidas2;
+    /* Número de entradas en el escondite. */
+    private int escondidos;
+    /* Las ranuras desalojadas en la última cadena, para deshacerla. */
+    private int[] desalojadas;
+    /* La mezcla de las dispersiones para elegir cubetas. */
+    private int sal;
+    /* Número de cubetas por tabla menos uno. */
+    private int mascara;
+    /* Número de entradas. */
+    private int elementos;
+    /* Estado del generador para elegir a quién desalojar. */
+    private int semilla;
+
+    /**
+     * Construye un diccionario con una capacidad inicial y dispersores
+     * predeterminados.
+     */
+    public DiccionarioCuckoo() {
+        this(MINIMA_CAPACIDAD);
+    }
+
+    /**
+     * Construye un diccionario con una capacidad inicial definida por el
+     * usuario, y dispersores predeterminados. Los dispersores predeterminados
+     * mezclan el resultado de {@link Object#hashCode} de dos maneras
+     * independientes.
+     * @param capacidad la capacidad a utilizar.
+     */
+    public DiccionarioCuckoo(int capacidad) {
+        this(capacidad, (K llave) -> llave.hashCode(),
+             (K llave) -> Integer.reverse(llave.hashCode()) * 0x2f4a7c15);
+    }
+
+    /**
+     * Construye un diccionario con una capacidad inicial predeterminada, y dos
+     * dispersores definidos por el usuario. Los dispersores deben ser
+     * independientes; por ejemplo, dos de los algoritmos de {@link
+     * FabricaDispersores} para cadenas.
+     * @param dispersor1 el dispersor de la primera tabla.
+     * @param dispersor2 el dispersor de la segunda tabla.
+     */
+    public DiccionarioCuckoo(Dispersor<K> dispersor1, Dispersor<K> dispersor2) {
+        this(MINIMA_CAPACIDAD, dispersor1, dispersor2);
+    }
+
+    /**
+     * Construye un diccionario con una capacidad inicial y dos dispersores
+     * definidos por el usuario.
+     * @param capacidad la capacidad inicial del diccionario.
+     * @param dispersor1 el dispersor de la primera tabla.
+     * @param dispersor2 el dispersor de la segunda tabla.
+     */
+    public DiccionarioCuckoo(int capacidad,
+                             Dispersor<K> dispersor1, Dispersor<K> dispersor2) {
+        this.dispersor1 = dispersor1;
+        this.dispersor2 = dispersor2;
+        semilla = 0x9e3779b9;
+        desalojadas = new int[MAXIMOS_DESALOJOS];
+        inicializa(cubetas(capacidad), ESCONDITE);
+    }
+
+    /* Calcula el número de cubetas por tabla para una capacidad. */
+    private static int cubetas(int capacidad) {
+        capacidad = Math.max(capacidad, MINIMA_CAPACIDAD);
+        int c = 1;
+        while (c * 2 * RANURAS * MAXIMA_CARGA < capacidad)
+            c *= 2;
+        return c;
+    }
+
+    /* Crea tablas vacías con el número de cubetas por tabla y el tamaño de
+     * escondite recibidos. */
+    private void inicializa(int cubetas, int escondite) {
+        int n = 2 * cubetas * RANURAS;
+        mascara = cubetas - 1;
+        llaves = new Object[n];
+        valores = new Object[n];
+        dispersiones1 = new int[n];
+        dispersiones2 = new int[n];
+        llavesEscondidas = new Object[escondite];
+        valoresEscondidos = new Object[escondite];
+        escondidas1 = new int[escondite];
+        escondidas2 = new int[escondite];
+        escondidos = 0;
+        elementos = 0;
+    }
+
+    /* Mezcla los bits de una dispersión para que los bajos dependan de todos. */
+    private static int mezcla(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+
+    /* Regresa la primera ranura de la cubeta de la primera tabla. */
+    private int cubeta1(int d1) {
+        return (mezcla(d1 ^ sal) & mascara) * RANURAS;
+    }
+
+    /* Regresa la primera ranura de la cubeta de la segunda tabla. */
+    private int cubeta2(int d2) {
+        return ((mezcla(d2 ^ sal ^ 0x5bd1e995) & mascara) + mascara + 1) *
+            RANURAS;
+    }
+
+    /* Regresa la ranura de la llave, o -1 si no está. Las ranuras mayores o
+     * iguales al tamaño de las tablas corresponden al escondite. */
+    private int busca(K llave) {
+        int d1 = dispersor1.dispersa(llave);
+        int c = cubeta1(d1);
+        for (int i = c; i < c + RANURAS; i++)
+            if (dispersiones1[i] == d1 && llave.equals(llaves[i]))
+                return i;
+        int d2 = dispersor2.dispersa(llave);
+        c = cubeta2(d2);
+        for (int i = c; i < c + RANURAS; i++)
+            if (dispersiones2[i] == d2 && llave.equals(llaves[i]))
+                return i;
+        for (int i = 0; i < escondidos; i++)
+            if (escondidas1[i] == d1 && llave.equals(llavesEscondidas[i]))
+                return llaves.length + i;
+        return -1;
+    }
+
+    /* Regresa la llave de la ranura. */
+    @SuppressWarnings("unchecked") private K llave(int i) {
+        return (K)(i < llaves.length ? llaves[i]
+                   : llavesEscondidas[i - llaves.length]);
+    }
+
+    /* Regresa el valor de la ranura. */
+    @SuppressWarnings("unchecked") private V valor(int i) {
+        return (V)(i < valores.length ? valores[i]
+                   : valoresEscondidos[i - valores.length]);
+    }
+
+    /* Regresa un número pseudoaleatorio (xorshift) para elegir víctimas. */
+    private int aleatorio() {
+        semilla ^= semilla << 13;
+        semilla ^= semilla >>> 17;
+        semilla ^= semilla << 5;
+        return semilla;
+    }
+
+    /* Guarda una entrada en la ranura. */
+    private void guarda(int i, Object llave, Object valor, int d1, int d2) {
+        llaves[i] = llave;
+        valores[i] = valor;
+        dispersiones1[i] = d1;
+        dispersiones2[i] = d2;
+    }
+
+    /* Busca una ranura vacía en la cubeta que empieza en c; regresa -1 si no
+     * la hay. */
+    private int vacia(int c) {
+        for (int i = c; i < c + RANURAS; i++)
+            if (llaves[i] == null)
+                return i;
+        return -1;
+    }
+
+    /* Duplica el tamaño del escondite. */
+    private void creceEscondite() {
+        int n = llavesEscondidas.length * 2;
+        llavesEscondidas = Arrays.copyOf(llavesEscondidas, n);
+        valoresEscondidos = Arrays.copyOf(valoresEscondidos, n);
+        escondidas1 = Arrays.copyOf(escondidas1, n);
+        escondidas2 = Arrays.copyOf(escondidas2, n);
+    }
+
+    /* Coloca una entrada nueva, desalojando entradas si es necesario. Si la
+     * cadena de desalojos no termina, la entrada sin lugar va al escondite;
+     * si el escondite está lleno, deshace la cadena y regresa false. */
+    private boolean coloca(Object llave, Object valor, int d1, int d2) {
+        int i = vacia(cubeta1(d1));
+        if (i == -1)
+            i = vacia(cubeta2(d2));
+        if (i != -1) {
+            guarda(i, llave, valor, d1, d2);
+            return true;
+        }
+        boolean primera = (aleatorio() & 1) == 0;
+        for (int n = 0; n < MAXIMOS_DESALOJOS; n++) {
+            int c = primera ? cubeta1(d1) : cubeta2(d2);
+            int v = c + ((aleatorio() >>> 8) & (RANURAS - 1));
+            Object l = llaves[v], x = valores[v];
+            int e1 = dispersiones1[v], e2 = dispersiones2[v];
+            guarda(v, llave, valor, d1, d2);
+            desalojadas[n] = v;
+            llave = l;
+            valor = x;
+            d1 = e1;
+            d2 = e2;
+            /* La víctima se va a su cubeta en la otra tabla. */
+            primera = v >= llaves.length / 2;
+            i = vacia(primera ? cubeta1(d1) : cubeta2(d2));
+            if (i != -1) {
+                guarda(i, llave, valor, d1, d2);
+                return true;
+            }
+        }
+        if (escondidos < llavesEscondidas.length) {
+            llavesEscondidas[escondidos] = llave;
+            valoresEscondidos[escondidos] = valor;
+            escondidas1[escondidos] = d1;
+            escondidas2[escondidos] = d2;
+            escondidos++;
+            return true;
+        }
+        /* Cada paso de la cadena intercambió la entrada sin lugar con la de
+         * una ranura; los deshacemos en orden inverso. */
+        for (int n = MAXIMOS_DESALOJOS - 1; n >= 0; n--) {
+            int v = desalojadas[n];
+            Object l = llaves[v], x = valores[v];
+            int e1 = dispersiones1[v], e2 = dispersiones2[v];
+            guarda(v, llave, valor, d1, d2);
+            llave = l;
+            valor = x;
+            d1 = e1;
+            d2 = e2;
+        }
+        return false;
+    }
+
+    /* Vuelve a colocar todas las entradas en tablas con el número de
+     * cubetas recibido y una mezcla nueva. Si alguna no cabe, deja el
+     * diccionario como estaba y regresa false. */
+    private boolean rehaz(int cubetas) {
+        Object[] ls = llaves, vs = valores;
+        int[] ds1 = dispersiones1, ds2 = dispersiones2;
+        Object[] le = llavesEscondidas, ve = valoresEscondidos;
+        int[] de1 = escondidas1, de2 = escondidas2;
+        int e = escondidos, n = elementos, m = mascara, s = sal;
+        sal = aleatorio();
+        inicializa(cubetas, le.length);
+        boolean bien = true;
+        for (int i = 0; i < ls.length && bien; i++)
+            if (ls[i] != null)
+                bien = coloca(ls[i], vs[i], ds1[i], ds2[i]);
+        for (int i = 0; i < e && bien; i++)
+            bien = coloca(le[i], ve[i], de1[i], de2[i]);
+        elementos = n;
+        if (bien)
+            return true;
+        llaves = ls;
+        valores = vs;
+        dispersiones1 = ds1;
+        dispersiones2 = ds2;
+        llavesEscondidas = le;
+        valoresEscondidos = ve;
+        escondidas1 = de1;
+        escondidas2 = de2;
+        escondidos = e;
+        mascara = m;
+        sal = s;
+        return false;
+    }
+
+    /* Reconstruye las tablas con el número de cubetas recibido. Si varias
+     * mezclas no bastan para que todas las entradas quepan, muchas llaves
+     * tienen las mismas dispersiones y crece el escondite. */
+    private void reconstruye(int cubetas) {
+        for (int i = 1; !rehaz(cubetas); i++)
+            if (i % MAXIMAS_MEZCLAS == 0)
+                creceEscondite();
+    }
+
+    /**
+     * Agrega un nuevo valor al diccionario, usando la llave proporcionada. Si
+     * la llave ya había sido utilizada antes para agregar un valor, el
+     * diccionario reemplaza ese valor con el recibido aquí.
+     * @param llave la llave para agregar el valor.
+     * @param valor el valor a agregar.
+     * @throws IllegalArgumentException si la llave o el valor son nulos.
+     */
+    public void agrega(K llave, V valor) {
+        if (llave == null || valor == null)
+            throw new IllegalArgumentException("Llave o valor nulos");
+        int i = busca(llave);
+        if (i != -1) {
+            if (i < valores.length)
+                valores[i] = valor;
+            else
+                valoresEscondidos[i - valores.length] = valor;
+            return;
+        }
+        if (elementos + 1 > MAXIMA_CARGA * llaves.length)
+            reconstruye(2 * (mascara + 1));
+        int d1 = dispersor1.dispersa(llave), d2 = dispersor2.dispersa(llave);
+        /* Con el escondite lleno reconstruimos las tablas, creciéndolas si
+         * están a media carga. Si con las tablas a menos de media carga
+         * varias mezclas no dejan lugar para la llave, sus dispersiones se
+         * repiten demasiado y crece el escondite. */
+        int mezclas = 0;
+        while (!coloca(llave, valor, d1, d2)) {
+            if (carga() >= MAXIMA_CARGA / 2)
+                reconstruye(2 * (mascara + 1));
+            else if (++mezclas < MAXIMAS_MEZCLAS)
+                reconstruye(mascara + 1);
+            else
+                creceEscondite();
+        }
+        elementos++;
+    }
+
+    /**
+     * Regresa el valor del diccionario asociado a la llave proporcionada.
+     * @param llave la llave para buscar el valor.
+     * @return el valor correspondiente a la llave.
+     * @throws IllegalArgumentException si la llave es nula.
+     * @throws NoSuchElementException si la llave no está en el diccionario.
+     */
+    public V get(K llave) {
+        if (llave == null)
+            throw new IllegalArgumentException("Llave nula");
+        int i = busca(llave);
+        if (i == -1)
+            throw new NoSuchElementException("Llave inválida");
+        return valor(i);
+    }
+
+    /**
+     * Nos dice si una llave se encuentra en el diccionario.
+     * @param llave la llave que queremos ver si está en el diccionario.
+     * @return <code>true</code> si la llave está en el diccionario,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(K llave) {
+        return llave != null && busca(llave) != -1;
+    }
+
+    /**
+     * Elimina el valor del diccionario asociado a la llave proporcionada.
+     * @param llave la llave para buscar el valor a eliminar.
+     * @throws IllegalArgumentException si la llave es nula.
+     * @throws NoSuchElementException si la llave no se encuentra en
+     *         el diccionario.
+     */
+    public void elimina(K llave) {
+        if (llave == null)
+            throw new IllegalArgumentException("Llave nula");
+        int i = busca(llave);
+        if (i == -1)
+            throw new NoSuchElementException("Llave inválida");
+        if (i < llaves.length) {
+            llaves[i] = null;
+            valores[i] = null;
+        } else {
+            /* Movemos la última entrada del escondite al hueco. */
+            i -= llaves.length;
+            escondidos--;
+            llavesEscondidas[i] = llavesEscondidas[escondidos];
+            valoresEscondidos[i] = valoresEscondidos[escondidos];
+            escondidas1[i] = escondidas1[escondidos];
+            escondidas2[i] = escondidas2[escondidos];
+            llavesEscondidas[escondidos] = null;
+            valoresEscondidos[escondidos] = null;
+        }
+        elementos--;
+    }
+
+    /**
+     * Nos dice cuántas entradas están en el escondite; es decir, cuántas
+     * entradas no cupieron en ninguna de sus dos cubetas.
+     * @return cuántas entradas están en el escondite.
+     */
+    public int escondidas() {
+        return escondidos;
+    }
+
+    /**
+     * Nos dice la carga del diccionario.
+     * @return la carga del diccionario.
+     */
+    public double carga() {
+        return (double)elementos / llaves.length;
+    }
+
+    /**
+     * Regresa el número de entradas en el diccionario.
+     * @return el número de entradas en el diccionario.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Nos dice si el diccionario es vacío.
+     * @return <code>true</code> si el diccionario es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Limpia el diccionario de elementos, dejándolo vacío.
+     */
+    public void limpia() {
+        inicializa(mascara + 1, ESCONDITE);
+    }
+
+    /**
+     * Regresa una representación en cadena del diccionario.
+     * @return una representación en cadena del diccionario.
+     */
+    @Override public String toString() {
+        if (elementos == 0)
+            return "{}";
+        StringBuilder sb = new StringBuilder("{ ");
+        Iterador iterador = new Iterador();
+        while (iterador.hasNext()) {
+            int i = iterador.siguiente();
+            sb.append(String.format("'%s': '%s', ", llave(i), valor(i)));
+        }
+        return sb.append("}").toString();
+    }
+
+    /**
+     * Nos dice si el diccionario es igual al objeto recibido.
+     * @param o el objeto que queremos saber si es igual al diccionario.
+     * @return <code>true</code> si el objeto recibido es instancia de
+     *         DiccionarioCuckoo, y tiene las mismas llaves asociadas a los
+     *         mismos valores.
+     */
+    @Override public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass())
+            return false;
+        @SuppressWarnings("unchecked") DiccionarioCuckoo<K, V> d =
+            (DiccionarioCuckoo<K, V>)o;
+        if (elementos != d.elementos)
+            return false;
+        Iterador iterador = new Iterador();
+        while (iterador.hasNext()) {
+            int i = iterador.siguiente();
+            int j = d.busca(llave(i));
+            if (j == -1 || !valor(i).equals(d.valor(j)))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Regresa un código de dispersión para el diccionario, consistente con
+     * {@link #equals}: no depende del orden de las entradas.
+     * @return un código de dispersión para el diccionario.
+     */
+    @Override public int hashCode() {
+        int h = 0;
+        Iterador iterador = new Iterador();
+        while (iterador.hasNext()) {
+            int i = iterador.siguiente();
+            h += llave(i).hashCode() ^ valor(i).hashCode();
+        }
+        return h;
+    }
+
+    /**
+     * Regresa un iterador para iterar las llaves del diccionario. El
+     * diccionario se itera sin ningún orden específico.
+     * @return un iterador para iterar las llaves del diccionario.
+     */
+    public Iterator<K> iteradorLlaves() {
+        return new IteradorLlaves();
+    }
+
+    /**
+     * Regresa un iterador para iterar los valores del diccionario. El
+     * diccionario se itera sin ningún orden específico.
+     * @return un iterador para iterar los valores del diccionario.
+     */
+    @Override public Iterator<V> iterator() {
+        return new IteradorValores();
+    }
+}
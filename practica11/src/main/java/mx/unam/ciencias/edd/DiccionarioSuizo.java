@@ -0,0 +1,431 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para diccionarios con direccionamiento abierto al estilo de las
+ * <em>tablas suizas</em>. Cada ranura tiene un byte de control: si la ranura
+ * está ocupada, el byte guarda 7 bits de la dispersión de su llave; si no,
+ * indica si la ranura está vacía o borrada.</p>
+ *
+ * <p>Las ranuras se agrupan de {@link #GRUPO} en {@link #GRUPO}, y los bytes
+ * de control de un grupo se guardan juntos en un <code>long</code>. Así, una
+ * búsqueda compara los bytes de control de todo un grupo con unas cuantas
+ * operaciones aritméticas (<em>SWAR</em>), y sólo llama a {@link
+ * Object#equals} para las ranuras cuyos 7 bits coinciden. Una búsqueda
+ * fallida termina en cuanto encuentra un grupo con una ranura vacía, casi
+ * siempre sin haber comparado ninguna llave.</p>
+ */
+public class DiccionarioSuizo<K, V> implements Iterable<V> {
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador {
+
+        /* La siguiente ranura ocupada. */
+        private int indice;
+
+        /* Construye un nuevo iterador. */
+        public Iterador() {
+            indice = -1;
+            mueveIndice();
+        }
+
+        /* Nos dice si hay una siguiente ranura. */
+        public boolean hasNext() {
+            return indice < llaves.length;
+        }
+
+        /* Regresa la siguiente ranura y avanza el iterador. */
+        public int siguiente() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            int i = indice;
+            mueveIndice();
+            return i;
+        }
+
+        /* Mueve el índice a la siguiente ranura ocupada. */
+        private void mueveIndice() {
+            indice++;
+            while (indice < llaves.length && llaves[indice] == null)
+                indice++;
+        }
+    }
+
+    /* Clase interna privada para iteradores de llaves. */
+    private class IteradorLlaves extends Iterador implements Iterator<K> {
+
+        /* Regresa el siguiente elemento. */
+        @SuppressWarnings("unchecked") @Override public K next() {
+            return (K)llaves[siguiente()];
+        }
+    }
+
+    /* Clase interna privada para iteradores de valores. */
+    private class IteradorValores extends Iterador implements Iterator<V> {
+
+        /* Regresa el siguiente elemento. */
+        @SuppressWarnings("unchecked") @Override public V next() {
+            return (V)valores[siguiente()];
+        }
+    }
+
+    /** Número de ranuras por grupo. */
+    public static final int GRUPO = 8;
+
+    /** Máxima carga permitida por el diccionario. */
+    public static final double MAXIMA_CARGA = 0.875;
+
+    /* Capacidad mínima; decidida arbitrariamente a 2^6. */
+    private static final int MINIMA_CAPACIDAD = 64;
+
+    /* Byte de control de una ranura vacía. */
+    private static final long VACIA = 0x80L;
+    /* Byte de control de una ranura borrada. */
+    private static final long BORRADA = 0xfeL;
+    /* El byte menos significativo de cada ranura del grupo. */
+    private static final long BAJOS = 0x0101010101010101L;
+    /* El bit más significativo de cada ranura del grupo. */
+    private static final long ALTOS = 0x8080808080808080L;
+
+    /* Dispersor. */
+    private Dispersor<K> dispersor;
+    /* Los bytes de control, un grupo por long. */
+    private long[] controles;
+    /* Las llaves. */
+    private Object[] llaves;
+    /* Los valores. */
+    private Object[] valores;
+    /* Número de entradas. */
+    private int elementos;
+    /* Número de ranuras borradas. */
+    private int borradas;
+
+    /**
+     * Construye un diccionario con una capacidad inicial y dispersor
+     * predeterminados.
+     */
+    public DiccionarioSuizo() {
+        this(MINIMA_CAPACIDAD, (K llave) -> llave.hashCode());
+    }
+
+    /**
+     * Construye un diccionario con una capacidad inicial definida por el
+     * usuario, y un dispersor predeterminado.
+     * @param capacidad la capacidad a utilizar.
+     */
+    public DiccionarioSuizo(int capacidad) {
+        this(capacidad, (K llave) -> llave.hashCode());
+    }
+
+    /**
+     * Construye un diccionario con una capacidad inicial predeterminada, y un
+     * dispersor definido por el usuario.
+     * @param dispersor el dispersor a utilizar.
+     */
+    public DiccionarioSuizo(Dispersor<K> dispersor) {
+        this(MINIMA_CAPACIDAD, dispersor);
+    }
+
+    /**
+     * Construye un diccionario con una capacidad inicial y un método de
+     * dispersor definidos por el usuario.
+     * @param capacidad la capacidad inicial del diccionario.
+     * @param dispersor el dispersor a utilizar.
+     */
+    public DiccionarioSuizo(int capacidad, Dispersor<K> dispersor) {
+        this.dispersor = dispersor;
+        capacidad = Math.max(capacidad, MINIMA_CAPACIDAD);
+        int c = GRUPO;
+        while (c * MAXIMA_CARGA < capacidad)
+            c *= 2;
+        inicializa(c);
+    }
+
+    /* Crea una tabla vacía con el número de ranuras recibido. */
+    private void inicializa(int ranuras) {
+        controles = new long[ranuras / GRUPO];
+        for (int i = 0; i < controles.length; i++)
+            controles[i] = VACIA * BAJOS;
+        llaves = new Object[ranuras];
+        valores = new Object[ranuras];
+        elementos = 0;
+        borradas = 0;
+    }
+
+    /* Mezcla los bits de una dispersión para que todos dependan de todos. */
+    private static int mezcla(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+
+    /* Regresa las ranuras del grupo cuyo byte de control es igual al byte
+     * recibido, como un long con el bit alto de cada ranura encendido. Puede
+     * haber falsos positivos, pero sólo en ranuras que no son vacías. */
+    private static long coinciden(long grupo, long b) {
+        long x = grupo ^ (b * BAJOS);
+        return (x - BAJOS) & ~x & ALTOS;
+    }
+
+    /* Regresa las ranuras vacías del grupo. */
+    private static long vacias(long grupo) {
+        return grupo & ~(grupo << 6) & ALTOS;
+    }
+
+    /* Regresa las ranuras vacías o borradas del grupo. */
+    private static long libres(long grupo) {
+        return grupo & ~(grupo << 7) & ALTOS;
+    }
+
+    /* Regresa la primera ranura encendida de un resultado de coinciden,
+     * vacias o libres. */
+    private static int primera(long ranuras) {
+        return Long.numberOfTrailingZeros(ranuras) >>> 3;
+    }
+
+    /* Define el byte de control de la ranura. */
+    private void control(int ranura, long b) {
+        int g = ranura / GRUPO;
+        int d = (ranura % GRUPO) * 8;
+        controles[g] = (controles[g] & ~(0xffL << d)) | (b << d);
+    }
+
+    /* Regresa la ranura de la llave, o -1 si no está. */
+    private int busca(K llave) {
+        int h = mezcla(dispersor.dispersa(llave));
+        long h2 = h & 0x7f;
+        int mascara = controles.length - 1;
+        int g = (h >>> 7) & mascara;
+        for (int salto = 1; salto <= controles.length; salto++) {
+            long grupo = controles[g];
+            long m = coinciden(grupo, h2);
+            while (m != 0) {
+                int i = g * GRUPO + primera(m);
+                if (llave.equals(llaves[i]))
+                    return i;
+                m &= m - 1;
+            }
+            if (vacias(grupo) != 0)
+                return -1;
+            g = (g + salto) & mascara;
+        }
+        return -1;
+    }
+
+    /* Coloca una llave que no está en el diccionario; regresa su ranura. */
+    private int coloca(Object llave, Object valor, int h) {
+        int mascara = controles.length - 1;
+        int g = (h >>> 7) & mascara;
+        for (int salto = 1; ; salto++) {
+            long m = libres(controles[g]);
+            if (m != 0) {
+                int i = g * GRUPO + primera(m);
+                if (((controles[g] >>> ((i % GRUPO) * 8)) & 0xff) == BORRADA)
+                    borradas--;
+                control(i, h & 0x7f);
+                llaves[i] = llave;
+                valores[i] = valor;
+                return i;
+            }
+            g = (g + salto) & mascara;
+        }
+    }
+
+    /* Vuelve a colocar todas las entradas en una tabla con el número de
+     * ranuras recibido, descartando las ranuras borradas. */
+    @SuppressWarnings("unchecked") private void redimensiona(int ranuras) {
+        Object[] ls = llaves, vs = valores;
+        int n = elementos;
+        inicializa(ranuras);
+        for (int i = 0; i < ls.length; i++)
+            if (ls[i] != null)
+                coloca(ls[i], vs[i], mezcla(dispersor.dispersa((K)ls[i])));
+        elementos = n;
+    }
+
+    /**
+     * Agrega un nuevo valor al diccionario, usando la llave proporcionada. Si
+     * la llave ya había sido utilizada antes para agregar un valor, el
+     * diccionario reemplaza ese valor con el recibido aquí.
+     * @param llave la llave para agregar el valor.
+     * @param valor el valor a agregar.
+     * @throws IllegalArgumentException si la llave o el valor son nulos.
+     */
+    public void agrega(K llave, V valor) {
+        if (llave == null || valor == null)
+            throw new IllegalArgumentException("Llave o valor nulos");
+        int i = busca(llave);
+        if (i != -1) {
+            valores[i] = valor;
+            return;
+        }
+        /* Las ranuras borradas también alargan las búsquedas fallidas; si son
+         * muchas basta con limpiarlas. */
+        if (elementos + borradas + 1 > MAXIMA_CARGA * llaves.length)
+            redimensiona(elementos + 1 > MAXIMA_CARGA * llaves.length / 2 ?
+                         llaves.length * 2 : llaves.length);
+        coloca(llave, valor, mezcla(dispersor.dispersa(llave)));
+        elementos++;
+    }
+
+    /**
+     * Regresa el valor del diccionario asociado a la llave proporcionada.
+     * @param llave la llave para buscar el valor.
+     * @return el valor correspondiente a la llave.
+     * @throws IllegalArgumentException si la llave es nula.
+     * @throws NoSuchElementException si la llave no está en el diccionario.
+     */
+    @SuppressWarnings("unchecked") public V get(K llave) {
+        if (llave == null)
+            throw new IllegalArgumentException("Llave nula");
+        int i = busca(llave);
+        if (i == -1)
+            throw new NoSuchElementException("Llave inválida");
+        return (V)valores[i];
+    }
+
+    /**
+     * Nos dice si una llave se encuentra en el diccionario.
+     * @param llave la llave que queremos ver si está en el diccionario.
+     * @return <code>true</code> si la llave está en el diccionario,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(K llave) {
+        return llave != null && busca(llave) != -1;
+    }
+
+    /**
+     * Elimina el valor del diccionario asociado a la llave proporcionada.
+     * @param llave la llave para buscar el valor a eliminar.
+     * @throws IllegalArgumentException si la llave es nula.
+     * @throws NoSuchElementException si la llave no se encuentra en
+     *         el diccionario.
+     */
+    public void elimina(K llave) {
+        if (llave == null)
+            throw new IllegalArgumentException("Llave nula");
+        int i = busca(llave);
+        if (i == -1)
+            throw new NoSuchElementException("Llave inválida");
+        /* Si el grupo tiene una ranura vacía, ninguna búsqueda pasa de él, y
+         * la ranura puede quedar vacía en lugar de borrada. */
+        if (vacias(controles[i / GRUPO]) != 0) {
+            control(i, VACIA);
+        } else {
+            control(i, BORRADA);
+            borradas++;
+        }
+        llaves[i] = null;
+        valores[i] = null;
+        elementos--;
+    }
+
+    /**
+     * Nos dice la carga del diccionario.
+     * @return la carga del diccionario.
+     */
+    public double carga() {
+        return (double)elementos / llaves.length;
+    }
+
+    /**
+     * Regresa el número de entradas en el diccionario.
+     * @return el número de entradas en el diccionario.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Nos dice si el diccionario es vacío.
+     * @return <code>true</code> si el diccionario es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Limpia el diccionario de elementos, dejándolo vacío.
+     */
+    public void limpia() {
+        inicializa(llaves.length);
+    }
+
+    /**
+     * Regresa una representación en cadena del diccionario.
+     * @return una representación en cadena del diccionario.
+     */
+    @Override public String toString() {
+        if (elementos == 0)
+            return "{}";
+        StringBuilder sb = new StringBuilder("{ ");
+        Iterador iterador = new Iterador();
+        while (iterador.hasNext()) {
+            int i = iterador.siguiente();
+            sb.append(String.format("'%s': '%s', ", llaves[i], valores[i]));
+        }
+        return sb.append("}").toString();
+    }
+
+    /**
+     * Nos dice si el diccionario es igual al objeto recibido.
+     * @param o el objeto que queremos saber si es igual al diccionario.
+     * @return <code>true</code> si el objeto recibido es instancia de
+     *         DiccionarioSuizo, y tiene las mismas llaves asociadas a los
+     *         mismos valores.
+     */
+    @SuppressWarnings("unchecked")
+    @Override public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass())
+            return false;
+        DiccionarioSuizo<K, V> d = (DiccionarioSuizo<K, V>)o;
+        if (elementos != d.elementos)
+            return false;
+        Iterador iterador = new Iterador();
+        while (iterador.hasNext()) {
+            int i = iterador.siguiente();
+            int j = d.busca((K)llaves[i]);
+            if (j == -1 || !valores[i].equals(d.valores[j]))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Regresa un código de dispersión para el diccionario, consistente con
+     * {@link #equals}: no depende del orden de las entradas.
+     * @return un código de dispersión para el diccionario.
+     */
+    @Override public int hashCode() {
+        int h = 0;
+        Iterador iterador = new Iterador();
+        while (iterador.hasNext()) {
+            int i = iterador.siguiente();
+            h += llaves[i].hashCode() ^ valores[i].hashCode();
+        }
+        return h;
+    }
+
+    /**
+     * Regresa un iterador para iterar las llaves del diccionario. El
+     * diccionario se itera sin ningún orden específico.
+     * @return un iterador para iterar las llaves del diccionario.
+     */
+    public Iterator<K> iteradorLlaves() {
+        return new IteradorLlaves();
+    }
+
+    /**
+     * Regresa un iterador para iterar los valores del diccionario. El
+     * diccionario se itera sin ningún orden específico.
+     * @return un iterador para iterar los valores del diccionario.
+     */
+    @Override public Iterator<V> iterator() {
+        return new IteradorValores();
+    }
+}
@@ -0,0 +1,365 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para flujos máximos y cortes mínimos en gráficas, usando los pesos
+ * de las aristas como capacidades. Cada arista de la gráfica puede llevar
+ * flujo en cualquiera de sus dos direcciones, hasta su capacidad.</p>
+ *
+ * <p>El flujo se calcula sobre la red residual de una {@link
+ * GraficaCompacta}: la capacidad residual de cada posición de arista vive en
+ * un arreglo paralelo al de destinos, y cada posición conoce la de la arista
+ * inversa. Hay dos algoritmos: Dinic, que en cada fase construye los niveles
+ * con BFS y satura un flujo bloqueante con DFS iterativo; y push-relabel que
+ * siempre descarga el vértice activo más alto, y que recalcula todas las
+ * alturas con un BFS desde el destino cada tanto trabajo. Los dos regresan el
+ * mismo valor de flujo, aunque pueden regresar cortes mínimos distintos.</p>
+ */
+public class FlujoMaximo<T> {
+
+    /* El valor del flujo. */
+    private double flujo;
+    /* Los elementos del lado del origen del corte. */
+    private Lista<T> ladoOrigen;
+    /* Si cada elemento está del lado del origen. */
+    private Diccionario<T, Boolean> lados;
+
+    /* Construye el resultado con el valor del flujo y el lado del corte de
+     * cada vértice de la gráfica compacta. */
+    private FlujoMaximo(GraficaCompacta<T> grafica, double flujo,
+                        boolean[] origen) {
+        this.flujo = flujo;
+        ladoOrigen = new Lista<T>();
+        lados = new Diccionario<T, Boolean>();
+        for (int v = 0; v < origen.length; v++) {
+            T elemento = grafica.elemento(v);
+            lados.agrega(elemento, origen[v]);
+            if (origen[v])
+                ladoOrigen.agrega(elemento);
+        }
+    }
+
+    /**
+     * Regresa el valor del flujo máximo, que es igual a la capacidad del corte
+     * mínimo.
+     * @return el valor del flujo máximo.
+     */
+    public double getFlujo() {
+        return flujo;
+    }
+
+    /**
+     * Regresa los elementos del lado del origen del corte mínimo; los demás
+     * están del lado del destino.
+     * @return los elementos del lado del origen del corte mínimo.
+     */
+    public Lista<T> getLadoOrigen() {
+        return ladoOrigen;
+    }
+
+    /**
+     * Nos dice si un elemento está del lado del origen del corte mínimo.
+     * @param elemento el elemento.
+     * @return <code>true</code> si el elemento está del lado del origen,
+     *         <code>false</code> si está del lado del destino.
+     * @throws NoSuchElementException si el elemento no estaba en la gráfica.
+     */
+    public boolean esLadoOrigen(T elemento) {
+        if (elemento == null || !lados.contiene(elemento))
+            throw new NoSuchElementException("Elemento inválido");
+        return lados.get(elemento);
+    }
+
+    /* Regresa para cada posición de arista la posición de su inversa. */
+    private static int[] inversas(GraficaCompacta<?> grafica) {
+        int[] inversas = new int[grafica.destinos.length];
+        for (int u = 0; u < grafica.getElementos(); u++)
+            for (int p = grafica.desplazamientos[u];
+                 p < grafica.desplazamientos[u + 1]; p++)
+                inversas[p] = grafica.arista(grafica.destinos[p], u);
+        return inversas;
+    }
+
+    /* Regresa el índice del origen, verificando que sea distinto del
+     * destino. */
+    private static <T> int origen(GraficaCompacta<T> grafica, T origen,
+                                  T destino) {
+        int s = grafica.indice(origen), t = grafica.indice(destino);
+        if (s == t)
+            throw new IllegalArgumentException("Origen igual al destino");
+        return s;
+    }
+
+    /**
+     * Calcula el flujo máximo y un corte mínimo con el algoritmo de Dinic.
+     * @param <T> el tipo de los elementos de la gráfica.
+     * @param grafica la gráfica.
+     * @param origen el elemento de origen.
+     * @param destino el elemento de destino.
+     * @return el flujo máximo y el corte mínimo más cercano al origen.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     * @throws IllegalArgumentException si el origen es igual al destino.
+     */
+    public static <T> FlujoMaximo<T> dinic(Grafica<T> grafica, T origen,
+                                           T destino) {
+        return dinic(new GraficaCompacta<T>(grafica), origen, destino);
+    }
+
+    /**
+     * Calcula el flujo máximo y un corte mínimo con el algoritmo de Dinic
+     * sobre una gráfica compacta, que puede reutilizarse entre consultas. El
+     * DFS avanza por las aristas admisibles guardando la trayectoria en un
+     * arreglo; al llegar al destino la aumenta y regresa a la cola de la
+     * primera arista saturada, y al atorarse saca al vértice de los niveles.
+     * @param <T> el tipo de los elementos de la gráfica.
+     * @param grafica la gráfica compacta.
+     * @param origen el elemento de origen.
+     * @param destino el elemento de destino.
+     * @return el flujo máximo y el corte mínimo más cercano al origen.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     * @throws IllegalArgumentException si el origen es igual al destino.
+     */
+    public static <T> FlujoMaximo<T> dinic(GraficaCompacta<T> grafica,
+                                           T origen, T destino) {
+        int s = origen(grafica, origen, destino), t = grafica.indice(destino);
+        int n = grafica.getElementos();
+        int[] desplazamientos = grafica.desplazamientos;
+        int[] destinos = grafica.destinos;
+        int[] inversas = inversas(grafica);
+        double[] residuales = grafica.pesos.clone();
+        int[] niveles = new int[n];
+        int[] siguientes = new int[n];
+        int[] cola = new int[n];
+        int[] pila = new int[n];
+        double flujo = 0;
+        while (niveles(grafica, residuales, s, t, niveles, cola)) {
+            for (int v = 0; v < n; v++)
+                siguientes[v] = desplazamientos[v];
+            int u = s, h = 0;
+            while (true) {
+                if (u == t) {
+                    double d = Double.POSITIVE_INFINITY;
+                    for (int i = 0; i < h; i++)
+                        d = Math.min(d, residuales[pila[i]]);
+                    int saturada = -1;
+                    for (int i = 0; i < h; i++) {
+                        residuales[pila[i]] -= d;
+                        residuales[inversas[pila[i]]] += d;
+                        if (saturada == -1 && residuales[pila[i]] == 0)
+                            saturada = i;
+                    }
+                    flujo += d;
+                    h = saturada;
+                    u = destinos[inversas[pila[h]]];
+                    continue;
+                }
+                while (siguientes[u] < desplazamientos[u + 1]) {
+                    int p = siguientes[u];
+                    if (residuales[p] > 0 &&
+                        niveles[destinos[p]] == niveles[u] + 1)
+                        break;
+                    siguientes[u]++;
+                }
+                if (siguientes[u] < desplazamientos[u + 1]) {
+                    pila[h++] = siguientes[u];
+                    u = destinos[siguientes[u]];
+                    continue;
+                }
+                niveles[u] = -1;
+                if (u == s)
+                    break;
+                int p = pila[--h];
+                u = destinos[inversas[p]];
+                siguientes[u]++;
+            }
+        }
+        boolean[] lado = new boolean[n];
+        for (int v = 0; v < n; v++)
+            lado[v] = niveles[v] != -1;
+        return new FlujoMaximo<T>(grafica, flujo, lado);
+    }
+
+    /* Calcula los niveles de la red residual con BFS desde el origen; los
+     * vértices inalcanzables quedan con nivel -1. Regresa si el destino es
+     * alcanzable. */
+    private static boolean niveles(GraficaCompacta<?> grafica,
+                                   double[] residuales, int s, int t,
+                                   int[] niveles, int[] cola) {
+        for (int v = 0; v < niveles.length; v++)
+            niveles[v] = -1;
+        int cabeza = 0, rabo = 0;
+        cola[rabo++] = s;
+        niveles[s] = 0;
+        while (cabeza < rabo) {
+            int u = cola[cabeza++];
+            for (int p = grafica.desplazamientos[u];
+                 p < grafica.desplazamientos[u + 1]; p++) {
+                int v = grafica.destinos[p];
+                if (residuales[p] > 0 && niveles[v] == -1) {
+                    niveles[v] = niveles[u] + 1;
+                    cola[rabo++] = v;
+                }
+            }
+        }
+        return niveles[t] != -1;
+    }
+
+    /**
+     * Calcula el flujo máximo y un corte mínimo con push-relabel, descargando
+     * siempre el vértice activo más alto.
+     * @param <T> el tipo de los elementos de la gráfica.
+     * @param grafica la gráfica.
+     * @param origen el elemento de origen.
+     * @param destino el elemento de destino.
+     * @return el flujo máximo y el corte mínimo más cercano al destino.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     * @throws IllegalArgumentException si el origen es igual al destino.
+     */
+    public static <T> FlujoMaximo<T> pushRelabel(Grafica<T> grafica, T origen,
+                                                 T destino) {
+        return pushRelabel(new GraficaCompacta<T>(grafica), origen, destino);
+    }
+
+    /**
+     * Calcula el flujo máximo y un corte mínimo con push-relabel sobre una
+     * gráfica compacta, que puede reutilizarse entre consultas. Sólo se hace
+     * la primera fase, que empuja todo el flujo posible al destino; los
+     * vértices que ya no lo alcanzan se quedan con su exceso, que no cambia
+     * el valor del flujo. El reetiquetado global se hace cuando el trabajo
+     * desde el anterior pasa de 6n + m.
+     * @param <T> el tipo de los elementos de la gráfica.
+     * @param grafica la gráfica compacta.
+     * @param origen el elemento de origen.
+     * @param destino el elemento de destino.
+     * @return el flujo máximo y el corte mínimo más cercano al destino.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     * @throws IllegalArgumentException si el origen es igual al destino.
+     */
+    public static <T> FlujoMaximo<T> pushRelabel(GraficaCompacta<T> grafica,
+                                                 T origen, T destino) {
+        int s = origen(grafica, origen, destino), t = grafica.indice(destino);
+        int n = grafica.getElementos();
+        int[] desplazamientos = grafica.desplazamientos;
+        int[] destinos = grafica.destinos;
+        int[] inversas = inversas(grafica);
+        double[] residuales = grafica.pesos.clone();
+        double[] excesos = new double[n];
+        /* Los vértices activos están en cubetas por altura, en listas ligadas
+         * dentro de arreglos. */
+        int[] alturas = new int[n];
+        int[] siguientes = new int[n];
+        int[] cubetas = new int[n];
+        int[] ligas = new int[n];
+        int[] cola = new int[n];
+        for (int p = desplazamientos[s]; p < desplazamientos[s + 1]; p++) {
+            double d = residuales[p];
+            residuales[p] = 0;
+            residuales[inversas[p]] += d;
+            excesos[destinos[p]] += d;
+        }
+        int mayor = reetiqueta(grafica, residuales, inversas, s, t, alturas,
+                               excesos, cubetas, ligas, siguientes, cola);
+        long trabajo = 0, limite = 6L * n + destinos.length;
+        while (mayor >= 0) {
+            int v = cubetas[mayor];
+            if (v == -1) {
+                mayor--;
+                continue;
+            }
+            cubetas[mayor] = ligas[v];
+            while (excesos[v] > 0) {
+                if (siguientes[v] == desplazamientos[v + 1]) {
+                    int minima = 2 * n;
+                    for (int p = desplazamientos[v];
+                         p < desplazamientos[v + 1]; p++)
+                        if (residuales[p] > 0)
+                            minima = Math.min(minima, alturas[destinos[p]]);
+                    alturas[v] = minima + 1;
+                    siguientes[v] = desplazamientos[v];
+                    trabajo += 12 + desplazamientos[v + 1] -
+                        desplazamientos[v];
+                    if (alturas[v] >= n)
+                        break;
+                    continue;
+                }
+                int p = siguientes[v], w = destinos[p];
+                if (residuales[p] > 0 && alturas[v] == alturas[w] + 1) {
+                    double d = Math.min(excesos[v], residuales[p]);
+                    if (excesos[w] == 0 && w != t && w != s) {
+                        ligas[w] = cubetas[alturas[w]];
+                        cubetas[alturas[w]] = w;
+                    }
+                    residuales[p] -= d;
+                    residuales[inversas[p]] += d;
+                    excesos[v] -= d;
+                    excesos[w] += d;
+                    if (excesos[v] == 0)
+                        break;
+                }
+                siguientes[v]++;
+            }
+            if (excesos[v] > 0 && alturas[v] < n) {
+                ligas[v] = cubetas[alturas[v]];
+                cubetas[alturas[v]] = v;
+            }
+            mayor = Math.max(mayor, Math.min(alturas[v], n - 1));
+            if (trabajo > limite) {
+                trabajo = 0;
+                mayor = reetiqueta(grafica, residuales, inversas, s, t,
+                                   alturas, excesos, cubetas, ligas,
+                                   siguientes, cola);
+            }
+        }
+        reetiqueta(grafica, residuales, inversas, s, t, alturas, excesos,
+                   cubetas, ligas, siguientes, cola);
+        boolean[] lado = new boolean[n];
+        for (int v = 0; v < n; v++)
+            lado[v] = alturas[v] >= n;
+        return new FlujoMaximo<T>(grafica, excesos[t], lado);
+    }
+
+    /* Reetiquetado global: la altura de cada vértice es su distancia al
+     * destino en la red residual, o n si no lo alcanza, y las cubetas se
+     * vuelven a llenar con los vértices activos que lo alcanzan. Regresa la
+     * mayor altura con vértices activos, o -1 si no hay. */
+    private static int reetiqueta(GraficaCompacta<?> grafica,
+                                  double[] residuales, int[] inversas,
+                                  int s, int t, int[] alturas,
+                                  double[] excesos, int[] cubetas,
+                                  int[] ligas, int[] siguientes, int[] cola) {
+        int n = alturas.length;
+        for (int v = 0; v < n; v++) {
+            alturas[v] = n;
+            cubetas[v] = -1;
+            siguientes[v] = grafica.desplazamientos[v];
+        }
+        int cabeza = 0, rabo = 0;
+        cola[rabo++] = t;
+        alturas[t] = 0;
+        while (cabeza < rabo) {
+            int v = cola[cabeza++];
+            for (int p = grafica.desplazamientos[v];
+                 p < grafica.desplazamientos[v + 1]; p++) {
+                int u = grafica.destinos[p];
+                if (u != s && alturas[u] == n && residuales[inversas[p]] > 0) {
+                    alturas[u] = alturas[v] + 1;
+                    cola[rabo++] = u;
+                }
+            }
+        }
+        int mayor = -1;
+        for (int v = 0; v < n; v++) {
+            if (v == s || v == t || excesos[v] == 0 || alturas[v] >= n)
+                continue;
+            ligas[v] = cubetas[alturas[v]];
+            cubetas[alturas[v]] = v;
+            mayor = Math.max(mayor, alturas[v]);
+        }
+        return mayor;
+    }
+}
@@ -0,0 +1,14 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Enumeración para los formatos de archivos de aristas que lee {@link
+ * CargadorAristas}.
+ */
+public enum FormatoAristas {
+    /** Una arista por renglón: dos enteros y un peso opcional, separados por
+     *  espacios. Los renglones que empiezan con # son comentarios. */
+    TEXTO,
+    /** Registros de 16 bytes: dos enteros de 4 bytes y un peso de 8 bytes,
+     *  en orden big-endian. */
+    BINARIO;
+}
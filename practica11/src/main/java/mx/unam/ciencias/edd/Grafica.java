@@ -1,5 +1,6 @@
 package mx.unam.ciencias.edd;
 
+import java.lang.reflect.Array;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
@@ -43,6 +44,13 @@ public class Grafica<T> implements Coleccion<T> {
         public double distancia;
         /* El índice del vértice. */
         public int indice;
+        /* La época de la gráfica en que se calculó la distancia o se visitó
+         * el vértice. */
+        public int epoca;
+        /* La distancia al destino en las búsquedas bidireccionales. */
+        public double distanciaInversa;
+        /* La época en que se calculó la distancia al destino. */
+        public int epocaInversa;
         /* El diccionario de vecinos del vértice. */
         public Diccionario<T, Vecino> vecinos;
 
@@ -134,6 +142,11 @@ public class Grafica<T> implements Coleccion<T> {
     private Diccionario<T, Vertice> vertices;
     /* Número de aristas. */
     private int aristas;
+    /* La época actual; una distancia o marca de visita sólo es válida si su
+     * vértice tiene la época actual. */
+    private int epoca;
+    /* Las componentes conexas, o null si hay que reconstruirlas. */
+    private ConjuntosDisjuntos<T> conjuntos;
 
     /**
      * Constructor único.
@@ -166,7 +179,11 @@ public class Grafica<T> implements Coleccion<T> {
      *         la gráfica.
      */
     @Override public void agrega(T elemento) {
-        // Aquí va su código.
+        if (elemento == null || vertices.contiene(elemento))
+            throw new IllegalArgumentException("Elemento inválido");
+        vertices.agrega(elemento, new Vertice(elemento));
+        if (conjuntos != null)
+            conjuntos.agrega(elemento);
     }
 
     /**
@@ -179,7 +196,7 @@ public class Grafica<T> implements Coleccion<T> {
      *         igual a b.
      */
     public void conecta(T a, T b) {
-        // Aquí va su código.
+        conecta(a, b, 1);
     }
 
     /**
@@ -193,7 +210,46 @@ public class Grafica<T> implements Coleccion<T> {
      *         igual a b, o si el peso es no positivo.
      */
     public void conecta(T a, T b, double peso) {
-        // Aquí va su código.
+        Vertice u = vertices.get(a), v = vertices.get(b);
+        if (u == v || u.vecinos.contiene(b) || peso <= 0)
+            throw new IllegalArgumentException("Conexión inválida");
+        u.vecinos.agrega(b, new Vecino(v, peso));
+        v.vecinos.agrega(a, new Vecino(u, peso));
+        aristas++;
+        if (conjuntos != null)
+            conjuntos.une(a, b);
+    }
+
+    /* Agrega a la gráfica, que debe ser vacía, los elementos y aristas de la
+     * gráfica compacta. Los elementos de una gráfica compacta son distintos y
+     * sus aristas no se repiten, así que no se hacen las verificaciones de
+     * agrega y conecta, y los vecinos de cada vértice se crean con la
+     * capacidad de su grado. */
+    void agregaCompacta(GraficaCompacta<T> compacta) {
+        int n = compacta.getElementos();
+        vertices = new Diccionario<T, Vertice>(n);
+        Vertice[] arreglo = nuevoArreglo(n);
+        for (int i = 0; i < n; i++) {
+            T elemento = compacta.elemento(i);
+            arreglo[i] = new Vertice(elemento);
+            arreglo[i].vecinos =
+                new Diccionario<T, Vecino>(Math.max(compacta.grado(i), 1));
+            vertices.agrega(elemento, arreglo[i]);
+        }
+        for (int i = 0; i < n; i++)
+            for (int p = compacta.desplazamientos[i];
+                 p < compacta.desplazamientos[i + 1]; p++) {
+                Vertice v = arreglo[compacta.destinos[p]];
+                arreglo[i].vecinos.agrega(v.elemento,
+                                          new Vecino(v, compacta.pesos[p]));
+            }
+        aristas = compacta.getAristas();
+        conjuntos = null;
+    }
+
+    /* Truco para crear un arreglo de vértices. */
+    @SuppressWarnings("unchecked") private Vertice[] nuevoArreglo(int n) {
+        return (Vertice[])Array.newInstance(Vertice.class, n);
     }
 
     /**
@@ -205,7 +261,13 @@ public class Grafica<T> implements Coleccion<T> {
      * @throws IllegalArgumentException si a o b no están conectados.
      */
     public void desconecta(T a, T b) {
-        // Aquí va su código.
+        Vertice u = vertices.get(a), v = vertices.get(b);
+        if (!u.vecinos.contiene(b))
+            throw new IllegalArgumentException("Elementos no conectados");
+        u.vecinos.elimina(b);
+        v.vecinos.elimina(a);
+        aristas--;
+        conjuntos = null;
     }
 
     /**
@@ -225,7 +287,13 @@ public class Grafica<T> implements Coleccion<T> {
      *         gráfica.
      */
     @Override public void elimina(T elemento) {
-        // Aquí va su código.
+        Vertice v = vertices.get(elemento);
+        for (Vecino vecino : v.vecinos) {
+            vecino.vecino.vecinos.elimina(elemento);
+            aristas--;
+        }
+        vertices.elimina(elemento);
+        conjuntos = null;
     }
 
     /**
@@ -295,7 +363,43 @@ public class Grafica<T> implements Coleccion<T> {
      *         otro caso.
      */
     public boolean esConexa() {
-        // Aquí va su código.
+        return getComponentes() <= 1;
+    }
+
+    /**
+     * Regresa el número de componentes conexas de la gráfica.
+     * @return el número de componentes conexas de la gráfica.
+     */
+    public int getComponentes() {
+        return conjuntos().getConjuntos();
+    }
+
+    /**
+     * Nos dice si dos elementos de la gráfica están en la misma componente
+     * conexa.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return <code>true</code> si hay una trayectoria entre a y b,
+     *         <code>false</code> en otro caso.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     */
+    public boolean mismaComponente(T a, T b) {
+        return conjuntos().mismoConjunto(a, b);
+    }
+
+    /* Regresa los conjuntos disjuntos de las componentes conexas. Se
+     * mantienen al agregar vértices y aristas; si se eliminó alguno, se
+     * reconstruyen aquí. */
+    private ConjuntosDisjuntos<T> conjuntos() {
+        if (conjuntos != null)
+            return conjuntos;
+        conjuntos = new ConjuntosDisjuntos<T>();
+        for (Vertice v : vertices)
+            conjuntos.agrega(v.elemento);
+        for (Vertice v : vertices)
+            for (Vecino vecino : v.vecinos)
+                conjuntos.une(v.elemento, vecino.vecino.elemento);
+        return conjuntos;
     }
 
     /**
@@ -310,29 +414,31 @@ public class Grafica<T> implements Coleccion<T> {
     /**
      * Realiza la acción recibida en todos los vértices de la gráfica, en el
      * orden determinado por BFS, comenzando por el vértice correspondiente al
-     * elemento recibido. Al terminar el método, todos los vértices tendrán
-     * color {@link Color#NINGUNO}.
+     * elemento recibido. El recorrido marca los vértices con la época de la
+     * gráfica y no con su color, así que sólo toca los vértices que visita y
+     * no modifica el color de ninguno.
      * @param elemento el elemento sobre cuyo vértice queremos comenzar el
      *        recorrido.
      * @param accion la acción a realizar.
      * @throws NoSuchElementException si el elemento no está en la gráfica.
      */
     public void bfs(T elemento, AccionVerticeGrafica<T> accion) {
-        // Aquí va su código.
+        recorre(elemento, accion, new Cola<Vertice>());
     }
 
     /**
      * Realiza la acción recibida en todos los vértices de la gráfica, en el
      * orden determinado por DFS, comenzando por el vértice correspondiente al
-     * elemento recibido. Al terminar el método, todos los vértices tendrán
-     * color {@link Color#NINGUNO}.
+     * elemento recibido. El recorrido marca los vértices con la época de la
+     * gráfica y no con su color, así que sólo toca los vértices que visita y
+     * no modifica el color de ninguno.
      * @param elemento el elemento sobre cuyo vértice queremos comenzar el
      *        recorrido.
      * @param accion la acción a realizar.
      * @throws NoSuchElementException si el elemento no está en la gráfica.
      */
     public void dfs(T elemento, AccionVerticeGrafica<T> accion) {
-        // Aquí va su código.
+        recorre(elemento, accion, new Pila<Vertice>());
     }
 
     /**
@@ -348,7 +454,9 @@ public class Grafica<T> implements Coleccion<T> {
      * Limpia la gráfica de vértices y aristas, dejándola vacía.
      */
     @Override public void limpia() {
-        // Aquí va su código.
+        vertices.limpia();
+        aristas = 0;
+        conjuntos = null;
     }
 
     /**
@@ -393,12 +501,123 @@ public class Grafica<T> implements Coleccion<T> {
      *         la gráfica.
      */
     public Lista<VerticeGrafica<T>> trayectoriaMinima(T origen, T destino) {
-        // Aquí va su código.
+        return trayectoriaMinima(origen, destino, v -> {});
+    }
+
+    /* Calcula una trayectoria de distancia mínima entre dos vértices,
+     * aplicando la acción a cada vértice que asienta la búsqueda. */
+    Lista<VerticeGrafica<T>> trayectoriaMinima(T origen, T destino,
+                                               AccionVerticeGrafica<T>
+                                               asentado) {
+        Vertice s = vertices.get(origen);
+        Vertice t = vertices.get(destino);
+        nuevaEpoca();
+        s.epoca = epoca;
+        s.distancia = 0;
+        Cola<Vertice> cola = new Cola<Vertice>();
+        cola.mete(s);
+        while (!cola.esVacia() && t.epoca != epoca) {
+            Vertice u = cola.saca();
+            asentado.actua(u);
+            for (Vecino vecino : u.vecinos) {
+                Vertice v = vecino.vecino;
+                if (v.epoca != epoca) {
+                    v.epoca = epoca;
+                    v.distancia = u.distancia + 1;
+                    cola.mete(v);
+                }
+            }
+        }
+        return trayectoria(s, t, (v, a) -> a.vecino.epoca == epoca &&
+                           a.vecino.distancia + 1 == v.distancia);
+    }
+
+    /**
+     * Calcula una trayectoria de distancia mínima entre dos vértices,
+     * buscando al mismo tiempo desde el origen y desde el destino. En cada
+     * paso se expande un nivel completo de la frontera más pequeña, y la
+     * búsqueda termina en cuanto las dos se tocan.
+     * @param origen el vértice de origen.
+     * @param destino el vértice de destino.
+     * @return Una lista con vértices de la gráfica, tal que forman una
+     *         trayectoria de distancia mínima entre los vértices
+     *         <code>origen</code> y <code>destino</code>. Si los elementos se
+     *         encuentran en componentes conexos distintos, el algoritmo
+     *         regresa una lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public Lista<VerticeGrafica<T>>
+    trayectoriaMinimaBidireccional(T origen, T destino) {
+        return trayectoriaMinimaBidireccional(origen, destino, v -> {});
+    }
+
+    /* Calcula una trayectoria de distancia mínima entre dos vértices con la
+     * búsqueda bidireccional, aplicando la acción a cada vértice que asienta
+     * alguna de las dos búsquedas. */
+    Lista<VerticeGrafica<T>>
+    trayectoriaMinimaBidireccional(T origen, T destino,
+                                   AccionVerticeGrafica<T> asentado) {
+        Vertice s = vertices.get(origen);
+        Vertice t = vertices.get(destino);
+        nuevaEpoca();
+        s.epoca = epoca;
+        s.distancia = 0;
+        t.epocaInversa = epoca;
+        t.distanciaInversa = 0;
+        if (s == t)
+            return trayectoria(s, t, null);
+        Lista<Vertice> adelante = new Lista<Vertice>();
+        Lista<Vertice> atras = new Lista<Vertice>();
+        adelante.agrega(s);
+        atras.agrega(t);
+        Vertice encuentro = null;
+        double mejor = Double.POSITIVE_INFINITY;
+        while (encuentro == null && !adelante.esVacia() && !atras.esVacia()) {
+            boolean inversa = atras.getLongitud() < adelante.getLongitud();
+            Lista<Vertice> frontera = inversa ? atras : adelante;
+            Lista<Vertice> siguiente = new Lista<Vertice>();
+            for (Vertice u : frontera) {
+                asentado.actua(u);
+                double du = inversa ? u.distanciaInversa : u.distancia;
+                for (Vecino vecino : u.vecinos) {
+                    Vertice v = vecino.vecino;
+                    if (inversa ? v.epocaInversa == epoca : v.epoca == epoca)
+                        continue;
+                    if (inversa) {
+                        v.epocaInversa = epoca;
+                        v.distanciaInversa = du + 1;
+                    } else {
+                        v.epoca = epoca;
+                        v.distancia = du + 1;
+                    }
+                    siguiente.agrega(v);
+                    if (v.epoca == epoca && v.epocaInversa == epoca &&
+                        v.distancia + v.distanciaInversa < mejor) {
+                        mejor = v.distancia + v.distanciaInversa;
+                        encuentro = v;
+                    }
+                }
+            }
+            if (inversa)
+                atras = siguiente;
+            else
+                adelante = siguiente;
+        }
+        return trayectoria(s, t, encuentro,
+                           (v, a) -> a.vecino.epoca == epoca &&
+                           a.vecino.distancia + 1 == v.distancia,
+                           (v, a) -> a.vecino.epocaInversa == epoca &&
+                           a.vecino.distanciaInversa + 1 ==
+                           v.distanciaInversa);
     }
 
     /**
      * Calcula la ruta de peso mínimo entre el elemento de origen y el elemento
      * de destino.
+     * Sólo los vértices descubiertos entran al montículo, y el algoritmo
+     * termina en cuanto fija la distancia del destino, por lo que una consulta
+     * entre vértices cercanos no recorre toda la gráfica.
      * @param origen el vértice origen.
      * @param destino el vértice destino.
      * @return una trayectoria de peso mínimo entre el vértice <code>origen</code> y
@@ -408,6 +627,274 @@ public class Grafica<T> implements Coleccion<T> {
      *         la gráfica.
      */
     public Lista<VerticeGrafica<T>> dijkstra(T origen, T destino) {
-        // Aquí va su código.
+        return dijkstra(origen, destino, v -> {});
+    }
+
+    /* Calcula la ruta de peso mínimo entre dos elementos, aplicando la acción
+     * a cada vértice que asienta la búsqueda. */
+    Lista<VerticeGrafica<T>> dijkstra(T origen, T destino,
+                                      AccionVerticeGrafica<T> asentado) {
+        Vertice s = vertices.get(origen);
+        Vertice t = vertices.get(destino);
+        nuevaEpoca();
+        s.epoca = epoca;
+        s.distancia = 0;
+        MonticuloMinimo<Vertice> monticulo = new MonticuloMinimo<Vertice>();
+        monticulo.agrega(s);
+        while (!monticulo.esVacia()) {
+            Vertice u = monticulo.elimina();
+            asentado.actua(u);
+            if (u == t)
+                break;
+            for (Vecino vecino : u.vecinos) {
+                Vertice v = vecino.vecino;
+                double d = u.distancia + vecino.peso;
+                if (v.epoca != epoca) {
+                    v.epoca = epoca;
+                    v.distancia = d;
+                    monticulo.agrega(v);
+                } else if (d < v.distancia) {
+                    v.distancia = d;
+                    monticulo.reordena(v);
+                }
+            }
+        }
+        return trayectoria(s, t, (v, a) -> a.vecino.epoca == epoca &&
+                           a.vecino.distancia + a.peso == v.distancia);
+    }
+
+    /**
+     * Calcula la ruta de peso mínimo entre el elemento de origen y el elemento
+     * de destino, buscando al mismo tiempo desde el origen y desde el destino.
+     * En cada paso avanza la búsqueda con el montículo más pequeño, y termina
+     * cuando la suma de los mínimos de los dos montículos alcanza el peso de
+     * la mejor trayectoria encontrada.
+     * @param origen el vértice origen.
+     * @param destino el vértice destino.
+     * @return una trayectoria de peso mínimo entre el vértice
+     *         <code>origen</code> y el vértice <code>destino</code>. Si los
+     *         vértices están en componentes conexas distintas, regresa una
+     *         lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public Lista<VerticeGrafica<T>> dijkstraBidireccional(T origen,
+                                                          T destino) {
+        return dijkstraBidireccional(origen, destino, v -> {});
+    }
+
+    /* Calcula la ruta de peso mínimo entre dos elementos con la búsqueda
+     * bidireccional, aplicando la acción a cada vértice que asienta alguna de
+     * las dos búsquedas. */
+    Lista<VerticeGrafica<T>> dijkstraBidireccional(T origen, T destino,
+                                                   AccionVerticeGrafica<T>
+                                                   asentado) {
+        Vertice s = vertices.get(origen);
+        Vertice t = vertices.get(destino);
+        nuevaEpoca();
+        s.epoca = epoca;
+        s.distancia = 0;
+        t.epocaInversa = epoca;
+        t.distanciaInversa = 0;
+        if (s == t)
+            return trayectoria(s, t, null);
+        MonticuloMinimo<ValorIndexable<Vertice>> adelante =
+            new MonticuloMinimo<ValorIndexable<Vertice>>();
+        MonticuloMinimo<ValorIndexable<Vertice>> atras =
+            new MonticuloMinimo<ValorIndexable<Vertice>>();
+        adelante.agrega(new ValorIndexable<Vertice>(s, 0));
+        atras.agrega(new ValorIndexable<Vertice>(t, 0));
+        Vertice encuentro = null;
+        double mejor = Double.POSITIVE_INFINITY;
+        while (!adelante.esVacia() && !atras.esVacia()) {
+            if (adelante.get(0).getValor() + atras.get(0).getValor() >= mejor)
+                break;
+            boolean inversa = atras.getElementos() < adelante.getElementos();
+            ValorIndexable<Vertice> entrada =
+                inversa ? atras.elimina() : adelante.elimina();
+            Vertice u = entrada.getElemento();
+            double du = inversa ? u.distanciaInversa : u.distancia;
+            /* Las entradas viejas se quedan en el montículo; las ignoramos. */
+            if (entrada.getValor() > du)
+                continue;
+            asentado.actua(u);
+            for (Vecino vecino : u.vecinos) {
+                Vertice v = vecino.vecino;
+                double d = du + vecino.peso;
+                if (inversa) {
+                    if (v.epocaInversa == epoca && v.distanciaInversa <= d)
+                        continue;
+                    v.epocaInversa = epoca;
+                    v.distanciaInversa = d;
+                    atras.agrega(new ValorIndexable<Vertice>(v, d));
+                } else {
+                    if (v.epoca == epoca && v.distancia <= d)
+                        continue;
+                    v.epoca = epoca;
+                    v.distancia = d;
+                    adelante.agrega(new ValorIndexable<Vertice>(v, d));
+                }
+                if (v.epoca == epoca && v.epocaInversa == epoca &&
+                    v.distancia + v.distanciaInversa < mejor) {
+                    mejor = v.distancia + v.distanciaInversa;
+                    encuentro = v;
+                }
+            }
+        }
+        return trayectoria(s, t, encuentro,
+                           (v, a) -> a.vecino.epoca == epoca &&
+                           a.vecino.distancia + a.peso == v.distancia,
+                           (v, a) -> a.vecino.epocaInversa == epoca &&
+                           a.vecino.distanciaInversa + a.peso ==
+                           v.distanciaInversa);
+    }
+
+    /**
+     * Calcula la ruta de peso mínimo entre el elemento de origen y el elemento
+     * de destino usando el algoritmo A*: los vértices se asientan en orden de
+     * su distancia al origen más la estimación de la heurística hasta el
+     * destino, por lo que una buena heurística asienta muchos menos vértices
+     * que {@link #dijkstra}. La heurística debe ser consistente: nunca debe
+     * sobrestimar, y la estimación de un vértice no debe superar el peso de
+     * una arista a un vecino más la estimación del vecino. Así la trayectoria
+     * es de peso mínimo.
+     * @param origen el vértice origen.
+     * @param destino el vértice destino.
+     * @param heuristica la heurística para estimar el peso hasta el destino.
+     * @return una trayectoria de peso mínimo entre el vértice
+     *         <code>origen</code> y el vértice <code>destino</code>. Si los
+     *         vértices están en componentes conexas distintas, regresa una
+     *         lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     * @throws IllegalArgumentException si la heurística es <code>null</code>.
+     */
+    public Lista<VerticeGrafica<T>> aEstrella(T origen, T destino,
+                                              Heuristica<T> heuristica) {
+        return aEstrella(origen, destino, heuristica, v -> {});
+    }
+
+    /* Calcula la ruta de peso mínimo entre dos elementos con A*, aplicando la
+     * acción a cada vértice que asienta la búsqueda. */
+    Lista<VerticeGrafica<T>> aEstrella(T origen, T destino,
+                                       Heuristica<T> heuristica,
+                                       AccionVerticeGrafica<T> asentado) {
+        if (heuristica == null)
+            throw new IllegalArgumentException("Heurística inválida");
+        Vertice s = vertices.get(origen);
+        Vertice t = vertices.get(destino);
+        nuevaEpoca();
+        s.epoca = epoca;
+        s.distancia = 0;
+        MonticuloMinimo<ValorIndexable<Vertice>> monticulo =
+            new MonticuloMinimo<ValorIndexable<Vertice>>();
+        monticulo.agrega(new ValorIndexable<Vertice>(s,
+                                                     heuristica.estima(s, t)));
+        while (!monticulo.esVacia()) {
+            ValorIndexable<Vertice> entrada = monticulo.elimina();
+            Vertice u = entrada.getElemento();
+            /* Las entradas viejas se quedan en el montículo; las ignoramos. */
+            if (entrada.getValor() > u.distancia + heuristica.estima(u, t))
+                continue;
+            asentado.actua(u);
+            if (u == t)
+                break;
+            for (Vecino vecino : u.vecinos) {
+                Vertice v = vecino.vecino;
+                double d = u.distancia + vecino.peso;
+                if (v.epoca == epoca && v.distancia <= d)
+                    continue;
+                v.epoca = epoca;
+                v.distancia = d;
+                monticulo.agrega(new ValorIndexable<Vertice>(
+                                     v, d + heuristica.estima(v, t)));
+            }
+        }
+        return trayectoria(s, t, (v, a) -> a.vecino.epoca == epoca &&
+                           a.vecino.distancia + a.peso == v.distancia);
+    }
+
+    /* Recorre los vértices alcanzables desde el elemento en el orden que
+     * determina la estructura. Un vértice está visitado si tiene la época
+     * actual, así que el recorrido no tiene que limpiar colores. */
+    private void recorre(T elemento, AccionVerticeGrafica<T> accion,
+                         MeteSaca<Vertice> estructura) {
+        Vertice s = vertices.get(elemento);
+        nuevaEpoca();
+        s.epoca = epoca;
+        estructura.mete(s);
+        while (!estructura.esVacia()) {
+            Vertice u = estructura.saca();
+            accion.actua(u);
+            for (Vecino vecino : u.vecinos) {
+                Vertice v = vecino.vecino;
+                if (v.epoca != epoca) {
+                    v.epoca = epoca;
+                    estructura.mete(v);
+                }
+            }
+        }
+    }
+
+    /* Comienza una nueva época, con lo que todas las distancias y marcas de
+     * visita calculadas antes dejan de ser válidas. Si el contador da la
+     * vuelta, reiniciamos la época de todos los vértices. */
+    private void nuevaEpoca() {
+        if (++epoca != 0)
+            return;
+        for (Vertice v : vertices)
+            v.epoca = v.epocaInversa = 0;
+        epoca = 1;
+    }
+
+    /* Reconstruye la trayectoria de origen a destino caminando hacia atrás
+     * desde el destino por los vecinos que indique el buscador. Si el destino
+     * no se alcanzó en la época actual, regresa una lista vacía. */
+    private Lista<VerticeGrafica<T>> trayectoria(Vertice origen,
+                                                 Vertice destino,
+                                                 BuscadorCamino buscador) {
+        Lista<VerticeGrafica<T>> trayectoria =
+            new Lista<VerticeGrafica<T>>();
+        if (destino.epoca != epoca)
+            return trayectoria;
+        Vertice v = destino;
+        trayectoria.agregaInicio(v);
+        while (v != origen) {
+            for (Vecino a : v.vecinos) {
+                if (buscador.seSiguen(v, a)) {
+                    v = a.vecino;
+                    break;
+                }
+            }
+            trayectoria.agregaInicio(v);
+        }
+        return trayectoria;
+    }
+
+    /* Reconstruye la trayectoria de origen a destino de una búsqueda
+     * bidireccional que se encontró en el vértice de encuentro: la primera
+     * mitad caminando hacia el origen por los vecinos que indique el buscador
+     * de ida, y la segunda caminando hacia el destino por los que indique el
+     * buscador de regreso. Si no hubo encuentro, regresa una lista vacía. */
+    private Lista<VerticeGrafica<T>> trayectoria(Vertice origen,
+                                                 Vertice destino,
+                                                 Vertice encuentro,
+                                                 BuscadorCamino ida,
+                                                 BuscadorCamino regreso) {
+        if (encuentro == null)
+            return new Lista<VerticeGrafica<T>>();
+        Lista<VerticeGrafica<T>> trayectoria =
+            trayectoria(origen, encuentro, ida);
+        Vertice v = encuentro;
+        while (v != destino) {
+            for (Vecino a : v.vecinos) {
+                if (regreso.seSiguen(v, a)) {
+                    v = a.vecino;
+                    break;
+                }
+            }
+            trayectoria.agregaFinal(v);
+        }
+        return trayectoria;
     }
 }
@@ -0,0 +1,582 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para gráficas compactas. Una gráfica compacta es una copia
+ * inmutable de una {@link Grafica}, representada como renglones dispersos
+ * comprimidos (<em>CSR</em>): cada vértice tiene un índice en el rango [0,
+ * <i>n</i>), y los vecinos del vértice <i>i</i> son los índices en las
+ * posiciones [<code>desplazamientos[i]</code>,
+ * <code>desplazamientos[i+1]</code>) del arreglo de destinos, con sus pesos en
+ * las mismas posiciones del arreglo de pesos.</p>
+ *
+ * <p>Recorrer una arista sólo lee dos arreglos contiguos, en lugar de
+ * consultar un diccionario y seguir varias referencias, y la gráfica ocupa una
+ * fracción de la memoria. Los vecinos de cada vértice están ordenados por
+ * índice. Los vértices se numeran en el orden en que la gráfica original los
+ * itera.</p>
+ *
+ * <p>Los vértices que regresan los métodos de la clase son vistas ligeras
+ * sobre los arreglos; su color siempre es {@link Color#NINGUNO}.</p>
+ */
+public class GraficaCompacta<T> implements Iterable<T> {
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador implements Iterator<T> {
+
+        /* El índice del siguiente vértice. */
+        private int indice;
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            return indice < elementos.length;
+        }
+
+        /* Regresa el siguiente elemento. */
+        @Override public T next() {
+            if (indice >= elementos.length)
+                throw new NoSuchElementException();
+            return elementos[indice++];
+        }
+    }
+
+    /* Clase interna privada para vértices. */
+    private class Vertice implements VerticeGrafica<T> {
+
+        /* El índice del vértice. */
+        public int indice;
+
+        /* Crea un nuevo vértice para el índice. */
+        public Vertice(int indice) {
+            this.indice = indice;
+        }
+
+        /* Regresa el elemento del vértice. */
+        @Override public T get() {
+            return elementos[indice];
+        }
+
+        /* Regresa el grado del vértice. */
+        @Override public int getGrado() {
+            return grado(indice);
+        }
+
+        /* Regresa el color del vértice. */
+        @Override public Color getColor() {
+            return Color.NINGUNO;
+        }
+
+        /* Regresa un iterable para los vecinos. */
+        @Override public Iterable<? extends VerticeGrafica<T>> vecinos() {
+            return new Iterable<Vertice>() {
+                @Override public Iterator<Vertice> iterator() {
+                    return new IteradorVecinos(indice);
+                }
+            };
+        }
+
+        /* Regresa la gráfica del vértice. */
+        private GraficaCompacta<T> grafica() {
+            return GraficaCompacta.this;
+        }
+
+        /* Nos dice si el vértice es igual al objeto recibido. */
+        @Override public boolean equals(Object objeto) {
+            if (objeto == null || getClass() != objeto.getClass())
+                return false;
+            @SuppressWarnings("unchecked") Vertice vertice = (Vertice)objeto;
+            return grafica() == vertice.grafica() && indice == vertice.indice;
+        }
+
+        /* Regresa una dispersión del vértice. */
+        @Override public int hashCode() {
+            return indice;
+        }
+
+        /* Regresa una representación en cadena del vértice. */
+        @Override public String toString() {
+            return String.valueOf(elementos[indice]);
+        }
+    }
+
+    /* Clase interna privada para iteradores de vecinos. */
+    private class IteradorVecinos implements Iterator<Vertice> {
+
+        /* La siguiente posición en el arreglo de destinos. */
+        private int posicion;
+        /* La posición final. */
+        private int fin;
+
+        /* Construye un iterador para los vecinos del vértice. */
+        public IteradorVecinos(int indice) {
+            posicion = desplazamientos[indice];
+            fin = desplazamientos[indice + 1];
+        }
+
+        /* Nos dice si hay un siguiente vecino. */
+        @Override public boolean hasNext() {
+            return posicion < fin;
+        }
+
+        /* Regresa el siguiente vecino. */
+        @Override public Vertice next() {
+            if (posicion >= fin)
+                throw new NoSuchElementException();
+            return new Vertice(destinos[posicion++]);
+        }
+    }
+
+    /* Los elementos, por índice. */
+    private T[] elementos;
+    /* Los índices, por elemento. */
+    private Diccionario<T, Integer> indices;
+    /* Dónde empiezan los vecinos de cada vértice; tiene n+1 entradas. */
+    int[] desplazamientos;
+    /* Los vecinos de todos los vértices, uno tras otro. */
+    int[] destinos;
+    /* El peso de cada arista en el arreglo de destinos. */
+    double[] pesos;
+
+    /* Truco para crear un arreglo genérico. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private T[] nuevoArreglo(int n) {
+        return (T[])(new Object[n]);
+    }
+
+    /**
+     * Construye una gráfica compacta a partir de una gráfica. Cambios
+     * posteriores a la gráfica no se reflejan en la gráfica compacta.
+     * @param grafica la gráfica a copiar.
+     */
+    public GraficaCompacta(Grafica<T> grafica) {
+        int n = grafica.getElementos();
+        elementos = nuevoArreglo(n);
+        indices = new Diccionario<T, Integer>(n);
+        int i = 0;
+        for (T elemento : grafica) {
+            elementos[i] = elemento;
+            indices.agrega(elemento, i++);
+        }
+        desplazamientos = new int[n + 1];
+        destinos = new int[2 * grafica.getAristas()];
+        pesos = new double[destinos.length];
+        int p = 0;
+        for (i = 0; i < n; i++) {
+            desplazamientos[i] = p;
+            T a = elementos[i];
+            for (VerticeGrafica<T> vecino : grafica.vertice(a).vecinos()) {
+                T b = vecino.get();
+                destinos[p] = indices.get(b);
+                pesos[p++] = grafica.getPeso(a, b);
+            }
+            ordenaVecinos(destinos, pesos, desplazamientos[i], p);
+        }
+        desplazamientos[n] = p;
+    }
+
+    /* Construye una gráfica compacta con los arreglos recibidos, sin
+     * copiarlos. Los elementos deben ser distintos, cada arista debe aparecer
+     * en las dos direcciones con el mismo peso, y los vecinos de cada vértice
+     * deben estar ordenados por índice. */
+    GraficaCompacta(T[] elementos, int[] desplazamientos, int[] destinos,
+                    double[] pesos) {
+        this.elementos = elementos;
+        indices = new Diccionario<T, Integer>(elementos.length);
+        for (int i = 0; i < elementos.length; i++)
+            indices.agrega(elementos[i], i);
+        this.desplazamientos = desplazamientos;
+        this.destinos = destinos;
+        this.pesos = pesos;
+    }
+
+    /* Ordena por índice los vecinos en las posiciones [ini, fin) de los
+     * arreglos, junto con sus pesos. Las listas cortas se ordenan por
+     * inserción; las largas, ordenando llaves con el índice en los bits altos
+     * y la posición en los bajos, en tiempo O(d log d). */
+    static void ordenaVecinos(int[] destinos, double[] pesos, int ini,
+                              int fin) {
+        if (fin - ini <= 32) {
+            for (int i = ini + 1; i < fin; i++) {
+                int d = destinos[i];
+                double w = pesos[i];
+                int j = i - 1;
+                while (j >= ini && destinos[j] > d) {
+                    destinos[j + 1] = destinos[j];
+                    pesos[j + 1] = pesos[j];
+                    j--;
+                }
+                destinos[j + 1] = d;
+                pesos[j + 1] = w;
+            }
+            return;
+        }
+        long[] llaves = new long[fin - ini];
+        for (int i = ini; i < fin; i++)
+            llaves[i - ini] = ((long)destinos[i] << 32) | (i - ini);
+        Arrays.sort(llaves);
+        double[] copia = Arrays.copyOfRange(pesos, ini, fin);
+        for (int i = ini; i < fin; i++) {
+            long llave = llaves[i - ini];
+            destinos[i] = (int)(llave >>> 32);
+            pesos[i] = copia[(int)llave];
+        }
+    }
+
+    /**
+     * Regresa el número de elementos en la gráfica. El número de elementos es
+     * igual al número de vértices.
+     * @return el número de elementos en la gráfica.
+     */
+    public int getElementos() {
+        return elementos.length;
+    }
+
+    /**
+     * Regresa el número de aristas.
+     * @return el número de aristas.
+     */
+    public int getAristas() {
+        return destinos.length / 2;
+    }
+
+    /**
+     * Nos dice si la gráfica es vacía.
+     * @return <code>true</code> si la gráfica es vacía, <code>false</code> en
+     *         otro caso.
+     */
+    public boolean esVacia() {
+        return elementos.length == 0;
+    }
+
+    /**
+     * Nos dice si el elemento está contenido en la gráfica.
+     * @param elemento el elemento que queremos ver si está en la gráfica.
+     * @return <code>true</code> si el elemento está contenido en la gráfica,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(T elemento) {
+        return elemento != null && indices.contiene(elemento);
+    }
+
+    /**
+     * Regresa el índice del vértice correspondiente al elemento recibido.
+     * @param elemento el elemento del que queremos el índice.
+     * @return el índice del vértice del elemento, en el rango [0, <i>n</i>).
+     * @throws NoSuchElementException si elemento no es elemento de la gráfica.
+     */
+    public int indice(T elemento) {
+        if (!contiene(elemento))
+            throw new NoSuchElementException("Elemento inválido");
+        return indices.get(elemento);
+    }
+
+    /**
+     * Regresa el elemento del vértice con el índice recibido.
+     * @param indice el índice del vértice.
+     * @return el elemento del vértice.
+     * @throws ExcepcionIndiceInvalido si el índice es inválido.
+     */
+    public T elemento(int indice) {
+        verificaIndice(indice);
+        return elementos[indice];
+    }
+
+    /**
+     * Regresa el grado del vértice con el índice recibido.
+     * @param indice el índice del vértice.
+     * @return el grado del vértice.
+     * @throws ExcepcionIndiceInvalido si el índice es inválido.
+     */
+    public int grado(int indice) {
+        verificaIndice(indice);
+        return desplazamientos[indice + 1] - desplazamientos[indice];
+    }
+
+    /**
+     * Regresa el vértice correspondiente el elemento recibido.
+     * @param elemento el elemento del que queremos el vértice.
+     * @throws NoSuchElementException si elemento no es elemento de la gráfica.
+     * @return el vértice correspondiente el elemento recibido.
+     */
+    public VerticeGrafica<T> vertice(T elemento) {
+        return new Vertice(indice(elemento));
+    }
+
+    /* Lanza una excepción si el índice no es de un vértice. */
+    private void verificaIndice(int indice) {
+        if (indice < 0 || indice >= elementos.length)
+            throw new ExcepcionIndiceInvalido("Índice inválido: " + indice);
+    }
+
+    /* Regresa la posición en el arreglo de destinos de la arista de a a b, o
+     * -1 si no son vecinos. Los vecinos están ordenados, así que usamos
+     * búsqueda binaria. */
+    int arista(int a, int b) {
+        int ini = desplazamientos[a], fin = desplazamientos[a + 1] - 1;
+        while (ini <= fin) {
+            int m = (ini + fin) >>> 1;
+            if (destinos[m] < b)
+                ini = m + 1;
+            else if (destinos[m] > b)
+                fin = m - 1;
+            else
+                return m;
+        }
+        return -1;
+    }
+
+    /**
+     * Nos dice si dos elementos de la gráfica están conectados.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return <code>true</code> si a y b son vecinos, <code>false</code> en
+     *         otro caso.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     */
+    public boolean sonVecinos(T a, T b) {
+        return arista(indice(a), indice(b)) != -1;
+    }
+
+    /**
+     * Regresa el peso de la arista que comparten los vértices que contienen a
+     * los elementos recibidos.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return el peso de la arista que comparten los vértices.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si a o b no están conectados.
+     */
+    public double getPeso(T a, T b) {
+        int p = arista(indice(a), indice(b));
+        if (p == -1)
+            throw new IllegalArgumentException("Elementos no conectados");
+        return pesos[p];
+    }
+
+    /**
+     * Realiza la acción recibida en todos los vértices de la gráfica, en el
+     * orden determinado por BFS, comenzando por el vértice correspondiente al
+     * elemento recibido.
+     * @param elemento el elemento sobre cuyo vértice queremos comenzar el
+     *        recorrido.
+     * @param accion la acción a realizar.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public void bfs(T elemento, AccionVerticeGrafica<T> accion) {
+        recorre(indice(elemento), accion, true);
+    }
+
+    /**
+     * Realiza la acción recibida en todos los vértices de la gráfica, en el
+     * orden determinado por DFS, comenzando por el vértice correspondiente al
+     * elemento recibido.
+     * @param elemento el elemento sobre cuyo vértice queremos comenzar el
+     *        recorrido.
+     * @param accion la acción a realizar.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public void dfs(T elemento, AccionVerticeGrafica<T> accion) {
+        recorre(indice(elemento), accion, false);
+    }
+
+    /* Recorre la gráfica desde el origen, usando el arreglo de pendientes como
+     * cola si bfs es verdadero, o como pila si no. */
+    private void recorre(int origen, AccionVerticeGrafica<T> accion,
+                         boolean bfs) {
+        boolean[] vistos = new boolean[elementos.length];
+        int[] pendientes = new int[elementos.length];
+        int cabeza = 0, rabo = 0;
+        pendientes[rabo++] = origen;
+        vistos[origen] = true;
+        while (cabeza < rabo) {
+            int u = bfs ? pendientes[cabeza++] : pendientes[--rabo];
+            accion.actua(new Vertice(u));
+            for (int p = desplazamientos[u]; p < desplazamientos[u + 1]; p++) {
+                int v = destinos[p];
+                if (!vistos[v]) {
+                    vistos[v] = true;
+                    pendientes[rabo++] = v;
+                }
+            }
+        }
+    }
+
+    /* Regresa la trayectoria que termina en destino según el arreglo de
+     * padres, o una lista vacía si el destino no tiene padre. */
+    private Lista<VerticeGrafica<T>> trayectoria(int origen, int destino,
+                                                 int[] padres) {
+        Lista<VerticeGrafica<T>> trayectoria =
+            new Lista<VerticeGrafica<T>>();
+        if (origen != destino && padres[destino] == -1)
+            return trayectoria;
+        for (int v = destino; v != origen; v = padres[v])
+            trayectoria.agregaInicio(new Vertice(v));
+        trayectoria.agregaInicio(new Vertice(origen));
+        return trayectoria;
+    }
+
+    /**
+     * Calcula una trayectoria de distancia mínima entre dos vértices.
+     * @param origen el vértice de origen.
+     * @param destino el vértice de destino.
+     * @return Una lista con vértices de la gráfica, tal que forman una
+     *         trayectoria de distancia mínima entre los vértices
+     *         <code>origen</code> y <code>destino</code>. Si los elementos se
+     *         encuentran en componentes conexos distintos, el algoritmo
+     *         regresa una lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public Lista<VerticeGrafica<T>> trayectoriaMinima(T origen, T destino) {
+        int s = indice(origen), t = indice(destino);
+        int[] padres = new int[elementos.length];
+        for (int i = 0; i < padres.length; i++)
+            padres[i] = -1;
+        int[] cola = new int[elementos.length];
+        int cabeza = 0, rabo = 0;
+        cola[rabo++] = s;
+        padres[s] = s;
+        while (cabeza < rabo && padres[t] == -1) {
+            int u = cola[cabeza++];
+            for (int p = desplazamientos[u]; p < desplazamientos[u + 1]; p++) {
+                int v = destinos[p];
+                if (padres[v] == -1) {
+                    padres[v] = u;
+                    cola[rabo++] = v;
+                }
+            }
+        }
+        return trayectoria(s, t, padres);
+    }
+
+    /**
+     * Calcula la ruta de peso mínimo entre el elemento de origen y el elemento
+     * de destino.
+     * @param origen el vértice origen.
+     * @param destino el vértice destino.
+     * @return una trayectoria de peso mínimo entre el vértice
+     *         <code>origen</code> y el vértice <code>destino</code>. Si los
+     *         vértices están en componentes conexas distintas, regresa una
+     *         lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public Lista<VerticeGrafica<T>> dijkstra(T origen, T destino) {
+        int s = indice(origen), t = indice(destino);
+        int[] padres = new int[elementos.length];
+        double[] distancias = new double[elementos.length];
+        for (int i = 0; i < padres.length; i++) {
+            padres[i] = -1;
+            distancias[i] = Double.POSITIVE_INFINITY;
+        }
+        MonticuloIndexado monticulo = new MonticuloIndexado(elementos.length);
+        distancias[s] = 0;
+        monticulo.agrega(s, 0);
+        while (!monticulo.esVacia()) {
+            int u = monticulo.elimina();
+            if (u == t)
+                break;
+            for (int p = desplazamientos[u]; p < desplazamientos[u + 1]; p++) {
+                int v = destinos[p];
+                double d = distancias[u] + pesos[p];
+                if (d < distancias[v]) {
+                    distancias[v] = d;
+                    padres[v] = u;
+                    monticulo.agrega(v, d);
+                }
+            }
+        }
+        return trayectoria(s, t, padres);
+    }
+
+    /**
+     * Regresa el peso de las trayectorias mínimas desde el vértice de origen
+     * hasta todos los vértices de la gráfica. Como la gráfica compacta es
+     * inmutable, varios hilos pueden llamar este método al mismo tiempo.
+     * @param origen el vértice origen.
+     * @return un arreglo con el peso de la trayectoria mínima hasta cada
+     *         vértice, indexado por el índice de los vértices; los vértices
+     *         inalcanzables tienen {@link Double#POSITIVE_INFINITY}.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public double[] distancias(T origen) {
+        return distancias(indice(origen));
+    }
+
+    /* Regresa el peso de las trayectorias mínimas desde el índice de origen
+     * hasta todos los vértices. */
+    double[] distancias(int origen) {
+        double[] distancias = new double[elementos.length];
+        for (int i = 0; i < distancias.length; i++)
+            distancias[i] = Double.POSITIVE_INFINITY;
+        MonticuloIndexado monticulo = new MonticuloIndexado(elementos.length);
+        distancias[origen] = 0;
+        monticulo.agrega(origen, 0);
+        while (!monticulo.esVacia()) {
+            int u = monticulo.elimina();
+            for (int p = desplazamientos[u]; p < desplazamientos[u + 1]; p++) {
+                int v = destinos[p];
+                double d = distancias[u] + pesos[p];
+                if (d < distancias[v]) {
+                    distancias[v] = d;
+                    monticulo.agrega(v, d);
+                }
+            }
+        }
+        return distancias;
+    }
+
+    /* Regresa el número de aristas en las trayectorias más cortas desde el
+     * índice de origen hasta todos los vértices, o -1 para los vértices
+     * inalcanzables. */
+    int[] saltos(int origen) {
+        int[] saltos = new int[elementos.length];
+        for (int i = 0; i < saltos.length; i++)
+            saltos[i] = -1;
+        int[] cola = new int[elementos.length];
+        int cabeza = 0, rabo = 0;
+        cola[rabo++] = origen;
+        saltos[origen] = 0;
+        while (cabeza < rabo) {
+            int u = cola[cabeza++];
+            for (int p = desplazamientos[u]; p < desplazamientos[u + 1]; p++) {
+                int v = destinos[p];
+                if (saltos[v] == -1) {
+                    saltos[v] = saltos[u] + 1;
+                    cola[rabo++] = v;
+                }
+            }
+        }
+        return saltos;
+    }
+
+    /**
+     * Regresa una representación en cadena de la gráfica.
+     * @return una representación en cadena de la gráfica.
+     */
+    @Override public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (T elemento : elementos)
+            sb.append(elemento).append(", ");
+        sb.append("}, {");
+        for (int u = 0; u < elementos.length; u++)
+            for (int p = desplazamientos[u]; p < desplazamientos[u + 1]; p++)
+                if (u < destinos[p])
+                    sb.append(String.format("(%s, %s), ", elementos[u],
+                                            elementos[destinos[p]]));
+        return sb.append("}").toString();
+    }
+
+    /**
+     * Regresa un iterador para iterar la gráfica. La gráfica se itera en el
+     * orden de los índices de sus vértices.
+     * @return un iterador para iterar la gráfica.
+     */
+    @Override public Iterator<T> iterator() {
+        return new Iterador();
+    }
+}
@@ -0,0 +1,732 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para gráficas dirigidas. Una gráfica dirigida es un conjunto de
+ * vértices y aristas, tales que las aristas son pares ordenados de
+ * vértices.</p>
+ *
+ * <p>Cada vértice guarda sus aristas salientes y sus aristas entrantes en
+ * diccionarios separados, así que se puede caminar la gráfica en ambas
+ * direcciones. Las dos entradas de una arista comparten el mismo objeto, por
+ * lo que cada arista dirigida cuesta un solo objeto de arista, a diferencia
+ * de {@link Grafica} que guarda un vecino por cada extremo.</p>
+ */
+public class GraficaDirigida<T> implements Coleccion<T> {
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador implements Iterator<T> {
+
+        /* Iterador auxiliar. */
+        private Iterator<Vertice> iterador;
+
+        /* Construye un nuevo iterador, auxiliándose de la lista de vértices. */
+        public Iterador() {
+            iterador = vertices.iterator();
+        }
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            return iterador.hasNext();
+        }
+
+        /* Regresa el siguiente elemento. */
+        @Override public T next() {
+            return iterador.next().elemento;
+        }
+    }
+
+    /* Clase interna privada para iteradores de los extremos de aristas. */
+    private class IteradorExtremos implements Iterator<Vertice> {
+
+        /* Iterador auxiliar. */
+        private Iterator<Arista> iterador;
+        /* Si regresamos los destinos o los orígenes. */
+        private boolean destinos;
+
+        /* Construye un iterador para los extremos de las aristas. */
+        public IteradorExtremos(Diccionario<T, Arista> aristas,
+                                boolean destinos) {
+            iterador = aristas.iterator();
+            this.destinos = destinos;
+        }
+
+        /* Nos dice si hay un siguiente extremo. */
+        @Override public boolean hasNext() {
+            return iterador.hasNext();
+        }
+
+        /* Regresa el siguiente extremo. */
+        @Override public Vertice next() {
+            Arista arista = iterador.next();
+            return destinos ? arista.destino : arista.origen;
+        }
+    }
+
+    /* Clase interna privada para vértices. */
+    private class Vertice implements VerticeGrafica<T>,
+                          ComparableIndexable<Vertice> {
+
+        /* El elemento del vértice. */
+        public T elemento;
+        /* El color del vértice. */
+        public Color color;
+        /* La distancia del vértice. */
+        public double distancia;
+        /* El índice del vértice. */
+        public int indice;
+        /* La época de la gráfica en que se calculó la distancia o se visitó
+         * el vértice. */
+        public int epoca;
+        /* Las aristas entrantes aún no procesadas en el orden topológico. */
+        public int pendientes;
+        /* Las aristas salientes, por el elemento de su destino. */
+        public Diccionario<T, Arista> salientes;
+        /* Las aristas entrantes, por el elemento de su origen. */
+        public Diccionario<T, Arista> entrantes;
+
+        /* Crea un nuevo vértice a partir de un elemento. */
+        public Vertice(T elemento) {
+            this.elemento = elemento;
+            color = Color.NINGUNO;
+            salientes = new Diccionario<T, Arista>();
+            entrantes = new Diccionario<T, Arista>();
+        }
+
+        /* Regresa el elemento del vértice. */
+        @Override public T get() {
+            return elemento;
+        }
+
+        /* Regresa el grado de salida del vértice. */
+        @Override public int getGrado() {
+            return salientes.getElementos();
+        }
+
+        /* Regresa el color del vértice. */
+        @Override public Color getColor() {
+            return color;
+        }
+
+        /* Regresa un iterable para los destinos de las aristas salientes. */
+        @Override public Iterable<? extends VerticeGrafica<T>> vecinos() {
+            return extremos(salientes, true);
+        }
+
+        /* Define el índice del vértice. */
+        @Override public void setIndice(int indice) {
+            this.indice = indice;
+        }
+
+        /* Regresa el índice del vértice. */
+        @Override public int getIndice() {
+            return indice;
+        }
+
+        /* Compara dos vértices por distancia. */
+        @Override public int compareTo(Vertice vertice) {
+            return Double.compare(distancia, vertice.distancia);
+        }
+    }
+
+    /* Clase interna privada para aristas dirigidas. */
+    private class Arista {
+
+        /* El origen de la arista. */
+        public Vertice origen;
+        /* El destino de la arista. */
+        public Vertice destino;
+        /* El peso de la arista. */
+        public double peso;
+
+        /* Construye una arista del origen al destino con el peso
+         * especificado. */
+        public Arista(Vertice origen, Vertice destino, double peso) {
+            this.origen = origen;
+            this.destino = destino;
+            this.peso = peso;
+        }
+    }
+
+    /* Vértices. */
+    private Diccionario<T, Vertice> vertices;
+    /* Número de aristas. */
+    private int aristas;
+    /* La época actual; una distancia o marca de visita sólo es válida si su
+     * vértice tiene la época actual. */
+    private int epoca;
+
+    /**
+     * Constructor único.
+     */
+    public GraficaDirigida() {
+        vertices = new Diccionario<T, Vertice>();
+    }
+
+    /* Regresa un iterable para los extremos de las aristas. */
+    private Iterable<Vertice> extremos(Diccionario<T, Arista> aristas,
+                                       boolean destinos) {
+        return new Iterable<Vertice>() {
+            @Override public Iterator<Vertice> iterator() {
+                return new IteradorExtremos(aristas, destinos);
+            }
+        };
+    }
+
+    /* Regresa el vértice del elemento. */
+    private Vertice busca(T elemento) {
+        if (!contiene(elemento))
+            throw new NoSuchElementException("Elemento inválido");
+        return vertices.get(elemento);
+    }
+
+    /* Regresa la arista de a a b, o lanza una excepción si no existe. */
+    private Arista arista(T a, T b) {
+        Vertice u = busca(a);
+        busca(b);
+        if (!u.salientes.contiene(b))
+            throw new IllegalArgumentException("Elementos no conectados");
+        return u.salientes.get(b);
+    }
+
+    /**
+     * Regresa el número de elementos en la gráfica. El número de elementos es
+     * igual al número de vértices.
+     * @return el número de elementos en la gráfica.
+     */
+    @Override public int getElementos() {
+        return vertices.getElementos();
+    }
+
+    /**
+     * Regresa el número de aristas.
+     * @return el número de aristas.
+     */
+    public int getAristas() {
+        return aristas;
+    }
+
+    /**
+     * Agrega un nuevo elemento a la gráfica.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si el elemento ya había sido agregado a
+     *         la gráfica.
+     */
+    @Override public void agrega(T elemento) {
+        if (elemento == null || contiene(elemento))
+            throw new IllegalArgumentException("Elemento inválido");
+        vertices.agrega(elemento, new Vertice(elemento));
+    }
+
+    /**
+     * Agrega una arista del primer elemento al segundo. Los elementos deben
+     * estar en la gráfica. El peso de la arista será 1.
+     * @param a el origen de la arista.
+     * @param b el destino de la arista.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si ya hay una arista de a a b, o si a
+     *         es igual a b.
+     */
+    public void conecta(T a, T b) {
+        conecta(a, b, 1);
+    }
+
+    /**
+     * Agrega una arista del primer elemento al segundo. Los elementos deben
+     * estar en la gráfica.
+     * @param a el origen de la arista.
+     * @param b el destino de la arista.
+     * @param peso el peso de la nueva arista.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si ya hay una arista de a a b, si a es
+     *         igual a b, o si el peso es no positivo.
+     */
+    public void conecta(T a, T b, double peso) {
+        Vertice u = busca(a), v = busca(b);
+        if (u == v || u.salientes.contiene(b) || peso <= 0)
+            throw new IllegalArgumentException("Conexión inválida");
+        Arista arista = new Arista(u, v, peso);
+        u.salientes.agrega(b, arista);
+        v.entrantes.agrega(a, arista);
+        aristas++;
+    }
+
+    /**
+     * Elimina la arista del primer elemento al segundo. Los elementos deben
+     * estar en la gráfica y tener una arista entre ellos.
+     * @param a el origen de la arista.
+     * @param b el destino de la arista.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si no hay una arista de a a b.
+     */
+    public void desconecta(T a, T b) {
+        Arista arista = arista(a, b);
+        arista.origen.salientes.elimina(b);
+        arista.destino.entrantes.elimina(a);
+        aristas--;
+    }
+
+    /**
+     * Nos dice si el elemento está contenido en la gráfica.
+     * @return <code>true</code> si el elemento está contenido en la gráfica,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean contiene(T elemento) {
+        return elemento != null && vertices.contiene(elemento);
+    }
+
+    /**
+     * Elimina un elemento de la gráfica, junto con todas sus aristas
+     * entrantes y salientes. El elemento tiene que estar contenido en la
+     * gráfica.
+     * @param elemento el elemento a eliminar.
+     * @throws NoSuchElementException si el elemento no está contenido en la
+     *         gráfica.
+     */
+    @Override public void elimina(T elemento) {
+        Vertice v = busca(elemento);
+        for (Arista arista : v.salientes)
+            arista.destino.entrantes.elimina(elemento);
+        for (Arista arista : v.entrantes)
+            arista.origen.salientes.elimina(elemento);
+        aristas -= v.salientes.getElementos() + v.entrantes.getElementos();
+        vertices.elimina(elemento);
+    }
+
+    /**
+     * Nos dice si hay una arista del primer elemento al segundo. Los
+     * elementos deben estar en la gráfica.
+     * @param a el origen.
+     * @param b el destino.
+     * @return <code>true</code> si hay una arista de a a b, <code>false</code>
+     *         en otro caso.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     */
+    public boolean sonVecinos(T a, T b) {
+        Vertice u = busca(a);
+        busca(b);
+        return u.salientes.contiene(b);
+    }
+
+    /**
+     * Regresa el peso de la arista del primer elemento al segundo.
+     * @param a el origen de la arista.
+     * @param b el destino de la arista.
+     * @return el peso de la arista de a a b.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si no hay una arista de a a b.
+     */
+    public double getPeso(T a, T b) {
+        return arista(a, b).peso;
+    }
+
+    /**
+     * Define el peso de la arista del primer elemento al segundo.
+     * @param a el origen de la arista.
+     * @param b el destino de la arista.
+     * @param peso el nuevo peso de la arista.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si no hay una arista de a a b, o si
+     *         peso es menor o igual que cero.
+     */
+    public void setPeso(T a, T b, double peso) {
+        Arista arista = arista(a, b);
+        if (peso <= 0)
+            throw new IllegalArgumentException("Peso inválido");
+        arista.peso = peso;
+    }
+
+    /**
+     * Regresa el vértice correspondiente el elemento recibido. Los vecinos
+     * del vértice son los destinos de sus aristas salientes, y su grado es su
+     * grado de salida.
+     * @param elemento el elemento del que queremos el vértice.
+     * @throws NoSuchElementException si elemento no es elemento de la gráfica.
+     * @return el vértice correspondiente el elemento recibido.
+     */
+    public VerticeGrafica<T> vertice(T elemento) {
+        return busca(elemento);
+    }
+
+    /**
+     * Regresa un iterable para los orígenes de las aristas que llegan al
+     * vértice del elemento recibido.
+     * @param elemento el elemento del vértice.
+     * @return un iterable para los orígenes de las aristas entrantes.
+     * @throws NoSuchElementException si elemento no es elemento de la gráfica.
+     */
+    public Iterable<? extends VerticeGrafica<T>> entrantes(T elemento) {
+        return extremos(busca(elemento).entrantes, false);
+    }
+
+    /**
+     * Regresa el número de aristas que llegan al vértice del elemento.
+     * @param elemento el elemento del vértice.
+     * @return el grado de entrada del vértice.
+     * @throws NoSuchElementException si elemento no es elemento de la gráfica.
+     */
+    public int getGradoEntrada(T elemento) {
+        return busca(elemento).entrantes.getElementos();
+    }
+
+    /**
+     * Define el color del vértice recibido.
+     * @param vertice el vértice al que queremos definirle el color.
+     * @param color el nuevo color del vértice.
+     * @throws IllegalArgumentException si el vértice no es válido.
+     */
+    public void setColor(VerticeGrafica<T> vertice, Color color) {
+        if (vertice == null || vertice.getClass() != Vertice.class)
+            throw new IllegalArgumentException("Vértice inválido");
+        @SuppressWarnings("unchecked") Vertice v = (Vertice)vertice;
+        v.color = color;
+    }
+
+    /**
+     * Realiza la acción recibida en cada uno de los vértices de la gráfica, en
+     * el orden en que fueron agregados.
+     * @param accion la acción a realizar.
+     */
+    public void paraCadaVertice(AccionVerticeGrafica<T> accion) {
+        for (Vertice v : vertices)
+            accion.actua(v);
+    }
+
+    /**
+     * Realiza la acción recibida en todos los vértices alcanzables desde el
+     * vértice correspondiente al elemento recibido, siguiendo las aristas en
+     * su dirección y en el orden determinado por BFS. El recorrido no
+     * modifica el color de ningún vértice.
+     * @param elemento el elemento sobre cuyo vértice queremos comenzar el
+     *        recorrido.
+     * @param accion la acción a realizar.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public void bfs(T elemento, AccionVerticeGrafica<T> accion) {
+        recorre(elemento, accion, new Cola<Vertice>());
+    }
+
+    /**
+     * Realiza la acción recibida en todos los vértices alcanzables desde el
+     * vértice correspondiente al elemento recibido, siguiendo las aristas en
+     * su dirección y en el orden determinado por DFS. El recorrido no
+     * modifica el color de ningún vértice.
+     * @param elemento el elemento sobre cuyo vértice queremos comenzar el
+     *        recorrido.
+     * @param accion la acción a realizar.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public void dfs(T elemento, AccionVerticeGrafica<T> accion) {
+        recorre(elemento, accion, new Pila<Vertice>());
+    }
+
+    /* Recorre los vértices alcanzables desde el elemento en el orden que
+     * determina la estructura, marcándolos con la época actual. */
+    private void recorre(T elemento, AccionVerticeGrafica<T> accion,
+                         MeteSaca<Vertice> estructura) {
+        Vertice s = busca(elemento);
+        nuevaEpoca();
+        s.epoca = epoca;
+        estructura.mete(s);
+        while (!estructura.esVacia()) {
+            Vertice u = estructura.saca();
+            accion.actua(u);
+            for (Arista arista : u.salientes) {
+                Vertice v = arista.destino;
+                if (v.epoca != epoca) {
+                    v.epoca = epoca;
+                    estructura.mete(v);
+                }
+            }
+        }
+    }
+
+    /**
+     * Nos dice si la gráfica es vacía.
+     * @return <code>true</code> si la gráfica es vacía, <code>false</code> en
+     *         otro caso.
+     */
+    @Override public boolean esVacia() {
+        return vertices.esVacia();
+    }
+
+    /**
+     * Limpia la gráfica de vértices y aristas, dejándola vacía.
+     */
+    @Override public void limpia() {
+        vertices.limpia();
+        aristas = 0;
+    }
+
+    /**
+     * Regresa una representación en cadena de la gráfica.
+     * @return una representación en cadena de la gráfica.
+     */
+    @Override public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (Vertice v : vertices)
+            sb.append(v.elemento + ", ");
+        sb.append("}, {");
+        for (Vertice v : vertices)
+            for (Arista arista : v.salientes)
+                sb.append("(" + v.elemento + ", " +
+                          arista.destino.elemento + "), ");
+        sb.append("}");
+        return sb.toString();
+    }
+
+    /**
+     * Nos dice si la gráfica es igual al objeto recibido. Dos gráficas
+     * dirigidas son iguales si tienen los mismos elementos y las mismas
+     * aristas, con la misma dirección.
+     * @param objeto el objeto con el que hay que comparar.
+     * @return <code>true</code> si la gráfica es igual al objeto recibido;
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean equals(Object objeto) {
+        if (objeto == null || getClass() != objeto.getClass())
+            return false;
+        @SuppressWarnings("unchecked") GraficaDirigida<T> grafica =
+            (GraficaDirigida<T>)objeto;
+        if (getElementos() != grafica.getElementos() ||
+            aristas != grafica.aristas)
+            return false;
+        for (Vertice v : vertices) {
+            if (!grafica.contiene(v.elemento))
+                return false;
+            Vertice w = grafica.vertices.get(v.elemento);
+            for (Arista arista : v.salientes)
+                if (!w.salientes.contiene(arista.destino.elemento))
+                    return false;
+        }
+        return true;
+    }
+
+    /**
+     * Regresa un código de dispersión para la gráfica, consistente con {@link
+     * #equals}: no depende del orden de los elementos ni de las aristas, pero
+     * sí de la dirección de las aristas.
+     * @return un código de dispersión para la gráfica.
+     */
+    @Override public int hashCode() {
+        int h = 0;
+        for (Vertice v : vertices) {
+            h += v.elemento.hashCode();
+            for (Arista arista : v.salientes)
+                h += 31 * v.elemento.hashCode() +
+                    arista.destino.elemento.hashCode();
+        }
+        return h;
+    }
+
+    /**
+     * Regresa un iterador para iterar la gráfica. La gráfica se itera en el
+     * orden en que fueron agregados sus elementos.
+     * @return un iterador para iterar la gráfica.
+     */
+    @Override public Iterator<T> iterator() {
+        return new Iterador();
+    }
+
+    /**
+     * Calcula una trayectoria dirigida de distancia mínima entre dos
+     * vértices.
+     * @param origen el vértice de origen.
+     * @param destino el vértice de destino.
+     * @return una lista con vértices de la gráfica, tal que forman una
+     *         trayectoria dirigida de distancia mínima entre los vértices
+     *         <code>origen</code> y <code>destino</code>. Si el destino no es
+     *         alcanzable desde el origen, regresa una lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public Lista<VerticeGrafica<T>> trayectoriaMinima(T origen, T destino) {
+        Vertice s = busca(origen);
+        Vertice t = busca(destino);
+        nuevaEpoca();
+        s.epoca = epoca;
+        s.distancia = 0;
+        Cola<Vertice> cola = new Cola<Vertice>();
+        cola.mete(s);
+        while (!cola.esVacia() && t.epoca != epoca) {
+            Vertice u = cola.saca();
+            for (Arista arista : u.salientes) {
+                Vertice v = arista.destino;
+                if (v.epoca != epoca) {
+                    v.epoca = epoca;
+                    v.distancia = u.distancia + 1;
+                    cola.mete(v);
+                }
+            }
+        }
+        return trayectoria(s, t, false);
+    }
+
+    /**
+     * Calcula la ruta dirigida de peso mínimo entre el elemento de origen y
+     * el elemento de destino. El algoritmo termina en cuanto fija la
+     * distancia del destino.
+     * @param origen el vértice origen.
+     * @param destino el vértice destino.
+     * @return una trayectoria dirigida de peso mínimo entre el vértice
+     *         <code>origen</code> y el vértice <code>destino</code>. Si el
+     *         destino no es alcanzable desde el origen, regresa una lista
+     *         vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public Lista<VerticeGrafica<T>> dijkstra(T origen, T destino) {
+        Vertice s = busca(origen);
+        Vertice t = busca(destino);
+        nuevaEpoca();
+        s.epoca = epoca;
+        s.distancia = 0;
+        MonticuloMinimo<Vertice> monticulo = new MonticuloMinimo<Vertice>();
+        monticulo.agrega(s);
+        while (!monticulo.esVacia()) {
+            Vertice u = monticulo.elimina();
+            if (u == t)
+                break;
+            for (Arista arista : u.salientes) {
+                Vertice v = arista.destino;
+                double d = u.distancia + arista.peso;
+                if (v.epoca != epoca) {
+                    v.epoca = epoca;
+                    v.distancia = d;
+                    monticulo.agrega(v);
+                } else if (d < v.distancia) {
+                    v.distancia = d;
+                    monticulo.reordena(v);
+                }
+            }
+        }
+        return trayectoria(s, t, true);
+    }
+
+    /* Reconstruye la trayectoria de origen a destino caminando hacia atrás
+     * por las aristas entrantes cuyo origen explica la distancia del vértice.
+     * Si el destino no se alcanzó en la época actual, regresa una lista
+     * vacía. */
+    private Lista<VerticeGrafica<T>> trayectoria(Vertice origen,
+                                                 Vertice destino,
+                                                 boolean pesos) {
+        Lista<VerticeGrafica<T>> trayectoria =
+            new Lista<VerticeGrafica<T>>();
+        if (destino.epoca != epoca)
+            return trayectoria;
+        Vertice v = destino;
+        trayectoria.agregaInicio(v);
+        while (v != origen) {
+            for (Arista arista : v.entrantes) {
+                Vertice u = arista.origen;
+                double w = pesos ? arista.peso : 1;
+                if (u.epoca == epoca && u.distancia + w == v.distancia) {
+                    v = u;
+                    break;
+                }
+            }
+            trayectoria.agregaInicio(v);
+        }
+        return trayectoria;
+    }
+
+    /**
+     * Regresa los elementos de la gráfica en orden topológico: para cada
+     * arista de <i>a</i> a <i>b</i>, <i>a</i> aparece antes que <i>b</i>. Usa
+     * el algoritmo de Kahn, que repetidamente saca un vértice sin aristas
+     * entrantes pendientes.
+     * @return una lista con los elementos de la gráfica en orden topológico.
+     * @throws IllegalStateException si la gráfica tiene ciclos; {@link
+     *         #ciclo} regresa uno de ellos.
+     */
+    public Lista<T> ordenTopologico() {
+        Lista<T> orden = kahn();
+        if (orden.getElementos() != getElementos())
+            throw new IllegalStateException("La gráfica tiene ciclos");
+        return orden;
+    }
+
+    /**
+     * Nos dice si la gráfica no tiene ciclos dirigidos.
+     * @return <code>true</code> si la gráfica no tiene ciclos dirigidos,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean esAciclica() {
+        return kahn().getElementos() == getElementos();
+    }
+
+    /**
+     * Regresa un ciclo dirigido de la gráfica, si lo hay.
+     * @return una lista con los elementos de un ciclo dirigido, en el orden
+     *         de sus aristas y sin repetir el primero al final, o una lista
+     *         vacía si la gráfica no tiene ciclos.
+     */
+    public Lista<T> ciclo() {
+        Lista<T> ciclo = new Lista<T>();
+        if (kahn().getElementos() == getElementos())
+            return ciclo;
+        /* Los vértices que Kahn no sacó tienen una arista entrante pendiente
+         * desde otro vértice que no sacó; caminando hacia atrás por la
+         * primera de ellas tenemos que repetir un vértice, y ese vértice está
+         * en un ciclo que el mismo camino vuelve a recorrer. */
+        Vertice v = null;
+        for (Vertice w : vertices)
+            if (w.pendientes > 0) {
+                v = w;
+                break;
+            }
+        nuevaEpoca();
+        while (v.epoca != epoca) {
+            v.epoca = epoca;
+            for (Arista arista : v.entrantes)
+                if (arista.origen.pendientes > 0) {
+                    v = arista.origen;
+                    break;
+                }
+        }
+        Vertice inicio = v;
+        do {
+            ciclo.agregaInicio(v.elemento);
+            for (Arista arista : v.entrantes)
+                if (arista.origen.pendientes > 0) {
+                    v = arista.origen;
+                    break;
+                }
+        } while (v != inicio);
+        return ciclo;
+    }
+
+    /* Ejecuta el algoritmo de Kahn y regresa los elementos que pudo ordenar.
+     * Al terminar, los vértices que quedaron en ciclos o detrás de ellos
+     * tienen aristas entrantes pendientes. */
+    private Lista<T> kahn() {
+        Lista<T> orden = new Lista<T>();
+        Cola<Vertice> cola = new Cola<Vertice>();
+        for (Vertice v : vertices) {
+            v.pendientes = v.entrantes.getElementos();
+            if (v.pendientes == 0)
+                cola.mete(v);
+        }
+        while (!cola.esVacia()) {
+            Vertice u = cola.saca();
+            orden.agrega(u.elemento);
+            for (Arista arista : u.salientes)
+                if (--arista.destino.pendientes == 0)
+                    cola.mete(arista.destino);
+        }
+        return orden;
+    }
+
+    /* Comienza una nueva época, con lo que todas las distancias y marcas de
+     * visita calculadas antes dejan de ser válidas. Si el contador da la
+     * vuelta, reiniciamos la época de todos los vértices. */
+    private void nuevaEpoca() {
+        if (++epoca != 0)
+            return;
+        for (Vertice v : vertices)
+            v.epoca = 0;
+        epoca = 1;
+    }
+}
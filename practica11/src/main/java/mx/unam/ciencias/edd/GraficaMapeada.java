@@ -0,0 +1,931 @@
+package mx.unam.ciencias.edd;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para gráficas mapeadas a memoria. Una gráfica mapeada es una
+ * {@link GraficaCompacta} guardada en un archivo con {@link #guarda}, que se
+ * abre con {@link #carga} sin copiar sus aristas: los desplazamientos, los
+ * destinos y los pesos se leen directamente de las páginas del archivo, que el
+ * sistema operativo carga conforme se usan y comparte entre los procesos que
+ * abren el mismo archivo. Abrir una gráfica con cientos de millones de
+ * aristas toma lo que tome leer su tabla de vértices y recorrer una vez sus
+ * desplazamientos, destinos y pesos para verificarlos: los destinos deben
+ * ser índices válidos ordenados por vértice, y los pesos positivos.</p>
+ *
+ * <p>El archivo tiene, en orden <em>little-endian</em> y alineadas a 8
+ * bytes, estas secciones:</p>
+ * <ol>
+ *   <li>Una cabecera de 64 bytes: el número mágico <code>EDDG</code>, la
+ *       versión, el tipo de la tabla de vértices, el número de vértices
+ *       <i>n</i>, el número de entradas 2<i>m</i> del arreglo de destinos, y
+ *       dónde empieza cada sección.</li>
+ *   <li>La tabla de vértices: si todos los elementos son enteros, <i>n</i>
+ *       enteros de 4 bytes; si no, el arreglo de elementos serializado,
+ *       que sólo puede tener cadenas y envolturas de tipos primitivos.</li>
+ *   <li>Los <i>n</i>+1 desplazamientos, de 4 bytes cada uno.</li>
+ *   <li>Los 2<i>m</i> destinos, de 4 bytes cada uno.</li>
+ *   <li>Los 2<i>m</i> pesos, de 8 bytes cada uno.</li>
+ * </ol>
+ *
+ * <p>Si los elementos son enteros en orden creciente, como los de {@link
+ * CargadorAristas}, la tabla tampoco se copia y los índices se buscan en ella
+ * con búsqueda binaria; si no, la tabla se lee al abrir el archivo para
+ * construir el diccionario de índices.</p>
+ *
+ * <p>La gráfica mapeada tiene los mismos métodos de consulta y recorrido que
+ * la gráfica compacta; para los demás algoritmos, {@link #compacta} la copia
+ * a memoria en una sola pasada. Los vértices que regresan los métodos de la
+ * clase son vistas ligeras sobre el archivo; su color siempre es {@link
+ * Color#NINGUNO}.</p>
+ */
+public class GraficaMapeada<T> implements Iterable<T> {
+
+    /* El número mágico: "EDDG" en little-endian. */
+    private static final int MAGIA = 0x47444445;
+    /* La versión del formato. */
+    private static final int VERSION = 1;
+    /* El tamaño de la cabecera. */
+    private static final int CABECERA = 64;
+    /* Tabla de vértices con elementos serializados. */
+    private static final int OBJETOS = 0;
+    /* Tabla de vértices con enteros. */
+    private static final int ENTEROS = 1;
+    /* Tabla de vértices con enteros en orden creciente. */
+    private static final int ORDENADOS = 2;
+    /* Bits del número de entradas de cada trozo mapeado; un trozo de pesos
+     * mide 1 GB. */
+    private static final int BITS = 27;
+    /* Máscara para la posición dentro de un trozo. */
+    private static final int MASCARA = (1 << BITS) - 1;
+
+    /* Clases que puede tener la tabla de vértices serializada. */
+    private static final Class<?>[] PERMITIDAS = {
+        Object[].class, String.class, Number.class, Integer.class,
+        Long.class, Short.class, Byte.class, Double.class, Float.class,
+        Character.class, Boolean.class
+    };
+
+    /* Clase interna privada para el filtro de la tabla de vértices
+     * serializada: sólo deja pasar un arreglo de objetos con el número de
+     * vértices de la cabecera, cuyos elementos son de las clases
+     * permitidas. */
+    private static class Filtro implements ObjectInputFilter {
+
+        /* El número de vértices. */
+        private int n;
+
+        /* Construye un filtro para una tabla de n vértices. */
+        public Filtro(int n) {
+            this.n = n;
+        }
+
+        /* Rechaza las clases no permitidas, los arreglos que no sean la
+         * tabla o que sean de otro tamaño, y más referencias que la tabla,
+         * sus elementos y una descripción por clase permitida. La
+         * profundidad 3 es la de la descripción de Number, la superclase de
+         * las envolturas numéricas. */
+        @Override public Status checkInput(FilterInfo info) {
+            if (info.depth() > 3 ||
+                info.references() > 1L + n + PERMITIDAS.length)
+                return Status.REJECTED;
+            Class<?> clase = info.serialClass();
+            if (clase == null)
+                return Status.UNDECIDED;
+            if (!permitida(clase))
+                return Status.REJECTED;
+            if (clase.isArray() && (info.depth() != 1 ||
+                                    (info.arrayLength() >= 0 &&
+                                     info.arrayLength() != n)))
+                return Status.REJECTED;
+            return Status.ALLOWED;
+        }
+    }
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador implements Iterator<T> {
+
+        /* El índice del siguiente vértice. */
+        private int indice;
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            return indice < n;
+        }
+
+        /* Regresa el siguiente elemento. */
+        @Override public T next() {
+            if (indice >= n)
+                throw new NoSuchElementException();
+            return get(indice++);
+        }
+    }
+
+    /* Clase interna privada para vértices. */
+    private class Vertice implements VerticeGrafica<T> {
+
+        /* El índice del vértice. */
+        public int indice;
+
+        /* Crea un nuevo vértice para el índice. */
+        public Vertice(int indice) {
+            this.indice = indice;
+        }
+
+        /* Regresa el elemento del vértice. */
+        @Override public T get() {
+            return GraficaMapeada.this.get(indice);
+        }
+
+        /* Regresa el grado del vértice. */
+        @Override public int getGrado() {
+            return grado(indice);
+        }
+
+        /* Regresa el color del vértice. */
+        @Override public Color getColor() {
+            return Color.NINGUNO;
+        }
+
+        /* Regresa un iterable para los vecinos. */
+        @Override public Iterable<? extends VerticeGrafica<T>> vecinos() {
+            return new Iterable<Vertice>() {
+                @Override public Iterator<Vertice> iterator() {
+                    return new IteradorVecinos(indice);
+                }
+            };
+        }
+
+        /* Regresa la gráfica del vértice. */
+        private GraficaMapeada<T> grafica() {
+            return GraficaMapeada.this;
+        }
+
+        /* Nos dice si el vértice es igual al objeto recibido. */
+        @Override public boolean equals(Object objeto) {
+            if (objeto == null || getClass() != objeto.getClass())
+                return false;
+            @SuppressWarnings("unchecked") Vertice vertice = (Vertice)objeto;
+            return grafica() == vertice.grafica() && indice == vertice.indice;
+        }
+
+        /* Regresa una dispersión del vértice. */
+        @Override public int hashCode() {
+            return indice;
+        }
+
+        /* Regresa una representación en cadena del vértice. */
+        @Override public String toString() {
+            return String.valueOf(get());
+        }
+    }
+
+    /* Clase interna privada para iteradores de vecinos. */
+    private class IteradorVecinos implements Iterator<Vertice> {
+
+        /* La siguiente posición en el arreglo de destinos. */
+        private int posicion;
+        /* La posición final. */
+        private int fin;
+
+        /* Construye un iterador para los vecinos del vértice. */
+        public IteradorVecinos(int indice) {
+            posicion = desplazamiento(indice);
+            fin = desplazamiento(indice + 1);
+        }
+
+        /* Nos dice si hay un siguiente vecino. */
+        @Override public boolean hasNext() {
+            return posicion < fin;
+        }
+
+        /* Regresa el siguiente vecino. */
+        @Override public Vertice next() {
+            if (posicion >= fin)
+                throw new NoSuchElementException();
+            return new Vertice(destino(posicion++));
+        }
+    }
+
+    /* Clase interna privada para escribir un archivo con un búfer directo. */
+    private static class Salida {
+
+        /* El canal del archivo. */
+        private FileChannel canal;
+        /* El búfer. */
+        private ByteBuffer bufer;
+        /* El número de bytes escritos. */
+        private long escritos;
+
+        /* Construye una salida para el canal recibido. */
+        public Salida(FileChannel canal) {
+            this.canal = canal;
+            bufer = ByteBuffer.allocateDirect(1 << 20);
+            bufer.order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        /* Asegura que haya lugar en el búfer para los bytes recibidos. */
+        private void lugar(int bytes) throws IOException {
+            if (bufer.remaining() < bytes)
+                vacia();
+            escritos += bytes;
+        }
+
+        /* Escribe un entero. */
+        public void entero(int n) throws IOException {
+            lugar(4);
+            bufer.putInt(n);
+        }
+
+        /* Escribe un entero largo. */
+        public void largo(long n) throws IOException {
+            lugar(8);
+            bufer.putLong(n);
+        }
+
+        /* Escribe un real. */
+        public void real(double x) throws IOException {
+            lugar(8);
+            bufer.putDouble(x);
+        }
+
+        /* Escribe un arreglo de bytes, directamente en el canal. */
+        public void bytes(byte[] bytes) throws IOException {
+            vacia();
+            escritos += bytes.length;
+            ByteBuffer arreglo = ByteBuffer.wrap(bytes);
+            while (arreglo.hasRemaining())
+                canal.write(arreglo);
+        }
+
+        /* Escribe ceros hasta que el número de bytes escritos sea múltiplo
+         * de 8. */
+        public void alinea() throws IOException {
+            while (escritos % 8 != 0) {
+                lugar(1);
+                bufer.put((byte)0);
+            }
+        }
+
+        /* Escribe el búfer en el canal. */
+        public void vacia() throws IOException {
+            bufer.flip();
+            while (bufer.hasRemaining())
+                canal.write(bufer);
+            bufer.clear();
+        }
+    }
+
+    /* El número de vértices. */
+    private int n;
+    /* El número de entradas del arreglo de destinos. */
+    private int entradas;
+    /* Los elementos por índice, si no son enteros. */
+    private T[] elementos;
+    /* Los elementos por índice, si son enteros. */
+    private IntBuffer[] enteros;
+    /* Los índices por elemento, salvo si son enteros en orden creciente. */
+    private Diccionario<T, Integer> indices;
+    /* Dónde empiezan los vecinos de cada vértice; tiene n+1 entradas. */
+    private IntBuffer[] desplazamientos;
+    /* Los vecinos de todos los vértices, uno tras otro. */
+    private IntBuffer[] destinos;
+    /* El peso de cada arista en el arreglo de destinos. */
+    private DoubleBuffer[] pesos;
+
+    /* Abre la gráfica del canal recibido. */
+    @SuppressWarnings("unchecked")
+    private GraficaMapeada(FileChannel canal) throws IOException {
+        long tamano = canal.size();
+        if (tamano < CABECERA)
+            throw new IOException("Archivo inválido");
+        ByteBuffer cabecera = canal.map(FileChannel.MapMode.READ_ONLY, 0,
+                                        CABECERA);
+        cabecera.order(ByteOrder.LITTLE_ENDIAN);
+        int magia = cabecera.getInt(), version = cabecera.getInt();
+        int tipo = cabecera.getInt();
+        n = cabecera.getInt();
+        long m2 = cabecera.getLong();
+        long tabla = cabecera.getLong(), bytesTabla = cabecera.getLong();
+        long inicioDesplazamientos = cabecera.getLong();
+        long inicioDestinos = cabecera.getLong();
+        long inicioPesos = cabecera.getLong();
+        if (magia != MAGIA || version != VERSION ||
+            tipo < OBJETOS || tipo > ORDENADOS || n < 0 ||
+            m2 < 0 || m2 % 2 != 0 || m2 > Integer.MAX_VALUE - 8 ||
+            (tipo != OBJETOS && bytesTabla != 4L * n) ||
+            !seccion(tabla, bytesTabla, CABECERA, tamano) ||
+            !seccion(inicioDesplazamientos, 4 * (n + 1L),
+                     tabla + bytesTabla, tamano) ||
+            !seccion(inicioDestinos, 4 * m2,
+                     inicioDesplazamientos + 4 * (n + 1L), tamano) ||
+            !seccion(inicioPesos, 8 * m2, inicioDestinos + 4 * m2, tamano))
+            throw new IOException("Archivo inválido");
+        entradas = (int)m2;
+        desplazamientos = mapeaEnteros(canal, inicioDesplazamientos,
+                                       n + 1L);
+        destinos = mapeaEnteros(canal, inicioDestinos, entradas);
+        pesos = mapeaReales(canal, inicioPesos, entradas);
+        if (desplazamiento(0) != 0 || desplazamiento(n) != entradas)
+            throw new IOException("Archivo inválido");
+        for (int i = 0; i < n; i++)
+            if (desplazamiento(i) > desplazamiento(i + 1))
+                throw new IOException("Archivo inválido");
+        /* Los vecinos de cada vértice deben estar ordenados, para buscarlos
+         * con búsqueda binaria, y los pesos deben ser positivos,
+         * para que Dijkstra termine. */
+        for (int u = 0; u < n; u++)
+            for (int p = desplazamiento(u); p < desplazamiento(u + 1); p++) {
+                int d = destino(p);
+                if (d < 0 || d >= n || !(peso(p) > 0) ||
+                    (p > desplazamiento(u) && destino(p - 1) > d))
+                    throw new IOException("Archivo inválido");
+            }
+        if (tipo == OBJETOS) {
+            elementos = (T[])leeObjetos(canal, tabla, bytesTabla, n);
+            if (elementos.length != n)
+                throw new IOException("Archivo inválido");
+        } else {
+            enteros = mapeaEnteros(canal, tabla, n);
+            for (int i = 1; i < n && tipo == ORDENADOS; i++)
+                if (entero(enteros, i - 1) >= entero(enteros, i))
+                    throw new IOException("Archivo inválido");
+        }
+        if (tipo == ORDENADOS)
+            return;
+        indices = new Diccionario<T, Integer>(n);
+        for (int i = 0; i < n; i++)
+            indices.agrega(get(i), i);
+    }
+
+    /* Nos dice si la sección [inicio, inicio + bytes) está alineada a 8
+     * bytes, empieza después de la posición desde, y termina dentro del
+     * archivo. */
+    private static boolean seccion(long inicio, long bytes, long desde,
+                                   long tamano) {
+        return inicio % 8 == 0 && inicio >= desde && bytes >= 0 &&
+            inicio <= tamano - bytes;
+    }
+
+    /* Mapea n enteros a partir de la posición recibida, en trozos de 2^BITS
+     * enteros. */
+    private static IntBuffer[] mapeaEnteros(FileChannel canal, long inicio,
+                                            long n) throws IOException {
+        IntBuffer[] trozos = new IntBuffer[(int)((n + MASCARA) >>> BITS)];
+        for (int i = 0; i < trozos.length; i++) {
+            long desde = (long)i << BITS;
+            long cuantos = Math.min(1L << BITS, n - desde);
+            ByteBuffer trozo = canal.map(FileChannel.MapMode.READ_ONLY,
+                                         inicio + 4 * desde, 4 * cuantos);
+            trozos[i] = trozo.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+        return trozos;
+    }
+
+    /* Mapea n reales a partir de la posición recibida, en trozos de 2^BITS
+     * reales. */
+    private static DoubleBuffer[] mapeaReales(FileChannel canal, long inicio,
+                                              long n) throws IOException {
+        DoubleBuffer[] trozos = new DoubleBuffer[(int)((n + MASCARA) >>> BITS)];
+        for (int i = 0; i < trozos.length; i++) {
+            long desde = (long)i << BITS;
+            long cuantos = Math.min(1L << BITS, n - desde);
+            ByteBuffer trozo = canal.map(FileChannel.MapMode.READ_ONLY,
+                                         inicio + 8 * desde, 8 * cuantos);
+            trozos[i] = trozo.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        }
+        return trozos;
+    }
+
+    /* Nos dice si la tabla de vértices serializada puede tener objetos de la
+     * clase recibida. */
+    private static boolean permitida(Class<?> clase) {
+        for (Class<?> permitida : PERMITIDAS)
+            if (clase == permitida)
+                return true;
+        return false;
+    }
+
+    /* Lee el arreglo de n elementos serializado en la sección recibida, sin
+     * crear objetos de clases no permitidas. */
+    private static Object[] leeObjetos(FileChannel canal, long inicio,
+                                       long bytes, int n) throws IOException {
+        if (bytes > Integer.MAX_VALUE - 8)
+            throw new IOException("Archivo inválido");
+        byte[] tabla = new byte[(int)bytes];
+        canal.map(FileChannel.MapMode.READ_ONLY, inicio, bytes).get(tabla);
+        ObjectInputStream in =
+            new ObjectInputStream(new ByteArrayInputStream(tabla));
+        in.setObjectInputFilter(new Filtro(n));
+        try {
+            return (Object[])in.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Archivo inválido", e);
+        }
+    }
+
+    /* Regresa el i-ésimo entero de los trozos. */
+    private static int entero(IntBuffer[] trozos, int i) {
+        return trozos[i >>> BITS].get(i & MASCARA);
+    }
+
+    /* Regresa dónde empiezan los vecinos del vértice. */
+    private int desplazamiento(int indice) {
+        return desplazamientos[indice >>> BITS].get(indice & MASCARA);
+    }
+
+    /* Regresa el destino en la posición recibida. */
+    private int destino(int posicion) {
+        return destinos[posicion >>> BITS].get(posicion & MASCARA);
+    }
+
+    /* Regresa el peso en la posición recibida. */
+    private double peso(int posicion) {
+        return pesos[posicion >>> BITS].get(posicion & MASCARA);
+    }
+
+    /* Regresa el elemento del índice, sin verificarlo. */
+    @SuppressWarnings("unchecked") private T get(int indice) {
+        if (elementos != null)
+            return elementos[indice];
+        return (T)Integer.valueOf(entero(enteros, indice));
+    }
+
+    /* Regresa el índice del elemento, o -1 si no está en la gráfica. */
+    private int busca(T elemento) {
+        if (elemento == null)
+            return -1;
+        if (indices != null)
+            return indices.contiene(elemento) ? indices.get(elemento) : -1;
+        if (!(elemento instanceof Integer))
+            return -1;
+        int e = (Integer)elemento;
+        int ini = 0, fin = n - 1;
+        while (ini <= fin) {
+            int m = (ini + fin) >>> 1;
+            int x = entero(enteros, m);
+            if (x < e)
+                ini = m + 1;
+            else if (x > e)
+                fin = m - 1;
+            else
+                return m;
+        }
+        return -1;
+    }
+
+    /**
+     * Guarda una gráfica en un archivo que puede abrirse con {@link #carga}.
+     * @param <T> el tipo de los elementos de la gráfica.
+     * @param grafica la gráfica a guardar.
+     * @param ruta la ruta del archivo.
+     * @throws IOException si ocurre un error al escribir, o si los elementos
+     *         no son cadenas ni envolturas de tipos primitivos.
+     */
+    public static <T> void guarda(Grafica<T> grafica, String ruta)
+        throws IOException {
+        guarda(new GraficaCompacta<T>(grafica), ruta);
+    }
+
+    /**
+     * Guarda una gráfica compacta en un archivo que puede abrirse con {@link
+     * #carga}.
+     * @param <T> el tipo de los elementos de la gráfica.
+     * @param grafica la gráfica compacta a guardar.
+     * @param ruta la ruta del archivo.
+     * @throws IOException si ocurre un error al escribir, o si los elementos
+     *         no son cadenas ni envolturas de tipos primitivos.
+     */
+    public static <T> void guarda(GraficaCompacta<T> grafica, String ruta)
+        throws IOException {
+        int n = grafica.getElementos(), m2 = grafica.destinos.length;
+        int tipo = ORDENADOS;
+        for (int i = 0; i < n && tipo != OBJETOS; i++) {
+            T e = grafica.elemento(i);
+            if (!(e instanceof Integer))
+                tipo = OBJETOS;
+            else if (i > 0 && (Integer)grafica.elemento(i - 1) >= (Integer)e)
+                tipo = ENTEROS;
+        }
+        byte[] tabla = null;
+        long bytesTabla = 4L * n;
+        if (tipo == OBJETOS) {
+            Object[] arreglo = new Object[n];
+            for (int i = 0; i < n; i++) {
+                arreglo[i] = grafica.elemento(i);
+                if (!permitida(arreglo[i].getClass()))
+                    throw new IOException("Elemento inválido: " + arreglo[i]);
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream out = new ObjectOutputStream(bytes);
+            out.writeObject(arreglo);
+            out.flush();
+            tabla = bytes.toByteArray();
+            bytesTabla = tabla.length;
+        }
+        long inicioDesplazamientos = alinea(CABECERA + bytesTabla);
+        long inicioDestinos = alinea(inicioDesplazamientos + 4 * (n + 1L));
+        long inicioPesos = alinea(inicioDestinos + 4L * m2);
+        try (FileChannel canal =
+             FileChannel.open(Paths.get(ruta), StandardOpenOption.WRITE,
+                              StandardOpenOption.CREATE,
+                              StandardOpenOption.TRUNCATE_EXISTING)) {
+            Salida salida = new Salida(canal);
+            salida.entero(MAGIA);
+            salida.entero(VERSION);
+            salida.entero(tipo);
+            salida.entero(n);
+            salida.largo(m2);
+            salida.largo(CABECERA);
+            salida.largo(bytesTabla);
+            salida.largo(inicioDesplazamientos);
+            salida.largo(inicioDestinos);
+            salida.largo(inicioPesos);
+            if (tipo == OBJETOS)
+                salida.bytes(tabla);
+            else
+                for (int i = 0; i < n; i++)
+                    salida.entero((Integer)grafica.elemento(i));
+            salida.alinea();
+            for (int d : grafica.desplazamientos)
+                salida.entero(d);
+            salida.alinea();
+            for (int d : grafica.destinos)
+                salida.entero(d);
+            salida.alinea();
+            for (double p : grafica.pesos)
+                salida.real(p);
+            salida.vacia();
+        }
+    }
+
+    /* Regresa el primer múltiplo de 8 mayor o igual a la posición. */
+    private static long alinea(long posicion) {
+        return (posicion + 7) & ~7L;
+    }
+
+    /**
+     * Abre una gráfica guardada con {@link #guarda}. El archivo no debe
+     * modificarse mientras la gráfica esté en uso.
+     * @param <T> el tipo de los elementos de la gráfica.
+     * @param ruta la ruta del archivo.
+     * @return la gráfica mapeada.
+     * @throws IOException si ocurre un error al leer, o si el archivo no
+     *         contiene una gráfica.
+     */
+    public static <T> GraficaMapeada<T> carga(String ruta) throws IOException {
+        try (FileChannel canal = FileChannel.open(Paths.get(ruta),
+                                                  StandardOpenOption.READ)) {
+            return new GraficaMapeada<T>(canal);
+        }
+    }
+
+    /**
+     * Regresa una copia de la gráfica en una gráfica compacta. Los arreglos
+     * se copian en bloque, sin buscar ni verificar cada arista.
+     * @return una gráfica compacta con los vértices y aristas de la gráfica,
+     *         con los mismos índices.
+     */
+    public GraficaCompacta<T> compacta() {
+        @SuppressWarnings("unchecked") T[] copia = (T[])(new Object[n]);
+        for (int i = 0; i < n; i++)
+            copia[i] = get(i);
+        int[] d = new int[n + 1], t = new int[entradas];
+        double[] p = new double[entradas];
+        for (int i = 0; i < desplazamientos.length; i++)
+            desplazamientos[i].duplicate().get(d, i << BITS,
+                                               desplazamientos[i].capacity());
+        for (int i = 0; i < destinos.length; i++) {
+            destinos[i].duplicate().get(t, i << BITS, destinos[i].capacity());
+            pesos[i].duplicate().get(p, i << BITS, pesos[i].capacity());
+        }
+        return new GraficaCompacta<T>(copia, d, t, p);
+    }
+
+    /**
+     * Regresa el número de elementos en la gráfica. El número de elementos es
+     * igual al número de vértices.
+     * @return el número de elementos en la gráfica.
+     */
+    public int getElementos() {
+        return n;
+    }
+
+    /**
+     * Regresa el número de aristas.
+     * @return el número de aristas.
+     */
+    public int getAristas() {
+        return entradas / 2;
+    }
+
+    /**
+     * Nos dice si la gráfica es vacía.
+     * @return <code>true</code> si la gráfica es vacía, <code>false</code> en
+     *         otro caso.
+     */
+    public boolean esVacia() {
+        return n == 0;
+    }
+
+    /**
+     * Nos dice si el elemento está contenido en la gráfica.
+     * @param elemento el elemento que queremos ver si está en la gráfica.
+     * @return <code>true</code> si el elemento está contenido en la gráfica,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(T elemento) {
+        return busca(elemento) != -1;
+    }
+
+    /**
+     * Regresa el índice del vértice correspondiente al elemento recibido.
+     * @param elemento el elemento del que queremos el índice.
+     * @return el índice del vértice del elemento, en el rango [0, <i>n</i>).
+     * @throws NoSuchElementException si elemento no es elemento de la gráfica.
+     */
+    public int indice(T elemento) {
+        int i = busca(elemento);
+        if (i == -1)
+            throw new NoSuchElementException("Elemento inválido");
+        return i;
+    }
+
+    /**
+     * Regresa el elemento del vértice con el índice recibido.
+     * @param indice el índice del vértice.
+     * @return el elemento del vértice.
+     * @throws ExcepcionIndiceInvalido si el índice es inválido.
+     */
+    public T elemento(int indice) {
+        verificaIndice(indice);
+        return get(indice);
+    }
+
+    /**
+     * Regresa el grado del vértice con el índice recibido.
+     * @param indice el índice del vértice.
+     * @return el grado del vértice.
+     * @throws ExcepcionIndiceInvalido si el índice es inválido.
+     */
+    public int grado(int indice) {
+        verificaIndice(indice);
+        return desplazamiento(indice + 1) - desplazamiento(indice);
+    }
+
+    /**
+     * Regresa el vértice correspondiente el elemento recibido.
+     * @param elemento el elemento del que queremos el vértice.
+     * @throws NoSuchElementException si elemento no es elemento de la gráfica.
+     * @return el vértice correspondiente el elemento recibido.
+     */
+    public VerticeGrafica<T> vertice(T elemento) {
+        return new Vertice(indice(elemento));
+    }
+
+    /* Lanza una excepción si el índice no es de un vértice. */
+    private void verificaIndice(int indice) {
+        if (indice < 0 || indice >= n)
+            throw new ExcepcionIndiceInvalido("Índice inválido: " + indice);
+    }
+
+    /* Regresa la posición en el arreglo de destinos de la arista de a a b, o
+     * -1 si no son vecinos. */
+    private int arista(int a, int b) {
+        int ini = desplazamiento(a), fin = desplazamiento(a + 1) - 1;
+        while (ini <= fin) {
+            int m = (ini + fin) >>> 1;
+            int d = destino(m);
+            if (d < b)
+                ini = m + 1;
+            else if (d > b)
+                fin = m - 1;
+            else
+                return m;
+        }
+        return -1;
+    }
+
+    /**
+     * Nos dice si dos elementos de la gráfica están conectados.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return <code>true</code> si a y b son vecinos, <code>false</code> en
+     *         otro caso.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     */
+    public boolean sonVecinos(T a, T b) {
+        return arista(indice(a), indice(b)) != -1;
+    }
+
+    /**
+     * Regresa el peso de la arista que comparten los vértices que contienen a
+     * los elementos recibidos.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return el peso de la arista que comparten los vértices.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si a o b no están conectados.
+     */
+    public double getPeso(T a, T b) {
+        int p = arista(indice(a), indice(b));
+        if (p == -1)
+            throw new IllegalArgumentException("Elementos no conectados");
+        return peso(p);
+    }
+
+    /**
+     * Realiza la acción recibida en todos los vértices de la gráfica, en el
+     * orden determinado por BFS, comenzando por el vértice correspondiente al
+     * elemento recibido.
+     * @param elemento el elemento sobre cuyo vértice queremos comenzar el
+     *        recorrido.
+     * @param accion la acción a realizar.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public void bfs(T elemento, AccionVerticeGrafica<T> accion) {
+        recorre(indice(elemento), accion, true);
+    }
+
+    /**
+     * Realiza la acción recibida en todos los vértices de la gráfica, en el
+     * orden determinado por DFS, comenzando por el vértice correspondiente al
+     * elemento recibido.
+     * @param elemento el elemento sobre cuyo vértice queremos comenzar el
+     *        recorrido.
+     * @param accion la acción a realizar.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public void dfs(T elemento, AccionVerticeGrafica<T> accion) {
+        recorre(indice(elemento), accion, false);
+    }
+
+    /* Recorre la gráfica desde el origen, usando el arreglo de pendientes como
+     * cola si bfs es verdadero, o como pila si no. */
+    private void recorre(int origen, AccionVerticeGrafica<T> accion,
+                         boolean bfs) {
+        boolean[] vistos = new boolean[n];
+        int[] pendientes = new int[n];
+        int cabeza = 0, rabo = 0;
+        pendientes[rabo++] = origen;
+        vistos[origen] = true;
+        while (cabeza < rabo) {
+            int u = bfs ? pendientes[cabeza++] : pendientes[--rabo];
+            accion.actua(new Vertice(u));
+            int fin = desplazamiento(u + 1);
+            for (int p = desplazamiento(u); p < fin; p++) {
+                int v = destino(p);
+                if (!vistos[v]) {
+                    vistos[v] = true;
+                    pendientes[rabo++] = v;
+                }
+            }
+        }
+    }
+
+    /* Regresa la trayectoria que termina en destino según el arreglo de
+     * padres, o una lista vacía si el destino no tiene padre. */
+    private Lista<VerticeGrafica<T>> trayectoria(int origen, int destino,
+                                                 int[] padres) {
+        Lista<VerticeGrafica<T>> trayectoria =
+            new Lista<VerticeGrafica<T>>();
+        if (origen != destino && padres[destino] == -1)
+            return trayectoria;
+        for (int v = destino; v != origen; v = padres[v])
+            trayectoria.agregaInicio(new Vertice(v));
+        trayectoria.agregaInicio(new Vertice(origen));
+        return trayectoria;
+    }
+
+    /**
+     * Calcula una trayectoria de distancia mínima entre dos vértices.
+     * @param origen el vértice de origen.
+     * @param destino el vértice de destino.
+     * @return Una lista con vértices de la gráfica, tal que forman una
+     *         trayectoria de distancia mínima entre los vértices
+     *         <code>origen</code> y <code>destino</code>. Si los elementos se
+     *         encuentran en componentes conexos distintos, el algoritmo
+     *         regresa una lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public Lista<VerticeGrafica<T>> trayectoriaMinima(T origen, T destino) {
+        int s = indice(origen), t = indice(destino);
+        int[] padres = new int[n];
+        for (int i = 0; i < padres.length; i++)
+            padres[i] = -1;
+        int[] cola = new int[n];
+        int cabeza = 0, rabo = 0;
+        cola[rabo++] = s;
+        padres[s] = s;
+        while (cabeza < rabo && padres[t] == -1) {
+            int u = cola[cabeza++];
+            int fin = desplazamiento(u + 1);
+            for (int p = desplazamiento(u); p < fin; p++) {
+                int v = destino(p);
+                if (padres[v] == -1) {
+                    padres[v] = u;
+                    cola[rabo++] = v;
+                }
+            }
+        }
+        return trayectoria(s, t, padres);
+    }
+
+    /**
+     * Calcula la ruta de peso mínimo entre el elemento de origen y el elemento
+     * de destino.
+     * @param origen el vértice origen.
+     * @param destino el vértice destino.
+     * @return una trayectoria de peso mínimo entre el vértice
+     *         <code>origen</code> y el vértice <code>destino</code>. Si los
+     *         vértices están en componentes conexas distintas, regresa una
+     *         lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public Lista<VerticeGrafica<T>> dijkstra(T origen, T destino) {
+        int s = indice(origen), t = indice(destino);
+        int[] padres = new int[n];
+        double[] distancias = new double[n];
+        for (int i = 0; i < n; i++) {
+            padres[i] = -1;
+            distancias[i] = Double.POSITIVE_INFINITY;
+        }
+        MonticuloIndexado monticulo = new MonticuloIndexado(n);
+        distancias[s] = 0;
+        monticulo.agrega(s, 0);
+        while (!monticulo.esVacia()) {
+            int u = monticulo.elimina();
+            if (u == t)
+                break;
+            int fin = desplazamiento(u + 1);
+            for (int p = desplazamiento(u); p < fin; p++) {
+                int v = destino(p);
+                double d = distancias[u] + peso(p);
+                if (d < distancias[v]) {
+                    distancias[v] = d;
+                    padres[v] = u;
+                    monticulo.agrega(v, d);
+                }
+            }
+        }
+        return trayectoria(s, t, padres);
+    }
+
+    /**
+     * Regresa el peso de las trayectorias mínimas desde el vértice de origen
+     * hasta todos los vértices de la gráfica. Como la gráfica mapeada es
+     * inmutable, varios hilos pueden llamar este método al mismo tiempo.
+     * @param origen el vértice origen.
+     * @return un arreglo con el peso de la trayectoria mínima hasta cada
+     *         vértice, indexado por el índice de los vértices; los vértices
+     *         inalcanzables tienen {@link Double#POSITIVE_INFINITY}.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public double[] distancias(T origen) {
+        int s = indice(origen);
+        double[] distancias = new double[n];
+        for (int i = 0; i < n; i++)
+            distancias[i] = Double.POSITIVE_INFINITY;
+        MonticuloIndexado monticulo = new MonticuloIndexado(n);
+        distancias[s] = 0;
+        monticulo.agrega(s, 0);
+        while (!monticulo.esVacia()) {
+            int u = monticulo.elimina();
+            int fin = desplazamiento(u + 1);
+            for (int p = desplazamiento(u); p < fin; p++) {
+                int v = destino(p);
+                double d = distancias[u] + peso(p);
+                if (d < distancias[v]) {
+                    distancias[v] = d;
+                    monticulo.agrega(v, d);
+                }
+            }
+        }
+        return distancias;
+    }
+
+    /**
+     * Regresa un iterador para iterar la gráfica. La gráfica se itera en el
+     * orden de los índices de sus vértices.
+     * @return un iterador para iterar la gráfica.
+     */
+    @Override public Iterator<T> iterator() {
+        return new Iterador();
+    }
+}
@@ -0,0 +1,21 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para heurísticas de búsqueda en gráficas. Una heurística estima el
+ * peso de una trayectoria mínima entre dos vértices; para que {@link
+ * Grafica#aEstrella} encuentre trayectorias de peso mínimo, la estimación
+ * nunca debe ser mayor que el peso real, ni mayor que el peso de una arista a
+ * un vecino más la estimación desde ese vecino.
+ */
+@FunctionalInterface
+public interface Heuristica<T> {
+
+    /**
+     * Estima el peso de una trayectoria mínima entre dos vértices.
+     * @param vertice el vértice de partida.
+     * @param destino el vértice de llegada.
+     * @return una cota inferior del peso de una trayectoria mínima entre los
+     *         vértices.
+     */
+    public double estima(VerticeGrafica<T> vertice, VerticeGrafica<T> destino);
+}
@@ -0,0 +1,127 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
+/**
+ * <p>Clase para heurísticas ALT (<em>A*, landmarks, triangle
+ * inequality</em>). La heurística elige <i>k</i> vértices de la gráfica como
+ * marcas, y calcula de antemano el peso de las trayectorias mínimas desde
+ * cada marca hasta todos los vértices. Por la desigualdad del triángulo, para
+ * cualquier marca <i>L</i> el peso de una trayectoria mínima entre
+ * <i>v</i> y <i>t</i> es al menos |<i>d</i>(<i>L</i>,<i>v</i>) −
+ * <i>d</i>(<i>L</i>,<i>t</i>)|; la heurística regresa la mayor de esas
+ * cotas, que es consistente.</p>
+ *
+ * <p>Las marcas se eligen por el punto más lejano: cada nueva marca es el
+ * vértice con más aristas de distancia a la marca más cercana. Las distancias
+ * desde las marcas se calculan en paralelo sobre una {@link GraficaCompacta},
+ * por lo que la heurística corresponde a la gráfica al momento de crearla:
+ * los vértices agregados después no tienen estimación.</p>
+ *
+ * <p>Una misma heurística no debe usarse desde varios hilos al mismo
+ * tiempo.</p>
+ */
+public class HeuristicaALT<T> implements Heuristica<T> {
+
+    /* La copia compacta de la gráfica. */
+    private GraficaCompacta<T> grafica;
+    /* Los índices de las marcas. */
+    private int[] marcas;
+    /* El peso de las trayectorias mínimas desde cada marca a cada vértice. */
+    private double[][] distancias;
+    /* El último destino que recibimos. */
+    private T destino;
+    /* El índice del último destino. */
+    private int indiceDestino;
+
+    /**
+     * Construye una heurística ALT para la gráfica con el número de marcas
+     * especificado. Si la gráfica tiene menos vértices que marcas, todos los
+     * vértices son marcas.
+     * @param grafica la gráfica.
+     * @param k el número de marcas.
+     * @throws IllegalArgumentException si k es menor o igual que cero.
+     */
+    public HeuristicaALT(Grafica<T> grafica, int k) {
+        if (k <= 0)
+            throw new IllegalArgumentException("Número de marcas inválido");
+        this.grafica = new GraficaCompacta<T>(grafica);
+        marcas = eligeMarcas(Math.min(k, this.grafica.getElementos()));
+        distancias = new double[marcas.length][];
+        IntStream.range(0, marcas.length).parallel().forEach(
+            i -> distancias[i] = this.grafica.distancias(marcas[i]));
+    }
+
+    /* Elige k marcas por el punto más lejano, midiendo la lejanía en
+     * aristas. Los vértices inalcanzables desde todas las marcas son los más
+     * lejanos, así que cada componente conexa recibe una marca antes de que
+     * alguna reciba dos. */
+    private int[] eligeMarcas(int k) {
+        int[] marcas = new int[k];
+        if (k == 0)
+            return marcas;
+        int[] cercania = grafica.saltos(0);
+        for (int i = 0; i < k; i++) {
+            marcas[i] = masLejano(cercania);
+            int[] saltos = grafica.saltos(marcas[i]);
+            for (int v = 0; v < cercania.length; v++)
+                if (i == 0 || (saltos[v] != -1 &&
+                               (cercania[v] == -1 || saltos[v] < cercania[v])))
+                    cercania[v] = saltos[v];
+        }
+        return marcas;
+    }
+
+    /* Regresa el índice con la mayor cercanía, donde -1 es infinito. */
+    private int masLejano(int[] cercania) {
+        int lejano = 0;
+        for (int v = 0; v < cercania.length; v++) {
+            if (cercania[v] == -1)
+                return v;
+            if (cercania[v] > cercania[lejano])
+                lejano = v;
+        }
+        return lejano;
+    }
+
+    /**
+     * Regresa una lista con los elementos de las marcas.
+     * @return una lista con los elementos de las marcas.
+     */
+    public Lista<T> getMarcas() {
+        Lista<T> lista = new Lista<T>();
+        for (int marca : marcas)
+            lista.agrega(grafica.elemento(marca));
+        return lista;
+    }
+
+    /**
+     * Estima el peso de una trayectoria mínima entre dos vértices con la
+     * mayor cota de las marcas.
+     * @param vertice el vértice de partida.
+     * @param destino el vértice de llegada.
+     * @return una cota inferior del peso de una trayectoria mínima entre los
+     *         vértices.
+     * @throws NoSuchElementException si alguno de los vértices no estaba en
+     *         la gráfica al crear la heurística.
+     */
+    @Override public double estima(VerticeGrafica<T> vertice,
+                                   VerticeGrafica<T> destino) {
+        if (this.destino == null || !this.destino.equals(destino.get())) {
+            indiceDestino = grafica.indice(destino.get());
+            this.destino = destino.get();
+        }
+        int v = grafica.indice(vertice.get()), t = indiceDestino;
+        double cota = 0;
+        for (double[] d : distancias) {
+            /* Si sólo uno es inalcanzable desde la marca, los vértices están
+             * en componentes distintas y cualquier cota sirve. */
+            if (d[v] == Double.POSITIVE_INFINITY ||
+                d[t] == Double.POSITIVE_INFINITY)
+                continue;
+            cota = Math.max(cota, Math.abs(d[v] - d[t]));
+        }
+        return cota;
+    }
+}
@@ -0,0 +1,285 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * <p>Clase para calcular la intermediación de los vértices de una gráfica
+ * compacta con el algoritmo de Brandes.</p>
+ *
+ * <p>La intermediación de un vértice <i>v</i> es la suma, sobre los pares
+ * no ordenados de vértices <i>s</i>, <i>t</i> distintos de <i>v</i>, de la
+ * fracción de las trayectorias mínimas de <i>s</i> a <i>t</i> que pasan por
+ * <i>v</i>. Brandes la calcula con un recorrido por fuente: hacia adelante
+ * cuenta las trayectorias mínimas a cada vértice, y hacia atrás acumula las
+ * dependencias en orden decreciente de distancia. Sin pesos el recorrido es
+ * BFS; con pesos relaja las aristas como {@link GraficaCompacta#distancias},
+ * con un {@link MonticuloIndexado}.</p>
+ *
+ * <p>Las fuentes se reparten entre los hilos de un {@link ForkJoinPool}; cada
+ * tarea tiene sus propios arreglos de trabajo y su propio acumulador, que se
+ * suman al terminar, así que los hilos no comparten nada que escribir. Como
+ * el cálculo exacto toma tiempo O(<i>nm</i>), también se ofrece una
+ * aproximación que usa sólo <i>k</i> fuentes al azar.</p>
+ */
+public class Intermediacion<T> {
+
+    /* Clase interna privada para los arreglos de trabajo de los recorridos de
+     * una tarea. */
+    private class Brandes {
+
+        /* La distancia de la fuente a cada vértice. */
+        private double[] distancias;
+        /* El número de trayectorias mínimas de la fuente a cada vértice. */
+        private double[] sigma;
+        /* La dependencia de la fuente en cada vértice. */
+        private double[] delta;
+        /* Los vértices alcanzados, en orden de distancia. */
+        private int[] orden;
+        /* El montículo para los recorridos con pesos. */
+        private MonticuloIndexado monticulo;
+
+        /* Construye los arreglos de trabajo. */
+        public Brandes() {
+            int n = grafica.getElementos();
+            distancias = new double[n];
+            sigma = new double[n];
+            delta = new double[n];
+            orden = new int[n];
+            for (int v = 0; v < n; v++)
+                distancias[v] = Double.POSITIVE_INFINITY;
+            if (pesos)
+                monticulo = new MonticuloIndexado(n);
+        }
+
+        /* Suma al acumulador las dependencias de la fuente, y deja los
+         * arreglos listos para la siguiente. */
+        public void acumula(int s, double[] acumulado) {
+            int k = pesos ? dijkstra(s) : bfs(s);
+            for (int i = k - 1; i > 0; i--) {
+                int w = orden[i];
+                for (int p = grafica.desplazamientos[w];
+                     p < grafica.desplazamientos[w + 1]; p++) {
+                    int v = grafica.destinos[p];
+                    if (distancias[v] + peso(p) == distancias[w])
+                        delta[v] += sigma[v] / sigma[w] * (1 + delta[w]);
+                }
+                acumulado[w] += delta[w];
+            }
+            for (int i = 0; i < k; i++) {
+                int v = orden[i];
+                distancias[v] = Double.POSITIVE_INFINITY;
+                sigma[v] = delta[v] = 0;
+            }
+        }
+
+        /* Recorre por BFS desde la fuente, contando trayectorias mínimas.
+         * Regresa el número de vértices alcanzados. */
+        private int bfs(int s) {
+            int cabeza = 0, rabo = 0;
+            orden[rabo++] = s;
+            distancias[s] = 0;
+            sigma[s] = 1;
+            while (cabeza < rabo) {
+                int u = orden[cabeza++];
+                for (int p = grafica.desplazamientos[u];
+                     p < grafica.desplazamientos[u + 1]; p++) {
+                    int v = grafica.destinos[p];
+                    if (distancias[v] == Double.POSITIVE_INFINITY) {
+                        distancias[v] = distancias[u] + 1;
+                        orden[rabo++] = v;
+                    }
+                    if (distancias[v] == distancias[u] + 1)
+                        sigma[v] += sigma[u];
+                }
+            }
+            return rabo;
+        }
+
+        /* Recorre con Dijkstra desde la fuente, contando trayectorias
+         * mínimas. Regresa el número de vértices alcanzados. */
+        private int dijkstra(int s) {
+            int k = 0;
+            distancias[s] = 0;
+            sigma[s] = 1;
+            monticulo.agrega(s, 0);
+            while (!monticulo.esVacia()) {
+                int u = monticulo.elimina();
+                orden[k++] = u;
+                for (int p = grafica.desplazamientos[u];
+                     p < grafica.desplazamientos[u + 1]; p++) {
+                    int v = grafica.destinos[p];
+                    double d = distancias[u] + grafica.pesos[p];
+                    if (d < distancias[v]) {
+                        distancias[v] = d;
+                        sigma[v] = sigma[u];
+                        monticulo.agrega(v, d);
+                    } else if (d == distancias[v]) {
+                        sigma[v] += sigma[u];
+                    }
+                }
+            }
+            return k;
+        }
+    }
+
+    /* Clase interna privada para las tareas que acumulan las dependencias de
+     * un rango de fuentes. */
+    private class Acumula extends RecursiveTask<double[]> {
+
+        /* Versión de la forma serializada. */
+        private static final long serialVersionUID = 1L;
+
+        /* Las fuentes. */
+        private int[] fuentes;
+        /* El inicio del rango. */
+        private int ini;
+        /* El fin del rango. */
+        private int fin;
+        /* El número de fuentes a partir del cual una tarea se divide. */
+        private int umbral;
+
+        /* Construye una tarea para el rango [ini, fin) de las fuentes. */
+        public Acumula(int[] fuentes, int ini, int fin, int umbral) {
+            this.fuentes = fuentes;
+            this.ini = ini;
+            this.fin = fin;
+            this.umbral = umbral;
+        }
+
+        /* Acumula las dependencias del rango, dividiéndolo si es grande. */
+        @Override protected double[] compute() {
+            if (fin - ini > umbral) {
+                int m = (ini + fin) >>> 1;
+                Acumula izquierda = new Acumula(fuentes, ini, m, umbral);
+                izquierda.fork();
+                double[] a = new Acumula(fuentes, m, fin, umbral).compute();
+                double[] b = izquierda.join();
+                for (int v = 0; v < a.length; v++)
+                    a[v] += b[v];
+                return a;
+            }
+            double[] acumulado = new double[grafica.getElementos()];
+            Brandes brandes = new Brandes();
+            for (int i = ini; i < fin; i++)
+                brandes.acumula(fuentes[i], acumulado);
+            return acumulado;
+        }
+    }
+
+    /* La gráfica. */
+    private GraficaCompacta<T> grafica;
+    /* Si los recorridos usan los pesos de las aristas. */
+    private boolean pesos;
+    /* El grupo de hilos. */
+    private ForkJoinPool grupo;
+
+    /**
+     * Construye una intermediación para la gráfica compacta recibida, usando
+     * el grupo común de hilos.
+     * @param grafica la gráfica compacta.
+     * @param pesos si las trayectorias mínimas usan los pesos de las aristas
+     *        o sólo su número.
+     */
+    public Intermediacion(GraficaCompacta<T> grafica, boolean pesos) {
+        this(grafica, pesos, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Construye una intermediación para la gráfica compacta recibida.
+     * @param grafica la gráfica compacta.
+     * @param pesos si las trayectorias mínimas usan los pesos de las aristas
+     *        o sólo su número.
+     * @param grupo el grupo de hilos donde se repartirán las fuentes.
+     * @throws IllegalArgumentException si el grupo es <code>null</code>.
+     */
+    public Intermediacion(GraficaCompacta<T> grafica, boolean pesos,
+                          ForkJoinPool grupo) {
+        if (grupo == null)
+            throw new IllegalArgumentException("Grupo inválido");
+        this.grafica = grafica;
+        this.pesos = pesos;
+        this.grupo = grupo;
+    }
+
+    /* Regresa el peso de la arista en la posición p, o 1 sin pesos. */
+    private double peso(int p) {
+        return pesos ? grafica.pesos[p] : 1;
+    }
+
+    /**
+     * Calcula la intermediación exacta de todos los vértices.
+     * @return un arreglo con la intermediación de cada vértice, indexado por
+     *         {@link GraficaCompacta#indice}.
+     */
+    public double[] exacta() {
+        int n = grafica.getElementos();
+        int[] fuentes = new int[n];
+        for (int s = 0; s < n; s++)
+            fuentes[s] = s;
+        return acumula(fuentes, 0.5);
+    }
+
+    /**
+     * Aproxima la intermediación de todos los vértices con <i>k</i> fuentes
+     * elegidas al azar con reemplazo. La aproximación es insesgada, y con
+     * <i>k</i> = {@link #muestras}(<i>n</i>, ε, δ), con probabilidad al
+     * menos 1 − δ todas las aproximaciones difieren de las exactas en a lo
+     * más ε<i>n</i>(<i>n</i> − 2)/2.
+     * @param k el número de fuentes.
+     * @param random el generador de números aleatorios.
+     * @return un arreglo con la intermediación aproximada de cada vértice,
+     *         indexado por {@link GraficaCompacta#indice}.
+     * @throws IllegalArgumentException si <i>k</i> no es positivo.
+     */
+    public double[] aproximada(int k, Random random) {
+        if (k < 1)
+            throw new IllegalArgumentException("Muestras inválidas: " + k);
+        int n = grafica.getElementos();
+        if (n == 0)
+            return new double[0];
+        int[] fuentes = new int[k];
+        for (int i = 0; i < k; i++)
+            fuentes[i] = random.nextInt(n);
+        return acumula(fuentes, n / (2.0 * k));
+    }
+
+    /**
+     * Regresa el número de fuentes que necesita {@link #aproximada} para que,
+     * con probabilidad al menos 1 − δ, todas las aproximaciones en una
+     * gráfica de <i>n</i> vértices difieran de las exactas en a lo más
+     * ε<i>n</i>(<i>n</i> − 2)/2. Las dependencias de cada fuente en un
+     * vértice están entre 0 y <i>n</i> − 2, así que por la desigualdad de
+     * Hoeffding y la cota de la unión bastan ln(2<i>n</i>/δ)/(2ε²) fuentes.
+     * @param n el número de vértices.
+     * @param epsilon el error relativo a <i>n</i>(<i>n</i> − 2)/2.
+     * @param delta la probabilidad de exceder el error.
+     * @return el número de fuentes necesarias.
+     * @throws IllegalArgumentException si épsilon no es positivo o si delta
+     *         no está en el rango (0, 1).
+     */
+    public static int muestras(int n, double epsilon, double delta) {
+        if (!(epsilon > 0) || !(delta > 0 && delta < 1))
+            throw new IllegalArgumentException("Parámetros inválidos");
+        double k = Math.log(2.0 * Math.max(n, 1) / delta) /
+            (2 * epsilon * epsilon);
+        return (int)Math.min(Math.ceil(k), Integer.MAX_VALUE);
+    }
+
+    /* Acumula en paralelo las dependencias de las fuentes y las escala por
+     * el factor. Las fuentes se reparten en unas cuantas tareas por hilo,
+     * para que haya pocos acumuladores. */
+    private double[] acumula(int[] fuentes, double factor) {
+        int n = grafica.getElementos();
+        if (fuentes.length == 0)
+            return new double[n];
+        int umbral = Math.max(1, fuentes.length /
+                              (4 * grupo.getParallelism()));
+        double[] acumulado = grupo.invoke(new Acumula(fuentes, 0,
+                                                      fuentes.length, umbral));
+        for (int v = 0; v < n; v++)
+            acumulado[v] *= factor;
+        return acumulado;
+    }
+}
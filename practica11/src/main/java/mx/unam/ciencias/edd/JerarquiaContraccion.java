@@ -0,0 +1,580 @@
+package mx.unam.ciencias.edd;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+/**
+ * <p>Clase para jerarquías de contracción. Una jerarquía de contracción
+ * preprocesa una gráfica para responder consultas de trayectorias de peso
+ * mínimo mucho más rápido que {@link Grafica#dijkstra}.</p>
+ *
+ * <p>El preprocesamiento contrae los vértices uno por uno, del menos al más
+ * importante: al contraer un vértice, por cada par de vecinos cuya trayectoria
+ * mínima pasa por él se agrega un atajo entre ellos. El orden se decide por la
+ * diferencia de aristas (los atajos que habría que agregar menos las aristas
+ * que se eliminan) más el número de vecinos ya contraídos; las prioridades se
+ * actualizan de manera perezosa, recalculando la de un vértice sólo cuando
+ * sale del montículo.</p>
+ *
+ * <p>Una consulta hace una búsqueda bidireccional que sólo sube en la
+ * jerarquía desde el origen y desde el destino, y al final desempaca los
+ * atajos de la trayectoria en los vértices originales.</p>
+ *
+ * <p>La jerarquía corresponde a la gráfica al momento de crearla, y puede
+ * guardarse con {@link #guarda} y recuperarse con {@link #carga} para no
+ * repetir el preprocesamiento; para esto los elementos deben ser
+ * serializables. Una jerarquía no debe consultarse desde varios hilos al mismo
+ * tiempo.</p>
+ */
+public class JerarquiaContraccion<T> implements Serializable {
+
+    /* Versión de la forma serializada. */
+    private static final long serialVersionUID = 1L;
+
+    /** Máximo de vértices que asienta una búsqueda de testigos. */
+    public static final int LIMITE_TESTIGOS = 500;
+
+    /* Los elementos, por índice. */
+    private Object[] elementos;
+    /* El rango de cada vértice en el orden de contracción. */
+    private int[] rangos;
+    /* Dónde empiezan las aristas hacia arriba de cada vértice. */
+    private int[] desplazamientos;
+    /* Los destinos de las aristas hacia arriba, ordenados por vértice. */
+    private int[] destinos;
+    /* Los pesos de las aristas hacia arriba. */
+    private double[] pesos;
+    /* El vértice que puentea cada atajo, o -1 para las aristas originales. */
+    private int[] medios;
+    /* El número de atajos. */
+    private int atajos;
+
+    /* Los índices, por elemento. */
+    private transient Diccionario<T, Integer> indices;
+    /* La época actual de las consultas. */
+    private transient int epoca;
+    /* Las épocas y distancias de la búsqueda desde el origen. */
+    private transient int[] epocasAdelante;
+    private transient double[] distanciasAdelante;
+    private transient int[] padresAdelante;
+    /* Las épocas y distancias de la búsqueda desde el destino. */
+    private transient int[] epocasAtras;
+    private transient double[] distanciasAtras;
+    private transient int[] padresAtras;
+    /* Los montículos de las dos búsquedas. */
+    private transient MonticuloIndexado adelante;
+    private transient MonticuloIndexado atras;
+
+    /* Clase interna privada para la gráfica que se va contrayendo. */
+    private static class Contraccion {
+
+        /* Los vecinos de cada vértice. */
+        public int[][] vecinos;
+        /* Los pesos de las aristas a los vecinos. */
+        public double[][] pesos;
+        /* Los vértices que puentean las aristas, o -1. */
+        public int[][] medios;
+        /* El número de vecinos de cada vértice. */
+        public int[] grados;
+        /* Nos dice si cada vértice ya fue contraído. */
+        public boolean[] contraidos;
+        /* El número de vecinos contraídos de cada vértice. */
+        public int[] eliminados;
+        /* El número de atajos agregados. */
+        public int atajos;
+
+        /* Distancias de la búsqueda de testigos. */
+        private double[] distancias;
+        /* Los vecinos a los que buscamos testigos. */
+        private boolean[] buscados;
+        /* Los vértices que tocó la última búsqueda de testigos. */
+        private int[] tocados;
+        /* El montículo de la búsqueda de testigos. */
+        private MonticuloIndexado monticulo;
+
+        /* Construye la gráfica a contraer a partir de una gráfica compacta. */
+        public Contraccion(GraficaCompacta<?> grafica) {
+            int n = grafica.getElementos();
+            vecinos = new int[n][];
+            pesos = new double[n][];
+            medios = new int[n][];
+            grados = new int[n];
+            contraidos = new boolean[n];
+            eliminados = new int[n];
+            for (int v = 0; v < n; v++) {
+                int ini = grafica.desplazamientos[v];
+                int g = grafica.desplazamientos[v + 1] - ini;
+                vecinos[v] = new int[Math.max(g, 2)];
+                pesos[v] = new double[vecinos[v].length];
+                medios[v] = new int[vecinos[v].length];
+                for (int i = 0; i < g; i++) {
+                    vecinos[v][i] = grafica.destinos[ini + i];
+                    pesos[v][i] = grafica.pesos[ini + i];
+                    medios[v][i] = -1;
+                }
+                grados[v] = g;
+            }
+            distancias = new double[n];
+            for (int v = 0; v < n; v++)
+                distancias[v] = Double.POSITIVE_INFINITY;
+            tocados = new int[n];
+            buscados = new boolean[n];
+            monticulo = new MonticuloIndexado(n);
+        }
+
+        /* Regresa la prioridad del vértice: la diferencia de aristas más el
+         * número de vecinos contraídos. */
+        public double prioridad(int v) {
+            int restantes = 0;
+            for (int i = 0; i < grados[v]; i++)
+                if (!contraidos[vecinos[v][i]])
+                    restantes++;
+            return contrae(v, false) - restantes + eliminados[v];
+        }
+
+        /* Contrae el vértice, o sólo cuenta los atajos que necesita si agrega
+         * es falso. Regresa el número de atajos. */
+        public int contrae(int v, boolean agrega) {
+            int cuenta = 0;
+            for (int i = 0; i < grados[v]; i++) {
+                int u = vecinos[v][i];
+                if (contraidos[u])
+                    continue;
+                double maximo = 0;
+                int objetivos = 0;
+                for (int j = i + 1; j < grados[v]; j++) {
+                    if (!contraidos[vecinos[v][j]]) {
+                        maximo = Math.max(maximo, pesos[v][j]);
+                        buscados[vecinos[v][j]] = true;
+                        objetivos++;
+                    }
+                }
+                if (objetivos == 0)
+                    continue;
+                int t = testigos(u, v, pesos[v][i] + maximo, objetivos);
+                for (int j = i + 1; j < grados[v]; j++) {
+                    int w = vecinos[v][j];
+                    if (contraidos[w])
+                        continue;
+                    buscados[w] = false;
+                    double d = pesos[v][i] + pesos[v][j];
+                    if (distancias[w] <= d)
+                        continue;
+                    cuenta++;
+                    if (agrega) {
+                        conecta(u, w, d, v);
+                        conecta(w, u, d, v);
+                    }
+                }
+                limpia(t);
+            }
+            if (agrega) {
+                contraidos[v] = true;
+                for (int i = 0; i < grados[v]; i++) {
+                    int u = vecinos[v][i];
+                    eliminados[u]++;
+                    if (!contraidos[u])
+                        desconecta(u, v);
+                }
+                atajos += cuenta;
+            }
+            return cuenta;
+        }
+
+        /* Busca trayectorias desde u que no pasen por v, hasta que la
+         * distancia rebase el máximo, se asienten todos los objetivos o se
+         * asienten LIMITE_TESTIGOS vértices. Deja las distancias en el
+         * arreglo y regresa cuántos vértices tocó. */
+        private int testigos(int u, int v, double maximo, int objetivos) {
+            int t = 0;
+            distancias[u] = 0;
+            tocados[t++] = u;
+            monticulo.agrega(u, 0);
+            int asentados = 0;
+            while (!monticulo.esVacia() && asentados < LIMITE_TESTIGOS) {
+                int x = monticulo.elimina();
+                if (distancias[x] > maximo)
+                    break;
+                if (buscados[x] && --objetivos == 0)
+                    break;
+                asentados++;
+                for (int i = 0; i < grados[x]; i++) {
+                    int y = vecinos[x][i];
+                    if (y == v || contraidos[y])
+                        continue;
+                    double d = distancias[x] + pesos[x][i];
+                    if (d < distancias[y]) {
+                        if (distancias[y] == Double.POSITIVE_INFINITY)
+                            tocados[t++] = y;
+                        distancias[y] = d;
+                        monticulo.agrega(y, d);
+                    }
+                }
+            }
+            monticulo.limpia();
+            return t;
+        }
+
+        /* Deja en infinito las distancias de los vértices tocados. */
+        private void limpia(int t) {
+            for (int i = 0; i < t; i++)
+                distancias[tocados[i]] = Double.POSITIVE_INFINITY;
+        }
+
+        /* Quita la arista de a a b, si existe. Las aristas hacia vértices
+         * contraídos ya no sirven en la contracción, y quitarlas mantiene
+         * cortas las listas de vecinos. */
+        private void desconecta(int a, int b) {
+            for (int i = 0; i < grados[a]; i++) {
+                if (vecinos[a][i] == b) {
+                    int g = --grados[a];
+                    vecinos[a][i] = vecinos[a][g];
+                    pesos[a][i] = pesos[a][g];
+                    medios[a][i] = medios[a][g];
+                    return;
+                }
+            }
+        }
+
+        /* Agrega la arista de a a b, o le baja el peso si ya existía. */
+        private void conecta(int a, int b, double peso, int medio) {
+            for (int i = 0; i < grados[a]; i++) {
+                if (vecinos[a][i] == b) {
+                    if (peso < pesos[a][i]) {
+                        pesos[a][i] = peso;
+                        medios[a][i] = medio;
+                    }
+                    return;
+                }
+            }
+            if (grados[a] == vecinos[a].length) {
+                int m = 2 * vecinos[a].length;
+                vecinos[a] = Arrays.copyOf(vecinos[a], m);
+                pesos[a] = Arrays.copyOf(pesos[a], m);
+                medios[a] = Arrays.copyOf(medios[a], m);
+            }
+            vecinos[a][grados[a]] = b;
+            pesos[a][grados[a]] = peso;
+            medios[a][grados[a]++] = medio;
+        }
+    }
+
+    /**
+     * Construye la jerarquía de contracción de la gráfica recibida.
+     * @param grafica la gráfica a preprocesar.
+     */
+    public JerarquiaContraccion(Grafica<T> grafica) {
+        GraficaCompacta<T> compacta = new GraficaCompacta<T>(grafica);
+        int n = compacta.getElementos();
+        elementos = new Object[n];
+        for (int v = 0; v < n; v++)
+            elementos[v] = compacta.elemento(v);
+        Contraccion contraccion = new Contraccion(compacta);
+        rangos = new int[n];
+        MonticuloIndexado orden = new MonticuloIndexado(n);
+        for (int v = 0; v < n; v++)
+            orden.agrega(v, contraccion.prioridad(v));
+        int rango = 0;
+        while (!orden.esVacia()) {
+            int v = orden.elimina();
+            double prioridad = contraccion.prioridad(v);
+            if (!orden.esVacia() && prioridad > orden.valor(orden.minimo())) {
+                orden.agrega(v, prioridad);
+                continue;
+            }
+            contraccion.contrae(v, true);
+            rangos[v] = rango++;
+        }
+        atajos = contraccion.atajos;
+        construyeAristas(contraccion);
+        inicializa();
+    }
+
+    /* Construye el arreglo de aristas hacia arriba a partir de la gráfica
+     * contraída. */
+    private void construyeAristas(Contraccion contraccion) {
+        int n = elementos.length;
+        desplazamientos = new int[n + 1];
+        for (int v = 0; v < n; v++)
+            for (int i = 0; i < contraccion.grados[v]; i++)
+                if (rangos[contraccion.vecinos[v][i]] > rangos[v])
+                    desplazamientos[v + 1]++;
+        for (int v = 0; v < n; v++)
+            desplazamientos[v + 1] += desplazamientos[v];
+        destinos = new int[desplazamientos[n]];
+        pesos = new double[destinos.length];
+        medios = new int[destinos.length];
+        for (int v = 0; v < n; v++) {
+            int p = desplazamientos[v];
+            for (int i = 0; i < contraccion.grados[v]; i++) {
+                int w = contraccion.vecinos[v][i];
+                if (rangos[w] < rangos[v])
+                    continue;
+                /* Inserción ordenada por destino. */
+                int j = p++;
+                while (j > desplazamientos[v] && destinos[j - 1] > w) {
+                    destinos[j] = destinos[j - 1];
+                    pesos[j] = pesos[j - 1];
+                    medios[j] = medios[j - 1];
+                    j--;
+                }
+                destinos[j] = w;
+                pesos[j] = contraccion.pesos[v][i];
+                medios[j] = contraccion.medios[v][i];
+            }
+        }
+    }
+
+    /* Inicializa el estado que no se serializa. */
+    @SuppressWarnings("unchecked") private void inicializa() {
+        int n = elementos.length;
+        indices = new Diccionario<T, Integer>(n);
+        for (int v = 0; v < n; v++)
+            indices.agrega((T)elementos[v], v);
+        epoca = 0;
+        epocasAdelante = new int[n];
+        distanciasAdelante = new double[n];
+        padresAdelante = new int[n];
+        epocasAtras = new int[n];
+        distanciasAtras = new double[n];
+        padresAtras = new int[n];
+        adelante = new MonticuloIndexado(n);
+        atras = new MonticuloIndexado(n);
+    }
+
+    /**
+     * Regresa el número de elementos en la jerarquía.
+     * @return el número de elementos en la jerarquía.
+     */
+    public int getElementos() {
+        return elementos.length;
+    }
+
+    /**
+     * Regresa el número de atajos que agregó el preprocesamiento.
+     * @return el número de atajos.
+     */
+    public int getAtajos() {
+        return atajos;
+    }
+
+    /* Regresa el índice del elemento. */
+    private int indice(T elemento) {
+        if (elemento == null || !indices.contiene(elemento))
+            throw new NoSuchElementException("Elemento inválido");
+        return indices.get(elemento);
+    }
+
+    /* Comienza una nueva época; si el contador da la vuelta, reiniciamos las
+     * épocas de todos los vértices. */
+    private void nuevaEpoca() {
+        if (++epoca != 0)
+            return;
+        for (int v = 0; v < elementos.length; v++)
+            epocasAdelante[v] = epocasAtras[v] = 0;
+        epoca = 1;
+    }
+
+    /* Avanza un paso una de las búsquedas hacia arriba, aplicando la acción
+     * al vértice que asienta. Regresa el mejor encuentro hasta ahora. */
+    private int paso(MonticuloIndexado monticulo, int[] epocas,
+                     double[] distancias, int[] padres, int[] epocasOtra,
+                     double[] distanciasOtra, int encuentro, double[] mejor,
+                     IntConsumer asentado) {
+        int u = monticulo.elimina();
+        asentado.accept(u);
+        if (epocasOtra[u] == epoca &&
+            distancias[u] + distanciasOtra[u] < mejor[0]) {
+            mejor[0] = distancias[u] + distanciasOtra[u];
+            encuentro = u;
+        }
+        for (int p = desplazamientos[u]; p < desplazamientos[u + 1]; p++) {
+            int v = destinos[p];
+            double d = distancias[u] + pesos[p];
+            if (epocas[v] != epoca || d < distancias[v]) {
+                epocas[v] = epoca;
+                distancias[v] = d;
+                padres[v] = u;
+                monticulo.agrega(v, d);
+            }
+        }
+        return encuentro;
+    }
+
+    /* Hace la búsqueda bidireccional hacia arriba; regresa el vértice de
+     * encuentro, o -1 si no hay trayectoria, y deja el peso en mejor. Aplica
+     * la acción al índice de cada vértice que asienta. */
+    private int busca(int s, int t, double[] mejor, IntConsumer asentado) {
+        nuevaEpoca();
+        epocasAdelante[s] = epocasAtras[t] = epoca;
+        distanciasAdelante[s] = distanciasAtras[t] = 0;
+        padresAdelante[s] = padresAtras[t] = -1;
+        adelante.agrega(s, 0);
+        atras.agrega(t, 0);
+        mejor[0] = Double.POSITIVE_INFINITY;
+        int encuentro = -1;
+        while (!adelante.esVacia() || !atras.esVacia()) {
+            if (!adelante.esVacia()) {
+                if (adelante.valor(adelante.minimo()) >= mejor[0])
+                    adelante.limpia();
+                else
+                    encuentro = paso(adelante, epocasAdelante,
+                                     distanciasAdelante, padresAdelante,
+                                     epocasAtras, distanciasAtras,
+                                     encuentro, mejor, asentado);
+            }
+            if (!atras.esVacia()) {
+                if (atras.valor(atras.minimo()) >= mejor[0])
+                    atras.limpia();
+                else
+                    encuentro = paso(atras, epocasAtras, distanciasAtras,
+                                     padresAtras, epocasAdelante,
+                                     distanciasAdelante, encuentro, mejor,
+                                     asentado);
+            }
+        }
+        return encuentro;
+    }
+
+    /**
+     * Regresa el peso de una trayectoria mínima entre dos elementos.
+     * @param origen el elemento de origen.
+     * @param destino el elemento de destino.
+     * @return el peso de una trayectoria mínima entre los elementos, o {@link
+     *         Double#POSITIVE_INFINITY} si están en componentes conexas
+     *         distintas.
+     * @throws NoSuchElementException si alguno de los elementos no está en la
+     *         jerarquía.
+     */
+    public double distancia(T origen, T destino) {
+        double[] mejor = new double[1];
+        busca(indice(origen), indice(destino), mejor, v -> {});
+        return mejor[0];
+    }
+
+    /**
+     * Calcula una trayectoria de peso mínimo entre dos elementos.
+     * @param origen el elemento de origen.
+     * @param destino el elemento de destino.
+     * @return una lista con los elementos de una trayectoria de peso mínimo
+     *         entre <code>origen</code> y <code>destino</code>, incluyendo a
+     *         ambos. Si están en componentes conexas distintas, regresa una
+     *         lista vacía.
+     * @throws NoSuchElementException si alguno de los elementos no está en la
+     *         jerarquía.
+     */
+    public Lista<T> trayectoria(T origen, T destino) {
+        return trayectoria(origen, destino, v -> {});
+    }
+
+    /* Calcula una trayectoria de peso mínimo entre dos elementos, aplicando
+     * la acción al índice de cada vértice que asienta la búsqueda. */
+    @SuppressWarnings("unchecked")
+    Lista<T> trayectoria(T origen, T destino, IntConsumer asentado) {
+        int s = indice(origen), t = indice(destino);
+        double[] mejor = new double[1];
+        int encuentro = busca(s, t, mejor, asentado);
+        Lista<T> trayectoria = new Lista<T>();
+        if (encuentro == -1)
+            return trayectoria;
+        Lista<Integer> subida = new Lista<Integer>();
+        for (int v = encuentro; v != -1; v = padresAdelante[v])
+            subida.agregaInicio(v);
+        for (int v = padresAtras[encuentro]; v != -1; v = padresAtras[v])
+            subida.agregaFinal(v);
+        int anterior = -1;
+        for (int v : subida) {
+            if (anterior == -1)
+                trayectoria.agrega((T)elementos[v]);
+            else
+                desempaca(anterior, v, trayectoria);
+            anterior = v;
+        }
+        return trayectoria;
+    }
+
+    /* Regresa la posición de la arista entre a y b, buscándola entre las
+     * aristas hacia arriba del de menor rango. */
+    private int arista(int a, int b) {
+        if (rangos[a] > rangos[b]) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        int ini = desplazamientos[a], fin = desplazamientos[a + 1] - 1;
+        while (ini <= fin) {
+            int m = (ini + fin) >>> 1;
+            if (destinos[m] < b)
+                ini = m + 1;
+            else if (destinos[m] > b)
+                fin = m - 1;
+            else
+                return m;
+        }
+        throw new IllegalStateException("Arista inexistente");
+    }
+
+    /* Agrega a la trayectoria los vértices originales de la arista de a a b,
+     * sin incluir a a. Usa una pila en lugar de recursión porque los atajos
+     * pueden anidarse muy profundo. */
+    @SuppressWarnings("unchecked")
+    private void desempaca(int a, int b, Lista<T> trayectoria) {
+        Pila<int[]> pila = new Pila<int[]>();
+        pila.mete(new int[] { a, b });
+        while (!pila.esVacia()) {
+            int[] arista = pila.saca();
+            int m = medios[arista(arista[0], arista[1])];
+            if (m == -1) {
+                trayectoria.agrega((T)elementos[arista[1]]);
+            } else {
+                pila.mete(new int[] { m, arista[1] });
+                pila.mete(new int[] { arista[0], m });
+            }
+        }
+    }
+
+    /**
+     * Guarda la jerarquía en la salida recibida.
+     * @param salida la salida donde se guardará la jerarquía.
+     * @throws IOException si ocurre un error al escribir, o si los elementos
+     *         no son serializables.
+     */
+    public void guarda(OutputStream salida) throws IOException {
+        ObjectOutputStream out = new ObjectOutputStream(salida);
+        out.writeObject(this);
+        out.flush();
+    }
+
+    /**
+     * Carga una jerarquía guardada con {@link #guarda}.
+     * @param <T> el tipo de los elementos de la jerarquía.
+     * @param entrada la entrada de donde se leerá la jerarquía.
+     * @return la jerarquía leída.
+     * @throws IOException si ocurre un error al leer, o si la entrada no
+     *         contiene una jerarquía.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> JerarquiaContraccion<T> carga(InputStream entrada)
+        throws IOException {
+        ObjectInputStream in = new ObjectInputStream(entrada);
+        try {
+            return (JerarquiaContraccion<T>)in.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Jerarquía inválida", e);
+        }
+    }
+
+    /* Reconstruye el estado que no se serializa. */
+    private void readObject(ObjectInputStream in)
+        throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        inicializa();
+    }
+}
@@ -0,0 +1,166 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para montículos mínimos de índices. Los elementos del montículo son
+ * enteros en el rango [0, <i>n</i>), cada uno con un valor real; el montículo
+ * ordena los índices por su valor.</p>
+ *
+ * <p>Es la versión plana de {@link MonticuloMinimo} para los algoritmos que
+ * identifican a los vértices por su índice en lugar de usar objetos: no crea
+ * ningún objeto por elemento, y después de {@link #limpia} puede reutilizarse
+ * en tiempo proporcional a los elementos que tenía, no a <i>n</i>.</p>
+ */
+class MonticuloIndexado {
+
+    /* El árbol del montículo, con los índices. */
+    private int[] arbol;
+    /* La posición de cada índice en el árbol, o -1 si no está. */
+    private int[] posiciones;
+    /* El valor de cada índice. */
+    private double[] valores;
+    /* El número de elementos en el montículo. */
+    private int elementos;
+
+    /**
+     * Construye un montículo vacío para índices en el rango [0, <i>n</i>).
+     * @param n el número de índices posibles.
+     */
+    public MonticuloIndexado(int n) {
+        arbol = new int[n];
+        posiciones = new int[n];
+        valores = new double[n];
+        for (int i = 0; i < n; i++)
+            posiciones[i] = -1;
+    }
+
+    /**
+     * Agrega un índice al montículo con el valor dado, o le baja el valor si
+     * ya estaba en el montículo y el nuevo valor es menor.
+     * @param indice el índice.
+     * @param valor el valor del índice.
+     */
+    public void agrega(int indice, double valor) {
+        int p = posiciones[indice];
+        if (p == -1) {
+            valores[indice] = valor;
+            arbol[elementos] = indice;
+            posiciones[indice] = elementos;
+            sube(elementos++);
+        } else if (valor < valores[indice]) {
+            valores[indice] = valor;
+            sube(p);
+        }
+    }
+
+    /**
+     * Elimina el índice con el menor valor del montículo.
+     * @return el índice con el menor valor.
+     * @throws IllegalStateException si el montículo es vacío.
+     */
+    public int elimina() {
+        if (elementos == 0)
+            throw new IllegalStateException("Montículo vacío");
+        int minimo = arbol[0];
+        posiciones[minimo] = -1;
+        if (--elementos > 0) {
+            arbol[0] = arbol[elementos];
+            posiciones[arbol[0]] = 0;
+            baja(0);
+        }
+        return minimo;
+    }
+
+    /**
+     * Regresa el índice con el menor valor, sin eliminarlo.
+     * @return el índice con el menor valor.
+     * @throws IllegalStateException si el montículo es vacío.
+     */
+    public int minimo() {
+        if (elementos == 0)
+            throw new IllegalStateException("Montículo vacío");
+        return arbol[0];
+    }
+
+    /**
+     * Regresa el último valor que tuvo el índice en el montículo.
+     * @param indice el índice.
+     * @return el último valor del índice.
+     */
+    public double valor(int indice) {
+        return valores[indice];
+    }
+
+    /**
+     * Nos dice si el índice está en el montículo.
+     * @param indice el índice.
+     * @return <code>true</code> si el índice está en el montículo,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(int indice) {
+        return posiciones[indice] != -1;
+    }
+
+    /**
+     * Nos dice si el montículo es vacío.
+     * @return <code>true</code> si el montículo es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en el montículo.
+     * @return el número de elementos en el montículo.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Limpia el montículo, dejándolo vacío. Toma tiempo proporcional al
+     * número de elementos que tenía el montículo.
+     */
+    public void limpia() {
+        for (int i = 0; i < elementos; i++)
+            posiciones[arbol[i]] = -1;
+        elementos = 0;
+    }
+
+    /* Intercambia dos posiciones del árbol. */
+    private void intercambia(int i, int j) {
+        int t = arbol[i];
+        arbol[i] = arbol[j];
+        arbol[j] = t;
+        posiciones[arbol[i]] = i;
+        posiciones[arbol[j]] = j;
+    }
+
+    /* Sube la posición i mientras sea menor que su padre. */
+    private void sube(int i) {
+        while (i > 0) {
+            int p = (i - 1) / 2;
+            if (valores[arbol[p]] <= valores[arbol[i]])
+                return;
+            intercambia(i, p);
+            i = p;
+        }
+    }
+
+    /* Baja la posición i mientras sea mayor que alguno de sus hijos. */
+    private void baja(int i) {
+        while (true) {
+            int izquierdo = 2 * i + 1, derecho = izquierdo + 1, m = i;
+            if (izquierdo < elementos &&
+                valores[arbol[izquierdo]] < valores[arbol[m]])
+                m = izquierdo;
+            if (derecho < elementos &&
+                valores[arbol[derecho]] < valores[arbol[m]])
+                m = derecho;
+            if (m == i)
+                return;
+            intercambia(i, m);
+            i = m;
+        }
+    }
+}
@@ -0,0 +1,427 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * <p>Clase para multidiccionarios. Un multidiccionario mapea cada llave a una
+ * colección de valores, en el orden en que fueron agregados.</p>
+ *
+ * <p>A diferencia de usar un {@link Diccionario} de {@link Lista}s, los valores
+ * de cada llave se guardan en una corrida: un arreglo que crece al doble cuando
+ * se llena. Esto evita crear un nodo doblemente ligado por cada valor, y
+ * permite recorrer los valores de una llave sin crear objetos.</p>
+ */
+public class MultiDiccionario<K, V> implements Iterable<V> {
+
+    /* Clase interna privada para corridas de valores. */
+    private class Corrida {
+
+        /* Los valores de la corrida. */
+        public Object[] valores;
+        /* El número de valores en la corrida. */
+        public int elementos;
+
+        /* Construye una nueva corrida con la capacidad dada. */
+        public Corrida(int capacidad) {
+            valores = new Object[capacidad];
+        }
+
+        /* Se asegura de que quepan n valores más en la corrida. */
+        public void asegura(int n) {
+            if (elementos + n <= valores.length)
+                return;
+            int c = valores.length * 2;
+            while (c < elementos + n)
+                c *= 2;
+            Object[] nuevos = new Object[c];
+            System.arraycopy(valores, 0, nuevos, 0, elementos);
+            valores = nuevos;
+        }
+
+        /* Agrega un valor al final de la corrida. */
+        public void agrega(V valor) {
+            asegura(1);
+            valores[elementos++] = valor;
+        }
+
+        /* Regresa el i-ésimo valor de la corrida. */
+        @SuppressWarnings("unchecked") public V get(int i) {
+            return (V)valores[i];
+        }
+
+        /* Recorta el arreglo de la corrida a su número de valores. */
+        public void compacta() {
+            if (elementos == valores.length)
+                return;
+            Object[] nuevos = new Object[elementos];
+            System.arraycopy(valores, 0, nuevos, 0, elementos);
+            valores = nuevos;
+        }
+    }
+
+    /* Clase interna privada para iteradores de valores. */
+    private class Iterador implements Iterator<V> {
+
+        /* Iterador auxiliar de las corridas. */
+        private Iterator<Corrida> iterador;
+        /* La corrida actual. */
+        private Corrida corrida;
+        /* El índice en la corrida actual. */
+        private int indice;
+
+        /* Construye un nuevo iterador, auxiliándose del diccionario. */
+        public Iterador() {
+            iterador = corridas.iterator();
+            mueveCorrida();
+        }
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            return corrida != null;
+        }
+
+        /* Regresa el siguiente elemento. */
+        @Override public V next() {
+            if (corrida == null)
+                throw new NoSuchElementException();
+            V valor = corrida.get(indice++);
+            if (indice == corrida.elementos)
+                mueveCorrida();
+            return valor;
+        }
+
+        /* Mueve el iterador a la siguiente corrida no vacía. */
+        private void mueveCorrida() {
+            corrida = null;
+            indice = 0;
+            while (iterador.hasNext()) {
+                Corrida c = iterador.next();
+                if (c.elementos > 0) {
+                    corrida = c;
+                    return;
+                }
+            }
+        }
+    }
+
+    /* Capacidad inicial de cada corrida. */
+    private static final int CAPACIDAD_CORRIDA = 2;
+
+    /* Las corridas de valores, indexadas por llave. */
+    private Diccionario<K, Corrida> corridas;
+    /* Número total de valores. */
+    private int elementos;
+
+    /**
+     * Construye un multidiccionario con una capacidad inicial y dispersor
+     * predeterminados.
+     */
+    public MultiDiccionario() {
+        corridas = new Diccionario<K, Corrida>();
+    }
+
+    /**
+     * Construye un multidiccionario con una capacidad inicial de llaves
+     * definida por el usuario, y un dispersor predeterminado.
+     * @param capacidad la capacidad de llaves a utilizar.
+     */
+    public MultiDiccionario(int capacidad) {
+        corridas = new Diccionario<K, Corrida>(capacidad);
+    }
+
+    /**
+     * Construye un multidiccionario con una capacidad inicial de llaves y un
+     * dispersor definidos por el usuario.
+     * @param capacidad la capacidad de llaves a utilizar.
+     * @param dispersor el dispersor a utilizar.
+     */
+    public MultiDiccionario(int capacidad, Dispersor<K> dispersor) {
+        corridas = new Diccionario<K, Corrida>(capacidad, dispersor);
+    }
+
+    /* Regresa la corrida de la llave, creándola si no existe. */
+    private Corrida corrida(K llave, int capacidad) {
+        if (corridas.contiene(llave))
+            return corridas.get(llave);
+        Corrida corrida = new Corrida(capacidad);
+        corridas.agrega(llave, corrida);
+        return corrida;
+    }
+
+    /* Regresa la corrida de la llave, o lanza una excepción si no existe. */
+    private Corrida busca(K llave) {
+        if (llave == null)
+            throw new IllegalArgumentException("Llave nula");
+        if (!corridas.contiene(llave))
+            throw new NoSuchElementException("Llave inválida");
+        return corridas.get(llave);
+    }
+
+    /**
+     * Agrega un nuevo valor al final de los valores de la llave proporcionada.
+     * @param llave la llave para agregar el valor.
+     * @param valor el valor a agregar.
+     * @throws IllegalArgumentException si la llave o el valor son nulos.
+     */
+    public void agrega(K llave, V valor) {
+        if (llave == null || valor == null)
+            throw new IllegalArgumentException("Llave o valor nulos");
+        corrida(llave, CAPACIDAD_CORRIDA).agrega(valor);
+        elementos++;
+    }
+
+    /**
+     * Agrega todos los valores del arreglo al final de los valores de la llave
+     * proporcionada. La corrida de la llave crece a lo más una vez. Si el
+     * arreglo es vacío, el multidiccionario no cambia.
+     * @param llave la llave para agregar los valores.
+     * @param valores los valores a agregar.
+     * @throws IllegalArgumentException si la llave, el arreglo o alguno de los
+     *         valores son nulos.
+     */
+    public void agrega(K llave, V[] valores) {
+        if (llave == null || valores == null)
+            throw new IllegalArgumentException("Llave o valores nulos");
+        for (V valor : valores)
+            if (valor == null)
+                throw new IllegalArgumentException("Valor nulo");
+        if (valores.length == 0)
+            return;
+        Corrida corrida = corrida(llave,
+                                  Math.max(valores.length, CAPACIDAD_CORRIDA));
+        corrida.asegura(valores.length);
+        System.arraycopy(valores, 0, corrida.valores, corrida.elementos,
+                         valores.length);
+        corrida.elementos += valores.length;
+        elementos += valores.length;
+    }
+
+    /**
+     * Agrega todos los valores de la colección al final de los valores de la
+     * llave proporcionada. La corrida de la llave crece a lo más una vez. Si
+     * la colección es vacía, el multidiccionario no cambia.
+     * @param llave la llave para agregar los valores.
+     * @param valores la colección de valores a agregar.
+     * @throws IllegalArgumentException si la llave, la colección o alguno de
+     *         los valores son nulos.
+     */
+    public void agrega(K llave, Coleccion<V> valores) {
+        if (llave == null || valores == null)
+            throw new IllegalArgumentException("Llave o valores nulos");
+        for (V valor : valores)
+            if (valor == null)
+                throw new IllegalArgumentException("Valor nulo");
+        int n = valores.getElementos();
+        if (n == 0)
+            return;
+        Corrida corrida = corrida(llave, Math.max(n, CAPACIDAD_CORRIDA));
+        corrida.asegura(n);
+        for (V valor : valores)
+            corrida.agrega(valor);
+        elementos += n;
+    }
+
+    /**
+     * Regresa el <i>i</i>-ésimo valor asociado a la llave proporcionada, en el
+     * orden en que fueron agregados.
+     * @param llave la llave para buscar el valor.
+     * @param i el índice del valor.
+     * @return el <i>i</i>-ésimo valor asociado a la llave.
+     * @throws IllegalArgumentException si la llave es nula.
+     * @throws NoSuchElementException si la llave no está en el
+     *         multidiccionario.
+     * @throws ExcepcionIndiceInvalido si el índice es inválido.
+     */
+    public V get(K llave, int i) {
+        Corrida corrida = busca(llave);
+        if (i < 0 || i >= corrida.elementos)
+            throw new ExcepcionIndiceInvalido("Índice inválido: " + i);
+        return corrida.get(i);
+    }
+
+    /**
+     * Realiza la acción recibida en cada uno de los valores asociados a la
+     * llave proporcionada, en el orden en que fueron agregados. El recorrido
+     * no crea ningún objeto.
+     * @param llave la llave de los valores.
+     * @param accion la acción a realizar.
+     * @throws IllegalArgumentException si la llave es nula.
+     * @throws NoSuchElementException si la llave no está en el
+     *         multidiccionario.
+     */
+    public void paraCadaValor(K llave, Consumer<? super V> accion) {
+        Corrida corrida = busca(llave);
+        for (int i = 0; i < corrida.elementos; i++)
+            accion.accept(corrida.get(i));
+    }
+
+    /**
+     * Regresa el número de valores asociados a la llave proporcionada.
+     * @param llave la llave de los valores.
+     * @return el número de valores asociados a la llave, o 0 si la llave no
+     *         está en el multidiccionario.
+     */
+    public int getElementos(K llave) {
+        if (llave == null || !corridas.contiene(llave))
+            return 0;
+        return corridas.get(llave).elementos;
+    }
+
+    /**
+     * Nos dice si una llave se encuentra en el multidiccionario.
+     * @param llave la llave que queremos ver si está en el multidiccionario.
+     * @return <code>true</code> si la llave está en el multidiccionario,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(K llave) {
+        return llave != null && corridas.contiene(llave);
+    }
+
+    /**
+     * Elimina la llave proporcionada y todos sus valores.
+     * @param llave la llave a eliminar.
+     * @throws IllegalArgumentException si la llave es nula.
+     * @throws NoSuchElementException si la llave no se encuentra en el
+     *         multidiccionario.
+     */
+    public void elimina(K llave) {
+        Corrida corrida = busca(llave);
+        elementos -= corrida.elementos;
+        corridas.elimina(llave);
+    }
+
+    /**
+     * Recorta las corridas de todas las llaves al número de valores que
+     * tienen, liberando la memoria sobrante. Es útil cuando el
+     * multidiccionario ya no va a crecer.
+     */
+    public void compacta() {
+        for (Corrida corrida : corridas)
+            corrida.compacta();
+    }
+
+    /**
+     * Regresa el número total de valores en el multidiccionario.
+     * @return el número total de valores en el multidiccionario.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Regresa el número de llaves en el multidiccionario.
+     * @return el número de llaves en el multidiccionario.
+     */
+    public int getLlaves() {
+        return corridas.getElementos();
+    }
+
+    /**
+     * Nos dice si el multidiccionario es vacío.
+     * @return <code>true</code> si el multidiccionario es vacío,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean esVacia() {
+        return corridas.esVacia();
+    }
+
+    /**
+     * Limpia el multidiccionario de llaves y valores, dejándolo vacío.
+     */
+    public void limpia() {
+        corridas.limpia();
+        elementos = 0;
+    }
+
+    /**
+     * Regresa una representación en cadena del multidiccionario.
+     * @return una representación en cadena del multidiccionario.
+     */
+    @Override public String toString() {
+        if (corridas.esVacia())
+            return "{}";
+        StringBuilder sb = new StringBuilder("{ ");
+        Iterator<K> llaves = corridas.iteradorLlaves();
+        while (llaves.hasNext()) {
+            K llave = llaves.next();
+            Corrida corrida = corridas.get(llave);
+            sb.append(String.format("'%s': [", llave));
+            for (int i = 0; i < corrida.elementos; i++)
+                sb.append(String.format(i == 0 ? "'%s'" : ", '%s'",
+                                        corrida.get(i)));
+            sb.append("], ");
+        }
+        return sb.append("}").toString();
+    }
+
+    /**
+     * Nos dice si el multidiccionario es igual al objeto recibido.
+     * @param o el objeto que queremos saber si es igual al multidiccionario.
+     * @return <code>true</code> si el objeto recibido es instancia de
+     *         MultiDiccionario, y tiene las mismas llaves asociadas a los
+     *         mismos valores en el mismo orden.
+     */
+    @Override public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass())
+            return false;
+        @SuppressWarnings("unchecked") MultiDiccionario<K, V> d =
+            (MultiDiccionario<K, V>)o;
+        if (elementos != d.elementos || getLlaves() != d.getLlaves())
+            return false;
+        Iterator<K> llaves = corridas.iteradorLlaves();
+        while (llaves.hasNext()) {
+            K llave = llaves.next();
+            if (!d.corridas.contiene(llave))
+                return false;
+            Corrida a = corridas.get(llave);
+            Corrida b = d.corridas.get(llave);
+            if (a.elementos != b.elementos)
+                return false;
+            for (int i = 0; i < a.elementos; i++)
+                if (!a.get(i).equals(b.get(i)))
+                    return false;
+        }
+        return true;
+    }
+
+    /**
+     * Regresa un código de dispersión para el multidiccionario, consistente
+     * con {@link #equals}: no depende del orden de las llaves, pero sí del
+     * orden de los valores de cada llave.
+     * @return un código de dispersión para el multidiccionario.
+     */
+    @Override public int hashCode() {
+        int h = 0;
+        Iterator<K> llaves = corridas.iteradorLlaves();
+        while (llaves.hasNext()) {
+            K llave = llaves.next();
+            Corrida corrida = corridas.get(llave);
+            int c = 1;
+            for (int i = 0; i < corrida.elementos; i++)
+                c = 31 * c + corrida.get(i).hashCode();
+            h += llave.hashCode() ^ c;
+        }
+        return h;
+    }
+
+    /**
+     * Regresa un iterador para iterar las llaves del multidiccionario. El
+     * multidiccionario se itera sin ningún orden específico.
+     * @return un iterador para iterar las llaves del multidiccionario.
+     */
+    public Iterator<K> iteradorLlaves() {
+        return corridas.iteradorLlaves();
+    }
+
+    /**
+     * Regresa un iterador para iterar todos los valores del multidiccionario.
+     * Las llaves se iteran sin ningún orden específico, pero los valores de
+     * cada llave se iteran juntos y en el orden en que fueron agregados.
+     * @return un iterador para iterar los valores del multidiccionario.
+     */
+    @Override public Iterator<V> iterator() {
+        return new Iterador();
+    }
+}
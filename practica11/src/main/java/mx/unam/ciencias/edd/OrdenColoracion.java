@@ -0,0 +1,11 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Enumeración para los órdenes en que {@link Coloracion} colorea los vértices.
+ */
+public enum OrdenColoracion {
+    /** Primero los vértices de mayor grado. */
+    GRADO_MAYOR,
+    /** Al revés del orden en que se quitan los vértices de menor grado. */
+    ULTIMO_MENOR;
+}
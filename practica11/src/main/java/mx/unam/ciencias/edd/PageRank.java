@@ -0,0 +1,354 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * <p>Clase para calcular el PageRank de los vértices de una gráfica
+ * compacta.</p>
+ *
+ * <p>El PageRank es la distribución estacionaria de una caminata aleatoria
+ * que en cada paso, con probabilidad igual al amortiguamiento, sigue una
+ * arista al azar, y si no se teletransporta a un vértice del conjunto de
+ * teletransporte; en el PageRank usual el conjunto son todos los vértices, y
+ * en el personalizado es un subconjunto. Los vértices sin vecinos se
+ * teletransportan siempre. Las aristas no se distinguen por peso.</p>
+ *
+ * <p>Los rangos se calculan con iteración de potencias sobre arreglos de
+ * dobles: en cada iteración cada vértice jala los rangos de sus vecinos, y
+ * los vértices se reparten en rangos de índices entre los hilos de un
+ * {@link ForkJoinPool}. La iteración se detiene cuando la norma L1 del cambio
+ * es menor que la tolerancia. Para consultas desde un solo vértice se ofrece
+ * además una aproximación local que empuja residuos sólo por los vértices
+ * cercanos al origen.</p>
+ */
+public class PageRank<T> {
+
+    /** El amortiguamiento por omisión. */
+    public static final double AMORTIGUAMIENTO = 0.85;
+    /** La tolerancia por omisión. */
+    public static final double TOLERANCIA = 1e-9;
+    /** El máximo de iteraciones de potencias. */
+    public static final int MAXIMO_ITERACIONES = 1000;
+
+    /* Número de vértices a partir del cual una tarea se divide. */
+    private static final int UMBRAL = 1024;
+
+    /* Clase interna privada para tareas que suman una función sobre un rango
+     * de índices. */
+    private static class Suma extends RecursiveTask<Double> {
+
+        /* Versión de la forma serializada. */
+        private static final long serialVersionUID = 1L;
+
+        /* El inicio del rango. */
+        private int ini;
+        /* El fin del rango. */
+        private int fin;
+        /* La función. */
+        private IntToDoubleFunction funcion;
+
+        /* Construye una tarea para el rango [ini, fin). */
+        public Suma(int ini, int fin, IntToDoubleFunction funcion) {
+            this.ini = ini;
+            this.fin = fin;
+            this.funcion = funcion;
+        }
+
+        /* Suma la función en el rango, dividiéndolo si es grande. */
+        @Override protected Double compute() {
+            if (fin - ini > UMBRAL) {
+                int m = (ini + fin) >>> 1;
+                Suma izquierda = new Suma(ini, m, funcion);
+                izquierda.fork();
+                double derecha = new Suma(m, fin, funcion).compute();
+                return izquierda.join() + derecha;
+            }
+            double s = 0;
+            for (int i = ini; i < fin; i++)
+                s += funcion.applyAsDouble(i);
+            return s;
+        }
+    }
+
+    /* Clase interna privada para el estado de la aproximación local. Sólo
+     * guarda los vértices tocados, en lugares consecutivos que se encuentran
+     * con una tabla de dispersión de direccionamiento abierto, así que su
+     * tamaño no depende del de la gráfica. */
+    private static class Local {
+
+        /* El vértice de cada lugar. */
+        public int[] vertices;
+        /* El residuo de cada lugar. */
+        public double[] residuos;
+        /* La estimación de cada lugar. */
+        public double[] estimaciones;
+        /* Si el lugar está en la cola. */
+        public boolean[] enCola;
+        /* El número de lugares. */
+        public int lugares;
+        /* La tabla de dispersión de vértices a lugares; -1 si está libre. */
+        private int[] tabla;
+        /* La cola circular de lugares. */
+        private int[] cola;
+        /* La cabeza de la cola. */
+        private int cabeza;
+        /* El número de lugares en la cola. */
+        public int cuantos;
+
+        /* Construye un estado vacío. */
+        public Local() {
+            vertices = new int[16];
+            residuos = new double[16];
+            estimaciones = new double[16];
+            enCola = new boolean[16];
+            tabla = new int[32];
+            Arrays.fill(tabla, -1);
+            cola = new int[16];
+        }
+
+        /* Regresa la casilla de la tabla para el vértice. */
+        private int casilla(int v) {
+            int h = v * 0x9e3779b9;
+            int m = tabla.length - 1;
+            int i = (h ^ (h >>> 16)) & m;
+            while (tabla[i] != -1 && vertices[tabla[i]] != v)
+                i = (i + 1) & m;
+            return i;
+        }
+
+        /* Regresa el lugar del vértice, dándole uno nuevo si no tiene. */
+        public int lugar(int v) {
+            int i = casilla(v);
+            if (tabla[i] != -1)
+                return tabla[i];
+            if (lugares == vertices.length) {
+                int c = 2 * lugares;
+                vertices = Arrays.copyOf(vertices, c);
+                residuos = Arrays.copyOf(residuos, c);
+                estimaciones = Arrays.copyOf(estimaciones, c);
+                enCola = Arrays.copyOf(enCola, c);
+            }
+            vertices[lugares] = v;
+            tabla[i] = lugares;
+            if (2 * ++lugares > tabla.length) {
+                tabla = new int[2 * tabla.length];
+                Arrays.fill(tabla, -1);
+                for (int l = 0; l < lugares; l++)
+                    tabla[casilla(vertices[l])] = l;
+            }
+            return lugares - 1;
+        }
+
+        /* Mete un lugar a la cola. */
+        public void mete(int l) {
+            if (cuantos == cola.length) {
+                int[] nueva = new int[2 * cuantos];
+                for (int i = 0; i < cuantos; i++)
+                    nueva[i] = cola[(cabeza + i) % cuantos];
+                cola = nueva;
+                cabeza = 0;
+            }
+            cola[(cabeza + cuantos++) % cola.length] = l;
+            enCola[l] = true;
+        }
+
+        /* Saca un lugar de la cola. */
+        public int saca() {
+            int l = cola[cabeza];
+            cabeza = (cabeza + 1) % cola.length;
+            cuantos--;
+            enCola[l] = false;
+            return l;
+        }
+    }
+
+    /* La gráfica. */
+    private GraficaCompacta<T> grafica;
+    /* El amortiguamiento. */
+    private double amortiguamiento;
+    /* La tolerancia. */
+    private double tolerancia;
+    /* El grupo de hilos. */
+    private ForkJoinPool grupo;
+    /* Las iteraciones del último cálculo. */
+    private int iteraciones;
+
+    /**
+     * Construye un PageRank para la gráfica compacta recibida, con el
+     * amortiguamiento y la tolerancia por omisión y usando el grupo común de
+     * hilos.
+     * @param grafica la gráfica compacta.
+     */
+    public PageRank(GraficaCompacta<T> grafica) {
+        this(grafica, AMORTIGUAMIENTO, TOLERANCIA, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Construye un PageRank para la gráfica compacta recibida.
+     * @param grafica la gráfica compacta.
+     * @param amortiguamiento la probabilidad de seguir una arista, en el
+     *        rango [0, 1).
+     * @param tolerancia la norma L1 del cambio con la que se detiene la
+     *        iteración.
+     * @param grupo el grupo de hilos donde se repartirán los vértices.
+     * @throws IllegalArgumentException si el amortiguamiento no está en el
+     *         rango [0, 1), si la tolerancia no es positiva o si el grupo es
+     *         <code>null</code>.
+     */
+    public PageRank(GraficaCompacta<T> grafica, double amortiguamiento,
+                    double tolerancia, ForkJoinPool grupo) {
+        if (!(amortiguamiento >= 0 && amortiguamiento < 1) ||
+            !(tolerancia > 0) || grupo == null)
+            throw new IllegalArgumentException("Parámetros inválidos");
+        this.grafica = grafica;
+        this.amortiguamiento = amortiguamiento;
+        this.tolerancia = tolerancia;
+        this.grupo = grupo;
+    }
+
+    /**
+     * Regresa el número de iteraciones del último cálculo de rangos.
+     * @return el número de iteraciones del último cálculo de rangos.
+     */
+    public int getIteraciones() {
+        return iteraciones;
+    }
+
+    /**
+     * Calcula el PageRank de todos los vértices, teletransportándose a
+     * cualquier vértice.
+     * @return un arreglo con el rango de cada vértice, indexado por {@link
+     *         GraficaCompacta#indice}; los rangos suman 1.
+     */
+    public double[] rangos() {
+        int n = grafica.getElementos();
+        double[] teletransporte = new double[n];
+        Arrays.fill(teletransporte, 1.0 / n);
+        return itera(teletransporte);
+    }
+
+    /**
+     * Calcula el PageRank personalizado de todos los vértices,
+     * teletransportándose sólo a los elementos recibidos.
+     * @param teletransporte los elementos a los que se teletransporta la
+     *        caminata.
+     * @return un arreglo con el rango de cada vértice, indexado por {@link
+     *         GraficaCompacta#indice}; los rangos suman 1.
+     * @throws IllegalArgumentException si la lista es vacía.
+     * @throws NoSuchElementException si algún elemento no está en la
+     *         gráfica.
+     */
+    public double[] rangos(Lista<T> teletransporte) {
+        if (teletransporte.esVacia())
+            throw new IllegalArgumentException("Lista vacía");
+        double[] t = new double[grafica.getElementos()];
+        int k = 0;
+        for (T elemento : teletransporte) {
+            int i = grafica.indice(elemento);
+            if (t[i] == 0) {
+                t[i] = 1;
+                k++;
+            }
+        }
+        for (int i = 0; i < t.length; i++)
+            t[i] /= k;
+        return itera(t);
+    }
+
+    /* Iteración de potencias con el vector de teletransporte. Cada iteración
+     * tiene dos pasadas en paralelo: la primera reparte el rango de cada
+     * vértice entre sus aristas y suma el de los vértices sin vecinos; la
+     * segunda jala los rangos de los vecinos y suma el cambio. */
+    private double[] itera(double[] teletransporte) {
+        int n = grafica.getElementos();
+        int[] desplazamientos = grafica.desplazamientos;
+        int[] destinos = grafica.destinos;
+        double[] rango = teletransporte.clone();
+        double[] nuevo = new double[n];
+        double[] aporte = new double[n];
+        double d = amortiguamiento;
+        iteraciones = 0;
+        double cambio = Double.POSITIVE_INFINITY;
+        while (cambio >= tolerancia && iteraciones < MAXIMO_ITERACIONES) {
+            double[] r = rango, s = nuevo;
+            double colgante = grupo.invoke(new Suma(0, n, u -> {
+                        int grado = desplazamientos[u + 1] - desplazamientos[u];
+                        if (grado == 0) {
+                            aporte[u] = 0;
+                            return r[u];
+                        }
+                        aporte[u] = r[u] / grado;
+                        return 0;
+                    }));
+            double base = 1 - d + d * colgante;
+            cambio = grupo.invoke(new Suma(0, n, v -> {
+                        double suma = 0;
+                        for (int p = desplazamientos[v];
+                             p < desplazamientos[v + 1]; p++)
+                            suma += aporte[destinos[p]];
+                        s[v] = base * teletransporte[v] + d * suma;
+                        return Math.abs(s[v] - r[v]);
+                    }));
+            rango = s;
+            nuevo = r;
+            iteraciones++;
+        }
+        return rango;
+    }
+
+    /**
+     * Aproxima el PageRank personalizado desde un solo elemento empujando
+     * residuos. Cada vértice con residuo de al menos épsilon por su grado
+     * guarda la fracción de teletransporte de su residuo y reparte el resto
+     * entre sus vecinos; el trabajo depende de épsilon y no del tamaño de la
+     * gráfica. Las estimaciones nunca exceden el rango exacto, y la suma de
+     * lo que les falta es menor que épsilon por el doble de las aristas.
+     * @param origen el elemento al que se teletransporta la caminata.
+     * @param epsilon el residuo por arista con el que se deja de empujar.
+     * @return un diccionario con la estimación de cada elemento con
+     *         estimación positiva.
+     * @throws IllegalArgumentException si épsilon no es positivo.
+     * @throws NoSuchElementException si el origen no está en la gráfica.
+     */
+    public Diccionario<T, Double> local(T origen, double epsilon) {
+        if (!(epsilon > 0))
+            throw new IllegalArgumentException("Épsilon inválido");
+        int[] desplazamientos = grafica.desplazamientos;
+        Local local = new Local();
+        int s = local.lugar(grafica.indice(origen));
+        local.residuos[s] = 1;
+        local.mete(s);
+        while (local.cuantos > 0) {
+            int l = local.saca();
+            int u = local.vertices[l];
+            double r = local.residuos[l];
+            int grado = desplazamientos[u + 1] - desplazamientos[u];
+            local.residuos[l] = 0;
+            local.estimaciones[l] += (1 - amortiguamiento) * r;
+            if (grado == 0) {
+                local.residuos[s] += amortiguamiento * r;
+                if (!local.enCola[s] && local.residuos[s] >= epsilon)
+                    local.mete(s);
+                continue;
+            }
+            double parte = amortiguamiento * r / grado;
+            for (int p = desplazamientos[u]; p < desplazamientos[u + 1]; p++) {
+                int v = grafica.destinos[p];
+                int m = local.lugar(v);
+                local.residuos[m] += parte;
+                int gv = desplazamientos[v + 1] - desplazamientos[v];
+                if (!local.enCola[m] && local.residuos[m] >= epsilon * gv)
+                    local.mete(m);
+            }
+        }
+        Diccionario<T, Double> diccionario = new Diccionario<T, Double>();
+        for (int l = 0; l < local.lugares; l++)
+            if (local.estimaciones[l] > 0)
+                diccionario.agrega(grafica.elemento(local.vertices[l]),
+                                   local.estimaciones[l]);
+        return diccionario;
+    }
+}
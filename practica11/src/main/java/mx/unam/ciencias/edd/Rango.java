@@ -0,0 +1,68 @@
+package mx.unam.ciencias.edd;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * <p>Clase para tareas que aplican una acción a cada índice de un rango
+ * [<i>ini</i>, <i>fin</i>), en paralelo.</p>
+ *
+ * <p>La tarea parte el rango a la mitad mientras tenga más índices que su
+ * umbral, y aplica la acción a los rangos pequeños en orden. La acción debe
+ * poder aplicarse a índices distintos desde varios hilos a la vez.</p>
+ */
+class Rango extends RecursiveAction {
+
+    /** Umbral predeterminado a partir del cual una tarea se divide. */
+    public static final int UMBRAL = 1024;
+
+    /* Versión de la forma serializada. */
+    private static final long serialVersionUID = 1L;
+
+    /* El inicio del rango. */
+    private int ini;
+    /* El fin del rango. */
+    private int fin;
+    /* El número de índices a partir del cual la tarea se divide. */
+    private int umbral;
+    /* La acción. */
+    private IntConsumer accion;
+
+    /**
+     * Construye una tarea para el rango [ini, fin) con el umbral
+     * predeterminado.
+     * @param ini el inicio del rango.
+     * @param fin el fin del rango.
+     * @param accion la acción a aplicar a cada índice.
+     */
+    public Rango(int ini, int fin, IntConsumer accion) {
+        this(ini, fin, UMBRAL, accion);
+    }
+
+    /**
+     * Construye una tarea para el rango [ini, fin).
+     * @param ini el inicio del rango.
+     * @param fin el fin del rango.
+     * @param umbral el número de índices a partir del cual la tarea se
+     *        divide.
+     * @param accion la acción a aplicar a cada índice.
+     */
+    public Rango(int ini, int fin, int umbral, IntConsumer accion) {
+        this.ini = ini;
+        this.fin = fin;
+        this.umbral = umbral;
+        this.accion = accion;
+    }
+
+    /* Aplica la acción al rango, dividiéndolo si es grande. */
+    @Override protected void compute() {
+        if (fin - ini > umbral) {
+            int m = (ini + fin) >>> 1;
+            invokeAll(new Rango(ini, m, umbral, accion),
+                      new Rango(m, fin, umbral, accion));
+            return;
+        }
+        for (int i = ini; i < fin; i++)
+            accion.accept(i);
+    }
+}
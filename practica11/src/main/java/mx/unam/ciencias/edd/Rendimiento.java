@@ -0,0 +1,1329 @@
+package mx.unam.ciencias.edd;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.text.NumberFormat;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Pruebas de rendimiento de las estructuras de la práctica 11. Se ejecutan
+ * por separado del programa de la práctica, porque tardan y recolectan la
+ * basura para medir la memoria.
+ */
+public class Rendimiento {
+
+    /* Regresa la memoria en uso después de recolectar la basura. */
+    private static long memoria() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /* Imprime el uso del programa y lo termina. */
+    private static void uso() {
+        System.err.println("Uso: java -cp practica11.jar " +
+                           "mx.unam.ciencias.edd.Rendimiento N");
+        System.exit(1);
+    }
+
+    /* Compara un diccionario de listas contra un multidiccionario. */
+    private static void multidiccionario(Integer[] arreglo, NumberFormat nf) {
+        int N = arreglo.length;
+        long tiempoInicial, tiempoTotal;
+        int llaves = Math.max(N / 8, 1);
+        long memoriaInicial = memoria();
+        tiempoInicial = System.nanoTime();
+        Diccionario<Integer, Lista<Integer>> listas =
+            new Diccionario<Integer, Lista<Integer>>(llaves);
+        for (int i = 0; i < N; i++) {
+            int k = arreglo[i] % llaves;
+            if (!listas.contiene(k))
+                listas.agrega(k, new Lista<Integer>());
+            listas.get(k).agrega(arreglo[i]);
+        }
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        long memoriaTotal = memoria() - memoriaInicial;
+        System.out.printf("%2.9f segundos (%s bytes) en llenar un " +
+                          "diccionario de listas con %s elementos.\n",
+                          (tiempoTotal/1000000000.0), nf.format(memoriaTotal),
+                          nf.format(N));
+
+        memoriaInicial = memoria();
+        tiempoInicial = System.nanoTime();
+        MultiDiccionario<Integer, Integer> multi =
+            new MultiDiccionario<Integer, Integer>(llaves);
+        for (int i = 0; i < N; i++)
+            multi.agrega(arreglo[i] % llaves, arreglo[i]);
+        multi.compacta();
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        memoriaTotal = memoria() - memoriaInicial;
+        System.out.printf("%2.9f segundos (%s bytes) en llenar un " +
+                          "multidiccionario con %s elementos.\n",
+                          (tiempoTotal/1000000000.0), nf.format(memoriaTotal),
+                          nf.format(N));
+
+        long suma = 0;
+        tiempoInicial = System.nanoTime();
+        for (int k = 0; k < llaves; k++)
+            if (listas.contiene(k))
+                for (Integer v : listas.get(k))
+                    suma += v;
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en recorrer un diccionario " +
+                          "de listas con %s elementos (%d).\n",
+                          (tiempoTotal/1000000000.0), nf.format(N), suma);
+
+        long[] sumaMulti = { 0 };
+        tiempoInicial = System.nanoTime();
+        for (int k = 0; k < llaves; k++)
+            if (multi.contiene(k))
+                multi.paraCadaValor(k, v -> sumaMulti[0] += v);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en recorrer un " +
+                          "multidiccionario con %s elementos (%d).\n",
+                          (tiempoTotal/1000000000.0), nf.format(N),
+                          sumaMulti[0]);
+    }
+
+    /* Imprime los percentiles 50 y 99 de las latencias de get. */
+    private static void imprimeLatencias(long[] latencias, String nombre,
+                                         NumberFormat nf) {
+        Arrays.sort(latencias);
+        int n = latencias.length;
+        System.out.printf("%s ns (p50) y %s ns (p99) por get en un %s " +
+                          "con %s elementos.\n",
+                          nf.format(latencias[n / 2]),
+                          nf.format(latencias[Math.min(n - 1, n * 99 / 100)]),
+                          nombre, nf.format(n));
+    }
+
+    /* Compara la latencia de get de un diccionario contra uno cuckoo. */
+    private static void latencias(Integer[] arreglo, NumberFormat nf) {
+        int N = arreglo.length;
+        Diccionario<Integer, Integer> diccionario =
+            new Diccionario<Integer, Integer>(N);
+        DiccionarioCuckoo<Integer, Integer> cuckoo =
+            new DiccionarioCuckoo<Integer, Integer>(N);
+        for (int i = 0; i < N; i++) {
+            diccionario.agrega(arreglo[i], i);
+            cuckoo.agrega(arreglo[i], i);
+        }
+        long[] latencias = new long[N];
+        for (int r = 0; r < 2; r++) {
+            for (int i = 0; i < N; i++) {
+                long t = System.nanoTime();
+                diccionario.get(arreglo[i]);
+                latencias[i] = System.nanoTime() - t;
+            }
+        }
+        imprimeLatencias(latencias, "diccionario", nf);
+        for (int r = 0; r < 2; r++) {
+            for (int i = 0; i < N; i++) {
+                long t = System.nanoTime();
+                cuckoo.get(arreglo[i]);
+                latencias[i] = System.nanoTime() - t;
+            }
+        }
+        imprimeLatencias(latencias, "diccionario cuckoo", nf);
+    }
+
+    /* Compara búsquedas exitosas y fallidas en un diccionario contra un
+     * diccionario suizo, con distintas cargas. */
+    private static void busquedas(int N, Random random, NumberFormat nf) {
+        long tiempoInicial, tiempoTotal;
+        double[] cargas = { 0.25, 0.5, 0.75, 0.85 };
+        for (double carga : cargas) {
+            DiccionarioSuizo<Integer, Integer> suizo =
+                new DiccionarioSuizo<Integer, Integer>(N);
+            Lista<Integer> llaves = new Lista<Integer>();
+            while (suizo.carga() < carga) {
+                int llave = random.nextInt();
+                if (!suizo.contiene(llave)) {
+                    suizo.agrega(llave, llave);
+                    llaves.agrega(llave);
+                }
+            }
+            int n = llaves.getLongitud();
+            Integer[] exitosas = new Integer[n];
+            Integer[] fallidas = new Integer[n];
+            Diccionario<Integer, Integer> diccionario =
+                new Diccionario<Integer, Integer>(n);
+            int i = 0;
+            for (Integer llave : llaves) {
+                diccionario.agrega(llave, llave);
+                exitosas[i] = llave;
+                do {
+                    fallidas[i] = random.nextInt();
+                } while (suizo.contiene(fallidas[i]));
+                i++;
+            }
+
+            int encontrados = 0;
+            tiempoInicial = System.nanoTime();
+            for (i = 0; i < n; i++)
+                if (diccionario.contiene(exitosas[i]))
+                    encontrados++;
+            for (i = 0; i < n; i++)
+                if (diccionario.contiene(fallidas[i]))
+                    encontrados++;
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            System.out.printf("%2.9f segundos en %s búsquedas exitosas y " +
+                              "%s fallidas en un diccionario con carga " +
+                              "%1.2f (%d).\n",
+                              (tiempoTotal/1000000000.0), nf.format(n),
+                              nf.format(n), diccionario.carga(), encontrados);
+
+            encontrados = 0;
+            tiempoInicial = System.nanoTime();
+            for (i = 0; i < n; i++)
+                if (suizo.contiene(exitosas[i]))
+                    encontrados++;
+            for (i = 0; i < n; i++)
+                if (suizo.contiene(fallidas[i]))
+                    encontrados++;
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            System.out.printf("%2.9f segundos en %s búsquedas exitosas y " +
+                              "%s fallidas en un diccionario suizo con " +
+                              "carga %1.2f (%d).\n",
+                              (tiempoTotal/1000000000.0), nf.format(n),
+                              nf.format(n), suizo.carga(), encontrados);
+        }
+    }
+
+    /* Regresa una gráfica aleatoria con n vértices, donde cada vértice se
+     * conecta con hasta grado vecinos cercanos, con pesos entre 1 y 100. */
+    private static Grafica<Integer> graficaAleatoria(int n, int grado,
+                                                     Random random) {
+        Grafica<Integer> grafica = new Grafica<Integer>();
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < n; i++) {
+            grafica.conecta(i - 1, i, 1 + random.nextInt(100));
+            for (int j = 1; j < grado / 2; j++) {
+                int k = Math.max(0, i - 1 - random.nextInt(64));
+                if (k != i && !grafica.sonVecinos(i, k))
+                    grafica.conecta(i, k, 1 + random.nextInt(100));
+            }
+        }
+        return grafica;
+    }
+
+    /* Compara los recorridos y trayectorias de una gráfica contra los de una
+     * gráfica compacta. */
+    private static void compacta(int N, Random random, NumberFormat nf) {
+        long tiempoInicial, tiempoTotal;
+        int n = Math.max(N / 8, 2);
+        long memoriaInicial = memoria();
+        Grafica<Integer> grafica = graficaAleatoria(n, 8, random);
+        long memoriaGrafica = memoria() - memoriaInicial;
+        memoriaInicial = memoria();
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        long memoriaCompacta = memoria() - memoriaInicial;
+        System.out.printf("%s bytes en una gráfica y %s bytes en una " +
+                          "gráfica compacta con %s vértices y %s aristas.\n",
+                          nf.format(memoriaGrafica),
+                          nf.format(memoriaCompacta), nf.format(n),
+                          nf.format(grafica.getAristas()));
+
+        int[] cuenta = { 0 };
+        tiempoInicial = System.nanoTime();
+        grafica.bfs(0, v -> cuenta[0]++);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en recorrer con BFS una gráfica " +
+                          "con %s vértices.\n",
+                          (tiempoTotal/1000000000.0), nf.format(cuenta[0]));
+        cuenta[0] = 0;
+        tiempoInicial = System.nanoTime();
+        compacta.bfs(0, v -> cuenta[0]++);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en recorrer con BFS una gráfica " +
+                          "compacta con %s vértices.\n",
+                          (tiempoTotal/1000000000.0), nf.format(cuenta[0]));
+
+        tiempoInicial = System.nanoTime();
+        Lista<VerticeGrafica<Integer>> trayectoria =
+            grafica.dijkstra(0, n - 1);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en Dijkstra en una gráfica " +
+                          "(%s vértices en la trayectoria).\n",
+                          (tiempoTotal/1000000000.0),
+                          nf.format(trayectoria.getLongitud()));
+        tiempoInicial = System.nanoTime();
+        trayectoria = compacta.dijkstra(0, n - 1);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en Dijkstra en una gráfica " +
+                          "compacta (%s vértices en la trayectoria).\n",
+                          (tiempoTotal/1000000000.0),
+                          nf.format(trayectoria.getLongitud()));
+    }
+
+    /* Imprime los percentiles 50 y 99 de las latencias de las consultas de
+     * Dijkstra. */
+    private static void imprimeConsultas(long[] latencias, String pares,
+                                         int n, NumberFormat nf) {
+        Arrays.sort(latencias);
+        int m = latencias.length;
+        System.out.printf("%s ns (p50) y %s ns (p99) por consulta de " +
+                          "Dijkstra entre %s vértices %s en una gráfica con " +
+                          "%s vértices.\n",
+                          nf.format(latencias[m / 2]),
+                          nf.format(latencias[Math.min(m - 1, m * 99 / 100)]),
+                          nf.format(m), pares, nf.format(n));
+    }
+
+    /* Mide la latencia de Dijkstra entre pares de vértices cercanos y
+     * lejanos. Con N igual a 8,000,000 la gráfica tiene un millón de
+     * vértices. */
+    private static void consultas(int N, Random random, NumberFormat nf) {
+        int n = Math.max(N / 8, 2);
+        Grafica<Integer> grafica = graficaAleatoria(n, 8, random);
+        long[] latencias = new long[1000];
+        for (int i = 0; i < latencias.length; i++) {
+            int a = random.nextInt(n);
+            int b = Math.min(n - 1, a + 1 + random.nextInt(8));
+            long t = System.nanoTime();
+            grafica.dijkstra(a, b);
+            latencias[i] = System.nanoTime() - t;
+        }
+        imprimeConsultas(latencias, "cercanos", n, nf);
+        latencias = new long[10];
+        for (int i = 0; i < latencias.length; i++) {
+            int a = random.nextInt(Math.max(n / 100, 1));
+            int b = n - 1 - random.nextInt(Math.max(n / 100, 1));
+            long t = System.nanoTime();
+            grafica.dijkstra(a, b);
+            latencias[i] = System.nanoTime() - t;
+        }
+        imprimeConsultas(latencias, "lejanos", n, nf);
+    }
+
+    /* Regresa una malla de lado por lado vértices, parecida a una red de
+     * calles, con pesos entre 1 y 100. */
+    private static Grafica<Integer> graficaMalla(int lado, Random random) {
+        Grafica<Integer> grafica = new Grafica<Integer>();
+        for (int i = 0; i < lado * lado; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < lado; i++) {
+            for (int j = 0; j < lado; j++) {
+                int v = i * lado + j;
+                if (j + 1 < lado)
+                    grafica.conecta(v, v + 1, 1 + random.nextInt(100));
+                if (i + 1 < lado)
+                    grafica.conecta(v, v + lado, 1 + random.nextInt(100));
+            }
+        }
+        return grafica;
+    }
+
+    /* Regresa una gráfica con n vértices y alrededor de n*grado/2 aristas
+     * entre vértices elegidos uniformemente, con pesos entre 1 y 100. */
+    private static Grafica<Integer> graficaUniforme(int n, int grado,
+                                                    Random random) {
+        Grafica<Integer> grafica = new Grafica<Integer>();
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < n * grado / 2; i++) {
+            int a = random.nextInt(n), b = random.nextInt(n);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b, 1 + random.nextInt(100));
+        }
+        return grafica;
+    }
+
+    /* Regresa una gráfica con n vértices y alrededor de n*grado/2 aristas
+     * por conexión preferencial (Barabási y Albert): cada vértice nuevo se
+     * conecta con vértices elegidos con probabilidad proporcional a su grado,
+     * así que unos pocos vértices tienen grado muy grande. */
+    private static Grafica<Integer> graficaPreferencial(int n, int grado,
+                                                        Random random) {
+        Grafica<Integer> grafica = new Grafica<Integer>();
+        int[] extremos = new int[n * grado];
+        int m = 0;
+        grafica.agrega(0);
+        for (int i = 1; i < n; i++) {
+            grafica.agrega(i);
+            for (int j = 0; j < grado / 2; j++) {
+                int k = (m == 0) ? 0 : extremos[random.nextInt(m)];
+                if (k == i || grafica.sonVecinos(i, k))
+                    continue;
+                grafica.conecta(i, k, 1 + random.nextInt(100));
+                extremos[m++] = i;
+                extremos[m++] = k;
+            }
+        }
+        return grafica;
+    }
+
+    /* Compara el tiempo y los vértices asentados de las búsquedas de
+     * trayectorias unidireccionales contra las bidireccionales. */
+    private static void bidireccional(Grafica<Integer> grafica, String nombre,
+                                      Random random, NumberFormat nf) {
+        int n = grafica.getElementos();
+        int consultas = 100;
+        int[] a = new int[consultas], b = new int[consultas];
+        for (int i = 0; i < consultas; i++) {
+            a[i] = random.nextInt(n);
+            b[i] = random.nextInt(n);
+        }
+        long[] asentados = new long[1];
+        AccionVerticeGrafica<Integer> cuenta = v -> asentados[0]++;
+        String[] algoritmos = { "BFS", "BFS bidireccional", "Dijkstra",
+                                "Dijkstra bidireccional" };
+        for (int k = 0; k < algoritmos.length; k++) {
+            asentados[0] = 0;
+            long tiempoInicial = System.nanoTime();
+            for (int i = 0; i < consultas; i++) {
+                switch (k) {
+                case 0: grafica.trayectoriaMinima(a[i], b[i], cuenta); break;
+                case 1: grafica.trayectoriaMinimaBidireccional(a[i], b[i],
+                                                               cuenta);
+                    break;
+                case 2: grafica.dijkstra(a[i], b[i], cuenta); break;
+                default: grafica.dijkstraBidireccional(a[i], b[i], cuenta);
+                }
+            }
+            long tiempoTotal = System.nanoTime() - tiempoInicial;
+            System.out.printf("%2.9f segundos y %s vértices asentados en %s " +
+                              "consultas de %s en una %s con %s vértices.\n",
+                              (tiempoTotal/1000000000.0),
+                              nf.format(asentados[0]), nf.format(consultas),
+                              algoritmos[k], nombre, nf.format(n));
+        }
+    }
+
+    /* Compara el tiempo y los vértices asentados por Dijkstra contra los de
+     * A* con distancia Manhattan y con marcas en una malla. */
+    private static void aEstrella(int lado, Random random, NumberFormat nf) {
+        Grafica<Integer> grafica = graficaMalla(lado, random);
+        int n = grafica.getElementos();
+        long tiempoInicial = System.nanoTime();
+        HeuristicaALT<Integer> alt = new HeuristicaALT<Integer>(grafica, 8);
+        long tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en calcular 8 marcas en una malla " +
+                          "con %s vértices.\n",
+                          (tiempoTotal/1000000000.0), nf.format(n));
+        Heuristica<Integer> manhattan = (v, d) ->
+            Math.abs(v.get() / lado - d.get() / lado) +
+            Math.abs(v.get() % lado - d.get() % lado);
+        int consultas = 100;
+        int[] a = new int[consultas], b = new int[consultas];
+        for (int i = 0; i < consultas; i++) {
+            a[i] = random.nextInt(n);
+            b[i] = random.nextInt(n);
+        }
+        long[] asentados = new long[1];
+        AccionVerticeGrafica<Integer> cuenta = v -> asentados[0]++;
+        String[] algoritmos = { "Dijkstra", "A* con distancia Manhattan",
+                                "A* con marcas" };
+        for (int k = 0; k < algoritmos.length; k++) {
+            asentados[0] = 0;
+            tiempoInicial = System.nanoTime();
+            for (int i = 0; i < consultas; i++) {
+                switch (k) {
+                case 0: grafica.dijkstra(a[i], b[i], cuenta); break;
+                case 1: grafica.aEstrella(a[i], b[i], manhattan, cuenta);
+                    break;
+                default: grafica.aEstrella(a[i], b[i], alt, cuenta);
+                }
+            }
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            System.out.printf("%2.9f segundos y %s vértices asentados en %s " +
+                              "consultas de %s en una malla con %s " +
+                              "vértices.\n",
+                              (tiempoTotal/1000000000.0),
+                              nf.format(asentados[0]), nf.format(consultas),
+                              algoritmos[k], nf.format(n));
+        }
+    }
+
+    /* Mide el preprocesamiento y las consultas de una jerarquía de
+     * contracción contra Dijkstra en una malla, y el tiempo de guardarla y
+     * cargarla. */
+    private static void jerarquia(int lado, Random random, NumberFormat nf) {
+        Grafica<Integer> grafica = graficaMalla(lado, random);
+        int n = grafica.getElementos();
+        long tiempoInicial = System.nanoTime();
+        JerarquiaContraccion<Integer> jerarquia =
+            new JerarquiaContraccion<Integer>(grafica);
+        long tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en preprocesar una jerarquía de " +
+                          "contracción con %s vértices (%s atajos).\n",
+                          (tiempoTotal/1000000000.0), nf.format(n),
+                          nf.format(jerarquia.getAtajos()));
+
+        int consultas = 1000;
+        long[] latencias = new long[consultas];
+        long[] asentados = new long[1];
+        for (int i = 0; i < consultas; i++) {
+            int a = random.nextInt(n), b = random.nextInt(n);
+            long t = System.nanoTime();
+            jerarquia.trayectoria(a, b, v -> asentados[0]++);
+            latencias[i] = System.nanoTime() - t;
+        }
+        Arrays.sort(latencias);
+        System.out.printf("%s ns (p50) y %s ns (p99) por consulta en una " +
+                          "jerarquía de contracción (%s vértices asentados " +
+                          "en promedio).\n",
+                          nf.format(latencias[consultas / 2]),
+                          nf.format(latencias[consultas * 99 / 100]),
+                          nf.format(asentados[0] / consultas));
+        latencias = new long[consultas / 10];
+        asentados[0] = 0;
+        for (int i = 0; i < latencias.length; i++) {
+            int a = random.nextInt(n), b = random.nextInt(n);
+            long t = System.nanoTime();
+            grafica.dijkstra(a, b, v -> asentados[0]++);
+            latencias[i] = System.nanoTime() - t;
+        }
+        Arrays.sort(latencias);
+        System.out.printf("%s ns (p50) y %s ns (p99) por consulta de " +
+                          "Dijkstra (%s vértices asentados en promedio).\n",
+                          nf.format(latencias[latencias.length / 2]),
+                          nf.format(latencias[latencias.length * 99 / 100]),
+                          nf.format(asentados[0] / latencias.length));
+
+        try {
+            ByteArrayOutputStream salida = new ByteArrayOutputStream();
+            tiempoInicial = System.nanoTime();
+            jerarquia.guarda(salida);
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            System.out.printf("%2.9f segundos en guardar una jerarquía de " +
+                              "contracción en %s bytes.\n",
+                              (tiempoTotal/1000000000.0),
+                              nf.format(salida.size()));
+            tiempoInicial = System.nanoTime();
+            JerarquiaContraccion.carga(
+                new ByteArrayInputStream(salida.toByteArray()));
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            System.out.printf("%2.9f segundos en cargar una jerarquía de " +
+                              "contracción.\n", (tiempoTotal/1000000000.0));
+        } catch (IOException ioe) {
+            System.err.println("No se pudo guardar la jerarquía.");
+        }
+    }
+
+    /* Mide delta-stepping con 1, 2, 4, ... núcleos contra Dijkstra en una
+     * gráfica compacta. */
+    private static void deltaStepping(int N, Random random, NumberFormat nf) {
+        GraficaCompacta<Integer> grafica = new GraficaCompacta<Integer>(
+            graficaUniforme(Math.max(N / 8, 2), 8, random));
+        int n = grafica.getElementos();
+        long tiempoInicial = System.nanoTime();
+        grafica.distancias(0);
+        long tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en calcular con Dijkstra las " +
+                          "distancias en una gráfica compacta con %s " +
+                          "vértices y %s aristas.\n",
+                          (tiempoTotal/1000000000.0), nf.format(n),
+                          nf.format(grafica.getAristas()));
+        double delta = DeltaStepping.deltaSugerida(grafica);
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        for (int p = 1; p <= nucleos; p = (p == nucleos) ? p + 1 :
+                 Math.min(2 * p, nucleos)) {
+            ForkJoinPool grupo = new ForkJoinPool(p);
+            DeltaStepping<Integer> ds =
+                new DeltaStepping<Integer>(grafica, delta, grupo);
+            ds.distancias(0);
+            tiempoInicial = System.nanoTime();
+            ds.distancias(0);
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            grupo.shutdown();
+            System.out.printf("%2.9f segundos en calcular con " +
+                              "delta-stepping (Δ = %.2f) las distancias " +
+                              "con %d núcleos.\n",
+                              (tiempoTotal/1000000000.0), delta, p);
+        }
+    }
+
+    /* Compara las aristas por segundo del BFS de una gráfica contra las del
+     * BFS direccional con 1, 2, 4, ... núcleos. */
+    private static void bfsDireccional(int N, Random random,
+                                       NumberFormat nf) {
+        Grafica<Integer> grafica =
+            graficaUniforme(Math.max(N / 8, 2), 8, random);
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        long aristas = grafica.getAristas();
+        long tiempoInicial = System.nanoTime();
+        grafica.bfs(0, v -> {});
+        long tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en BFS de una gráfica con %s " +
+                          "vértices y %s aristas (%s aristas por segundo).\n",
+                          (tiempoTotal/1000000000.0),
+                          nf.format(grafica.getElementos()),
+                          nf.format(aristas),
+                          nf.format((long)(aristas * 1e9 / tiempoTotal)));
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        for (int p = 1; p <= nucleos; p = (p == nucleos) ? p + 1 :
+                 Math.min(2 * p, nucleos)) {
+            ForkJoinPool grupo = new ForkJoinPool(p);
+            BFSDireccional<Integer> bfs =
+                new BFSDireccional<Integer>(compacta, grupo);
+            bfs.recorre(0);
+            tiempoInicial = System.nanoTime();
+            bfs.recorre(0);
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            grupo.shutdown();
+            System.out.printf("%2.9f segundos en BFS direccional con %d " +
+                              "núcleos (%s aristas por segundo).\n",
+                              (tiempoTotal/1000000000.0), p,
+                              nf.format((long)(aristas * 1e9 / tiempoTotal)));
+        }
+    }
+
+    /* Compara consultas de trayectoria mínima una por una contra las mismas
+     * consultas resueltas con un solo BFS múltiple. */
+    private static void bfsMultiple(int N, Random random, NumberFormat nf) {
+        Grafica<Integer> grafica =
+            graficaUniforme(Math.max(N / 8, 2), 8, random);
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        int n = grafica.getElementos();
+        int k = BFSMultiple.MAXIMO;
+        Lista<Integer> origenes = new Lista<Integer>();
+        int[] destinos = new int[k];
+        for (int i = 0; i < k; i++) {
+            origenes.agrega(random.nextInt(n));
+            destinos[i] = random.nextInt(n);
+        }
+        long tiempoInicial = System.nanoTime();
+        int i = 0;
+        for (Integer origen : origenes)
+            grafica.trayectoriaMinima(origen, destinos[i++]);
+        long tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en %d consultas de trayectoria " +
+                          "mínima en una gráfica con %s vértices (%s " +
+                          "consultas por segundo).\n",
+                          (tiempoTotal/1000000000.0), k, nf.format(n),
+                          nf.format((long)(k * 1e9 / tiempoTotal)));
+        BFSMultiple<Integer> bfs = new BFSMultiple<Integer>(compacta);
+        tiempoInicial = System.nanoTime();
+        int[][] distancias = bfs.distancias(origenes);
+        for (i = 0; i < k; i++)
+            bfs.trayectoria(distancias[i], destinos[i]);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en las mismas consultas con un " +
+                          "BFS múltiple (%s consultas por segundo).\n",
+                          (tiempoTotal/1000000000.0),
+                          nf.format((long)(k * 1e9 / tiempoTotal)));
+    }
+
+    /* Compara las consultas de conexión con trayectorias mínimas contra las
+     * de conjuntos disjuntos, y mide las componentes con conjuntos disjuntos
+     * concurrentes. */
+    private static void componentes(int N, Random random, NumberFormat nf) {
+        Grafica<Integer> grafica =
+            graficaUniforme(Math.max(N / 8, 2), 2, random);
+        int n = grafica.getElementos();
+        int k = 1000;
+        int[] a = new int[k], b = new int[k];
+        for (int i = 0; i < k; i++) {
+            a[i] = random.nextInt(n);
+            b[i] = random.nextInt(n);
+        }
+        long tiempoInicial = System.nanoTime();
+        int conectados = 0;
+        for (int i = 0; i < k; i++)
+            if (!grafica.trayectoriaMinima(a[i], b[i]).esVacia())
+                conectados++;
+        long tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en %d consultas de conexión con " +
+                          "trayectorias mínimas en una gráfica con %s " +
+                          "vértices (%d conectados).\n",
+                          (tiempoTotal/1000000000.0), k, nf.format(n),
+                          conectados);
+        tiempoInicial = System.nanoTime();
+        int componentes = grafica.getComponentes();
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en construir los conjuntos " +
+                          "disjuntos de %s componentes.\n",
+                          (tiempoTotal/1000000000.0), nf.format(componentes));
+        tiempoInicial = System.nanoTime();
+        conectados = 0;
+        for (int i = 0; i < k; i++)
+            if (grafica.mismaComponente(a[i], b[i]))
+                conectados++;
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en las mismas consultas con " +
+                          "conjuntos disjuntos (%d conectados).\n",
+                          (tiempoTotal/1000000000.0), conectados);
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        tiempoInicial = System.nanoTime();
+        ConjuntosDisjuntosConcurrentes conjuntos =
+            new ConjuntosDisjuntosConcurrentes(n);
+        IntStream.range(0, n).parallel().forEach(u -> {
+                for (int p = compacta.desplazamientos[u];
+                     p < compacta.desplazamientos[u + 1]; p++)
+                    conjuntos.une(u, compacta.destinos[p]);
+            });
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en calcular en paralelo %s " +
+                          "componentes con conjuntos disjuntos " +
+                          "concurrentes.\n",
+                          (tiempoTotal/1000000000.0),
+                          nf.format(conjuntos.getConjuntos()));
+    }
+
+    /* Mide Prim, Kruskal y Borůvka con 1, 2, 4, ... núcleos en gráficas
+     * compactas con cada vez más aristas. */
+    private static void bosques(int N, Random random, NumberFormat nf) {
+        int n = Math.max(N / 8, 2);
+        for (int grado = 4; grado <= 16; grado *= 2) {
+            GraficaCompacta<Integer> grafica = new GraficaCompacta<Integer>(
+                graficaUniforme(n, grado, random));
+            String aristas = nf.format(grafica.getAristas());
+            long tiempoInicial = System.nanoTime();
+            BosqueGenerador<Integer> bosque = BosqueGenerador.prim(grafica);
+            long tiempoTotal = System.nanoTime() - tiempoInicial;
+            System.out.printf("%2.9f segundos en calcular con Prim un bosque " +
+                              "de peso %s en una gráfica con %s vértices y " +
+                              "%s aristas.\n",
+                              (tiempoTotal/1000000000.0),
+                              nf.format(bosque.getPeso()), nf.format(n),
+                              aristas);
+            tiempoInicial = System.nanoTime();
+            bosque = BosqueGenerador.kruskal(grafica);
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            System.out.printf("%2.9f segundos en calcular con Kruskal un " +
+                              "bosque de peso %s.\n",
+                              (tiempoTotal/1000000000.0),
+                              nf.format(bosque.getPeso()));
+            int nucleos = Runtime.getRuntime().availableProcessors();
+            for (int p = 1; p <= nucleos; p = (p == nucleos) ? p + 1 :
+                     Math.min(2 * p, nucleos)) {
+                ForkJoinPool grupo = new ForkJoinPool(p);
+                tiempoInicial = System.nanoTime();
+                bosque = BosqueGenerador.boruvka(grafica, grupo);
+                tiempoTotal = System.nanoTime() - tiempoInicial;
+                grupo.shutdown();
+                System.out.printf("%2.9f segundos en calcular con Borůvka " +
+                                  "un bosque de peso %s con %d núcleos.\n",
+                                  (tiempoTotal/1000000000.0),
+                                  nf.format(bosque.getPeso()), p);
+            }
+        }
+    }
+
+    /* Compara la memoria por arista de una gráfica contra la de una gráfica
+     * dirigida con las mismas aristas, y mide su orden topológico. */
+    private static void dirigida(int N, Random random, NumberFormat nf) {
+        int n = Math.max(N / 8, 2);
+        int m = 4 * n;
+        int[] a = new int[m], b = new int[m];
+        for (int i = 0; i < m; i++) {
+            a[i] = random.nextInt(n);
+            b[i] = random.nextInt(n);
+            if (a[i] > b[i]) {
+                int t = a[i];
+                a[i] = b[i];
+                b[i] = t;
+            }
+        }
+        long memoriaInicial = memoria();
+        Grafica<Integer> grafica = new Grafica<Integer>();
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        long memoriaVertices = memoria();
+        for (int i = 0; i < m; i++)
+            if (a[i] != b[i] && !grafica.sonVecinos(a[i], b[i]))
+                grafica.conecta(a[i], b[i]);
+        long memoriaAristas = memoria() - memoriaVertices;
+        long memoriaGrafica = memoriaVertices - memoriaInicial;
+        int aristas = grafica.getAristas();
+        grafica = null;
+        memoriaInicial = memoria();
+        GraficaDirigida<Integer> dirigida = new GraficaDirigida<Integer>();
+        for (int i = 0; i < n; i++)
+            dirigida.agrega(i);
+        memoriaVertices = memoria();
+        for (int i = 0; i < m; i++)
+            if (a[i] != b[i] && !dirigida.sonVecinos(a[i], b[i]))
+                dirigida.conecta(a[i], b[i]);
+        long memoriaDirigidas = memoria() - memoriaVertices;
+        long memoriaDirigida = memoriaVertices - memoriaInicial;
+        System.out.printf("%s bytes por vértice y %s bytes por arista en " +
+                          "una gráfica con %s vértices y %s aristas.\n",
+                          nf.format(memoriaGrafica / n),
+                          nf.format(memoriaAristas / aristas), nf.format(n),
+                          nf.format(aristas));
+        System.out.printf("%s bytes por vértice y %s bytes por arista en " +
+                          "una gráfica dirigida con las mismas aristas.\n",
+                          nf.format(memoriaDirigida / n),
+                          nf.format(memoriaDirigidas / aristas));
+        long tiempoInicial = System.nanoTime();
+        dirigida.ordenTopologico();
+        long tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en calcular el orden topológico " +
+                          "de la gráfica dirigida.\n",
+                          (tiempoTotal/1000000000.0));
+    }
+
+    /* Mide las componentes fuertes con Tarjan y con forward-backward con 1,
+     * 2, 4, ... núcleos, en una cadena larga de dependencias y en una
+     * gráfica dirigida aleatoria con una componente gigante. */
+    private static void fuertes(int N, Random random, NumberFormat nf) {
+        int n = Math.max(N / 8, 2);
+        GraficaDirigida<Integer> cadena = new GraficaDirigida<Integer>();
+        GraficaDirigida<Integer> aleatoria = new GraficaDirigida<Integer>();
+        for (int i = 0; i < n; i++) {
+            cadena.agrega(i);
+            aleatoria.agrega(i);
+        }
+        for (int i = 0; i + 1 < n; i++)
+            cadena.conecta(i, i + 1);
+        for (int i = 0; i < 2 * n; i++) {
+            int a = random.nextInt(n), b = random.nextInt(n);
+            if (a != b && !aleatoria.sonVecinos(a, b))
+                aleatoria.conecta(a, b);
+        }
+        fuertes(cadena, "una cadena", nf);
+        fuertes(aleatoria, "una gráfica dirigida aleatoria", nf);
+    }
+
+    /* Mide las componentes fuertes de la gráfica dirigida. */
+    private static void fuertes(GraficaDirigida<Integer> grafica,
+                                String nombre, NumberFormat nf) {
+        long tiempoInicial = System.nanoTime();
+        ComponentesFuertes<Integer> componentes =
+            new ComponentesFuertes<Integer>(grafica);
+        long tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en calcular con Tarjan %s " +
+                          "componentes fuertes de %s con %s vértices y %s " +
+                          "aristas.\n",
+                          (tiempoTotal/1000000000.0),
+                          nf.format(componentes.getComponentes()), nombre,
+                          nf.format(grafica.getElementos()),
+                          nf.format(grafica.getAristas()));
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        for (int p = 1; p <= nucleos; p = (p == nucleos) ? p + 1 :
+                 Math.min(2 * p, nucleos)) {
+            ForkJoinPool grupo = new ForkJoinPool(p);
+            tiempoInicial = System.nanoTime();
+            componentes = new ComponentesFuertes<Integer>(grafica, grupo);
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            grupo.shutdown();
+            System.out.printf("%2.9f segundos en calcular con " +
+                              "forward-backward %s componentes fuertes con " +
+                              "%d núcleos.\n",
+                              (tiempoTotal/1000000000.0),
+                              nf.format(componentes.getComponentes()), p);
+        }
+    }
+
+    /* Mide las iteraciones por segundo de PageRank con 1, 2, 4, ... núcleos
+     * en una gráfica compacta uniforme, y el tiempo de PageRank personalizado
+     * local desde vértices al azar. */
+    private static void pageRank(int N, Random random, NumberFormat nf) {
+        int n = Math.max(N / 8, 2);
+        GraficaCompacta<Integer> grafica = new GraficaCompacta<Integer>(
+            graficaUniforme(n, 16, random));
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        for (int p = 1; p <= nucleos; p = (p == nucleos) ? p + 1 :
+                 Math.min(2 * p, nucleos)) {
+            ForkJoinPool grupo = new ForkJoinPool(p);
+            PageRank<Integer> pr = new PageRank<Integer>(
+                grafica, PageRank.AMORTIGUAMIENTO, PageRank.TOLERANCIA, grupo);
+            long tiempoInicial = System.nanoTime();
+            pr.rangos();
+            long tiempoTotal = System.nanoTime() - tiempoInicial;
+            grupo.shutdown();
+            double segundos = tiempoTotal/1000000000.0;
+            System.out.printf("%2.9f segundos en %d iteraciones de PageRank " +
+                              "(%s iteraciones por segundo) en una gráfica " +
+                              "con %s vértices y %s aristas con %d " +
+                              "núcleos.\n",
+                              segundos, pr.getIteraciones(),
+                              nf.format(pr.getIteraciones() / segundos),
+                              nf.format(n), nf.format(grafica.getAristas()), p);
+        }
+        PageRank<Integer> pr = new PageRank<Integer>(grafica);
+        int k = 100;
+        long tiempoInicial = System.nanoTime();
+        int tocados = 0;
+        for (int i = 0; i < k; i++)
+            tocados += pr.local(random.nextInt(n), 1e-4).getElementos();
+        long tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en %d consultas de PageRank " +
+                          "personalizado local (%s vértices por consulta).\n",
+                          (tiempoTotal/1000000000.0), k,
+                          nf.format(tocados / k));
+    }
+
+    /* Compara la intermediación exacta con 1, 2, 4, ... núcleos contra la
+     * aproximada con cada vez más fuentes, en tiempo y en error relativo a
+     * la mayor intermediación. */
+    private static void intermediacion(int N, Random random,
+                                       NumberFormat nf) {
+        int n = Math.max(N / 64, 2);
+        GraficaCompacta<Integer> grafica = new GraficaCompacta<Integer>(
+            graficaUniforme(n, 8, random));
+        double[] exacta = null;
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        for (int p = 1; p <= nucleos; p = (p == nucleos) ? p + 1 :
+                 Math.min(2 * p, nucleos)) {
+            ForkJoinPool grupo = new ForkJoinPool(p);
+            long tiempoInicial = System.nanoTime();
+            exacta = new Intermediacion<Integer>(grafica, true, grupo).exacta();
+            long tiempoTotal = System.nanoTime() - tiempoInicial;
+            grupo.shutdown();
+            System.out.printf("%2.9f segundos en calcular la intermediación " +
+                              "exacta en una gráfica con %s vértices y %s " +
+                              "aristas con %d núcleos.\n",
+                              (tiempoTotal/1000000000.0), nf.format(n),
+                              nf.format(grafica.getAristas()), p);
+        }
+        double maxima = 0;
+        for (double b : exacta)
+            maxima = Math.max(maxima, b);
+        Intermediacion<Integer> intermediacion =
+            new Intermediacion<Integer>(grafica, true);
+        for (int k = 16; k <= n / 4; k *= 4) {
+            long tiempoInicial = System.nanoTime();
+            double[] aproximada = intermediacion.aproximada(k, random);
+            long tiempoTotal = System.nanoTime() - tiempoInicial;
+            double error = 0;
+            for (int v = 0; v < n; v++)
+                error = Math.max(error, Math.abs(aproximada[v] - exacta[v]));
+            System.out.printf("%2.9f segundos en aproximar la intermediación " +
+                              "con %d fuentes (error máximo de %2.4f veces " +
+                              "la mayor intermediación).\n",
+                              (tiempoTotal/1000000000.0), k, error / maxima);
+        }
+    }
+
+    /* Mide la latencia de las k trayectorias alternativas entre pares de
+     * vértices al azar, para k de 1 a 20. */
+    private static void alternativas(int N, Random random, NumberFormat nf) {
+        int n = Math.max(N / 8, 2);
+        GraficaCompacta<Integer> grafica = new GraficaCompacta<Integer>(
+            graficaUniforme(n, 8, random));
+        TrayectoriasAlternativas<Integer> alternativas =
+            new TrayectoriasAlternativas<Integer>(grafica);
+        for (int k = 1; k <= 20; k = (k == 1) ? 5 : k + 5) {
+            long[] latencias = new long[20];
+            for (int i = 0; i < latencias.length; i++) {
+                int a = random.nextInt(n), b = random.nextInt(n);
+                long t = System.nanoTime();
+                alternativas.trayectorias(a, b, k);
+                latencias[i] = System.nanoTime() - t;
+            }
+            Arrays.sort(latencias);
+            int m = latencias.length;
+            System.out.printf("%s ns (p50) y %s ns (p99) por consulta de %d " +
+                              "trayectorias alternativas en una gráfica con " +
+                              "%s vértices.\n",
+                              nf.format(latencias[m / 2]),
+                              nf.format(latencias[Math.min(m - 1,
+                                                           m * 99 / 100)]),
+                              k, nf.format(n));
+        }
+    }
+
+    /* Compara el tiempo de Dinic contra push-relabel entre pares de vértices
+     * al azar, en una malla y en una gráfica uniforme. */
+    private static void flujoMaximo(int N, Random random, NumberFormat nf) {
+        int lado = Math.max((int)Math.sqrt(N / 4), 2);
+        flujoMaximo(new GraficaCompacta<Integer>(graficaMalla(lado, random)),
+                    "una malla", random, nf);
+        int n = Math.max(N / 4, 2);
+        flujoMaximo(new GraficaCompacta<Integer>(
+                        graficaUniforme(n, 8, random)),
+                    "una gráfica uniforme", random, nf);
+    }
+
+    /* Compara el tiempo de Dinic contra push-relabel en una gráfica. */
+    private static void flujoMaximo(GraficaCompacta<Integer> grafica,
+                                    String nombre, Random random,
+                                    NumberFormat nf) {
+        int n = grafica.getElementos(), k = 10;
+        int[] a = new int[k], b = new int[k];
+        for (int i = 0; i < k; i++) {
+            a[i] = random.nextInt(n);
+            do {
+                b[i] = random.nextInt(n);
+            } while (n > 1 && b[i] == a[i]);
+        }
+        String[] algoritmos = { "Dinic", "push-relabel" };
+        for (int j = 0; j < algoritmos.length; j++) {
+            double flujo = 0;
+            long tiempoInicial = System.nanoTime();
+            for (int i = 0; i < k; i++)
+                flujo += (j == 0) ?
+                    FlujoMaximo.dinic(grafica, a[i], b[i]).getFlujo() :
+                    FlujoMaximo.pushRelabel(grafica, a[i], b[i]).getFlujo();
+            long tiempoTotal = System.nanoTime() - tiempoInicial;
+            System.out.printf("%2.9f segundos en %d flujos máximos con %s " +
+                              "en %s con %s vértices y %s aristas (flujo " +
+                              "promedio de %s).\n",
+                              (tiempoTotal/1000000000.0), k, algoritmos[j],
+                              nombre, nf.format(n),
+                              nf.format(grafica.getAristas()),
+                              nf.format(flujo / k));
+        }
+    }
+
+    /* Compara el número de colores y el tiempo de las coloraciones con cada
+     * orden, con 1, 2, 4, ... núcleos en una gráfica compacta uniforme. */
+    private static void coloracion(int N, Random random, NumberFormat nf) {
+        int n = Math.max(N / 8, 2);
+        GraficaCompacta<Integer> grafica = new GraficaCompacta<Integer>(
+            graficaUniforme(n, 16, random));
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        for (int p = 1; p <= nucleos; p = (p == nucleos) ? p + 1 :
+                 Math.min(2 * p, nucleos)) {
+            ForkJoinPool grupo = new ForkJoinPool(p);
+            Coloracion<Integer> coloracion =
+                new Coloracion<Integer>(grafica, grupo);
+            for (OrdenColoracion orden : OrdenColoracion.values()) {
+                for (int j = 0; j < 2; j++) {
+                    long tiempoInicial = System.nanoTime();
+                    int[] colores = (j == 0) ?
+                        coloracion.jonesPlassmann(orden) :
+                        coloracion.especulativa(orden);
+                    long tiempoTotal = System.nanoTime() - tiempoInicial;
+                    int maximo = -1;
+                    for (int c : colores)
+                        maximo = Math.max(maximo, c);
+                    System.out.printf("%2.9f segundos en colorear con %d " +
+                                      "colores una gráfica con %s vértices " +
+                                      "y %s aristas (%s, %s) con %d " +
+                                      "núcleos.\n",
+                                      (tiempoTotal/1000000000.0), maximo + 1,
+                                      nf.format(n),
+                                      nf.format(grafica.getAristas()),
+                                      (j == 0) ? "Jones-Plassmann" :
+                                      "especulativa", orden, p);
+                }
+            }
+            grupo.shutdown();
+        }
+    }
+
+    /* Mide el tiempo de contar triángulos con 1, 2, 4, ... núcleos en una
+     * gráfica con grados sesgados, y lo compara con revisar con sonVecinos
+     * cada par de vecinos de cada vértice. */
+    private static void triangulos(int N, Random random, NumberFormat nf) {
+        int n = Math.max(N / 8, 2);
+        Grafica<Integer> grafica = graficaPreferencial(n, 16, random);
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        Triangulos<Integer> triangulos = null;
+        for (int p = 1; p <= nucleos; p = (p == nucleos) ? p + 1 :
+                 Math.min(2 * p, nucleos)) {
+            ForkJoinPool grupo = new ForkJoinPool(p);
+            long tiempoInicial = System.nanoTime();
+            triangulos = new Triangulos<Integer>(compacta, grupo);
+            long tiempoTotal = System.nanoTime() - tiempoInicial;
+            grupo.shutdown();
+            System.out.printf("%2.9f segundos en contar %s triángulos en " +
+                              "una gráfica con %s vértices y %s aristas " +
+                              "con %d núcleos.\n",
+                              (tiempoTotal/1000000000.0),
+                              nf.format(triangulos.getTriangulos()),
+                              nf.format(n), nf.format(compacta.getAristas()),
+                              p);
+        }
+        System.out.printf("Coeficiente de agrupamiento promedio %2.6f, " +
+                          "transitividad %2.6f.\n",
+                          triangulos.getAgrupamientoPromedio(),
+                          triangulos.getTransitividad());
+        n = Math.max(N / 64, 2);
+        grafica = graficaPreferencial(n, 16, random);
+        long tiempoInicial = System.nanoTime();
+        long cuenta = 0;
+        for (Integer a : grafica) {
+            Lista<Integer> vecinos = new Lista<Integer>();
+            for (VerticeGrafica<Integer> v : grafica.vertice(a).vecinos())
+                vecinos.agrega(v.get());
+            for (Integer b : vecinos)
+                for (Integer c : vecinos)
+                    if (b < c && grafica.sonVecinos(b, c))
+                        cuenta++;
+        }
+        long tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en contar %s triángulos con " +
+                          "sonVecinos en una gráfica con %s vértices y %s " +
+                          "aristas.\n",
+                          (tiempoTotal/1000000000.0), nf.format(cuenta / 3),
+                          nf.format(n), nf.format(grafica.getAristas()));
+        tiempoInicial = System.nanoTime();
+        long t = new Triangulos<Integer>(
+            new GraficaCompacta<Integer>(grafica)).getTriangulos();
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en contar %s triángulos " +
+                          "ordenando por grado en la misma gráfica.\n",
+                          (tiempoTotal/1000000000.0), nf.format(t));
+    }
+
+    /* Compara la propagación de etiquetas con 1, 2, 4, ... núcleos contra
+     * Louvain, en tiempo y modularidad, en una gráfica con comunidades
+     * plantadas: cada vértice tiene la mayoría de sus vecinos en su propio
+     * grupo de mil vértices. */
+    private static void comunidades(int N, Random random, NumberFormat nf) {
+        int n = Math.max(N / 8, 2), tamano = Math.min(n, 1000);
+        Grafica<Integer> g = new Grafica<Integer>();
+        for (int i = 0; i < n; i++)
+            g.agrega(i);
+        for (int i = 0; i < n; i++) {
+            int grupo = i - i % tamano;
+            for (int j = 0; j < 10; j++) {
+                int k = (j < 8) ?
+                    Math.min(n - 1, grupo + random.nextInt(tamano)) :
+                    random.nextInt(n);
+                if (k != i && !g.sonVecinos(i, k))
+                    g.conecta(i, k, 1 + random.nextInt(100));
+            }
+        }
+        GraficaCompacta<Integer> grafica = new GraficaCompacta<Integer>(g);
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        for (int p = 1; p <= nucleos; p = (p == nucleos) ? p + 1 :
+                 Math.min(2 * p, nucleos)) {
+            ForkJoinPool grupo = new ForkJoinPool(p);
+            Comunidades<Integer> comunidades =
+                new Comunidades<Integer>(grafica, grupo);
+            long tiempoInicial = System.nanoTime();
+            int[] etiquetas = comunidades.propagacion(random);
+            long tiempoTotal = System.nanoTime() - tiempoInicial;
+            grupo.shutdown();
+            imprimeComunidades(tiempoTotal, etiquetas,
+                               comunidades.modularidad(etiquetas),
+                               "propagación de etiquetas", grafica, p, nf);
+        }
+        Comunidades<Integer> comunidades = new Comunidades<Integer>(grafica);
+        long tiempoInicial = System.nanoTime();
+        int[] louvain = comunidades.louvain(random);
+        long tiempoTotal = System.nanoTime() - tiempoInicial;
+        imprimeComunidades(tiempoTotal, louvain,
+                           comunidades.modularidad(louvain), "Louvain",
+                           grafica, 1, nf);
+    }
+
+    /* Imprime el tiempo, el número de comunidades y la modularidad de una
+     * detección de comunidades. */
+    private static void imprimeComunidades(long tiempoTotal, int[] comunidades,
+                                           double modularidad, String nombre,
+                                           GraficaCompacta<Integer> grafica,
+                                           int nucleos, NumberFormat nf) {
+        int k = 0;
+        for (int c : comunidades)
+            k = Math.max(k, c + 1);
+        System.out.printf("%2.9f segundos en encontrar %s comunidades " +
+                          "(modularidad %2.4f) con %s en una gráfica con %s " +
+                          "vértices y %s aristas con %d núcleos.\n",
+                          (tiempoTotal/1000000000.0), nf.format(k),
+                          modularidad, nombre,
+                          nf.format(grafica.getElementos()),
+                          nf.format(grafica.getAristas()), nucleos);
+    }
+
+    /* Escribe un archivo de texto y uno binario con las mismas aristas
+     * aleatorias, y mide cargarlos con 1, 2, 4, ... núcleos contra leer el
+     * texto renglón por renglón y agregar cada arista con conecta. */
+    private static void cargador(int N, Random random, NumberFormat nf) {
+        int n = Math.max(N / 8, 2);
+        long m = 8L * n;
+        File texto = null, binario = null;
+        try {
+            texto = File.createTempFile("aristas", ".txt");
+            binario = File.createTempFile("aristas", ".bin");
+            try (BufferedWriter t = new BufferedWriter(new FileWriter(texto));
+                 DataOutputStream b = new DataOutputStream(
+                     new BufferedOutputStream(new FileOutputStream(binario)))) {
+                for (long i = 0; i < m; i++) {
+                    int u = random.nextInt(n), v = random.nextInt(n);
+                    int peso = 1 + random.nextInt(100);
+                    t.write(u + " " + v + " " + peso + "\n");
+                    b.writeInt(u);
+                    b.writeInt(v);
+                    b.writeDouble(peso);
+                }
+            }
+            int nucleos = Runtime.getRuntime().availableProcessors();
+            for (int p = 1; p <= nucleos; p = (p == nucleos) ? p + 1 :
+                     Math.min(2 * p, nucleos)) {
+                ForkJoinPool grupo = new ForkJoinPool(p);
+                CargadorAristas cargador = new CargadorAristas(grupo);
+                long tiempoInicial = System.nanoTime();
+                GraficaCompacta<Integer> compacta =
+                    cargador.carga(texto.getPath(), FormatoAristas.TEXTO, true);
+                long tiempoTotal = System.nanoTime() - tiempoInicial;
+                imprimeCarga(tiempoTotal, m, compacta,
+                             "texto", p, nf);
+                tiempoInicial = System.nanoTime();
+                compacta = cargador.carga(binario.getPath(),
+                                          FormatoAristas.BINARIO, true);
+                tiempoTotal = System.nanoTime() - tiempoInicial;
+                grupo.shutdown();
+                imprimeCarga(tiempoTotal, m, compacta,
+                             "binario", p, nf);
+            }
+            long tiempoInicial = System.nanoTime();
+            Grafica<Integer> grafica = new Grafica<Integer>();
+            try (BufferedReader entrada =
+                 new BufferedReader(new FileReader(texto))) {
+                String linea;
+                while ((linea = entrada.readLine()) != null) {
+                    String[] campos = linea.split(" ");
+                    int u = Integer.parseInt(campos[0]);
+                    int v = Integer.parseInt(campos[1]);
+                    if (!grafica.contiene(u))
+                        grafica.agrega(u);
+                    if (!grafica.contiene(v))
+                        grafica.agrega(v);
+                    if (u != v && !grafica.sonVecinos(u, v))
+                        grafica.conecta(u, v, Integer.parseInt(campos[2]));
+                }
+            }
+            long tiempoTotal = System.nanoTime() - tiempoInicial;
+            System.out.printf("%2.9f segundos (%s aristas por segundo) en " +
+                              "cargar una gráfica con %s vértices y %s " +
+                              "aristas con readLine y conecta.\n",
+                              (tiempoTotal/1000000000.0),
+                              nf.format(m * 1000000000L / tiempoTotal),
+                              nf.format(grafica.getElementos()),
+                              nf.format(grafica.getAristas()));
+        } catch (IOException ioe) {
+            System.err.println("No se pudieron escribir o leer las aristas.");
+        } finally {
+            if (texto != null)
+                texto.delete();
+            if (binario != null)
+                binario.delete();
+        }
+    }
+
+    /* Imprime el tiempo de una carga de aristas. */
+    private static void imprimeCarga(long tiempoTotal, long aristas,
+                                     GraficaCompacta<Integer> grafica,
+                                     String formato, int nucleos,
+                                     NumberFormat nf) {
+        System.out.printf("%2.9f segundos (%s aristas por segundo) en " +
+                          "cargar una gráfica con %s vértices y %s aristas " +
+                          "de un archivo %s con %d núcleos.\n",
+                          (tiempoTotal/1000000000.0),
+                          nf.format(aristas * 1000000000L / tiempoTotal),
+                          nf.format(grafica.getElementos()),
+                          nf.format(grafica.getAristas()), formato, nucleos);
+    }
+
+    /* Mide reconstruir una gráfica con agrega y conecta contra abrir la
+     * gráfica guardada con GraficaMapeada, y Dijkstra sobre el archivo
+     * mapeado contra Dijkstra sobre la gráfica compacta. */
+    private static void mapeada(int N, Random random, NumberFormat nf) {
+        int n = Math.max(N / 8, 2);
+        long tiempoInicial = System.nanoTime();
+        Grafica<Integer> grafica = graficaUniforme(n, 8, random);
+        long tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en construir con agrega y conecta " +
+                          "una gráfica con %s vértices y %s aristas.\n",
+                          (tiempoTotal/1000000000.0), nf.format(n),
+                          nf.format(grafica.getAristas()));
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        File archivo = null;
+        try {
+            archivo = File.createTempFile("grafica", ".edd");
+            tiempoInicial = System.nanoTime();
+            GraficaMapeada.guarda(compacta, archivo.getPath());
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            System.out.printf("%2.9f segundos en guardar la gráfica en %s " +
+                              "bytes.\n", (tiempoTotal/1000000000.0),
+                              nf.format(archivo.length()));
+            tiempoInicial = System.nanoTime();
+            GraficaMapeada<Integer> mapeada =
+                GraficaMapeada.carga(archivo.getPath());
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            System.out.printf("%2.9f segundos en abrir la gráfica mapeada.\n",
+                              (tiempoTotal/1000000000.0));
+            tiempoInicial = System.nanoTime();
+            mapeada.distancias(0);
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            System.out.printf("%2.9f segundos en calcular con Dijkstra las " +
+                              "distancias en la gráfica mapeada.\n",
+                              (tiempoTotal/1000000000.0));
+            tiempoInicial = System.nanoTime();
+            compacta.distancias(0);
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            System.out.printf("%2.9f segundos en calcular con Dijkstra las " +
+                              "distancias en la gráfica compacta.\n",
+                              (tiempoTotal/1000000000.0));
+            tiempoInicial = System.nanoTime();
+            mapeada.compacta();
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            System.out.printf("%2.9f segundos en copiar la gráfica mapeada " +
+                              "a una gráfica compacta.\n",
+                              (tiempoTotal/1000000000.0));
+        } catch (IOException ioe) {
+            System.err.println("No se pudo guardar o abrir la gráfica.");
+        } finally {
+            if (archivo != null)
+                archivo.delete();
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 1)
+            uso();
+
+        int N = -1;
+        try {
+            N = Integer.parseInt(args[0]);
+        } catch (NumberFormatException nfe) {
+            uso();
+        }
+
+        if (N < 0)
+            uso();
+
+        Random random = new Random();
+        NumberFormat nf = NumberFormat.getIntegerInstance();
+
+        Integer[] arreglo = new Integer[N];
+        for (int i = 0; i < N; i++)
+            arreglo[i] = random.nextInt(N);
+
+        multidiccionario(arreglo, nf);
+        latencias(arreglo, nf);
+        busquedas(N, random, nf);
+        compacta(N, random, nf);
+        consultas(N, random, nf);
+        int lado = Math.max((int)Math.sqrt(N / 8), 2);
+        bidireccional(graficaMalla(lado, random), "malla", random, nf);
+        bidireccional(graficaUniforme(Math.max(N / 8, 2), 8, random),
+                      "gráfica uniforme", random, nf);
+        aEstrella(lado, random, nf);
+        jerarquia(lado, random, nf);
+        deltaStepping(N, random, nf);
+        bfsDireccional(N, random, nf);
+        bfsMultiple(N, random, nf);
+        componentes(N, random, nf);
+        bosques(N, random, nf);
+        dirigida(N, random, nf);
+        fuertes(N, random, nf);
+        pageRank(N, random, nf);
+        intermediacion(N, random, nf);
+        alternativas(N, random, nf);
+        flujoMaximo(N, random, nf);
+        coloracion(N, random, nf);
+        triangulos(N, random, nf);
+        comunidades(N, random, nf);
+        cargador(N, random, nf);
+        mapeada(N, random, nf);
+    }
+}
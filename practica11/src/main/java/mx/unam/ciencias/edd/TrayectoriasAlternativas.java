@@ -0,0 +1,234 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para calcular las <i>k</i> trayectorias de peso mínimo sin ciclos
+ * entre dos vértices de una gráfica compacta, con el algoritmo de Yen.</p>
+ *
+ * <p>La primera trayectoria es la de Dijkstra. Cada trayectoria siguiente se
+ * desvía de una anterior en algún vértice de desvío: conserva el prefijo hasta
+ * él y llega al destino por una trayectoria mínima que no toca el prefijo ni
+ * repite la arista siguiente de las trayectorias aceptadas con el mismo
+ * prefijo. En lugar de desconectar y reconectar aristas, los vértices y
+ * aristas prohibidos se marcan en arreglos, y la gráfica no cambia.</p>
+ *
+ * <p>Con la mejora de Lawler, una trayectoria sólo se desvía a partir del
+ * vértice donde ella misma se desvió, porque los desvíos anteriores ya se
+ * calcularon para la trayectoria de la que salió. Los arreglos de Dijkstra se
+ * reutilizan entre búsquedas y se limpian sólo en los vértices tocados.</p>
+ */
+public class TrayectoriasAlternativas<T> {
+
+    /* Clase interna privada para trayectorias por índices. */
+    private static class Camino {
+
+        /* Los vértices de la trayectoria. */
+        public int[] vertices;
+        /* El peso de la trayectoria hasta cada vértice. */
+        public double[] acumulados;
+        /* El vértice donde la trayectoria se desvió de otra. */
+        public int desviacion;
+
+        /* Construye una trayectoria con n vértices. */
+        public Camino(int n, int desviacion) {
+            vertices = new int[n];
+            acumulados = new double[n];
+            this.desviacion = desviacion;
+        }
+
+        /* Regresa el peso de la trayectoria. */
+        public double peso() {
+            return acumulados[acumulados.length - 1];
+        }
+
+        /* Nos dice si la trayectoria comparte con otra los vértices hasta la
+         * posición j, y la otra continúa después de ella. */
+        public boolean comparte(Camino camino, int j) {
+            if (camino.vertices.length <= j + 1)
+                return false;
+            for (int i = 0; i <= j; i++)
+                if (vertices[i] != camino.vertices[i])
+                    return false;
+            return true;
+        }
+
+        /* Nos dice si la trayectoria es igual a otra. */
+        public boolean igual(Camino camino) {
+            return vertices.length == camino.vertices.length &&
+                comparte(camino, vertices.length - 2) &&
+                vertices[vertices.length - 1] ==
+                camino.vertices[vertices.length - 1];
+        }
+    }
+
+    /* La gráfica. */
+    private GraficaCompacta<T> grafica;
+    /* Las distancias de la búsqueda en curso. */
+    private double[] distancias;
+    /* Los padres de la búsqueda en curso. */
+    private int[] padres;
+    /* Los vértices tocados por la búsqueda en curso. */
+    private int[] tocados;
+    /* El número de vértices tocados. */
+    private int ntocados;
+    /* El montículo de la búsqueda. */
+    private MonticuloIndexado monticulo;
+    /* Los vértices prohibidos. */
+    private boolean[] verticesProhibidos;
+    /* Las aristas prohibidas, por su posición. */
+    private boolean[] aristasProhibidas;
+    /* Las posiciones de las aristas prohibidas. */
+    private int[] prohibidas;
+    /* El número de aristas prohibidas. */
+    private int nprohibidas;
+
+    /**
+     * Construye un buscador de trayectorias alternativas para la gráfica
+     * compacta recibida.
+     * @param grafica la gráfica compacta.
+     */
+    public TrayectoriasAlternativas(GraficaCompacta<T> grafica) {
+        this.grafica = grafica;
+        int n = grafica.getElementos();
+        distancias = new double[n];
+        padres = new int[n];
+        tocados = new int[n];
+        monticulo = new MonticuloIndexado(n);
+        verticesProhibidos = new boolean[n];
+        aristasProhibidas = new boolean[grafica.destinos.length];
+        prohibidas = new int[grafica.destinos.length];
+        for (int i = 0; i < n; i++)
+            distancias[i] = Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Calcula hasta <i>k</i> trayectorias sin ciclos entre dos elementos, en
+     * orden no decreciente de peso. Regresa menos de <i>k</i> si no hay
+     * tantas trayectorias sin ciclos.
+     * @param origen el elemento de origen.
+     * @param destino el elemento de destino.
+     * @param k el número de trayectorias.
+     * @return una lista con las trayectorias, cada una como una lista de
+     *         vértices de la gráfica del origen al destino; si los elementos
+     *         están en componentes conexas distintas, una lista vacía.
+     * @throws IllegalArgumentException si <i>k</i> no es positivo.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public synchronized Lista<Lista<VerticeGrafica<T>>>
+    trayectorias(T origen, T destino, int k) {
+        if (k < 1)
+            throw new IllegalArgumentException("Número inválido: " + k);
+        int s = grafica.indice(origen), t = grafica.indice(destino);
+        Lista<Lista<VerticeGrafica<T>>> trayectorias =
+            new Lista<Lista<VerticeGrafica<T>>>();
+        Camino[] aceptados = new Camino[k];
+        aceptados[0] = desvia(null, s, t);
+        if (aceptados[0] == null)
+            return trayectorias;
+        MonticuloMinimo<ValorIndexable<Camino>> candidatos =
+            new MonticuloMinimo<ValorIndexable<Camino>>();
+        int a = 1;
+        while (a < k) {
+            Camino ultimo = aceptados[a - 1];
+            for (int j = ultimo.desviacion;
+                 j < ultimo.vertices.length - 1; j++) {
+                for (int i = 0; i < a; i++)
+                    if (ultimo.comparte(aceptados[i], j))
+                        prohibe(aceptados[i].vertices[j],
+                                aceptados[i].vertices[j + 1]);
+                for (int i = 0; i < j; i++)
+                    verticesProhibidos[ultimo.vertices[i]] = true;
+                Camino camino = desvia(ultimo, j, t);
+                for (int i = 0; i < j; i++)
+                    verticesProhibidos[ultimo.vertices[i]] = false;
+                while (nprohibidas > 0)
+                    aristasProhibidas[prohibidas[--nprohibidas]] = false;
+                if (camino != null)
+                    candidatos.agrega(new ValorIndexable<Camino>(
+                                          camino, camino.peso()));
+            }
+            Camino siguiente = null;
+            while (siguiente == null && !candidatos.esVacia()) {
+                siguiente = candidatos.elimina().getElemento();
+                for (int i = 0; i < a && siguiente != null; i++)
+                    if (siguiente.igual(aceptados[i]))
+                        siguiente = null;
+            }
+            if (siguiente == null)
+                break;
+            aceptados[a++] = siguiente;
+        }
+        for (int i = 0; i < a; i++) {
+            Lista<VerticeGrafica<T>> trayectoria =
+                new Lista<VerticeGrafica<T>>();
+            for (int v : aceptados[i].vertices)
+                trayectoria.agrega(grafica.vertice(grafica.elemento(v)));
+            trayectorias.agrega(trayectoria);
+        }
+        return trayectorias;
+    }
+
+    /* Prohíbe la arista entre a y b, en las dos direcciones. */
+    private void prohibe(int a, int b) {
+        int p = grafica.arista(a, b), q = grafica.arista(b, a);
+        if (!aristasProhibidas[p]) {
+            aristasProhibidas[p] = aristasProhibidas[q] = true;
+            prohibidas[nprohibidas++] = p;
+            prohibidas[nprohibidas++] = q;
+        }
+    }
+
+    /* Calcula con Dijkstra una trayectoria mínima al destino que evita los
+     * vértices y aristas prohibidos, empezando en el vértice j de la
+     * trayectoria base; si la base es null, empieza en el índice j. Regresa
+     * el prefijo de la base seguido de la trayectoria, o null si el destino
+     * es inalcanzable. */
+    private Camino desvia(Camino base, int j, int t) {
+        int s = (base == null) ? j : base.vertices[j];
+        int prefijo = (base == null) ? 0 : j;
+        double inicial = (base == null) ? 0 : base.acumulados[j];
+        distancias[s] = 0;
+        padres[s] = -1;
+        tocados[ntocados++] = s;
+        monticulo.agrega(s, 0);
+        while (!monticulo.esVacia()) {
+            int u = monticulo.elimina();
+            if (u == t)
+                break;
+            for (int p = grafica.desplazamientos[u];
+                 p < grafica.desplazamientos[u + 1]; p++) {
+                int v = grafica.destinos[p];
+                if (aristasProhibidas[p] || verticesProhibidos[v])
+                    continue;
+                double d = distancias[u] + grafica.pesos[p];
+                if (d < distancias[v]) {
+                    if (distancias[v] == Double.POSITIVE_INFINITY)
+                        tocados[ntocados++] = v;
+                    distancias[v] = d;
+                    padres[v] = u;
+                    monticulo.agrega(v, d);
+                }
+            }
+        }
+        Camino camino = null;
+        if (distancias[t] < Double.POSITIVE_INFINITY) {
+            int n = 1;
+            for (int v = t; v != s; v = padres[v])
+                n++;
+            camino = new Camino(prefijo + n, prefijo);
+            for (int i = 0; i < prefijo; i++) {
+                camino.vertices[i] = base.vertices[i];
+                camino.acumulados[i] = base.acumulados[i];
+            }
+            for (int v = t, i = prefijo + n - 1; i >= prefijo;
+                 v = padres[v], i--) {
+                camino.vertices[i] = v;
+                camino.acumulados[i] = inicial + distancias[v];
+            }
+        }
+        monticulo.limpia();
+        while (ntocados > 0)
+            distancias[tocados[--ntocados]] = Double.POSITIVE_INFINITY;
+        return camino;
+    }
+}
@@ -0,0 +1,245 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Clase para contar los triángulos de una gráfica compacta, y calcular a
+ * partir de ellos sus coeficientes de agrupamiento.</p>
+ *
+ * <p>Los vértices se renumeran por grado, desempatando por índice, y cada
+ * arista se orienta hacia el extremo que va después, así que cada triángulo
+ * se cuenta una sola vez, desde su primer vértice. Los vecinos hacia
+ * adelante de cada vértice se guardan como arreglos ordenados, y los
+ * triángulos de una arista <i>uv</i> son la intersección de los vecinos de
+ * <i>u</i> posteriores a <i>v</i> con los vecinos hacia adelante de <i>v</i>,
+ * que se calcula mezclando las dos listas. Con la orientación por grado
+ * ningún vértice tiene más de O(&radic;<i>m</i>) vecinos hacia adelante,
+ * aunque la gráfica tenga vértices de grado muy grande.</p>
+ *
+ * <p>Los vértices se reparten entre los hilos de un {@link ForkJoinPool}. Cada
+ * tarea suma sus triángulos por su cuenta; los de cada vértice se acumulan en
+ * un {@link AtomicLongArray}.</p>
+ */
+public class Triangulos<T> {
+
+    /* Número de vértices a partir del cual una tarea se divide. */
+    private static final int UMBRAL = 1024;
+
+    /* Clase interna privada para las tareas que cuentan los triángulos cuyo
+     * vértice menor está en un rango, y regresan cuántos son. */
+    private class Cuenta extends RecursiveTask<Long> {
+
+        /* Versión de la forma serializada. */
+        private static final long serialVersionUID = 1L;
+
+        /* El inicio del rango. */
+        private int ini;
+        /* El fin del rango. */
+        private int fin;
+
+        /* Construye una tarea para los vértices [ini, fin). */
+        public Cuenta(int ini, int fin) {
+            this.ini = ini;
+            this.fin = fin;
+        }
+
+        /* Cuenta los triángulos del rango, dividiéndolo si es grande. */
+        @Override protected Long compute() {
+            if (fin - ini > UMBRAL) {
+                int m = (ini + fin) >>> 1;
+                Cuenta izquierda = new Cuenta(ini, m);
+                izquierda.fork();
+                long r = new Cuenta(m, fin).compute();
+                return r + izquierda.join();
+            }
+            long total = 0;
+            for (int u = ini; u < fin; u++) {
+                long tu = 0;
+                for (int p = adelante[u]; p < adelante[u + 1]; p++) {
+                    int v = vecinos[p];
+                    long tv = 0;
+                    int i = p + 1, j = adelante[v];
+                    while (i < adelante[u + 1] && j < adelante[v + 1]) {
+                        int a = vecinos[i], b = vecinos[j];
+                        if (a < b) {
+                            i++;
+                        } else if (a > b) {
+                            j++;
+                        } else {
+                            triangulos.incrementAndGet(orden[a]);
+                            tv++;
+                            i++;
+                            j++;
+                        }
+                    }
+                    if (tv > 0)
+                        triangulos.addAndGet(orden[v], tv);
+                    tu += tv;
+                }
+                if (tu > 0)
+                    triangulos.addAndGet(orden[u], tu);
+                total += tu;
+            }
+            return total;
+        }
+    }
+
+    /* La gráfica. */
+    private GraficaCompacta<T> grafica;
+    /* Los vértices ordenados por grado. */
+    private int[] orden;
+    /* La posición de cada vértice en el orden por grado. */
+    private int[] rangos;
+    /* Dónde empiezan los vecinos hacia adelante de cada vértice, por
+     * posición en el orden. */
+    private int[] adelante;
+    /* Las posiciones de los vecinos hacia adelante de todos los vértices,
+     * uno tras otro y ordenadas. */
+    private int[] vecinos;
+    /* Los triángulos de cada vértice. */
+    private AtomicLongArray triangulos;
+    /* El número total de triángulos. */
+    private long total;
+
+    /**
+     * Cuenta los triángulos de la gráfica compacta recibida, usando el grupo
+     * común de hilos.
+     * @param grafica la gráfica compacta.
+     */
+    public Triangulos(GraficaCompacta<T> grafica) {
+        this(grafica, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Cuenta los triángulos de la gráfica compacta recibida.
+     * @param grafica la gráfica compacta.
+     * @param grupo el grupo de hilos donde se contarán los triángulos.
+     * @throws IllegalArgumentException si el grupo es <code>null</code>.
+     */
+    public Triangulos(GraficaCompacta<T> grafica, ForkJoinPool grupo) {
+        if (grupo == null)
+            throw new IllegalArgumentException("Grupo inválido");
+        this.grafica = grafica;
+        int n = grafica.getElementos();
+        ordena();
+        adelante = new int[n + 1];
+        grupo.invoke(new Rango(0, n, u -> {
+                    int c = 0, v = orden[u];
+                    for (int p = grafica.desplazamientos[v];
+                         p < grafica.desplazamientos[v + 1]; p++)
+                        if (rangos[grafica.destinos[p]] > u)
+                            c++;
+                    adelante[u + 1] = c;
+                }));
+        for (int u = 0; u < n; u++)
+            adelante[u + 1] += adelante[u];
+        vecinos = new int[adelante[n]];
+        grupo.invoke(new Rango(0, n, u -> {
+                    int q = adelante[u], v = orden[u];
+                    for (int p = grafica.desplazamientos[v];
+                         p < grafica.desplazamientos[v + 1]; p++) {
+                        int w = rangos[grafica.destinos[p]];
+                        if (w > u)
+                            vecinos[q++] = w;
+                    }
+                    Arrays.sort(vecinos, adelante[u], q);
+                }));
+        triangulos = new AtomicLongArray(n);
+        total = grupo.invoke(new Cuenta(0, n));
+        adelante = vecinos = rangos = orden = null;
+    }
+
+    /* Ordena los vértices por grado con cubetas, desempatando por índice. */
+    private void ordena() {
+        int n = grafica.getElementos();
+        int maximo = 0;
+        for (int v = 0; v < n; v++)
+            maximo = Math.max(maximo, grado(v));
+        int[] inicios = new int[maximo + 2];
+        for (int v = 0; v < n; v++)
+            inicios[grado(v) + 1]++;
+        for (int g = 1; g < inicios.length; g++)
+            inicios[g] += inicios[g - 1];
+        orden = new int[n];
+        rangos = new int[n];
+        for (int v = 0; v < n; v++) {
+            rangos[v] = inicios[grado(v)]++;
+            orden[rangos[v]] = v;
+        }
+    }
+
+    /* Regresa el grado del vértice. */
+    private int grado(int v) {
+        return grafica.desplazamientos[v + 1] - grafica.desplazamientos[v];
+    }
+
+    /**
+     * Regresa el número de triángulos de la gráfica.
+     * @return el número de triángulos de la gráfica.
+     */
+    public long getTriangulos() {
+        return total;
+    }
+
+    /**
+     * Regresa el número de triángulos de cada vértice, indexados por {@link
+     * GraficaCompacta#indice}.
+     * @return el número de triángulos de cada vértice.
+     */
+    public long[] getTriangulosVertices() {
+        long[] r = new long[triangulos.length()];
+        for (int v = 0; v < r.length; v++)
+            r[v] = triangulos.get(v);
+        return r;
+    }
+
+    /**
+     * Regresa el coeficiente de agrupamiento local de cada vértice, indexado
+     * por {@link GraficaCompacta#indice}: la fracción de los pares de vecinos
+     * del vértice que son vecinos entre sí. Los vértices con menos de dos
+     * vecinos tienen coeficiente 0.
+     * @return el coeficiente de agrupamiento local de cada vértice.
+     */
+    public double[] getAgrupamiento() {
+        double[] r = new double[triangulos.length()];
+        for (int v = 0; v < r.length; v++) {
+            long g = grado(v);
+            if (g > 1)
+                r[v] = 2.0 * triangulos.get(v) / (g * (g - 1));
+        }
+        return r;
+    }
+
+    /**
+     * Regresa el promedio de los coeficientes de agrupamiento locales de los
+     * vértices, o 0 si la gráfica es vacía.
+     * @return el coeficiente de agrupamiento promedio.
+     */
+    public double getAgrupamientoPromedio() {
+        double[] agrupamiento = getAgrupamiento();
+        if (agrupamiento.length == 0)
+            return 0;
+        double suma = 0;
+        for (double c : agrupamiento)
+            suma += c;
+        return suma / agrupamiento.length;
+    }
+
+    /**
+     * Regresa el coeficiente de agrupamiento global, o transitividad, de la
+     * gráfica: la fracción de las trayectorias de longitud dos que se cierran
+     * en un triángulo, o 0 si no hay trayectorias de longitud dos.
+     * @return el coeficiente de agrupamiento global.
+     */
+    public double getTransitividad() {
+        double cunas = 0;
+        for (int v = 0; v < triangulos.length(); v++) {
+            long g = grado(v);
+            cunas += g * (g - 1) / 2;
+        }
+        return cunas == 0 ? 0 : 3.0 * total / cunas;
+    }
+}
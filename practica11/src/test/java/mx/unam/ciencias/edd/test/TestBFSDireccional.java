@@ -0,0 +1,158 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import mx.unam.ciencias.edd.BFSDireccional;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCompacta;
+import mx.unam.ciencias.edd.VerticeGrafica;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link BFSDireccional}.
+ */
+public class TestBFSDireccional {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica para cada prueba.
+     */
+    public TestBFSDireccional() {
+        random = new Random();
+        total = 2 + random.nextInt(100);
+        grafica = new Grafica<Integer>();
+    }
+
+    /* Valida que los niveles y padres sean los de un BFS desde el origen:
+     * cada padre es un vecino un nivel arriba, y los vecinos difieren a lo
+     * más en un nivel. */
+    private void valida(GraficaCompacta<Integer> compacta, int origen,
+                        int[] niveles, int[] padres) {
+        int s = compacta.indice(origen);
+        Assert.assertTrue(niveles[s] == 0);
+        Assert.assertTrue(padres[s] == s);
+        for (int v = 0; v < niveles.length; v++) {
+            VerticeGrafica<Integer> vertice =
+                compacta.vertice(compacta.elemento(v));
+            if (niveles[v] == -1) {
+                Assert.assertTrue(padres[v] == -1);
+                for (VerticeGrafica<Integer> vecino : vertice.vecinos())
+                    Assert.assertTrue(niveles[compacta.indice(vecino.get())]
+                                      == -1);
+                continue;
+            }
+            for (VerticeGrafica<Integer> vecino : vertice.vecinos()) {
+                int u = compacta.indice(vecino.get());
+                Assert.assertTrue(Math.abs(niveles[u] - niveles[v]) <= 1);
+            }
+            if (v == s)
+                continue;
+            Assert.assertTrue(compacta.sonVecinos(compacta.elemento(v),
+                                                  compacta.elemento(padres[v])));
+            Assert.assertTrue(niveles[padres[v]] == niveles[v] - 1);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link BFSDireccional#BFSDireccional}.
+     */
+    @Test public void testConstructor() {
+        grafica.agrega(0);
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        try {
+            new BFSDireccional<Integer>(compacta, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        BFSDireccional<Integer> bfs = new BFSDireccional<Integer>(compacta);
+        try {
+            bfs.getNiveles();
+            Assert.fail();
+        } catch (IllegalStateException ise) {}
+        try {
+            bfs.getPadres();
+            Assert.fail();
+        } catch (IllegalStateException ise) {}
+        try {
+            bfs.recorre(1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link BFSDireccional#recorre} en un camino,
+     * donde los niveles son conocidos.
+     */
+    @Test public void testRecorreCamino() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++)
+            grafica.conecta(i - 1, i);
+        grafica.agrega(total);
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        BFSDireccional<Integer> bfs = new BFSDireccional<Integer>(compacta);
+        bfs.recorre(0);
+        int[] niveles = bfs.getNiveles();
+        int[] padres = bfs.getPadres();
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(niveles[compacta.indice(i)] == i);
+        for (int i = 1; i < total; i++)
+            Assert.assertTrue(padres[compacta.indice(i)] ==
+                              compacta.indice(i - 1));
+        Assert.assertTrue(niveles[compacta.indice(total)] == -1);
+        Assert.assertTrue(padres[compacta.indice(total)] == -1);
+        valida(compacta, 0, niveles, padres);
+    }
+
+    /**
+     * Prueba unitaria para {@link BFSDireccional#recorre} contra las
+     * trayectorias mínimas de la gráfica.
+     */
+    @Test public void testRecorre() {
+        UtilTestGrafica.llena(grafica, total, 2, random);
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        BFSDireccional<Integer> bfs = new BFSDireccional<Integer>(compacta);
+        int origen = random.nextInt(total);
+        bfs.recorre(origen);
+        int[] niveles = bfs.getNiveles();
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(niveles[compacta.indice(i)] ==
+                              grafica.trayectoriaMinima(origen, i)
+                              .getElementos() - 1);
+        valida(compacta, origen, niveles, bfs.getPadres());
+    }
+
+    /**
+     * Prueba unitaria para {@link BFSDireccional#recorre} en una gráfica
+     * grande y densa, donde los niveles de en medio se expanden de abajo
+     * hacia arriba y en varias tareas.
+     */
+    @Test public void testRecorreDensa() {
+        int n = 5000 + random.nextInt(5000);
+        UtilTestGrafica.llena(grafica, n, 8, random);
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        BFSDireccional<Integer> bfs =
+            new BFSDireccional<Integer>(compacta, new ForkJoinPool(4));
+        for (int i = 0; i < 3; i++) {
+            int origen = random.nextInt(n);
+            bfs.recorre(origen);
+            valida(compacta, origen, bfs.getNiveles(), bfs.getPadres());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.BFSMultiple;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCompacta;
+import mx.unam.ciencias.edd.Lista;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link BFSMultiple}.
+ */
+public class TestBFSMultiple {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica aleatoria para cada prueba.
+     */
+    public TestBFSMultiple() {
+        random = new Random();
+        total = 2 + random.nextInt(100);
+        grafica = new Grafica<Integer>();
+        UtilTestGrafica.llena(grafica, total, 1, random);
+    }
+
+    /* Regresa una lista con k orígenes aleatorios, posiblemente repetidos. */
+    private Lista<Integer> origenes(int k) {
+        Lista<Integer> origenes = new Lista<Integer>();
+        for (int i = 0; i < k; i++)
+            origenes.agrega(random.nextInt(total));
+        return origenes;
+    }
+
+    /**
+     * Prueba unitaria para {@link BFSMultiple#distancias}.
+     */
+    @Test public void testDistancias() {
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        BFSMultiple<Integer> bfs = new BFSMultiple<Integer>(compacta);
+        int k = 1 + random.nextInt(150);
+        Lista<Integer> origenes = origenes(k);
+        int[][] distancias = bfs.distancias(origenes);
+        Assert.assertTrue(distancias.length == k);
+        int i = 0;
+        for (Integer origen : origenes) {
+            Assert.assertTrue(distancias[i].length == total);
+            for (int j = 0; j < total; j++)
+                Assert.assertTrue(distancias[i][compacta.indice(j)] ==
+                                  grafica.trayectoriaMinima(origen, j)
+                                  .getElementos() - 1);
+            i++;
+        }
+        Assert.assertTrue(bfs.distancias(new Lista<Integer>()).length == 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link BFSMultiple#trayectoria}.
+     */
+    @Test public void testTrayectoria() {
+        grafica.agrega(total);
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        BFSMultiple<Integer> bfs = new BFSMultiple<Integer>(compacta);
+        Lista<Integer> origenes = origenes(1 + random.nextInt(70));
+        int[][] distancias = bfs.distancias(origenes);
+        int i = 0;
+        for (Integer origen : origenes) {
+            for (int j = 0; j < total; j++) {
+                Lista<Integer> trayectoria = bfs.trayectoria(distancias[i], j);
+                Assert.assertTrue(trayectoria.getElementos() ==
+                                  distancias[i][compacta.indice(j)] + 1);
+                if (trayectoria.esVacia())
+                    continue;
+                Assert.assertTrue(trayectoria.getPrimero().equals(origen));
+                Assert.assertTrue(trayectoria.getUltimo() == j);
+                Integer anterior = null;
+                for (Integer v : trayectoria) {
+                    if (anterior != null)
+                        Assert.assertTrue(compacta.sonVecinos(anterior, v));
+                    anterior = v;
+                }
+            }
+            Assert.assertTrue(bfs.trayectoria(distancias[i], total).esVacia());
+            i++;
+        }
+        try {
+            bfs.trayectoria(new int[total], 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            bfs.trayectoria(distancias[0], total + 1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para los límites de {@link BFSMultiple#distancias}.
+     */
+    @Test public void testLimites() {
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        BFSMultiple<Integer> bfs = new BFSMultiple<Integer>(compacta);
+        Assert.assertTrue(bfs.distancias(origenes(BFSMultiple.MAXIMO))
+                          .length == BFSMultiple.MAXIMO);
+        try {
+            bfs.distancias(origenes(BFSMultiple.MAXIMO + 1));
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        Lista<Integer> origenes = origenes(3);
+        origenes.agrega(total);
+        try {
+            bfs.distancias(origenes);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+}
@@ -0,0 +1,129 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import mx.unam.ciencias.edd.BosqueGenerador;
+import mx.unam.ciencias.edd.Grafica;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link BosqueGenerador}.
+ */
+public class TestBosqueGenerador {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica aleatoria para cada prueba, con pesos repetidos y
+     * probablemente con varias componentes.
+     */
+    public TestBosqueGenerador() {
+        random = new Random();
+        total = 2 + random.nextInt(100);
+        grafica = new Grafica<Integer>();
+        UtilTestGrafica.llena(grafica, total, 2, 10, random);
+    }
+
+    /* Valida que el bosque sea un bosque generador de la gráfica: tiene sus
+     * vértices, sus aristas son aristas de la gráfica con el mismo peso, no
+     * tiene ciclos y tiene las mismas componentes. */
+    private void valida(BosqueGenerador<Integer> bosque) {
+        Grafica<Integer> g = bosque.getBosque();
+        Assert.assertTrue(g.getElementos() == total);
+        Assert.assertTrue(g.getComponentes() == grafica.getComponentes());
+        Assert.assertTrue(g.getAristas() == total - grafica.getComponentes());
+        double peso = 0;
+        for (int i = 0; i < total; i++) {
+            Assert.assertTrue(g.contiene(i));
+            for (int j = i + 1; j < total; j++) {
+                if (!g.sonVecinos(i, j))
+                    continue;
+                Assert.assertTrue(grafica.sonVecinos(i, j));
+                Assert.assertTrue(g.getPeso(i, j) == grafica.getPeso(i, j));
+                peso += g.getPeso(i, j);
+            }
+        }
+        Assert.assertTrue(peso == bosque.getPeso());
+    }
+
+    /* Calcula el peso de un bosque mínimo por capas: con pesos enteros, un
+     * bosque mínimo tiene tantas aristas de peso w como componentes se
+     * pierden al agregar las aristas de peso w a las de peso menor. */
+    private double pesoMinimo() {
+        double peso = 0;
+        int antes = total;
+        for (int w = 1; w <= 10; w++) {
+            Grafica<Integer> ligeras = new Grafica<Integer>();
+            for (int i = 0; i < total; i++)
+                ligeras.agrega(i);
+            for (int i = 0; i < total; i++)
+                for (int j = i + 1; j < total; j++)
+                    if (grafica.sonVecinos(i, j) &&
+                        grafica.getPeso(i, j) <= w)
+                        ligeras.conecta(i, j);
+            peso += w * (antes - ligeras.getComponentes());
+            antes = ligeras.getComponentes();
+        }
+        return peso;
+    }
+
+    /**
+     * Prueba unitaria para {@link BosqueGenerador#prim}.
+     */
+    @Test public void testPrim() {
+        BosqueGenerador<Integer> bosque = BosqueGenerador.prim(grafica);
+        valida(bosque);
+        Assert.assertTrue(bosque.getPeso() == pesoMinimo());
+    }
+
+    /**
+     * Prueba unitaria para {@link BosqueGenerador#kruskal}.
+     */
+    @Test public void testKruskal() {
+        BosqueGenerador<Integer> bosque = BosqueGenerador.kruskal(grafica);
+        valida(bosque);
+        Assert.assertTrue(bosque.getPeso() == pesoMinimo());
+    }
+
+    /**
+     * Prueba unitaria para {@link BosqueGenerador#boruvka}.
+     */
+    @Test public void testBoruvka() {
+        BosqueGenerador<Integer> bosque = BosqueGenerador.boruvka(grafica);
+        valida(bosque);
+        Assert.assertTrue(bosque.getPeso() == pesoMinimo());
+        bosque = BosqueGenerador.boruvka(grafica, new ForkJoinPool(4));
+        valida(bosque);
+        Assert.assertTrue(bosque.getPeso() == pesoMinimo());
+        try {
+            BosqueGenerador.boruvka(grafica, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para bosques de gráficas sin aristas y vacías.
+     */
+    @Test public void testSinAristas() {
+        grafica = new Grafica<Integer>();
+        BosqueGenerador<Integer> bosque = BosqueGenerador.kruskal(grafica);
+        Assert.assertTrue(bosque.getBosque().esVacia());
+        Assert.assertTrue(bosque.getPeso() == 0);
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        valida(BosqueGenerador.prim(grafica));
+        valida(BosqueGenerador.kruskal(grafica));
+        valida(BosqueGenerador.boruvka(grafica));
+    }
+}
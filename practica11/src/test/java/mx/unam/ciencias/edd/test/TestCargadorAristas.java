@@ -0,0 +1,282 @@
+package mx.unam.ciencias.edd.test;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+import mx.unam.ciencias.edd.CargadorAristas;
+import mx.unam.ciencias.edd.FormatoAristas;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCompacta;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link CargadorAristas}.
+ */
+public class TestCargadorAristas {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+    /* El archivo de aristas. */
+    private File archivo;
+
+    /**
+     * Crea una gráfica aleatoria para cada prueba, con elementos dispersos y
+     * pesos que no siempre son enteros.
+     * @throws IOException si no se puede crear el archivo de aristas.
+     */
+    public TestCargadorAristas() throws IOException {
+        random = new Random();
+        total = 2 + random.nextInt(100);
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(elemento(i));
+        for (int i = 0; i < total; i++)
+            for (int j = 0; j < 3; j++) {
+                int k = random.nextInt(total);
+                if (k != i && !grafica.sonVecinos(elemento(i), elemento(k)))
+                    grafica.conecta(elemento(i), elemento(k),
+                                    (1 + random.nextInt(40)) / 4.0);
+            }
+        archivo = File.createTempFile("aristas", ".txt");
+    }
+
+    /**
+     * Borra el archivo de aristas.
+     */
+    @After public void borra() {
+        archivo.delete();
+    }
+
+    /* Regresa el i-ésimo elemento de la gráfica. */
+    private int elemento(int i) {
+        return 1000 * i - 7;
+    }
+
+    /* Escribe las aristas de la gráfica en el archivo, en el formato
+     * recibido. Cada arista se escribe en la dirección con el origen menor,
+     * y si se pide, también en la otra. */
+    private void escribe(FormatoAristas formato, boolean repetidas)
+        throws IOException {
+        StringBuilder texto = new StringBuilder("# aristas\n\n");
+        try (DataOutputStream salida =
+             new DataOutputStream(new FileOutputStream(archivo))) {
+            for (int i = 0; i < total; i++)
+                for (int j = 0; j < total; j++) {
+                    int a = elemento(i), b = elemento(j);
+                    if (!grafica.sonVecinos(a, b) || (i > j && !repetidas))
+                        continue;
+                    double peso = grafica.getPeso(a, b);
+                    if (formato == FormatoAristas.BINARIO) {
+                        salida.writeInt(a);
+                        salida.writeInt(b);
+                        salida.writeDouble(peso);
+                    } else {
+                        texto.append(a);
+                        texto.append(random.nextBoolean() ? '\t' : ' ');
+                        texto.append(b);
+                        if (peso != 1 || random.nextBoolean())
+                            texto.append(' ').append(peso);
+                        texto.append(random.nextBoolean() ? "\r\n" : "\n");
+                    }
+                }
+            if (formato == FormatoAristas.TEXTO)
+                salida.write(texto.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /* Escribe el texto recibido en el archivo. */
+    private void escribe(String texto) throws IOException {
+        Files.write(archivo.toPath(), texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /* Valida que la gráfica compacta tenga los elementos y aristas de la
+     * gráfica, con índices en el orden de los elementos. */
+    private void valida(GraficaCompacta<Integer> compacta) {
+        int n = 0;
+        for (int i = 0; i < total; i++)
+            if (grafica.vertice(elemento(i)).getGrado() > 0)
+                n++;
+        Assert.assertTrue(compacta.getElementos() == n);
+        Assert.assertTrue(compacta.getAristas() == grafica.getAristas());
+        for (int i = 1; i < n; i++)
+            Assert.assertTrue(compacta.elemento(i - 1) < compacta.elemento(i));
+        for (int i = 0; i < n; i++) {
+            int a = compacta.elemento(i);
+            Assert.assertTrue(compacta.grado(i) ==
+                              grafica.vertice(a).getGrado());
+            for (int j = 0; j < n; j++) {
+                int b = compacta.elemento(j);
+                Assert.assertTrue(compacta.sonVecinos(a, b) ==
+                                  grafica.sonVecinos(a, b));
+                if (compacta.sonVecinos(a, b))
+                    Assert.assertTrue(compacta.getPeso(a, b) ==
+                                      grafica.getPeso(a, b));
+            }
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link CargadorAristas#carga} con el formato de
+     * texto.
+     * @throws IOException si ocurre un error de entrada/salida.
+     */
+    @Test public void testCargaTexto() throws IOException {
+        escribe(FormatoAristas.TEXTO, false);
+        CargadorAristas cargador = new CargadorAristas();
+        valida(cargador.carga(archivo.getPath(), FormatoAristas.TEXTO, false));
+    }
+
+    /**
+     * Prueba unitaria para {@link CargadorAristas#carga} con el formato
+     * binario.
+     * @throws IOException si ocurre un error de entrada/salida.
+     */
+    @Test public void testCargaBinario() throws IOException {
+        escribe(FormatoAristas.BINARIO, false);
+        CargadorAristas cargador = new CargadorAristas();
+        valida(cargador.carga(archivo.getPath(), FormatoAristas.BINARIO,
+                              false));
+    }
+
+    /**
+     * Prueba unitaria para {@link CargadorAristas#carga} eliminando aristas
+     * repetidas y de un vértice a sí mismo.
+     * @throws IOException si ocurre un error de entrada/salida.
+     */
+    @Test public void testCargaRepetidas() throws IOException {
+        escribe(FormatoAristas.BINARIO, true);
+        CargadorAristas cargador = new CargadorAristas();
+        valida(cargador.carga(archivo.getPath(), FormatoAristas.BINARIO,
+                              true));
+        escribe("1 2 5\n2 1 3\n1 1\n3 3 2\n2 3\n1 2 4\n");
+        GraficaCompacta<Integer> compacta =
+            cargador.carga(archivo.getPath(), FormatoAristas.TEXTO, true);
+        Assert.assertTrue(compacta.getElementos() == 3);
+        Assert.assertTrue(compacta.getAristas() == 2);
+        Assert.assertTrue(compacta.getPeso(1, 2) == 3);
+        Assert.assertTrue(compacta.getPeso(3, 2) == 1);
+        Assert.assertFalse(compacta.sonVecinos(1, 1));
+    }
+
+    /**
+     * Prueba unitaria para {@link CargadorAristas#cargaGrafica}.
+     * @throws IOException si ocurre un error de entrada/salida.
+     */
+    @Test public void testCargaGrafica() throws IOException {
+        escribe(FormatoAristas.TEXTO, false);
+        CargadorAristas cargador = new CargadorAristas();
+        Grafica<Integer> cargada =
+            cargador.cargaGrafica(archivo.getPath(), FormatoAristas.TEXTO,
+                                  false);
+        Assert.assertTrue(cargada.getAristas() == grafica.getAristas());
+        for (int i = 0; i < total; i++) {
+            int a = elemento(i);
+            int grado = grafica.vertice(a).getGrado();
+            Assert.assertTrue(cargada.contiene(a) == (grado > 0));
+            if (grado == 0)
+                continue;
+            Assert.assertTrue(cargada.vertice(a).getGrado() == grado);
+            for (int j = 0; j < total; j++) {
+                int b = elemento(j);
+                if (grafica.sonVecinos(a, b))
+                    Assert.assertTrue(cargada.getPeso(a, b) ==
+                                      grafica.getPeso(a, b));
+            }
+        }
+        int a = elemento(total);
+        cargada.agrega(a);
+        cargada.conecta(a, elemento(0));
+        Assert.assertTrue(cargada.sonVecinos(elemento(0), a));
+    }
+
+    /**
+     * Prueba unitaria para {@link CargadorAristas#carga} con pesos de
+     * mantisas largas y exponentes con signo, que deben leerse igual que con
+     * {@link Double#parseDouble}.
+     * @throws IOException si ocurre un error de entrada/salida.
+     */
+    @Test public void testCargaPesosLargos() throws IOException {
+        String[] fijos = { "9007199254740993", "9007199254740993e-22",
+                           "1e+5", "2.5E+3", "1e-5", "4.9e-324",
+                           "1.7976931348623157e308", "0.1",
+                           "123456789012345678901234567890e-10",
+                           "0.000000000000000000001234567890123" };
+        String[] pesos = new String[fijos.length + 200];
+        System.arraycopy(fijos, 0, pesos, 0, fijos.length);
+        for (int i = fijos.length; i < pesos.length; i++) {
+            StringBuilder peso = new StringBuilder();
+            peso.append(1 + random.nextInt(9));
+            int digitos = 14 + random.nextInt(10);
+            for (int j = 0; j < digitos; j++)
+                peso.append(random.nextInt(10));
+            peso.insert(1 + random.nextInt(digitos), '.');
+            int e = random.nextInt(61) - 30;
+            if (e != 0)
+                peso.append('e').append(e > 0 && random.nextBoolean() ?
+                                        "+" : "").append(e);
+            pesos[i] = peso.toString();
+        }
+        StringBuilder texto = new StringBuilder();
+        for (int i = 0; i < pesos.length; i++)
+            texto.append(i).append(' ').append(i + 1).append(' ')
+                .append(pesos[i]).append('\n');
+        escribe(texto.toString());
+        CargadorAristas cargador = new CargadorAristas();
+        GraficaCompacta<Integer> compacta =
+            cargador.carga(archivo.getPath(), FormatoAristas.TEXTO, false);
+        for (int i = 0; i < pesos.length; i++)
+            Assert.assertTrue(compacta.getPeso(i, i + 1) ==
+                              Double.parseDouble(pesos[i]));
+    }
+
+    /**
+     * Prueba unitaria para {@link CargadorAristas#carga} con archivos
+     * inválidos.
+     * @throws IOException si ocurre un error de entrada/salida.
+     */
+    @Test public void testCargaInvalida() throws IOException {
+        CargadorAristas cargador = new CargadorAristas();
+        String[] invalidos = { "1 2 0\n", "1 2 -1\n", "1 x\n", "1\n",
+                               "1 2 3 4\n", "9999999999 1\n", "1,2\n",
+                               "1 2 1e\n", "1 2 1e+\n", "1 2 1e+-5\n" };
+        for (String invalido : invalidos) {
+            escribe(invalido);
+            try {
+                cargador.carga(archivo.getPath(), FormatoAristas.TEXTO, false);
+                Assert.fail();
+            } catch (IOException ioe) {}
+        }
+        escribe("1 2 3");
+        try {
+            cargador.carga(archivo.getPath(), FormatoAristas.BINARIO, false);
+            Assert.fail();
+        } catch (IOException ioe) {}
+        escribe("");
+        Assert.assertTrue(cargador.carga(archivo.getPath(),
+                                         FormatoAristas.TEXTO,
+                                         false).esVacia());
+        try {
+            cargador.carga(archivo.getPath(), null, false);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new CargadorAristas(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+}
@@ -0,0 +1,129 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import mx.unam.ciencias.edd.Coloracion;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCompacta;
+import mx.unam.ciencias.edd.OrdenColoracion;
+import mx.unam.ciencias.edd.VerticeGrafica;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link Coloracion}.
+ */
+public class TestColoracion {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica para cada prueba.
+     */
+    public TestColoracion() {
+        random = new Random();
+        total = 2 + random.nextInt(100);
+        grafica = new Grafica<Integer>();
+    }
+
+    /* Valida que la coloración sea propia y que cada vértice tenga a lo más
+     * su grado como color. Regresa el número de colores. */
+    private int valida(GraficaCompacta<Integer> compacta, int[] colores) {
+        Assert.assertTrue(colores.length == compacta.getElementos());
+        int maximo = -1;
+        for (int v = 0; v < colores.length; v++) {
+            Assert.assertTrue(colores[v] >= 0);
+            Assert.assertTrue(colores[v] <= compacta.grado(v));
+            VerticeGrafica<Integer> vertice =
+                compacta.vertice(compacta.elemento(v));
+            for (VerticeGrafica<Integer> vecino : vertice.vecinos())
+                Assert.assertTrue(colores[compacta.indice(vecino.get())] !=
+                                  colores[v]);
+            maximo = Math.max(maximo, colores[v]);
+        }
+        return maximo + 1;
+    }
+
+    /**
+     * Prueba unitaria para {@link Coloracion#jonesPlassmann}.
+     */
+    @Test public void testJonesPlassmann() {
+        UtilTestGrafica.llena(grafica, total, 3, random);
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        Coloracion<Integer> coloracion = new Coloracion<Integer>(compacta);
+        for (OrdenColoracion orden : OrdenColoracion.values())
+            valida(compacta, coloracion.jonesPlassmann(orden));
+        try {
+            coloracion.jonesPlassmann(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Coloracion#especulativa}.
+     */
+    @Test public void testEspeculativa() {
+        UtilTestGrafica.llena(grafica, total, 3, random);
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        Coloracion<Integer> coloracion = new Coloracion<Integer>(compacta);
+        for (OrdenColoracion orden : OrdenColoracion.values())
+            valida(compacta, coloracion.especulativa(orden));
+        try {
+            coloracion.especulativa(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para que Jones-Plassmann no dependa del número de
+     * hilos, en una gráfica grande.
+     */
+    @Test public void testDeterminista() {
+        UtilTestGrafica.llena(grafica, 20000, 4, random);
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        ForkJoinPool grupo = new ForkJoinPool(1);
+        Coloracion<Integer> uno = new Coloracion<Integer>(compacta, grupo);
+        Coloracion<Integer> varios = new Coloracion<Integer>(compacta);
+        for (OrdenColoracion orden : OrdenColoracion.values()) {
+            int[] colores = uno.jonesPlassmann(orden);
+            valida(compacta, colores);
+            Assert.assertArrayEquals(colores, varios.jonesPlassmann(orden));
+            valida(compacta, varios.especulativa(orden));
+        }
+        grupo.shutdown();
+    }
+
+    /**
+     * Prueba unitaria para que el orden del último menor colore un árbol con
+     * a lo más dos colores.
+     */
+    @Test public void testUltimoMenor() {
+        for (int i = 0; i < total; i++) {
+            grafica.agrega(i);
+            if (i > 0)
+                grafica.conecta(i, random.nextInt(i));
+        }
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        Coloracion<Integer> coloracion = new Coloracion<Integer>(compacta);
+        int[] colores = coloracion.jonesPlassmann(OrdenColoracion.ULTIMO_MENOR);
+        Assert.assertTrue(valida(compacta, colores) <= 2);
+        try {
+            new Coloracion<Integer>(compacta, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+}
@@ -0,0 +1,196 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import mx.unam.ciencias.edd.ComponentesFuertes;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import mx.unam.ciencias.edd.GraficaDirigida;
+import mx.unam.ciencias.edd.VerticeGrafica;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link ComponentesFuertes}.
+ */
+public class TestComponentesFuertes {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private GraficaDirigida<Integer> grafica;
+
+    /**
+     * Crea una gráfica dirigida aleatoria para cada prueba, con pocas
+     * aristas para que tenga varias componentes fuertes.
+     */
+    public TestComponentesFuertes() {
+        random = new Random();
+        total = 1 + random.nextInt(100);
+        grafica = new GraficaDirigida<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = 0; j < total; j++)
+                if (i != j && random.nextInt(total) < 2)
+                    grafica.conecta(i, j);
+    }
+
+    /* Valida las componentes contra la cerradura transitiva de la gráfica, y
+     * que la condensación esté en orden topológico. */
+    private void valida(ComponentesFuertes<Integer> componentes) {
+        boolean[][] alcanza = new boolean[total][total];
+        for (int i = 0; i < total; i++) {
+            alcanza[i][i] = true;
+            for (VerticeGrafica<Integer> v : grafica.vertice(i).vecinos())
+                alcanza[i][v.get()] = true;
+        }
+        for (int k = 0; k < total; k++)
+            for (int i = 0; i < total; i++)
+                for (int j = 0; j < total; j++)
+                    alcanza[i][j] |= alcanza[i][k] && alcanza[k][j];
+        int[] ids = componentes.getIdentificadores();
+        Assert.assertTrue(ids.length == total);
+        for (int i = 0; i < total; i++) {
+            int c = componentes.componente(i);
+            Assert.assertTrue(c >= 0 && c < componentes.getComponentes());
+            Assert.assertTrue(ids[componentes.indice(i)] == c);
+            Assert.assertTrue(componentes.elemento(componentes.indice(i)) == i);
+            for (int j = 0; j < total; j++) {
+                boolean misma = alcanza[i][j] && alcanza[j][i];
+                Assert.assertTrue(misma == (c == componentes.componente(j)));
+            }
+        }
+        GraficaDirigida<Integer> condensacion = componentes.getCondensacion();
+        Assert.assertTrue(condensacion.getElementos() ==
+                          componentes.getComponentes());
+        Assert.assertTrue(condensacion.esAciclica());
+        for (int i = 0; i < total; i++) {
+            for (VerticeGrafica<Integer> v : grafica.vertice(i).vecinos()) {
+                int a = componentes.componente(i);
+                int b = componentes.componente(v.get());
+                Assert.assertTrue(a <= b);
+                if (a != b)
+                    Assert.assertTrue(condensacion.sonVecinos(a, b));
+            }
+        }
+        for (int a = 0; a < componentes.getComponentes(); a++)
+            for (VerticeGrafica<Integer> v : condensacion.vertice(a).vecinos())
+                Assert.assertTrue(a < v.get());
+    }
+
+    /**
+     * Prueba unitaria para {@link
+     * ComponentesFuertes#ComponentesFuertes(GraficaDirigida)}.
+     */
+    @Test public void testTarjan() {
+        valida(new ComponentesFuertes<Integer>(grafica));
+        try {
+            new ComponentesFuertes<Integer>(grafica).componente(total);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            new ComponentesFuertes<Integer>(grafica).elemento(-1);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link
+     * ComponentesFuertes#ComponentesFuertes(GraficaDirigida,ForkJoinPool)}.
+     */
+    @Test public void testForwardBackward() {
+        ComponentesFuertes<Integer> paralelas =
+            new ComponentesFuertes<Integer>(grafica, new ForkJoinPool(4));
+        valida(paralelas);
+        Assert.assertTrue(paralelas.getComponentes() ==
+                          new ComponentesFuertes<Integer>(grafica)
+                          .getComponentes());
+        try {
+            new ComponentesFuertes<Integer>(grafica, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria con cadenas largas, que desbordarían la pila con una
+     * implementación recursiva.
+     */
+    @Test public void testCadenas() {
+        int n = 100000;
+        grafica = new GraficaDirigida<Integer>();
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        for (int i = 0; i + 1 < n; i++)
+            grafica.conecta(i, i + 1);
+        ComponentesFuertes<Integer> componentes =
+            new ComponentesFuertes<Integer>(grafica);
+        Assert.assertTrue(componentes.getComponentes() == n);
+        for (int i = 0; i < n; i++)
+            Assert.assertTrue(componentes.componente(i) == i);
+        componentes = new ComponentesFuertes<Integer>(grafica,
+                                                      new ForkJoinPool(4));
+        Assert.assertTrue(componentes.getComponentes() == n);
+        grafica.conecta(n - 1, 0);
+        componentes = new ComponentesFuertes<Integer>(grafica);
+        Assert.assertTrue(componentes.getComponentes() == 1);
+        componentes = new ComponentesFuertes<Integer>(grafica,
+                                                      new ForkJoinPool(4));
+        Assert.assertTrue(componentes.getComponentes() == 1);
+        Assert.assertTrue(componentes.getCondensacion().getElementos() == 1);
+    }
+
+    /**
+     * Prueba unitaria con muchas componentes fuertes pequeñas que la poda no
+     * elimina: ciclos de dos vértices, primero disjuntos y luego unidos en
+     * cadena. Forward-backward no debe revisar todo el resto por cada
+     * pivote.
+     */
+    @Test public void testCiclosDisjuntos() {
+        int n = 100000;
+        grafica = new GraficaDirigida<Integer>();
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < n; i += 2) {
+            grafica.conecta(i, i + 1);
+            grafica.conecta(i + 1, i);
+        }
+        ComponentesFuertes<Integer> componentes =
+            new ComponentesFuertes<Integer>(grafica, new ForkJoinPool(4));
+        Assert.assertTrue(componentes.getComponentes() == n / 2);
+        for (int i = 0; i < n; i += 2)
+            Assert.assertTrue(componentes.componente(i) ==
+                              componentes.componente(i + 1));
+        for (int i = 0; i + 2 < n; i += 2)
+            grafica.conecta(i, i + 2);
+        componentes = new ComponentesFuertes<Integer>(grafica,
+                                                      new ForkJoinPool(4));
+        Assert.assertTrue(componentes.getComponentes() == n / 2);
+        for (int i = 0; i < n; i += 2) {
+            Assert.assertTrue(componentes.componente(i) == i / 2);
+            Assert.assertTrue(componentes.componente(i + 1) == i / 2);
+        }
+    }
+
+    /**
+     * Prueba unitaria para componentes de gráficas vacías.
+     */
+    @Test public void testVacia() {
+        grafica = new GraficaDirigida<Integer>();
+        ComponentesFuertes<Integer> componentes =
+            new ComponentesFuertes<Integer>(grafica);
+        Assert.assertTrue(componentes.getComponentes() == 0);
+        Assert.assertTrue(componentes.getCondensacion().esVacia());
+        componentes = new ComponentesFuertes<Integer>(grafica,
+                                                      new ForkJoinPool(2));
+        Assert.assertTrue(componentes.getComponentes() == 0);
+        Assert.assertTrue(componentes.getIdentificadores().length == 0);
+    }
+}
@@ -0,0 +1,159 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.Comunidades;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCompacta;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link Comunidades}.
+ */
+public class TestComunidades {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica aleatoria para cada prueba, con pesos enteros.
+     */
+    public TestComunidades() {
+        random = new Random();
+        total = 2 + random.nextInt(50);
+        grafica = new Grafica<Integer>();
+        UtilTestGrafica.llena(grafica, total, 2, 10, random);
+    }
+
+    /* Calcula la modularidad por definición, sumando sobre todos los pares
+     * de vértices. */
+    private double modularidad(GraficaCompacta<Integer> compacta,
+                               int[] comunidades) {
+        double[] grados = new double[total];
+        double suma = 0;
+        for (int u = 0; u < total; u++)
+            for (int v = 0; v < total; v++)
+                if (compacta.sonVecinos(compacta.elemento(u),
+                                        compacta.elemento(v))) {
+                    grados[u] += compacta.getPeso(compacta.elemento(u),
+                                                  compacta.elemento(v));
+                    suma += compacta.getPeso(compacta.elemento(u),
+                                             compacta.elemento(v));
+                }
+        if (suma == 0)
+            return 0;
+        double q = 0;
+        for (int u = 0; u < total; u++)
+            for (int v = 0; v < total; v++) {
+                if (comunidades[u] != comunidades[v])
+                    continue;
+                Integer a = compacta.elemento(u), b = compacta.elemento(v);
+                double w = compacta.sonVecinos(a, b) ?
+                    compacta.getPeso(a, b) : 0;
+                q += w - grados[u] * grados[v] / suma;
+            }
+        return q / suma;
+    }
+
+    /* Valida que las comunidades estén numeradas de 0 en adelante sin
+     * huecos, y regresa cuántas son. */
+    private int valida(int[] comunidades) {
+        Assert.assertTrue(comunidades.length == total);
+        boolean[] usadas = new boolean[total];
+        int k = 0;
+        for (int c : comunidades) {
+            Assert.assertTrue(c >= 0 && c < total);
+            if (!usadas[c])
+                k++;
+            usadas[c] = true;
+        }
+        for (int c = 0; c < k; c++)
+            Assert.assertTrue(usadas[c]);
+        return k;
+    }
+
+    /**
+     * Prueba unitaria para {@link Comunidades#modularidad}.
+     */
+    @Test public void testModularidad() {
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        Comunidades<Integer> comunidades = new Comunidades<Integer>(compacta);
+        int[] particion = new int[total];
+        for (int i = 0; i < total; i++)
+            particion[i] = random.nextInt(Math.min(total, 4));
+        Assert.assertEquals(modularidad(compacta, particion),
+                            comunidades.modularidad(particion), 1e-9);
+        try {
+            comunidades.modularidad(new int[total + 1]);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        particion[0] = total;
+        try {
+            comunidades.modularidad(particion);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Comunidades#propagacion} y {@link
+     * Comunidades#louvain} en una gráfica aleatoria.
+     */
+    @Test public void testAleatoria() {
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        Comunidades<Integer> comunidades = new Comunidades<Integer>(compacta);
+        int[] solos = new int[total];
+        for (int i = 0; i < total; i++)
+            solos[i] = i;
+        int[] propagacion = comunidades.propagacion(random);
+        valida(propagacion);
+        Assert.assertEquals(modularidad(compacta, propagacion),
+                            comunidades.modularidad(propagacion), 1e-9);
+        int[] louvain = comunidades.louvain(random);
+        valida(louvain);
+        Assert.assertTrue(comunidades.modularidad(louvain) >=
+                          comunidades.modularidad(solos) - 1e-9);
+    }
+
+    /**
+     * Prueba unitaria para {@link Comunidades#propagacion} y {@link
+     * Comunidades#louvain} en dos gráficas completas unidas por una arista.
+     * La propagación debe dejar a cada una en una sola comunidad, aunque
+     * puede ser la misma; Louvain debe separarlas.
+     */
+    @Test public void testDosCompletas() {
+        int n = 5 + random.nextInt(20);
+        total = 2 * n;
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++) {
+            grafica.agrega(i);
+            for (int j = (i < n) ? 0 : n; j < i; j++)
+                grafica.conecta(i, j);
+        }
+        grafica.conecta(0, n);
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        Comunidades<Integer> comunidades = new Comunidades<Integer>(compacta);
+        int[] propagacion = comunidades.propagacion(random);
+        int[] louvain = comunidades.louvain(random);
+        Assert.assertTrue(valida(propagacion) <= 2);
+        Assert.assertTrue(valida(louvain) == 2);
+        for (int i = 0; i < total; i++) {
+            int v = compacta.indice(i), r = compacta.indice(i < n ? 0 : n);
+            Assert.assertTrue(propagacion[v] == propagacion[r]);
+            Assert.assertTrue(louvain[v] == louvain[r]);
+        }
+        Assert.assertTrue(louvain[compacta.indice(0)] !=
+                          louvain[compacta.indice(n)]);
+    }
+}
@@ -0,0 +1,114 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.ConjuntosDisjuntos;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link ConjuntosDisjuntos}.
+ */
+public class TestConjuntosDisjuntos {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* Los conjuntos disjuntos. */
+    private ConjuntosDisjuntos<Integer> conjuntos;
+
+    /**
+     * Crea unos conjuntos disjuntos para cada prueba.
+     */
+    public TestConjuntosDisjuntos() {
+        random = new Random();
+        total = 10 + random.nextInt(100);
+        conjuntos = new ConjuntosDisjuntos<Integer>();
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntosDisjuntos#agrega}.
+     */
+    @Test public void testAgrega() {
+        Assert.assertTrue(conjuntos.getElementos() == 0);
+        Assert.assertTrue(conjuntos.getConjuntos() == 0);
+        for (int i = 0; i < total; i++) {
+            Assert.assertFalse(conjuntos.contiene(i));
+            conjuntos.agrega(i);
+            Assert.assertTrue(conjuntos.contiene(i));
+            Assert.assertTrue(conjuntos.getElementos() == i + 1);
+            Assert.assertTrue(conjuntos.getConjuntos() == i + 1);
+        }
+        try {
+            conjuntos.agrega(0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            conjuntos.agrega(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        Assert.assertFalse(conjuntos.contiene(null));
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntosDisjuntos#une} y {@link
+     * ConjuntosDisjuntos#mismoConjunto}, contra un arreglo de etiquetas.
+     */
+    @Test public void testUne() {
+        int[] etiquetas = new int[total];
+        for (int i = 0; i < total; i++) {
+            conjuntos.agrega(i);
+            etiquetas[i] = i;
+        }
+        int esperados = total;
+        for (int k = 0; k < total; k++) {
+            int a = random.nextInt(total), b = random.nextInt(total);
+            boolean distintos = etiquetas[a] != etiquetas[b];
+            Assert.assertTrue(conjuntos.une(a, b) == distintos);
+            if (distintos) {
+                int vieja = etiquetas[b];
+                for (int i = 0; i < total; i++)
+                    if (etiquetas[i] == vieja)
+                        etiquetas[i] = etiquetas[a];
+                esperados--;
+            }
+            Assert.assertTrue(conjuntos.getConjuntos() == esperados);
+        }
+        for (int i = 0; i < total; i++)
+            for (int j = 0; j < total; j++)
+                Assert.assertTrue(conjuntos.mismoConjunto(i, j) ==
+                                  (etiquetas[i] == etiquetas[j]));
+        try {
+            conjuntos.une(0, total);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            conjuntos.mismoConjunto(total, 0);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntosDisjuntos#limpia}.
+     */
+    @Test public void testLimpia() {
+        for (int i = 0; i < total; i++)
+            conjuntos.agrega(i);
+        for (int i = 1; i < total; i++)
+            conjuntos.une(i - 1, i);
+        Assert.assertTrue(conjuntos.getConjuntos() == 1);
+        conjuntos.limpia();
+        Assert.assertTrue(conjuntos.getElementos() == 0);
+        Assert.assertTrue(conjuntos.getConjuntos() == 0);
+        Assert.assertFalse(conjuntos.contiene(0));
+        conjuntos.agrega(0);
+        conjuntos.agrega(1);
+        Assert.assertFalse(conjuntos.mismoConjunto(0, 1));
+    }
+}
@@ -0,0 +1,115 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+import mx.unam.ciencias.edd.ConjuntosDisjuntos;
+import mx.unam.ciencias.edd.ConjuntosDisjuntosConcurrentes;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link
+ * ConjuntosDisjuntosConcurrentes}.
+ */
+public class TestConjuntosDisjuntosConcurrentes {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+
+    /**
+     * Crea un generador de números aleatorios para cada prueba.
+     */
+    public TestConjuntosDisjuntosConcurrentes() {
+        random = new Random();
+        total = 10 + random.nextInt(100);
+    }
+
+    /**
+     * Prueba unitaria para {@link
+     * ConjuntosDisjuntosConcurrentes#ConjuntosDisjuntosConcurrentes}.
+     */
+    @Test public void testConstructor() {
+        ConjuntosDisjuntosConcurrentes conjuntos =
+            new ConjuntosDisjuntosConcurrentes(total);
+        Assert.assertTrue(conjuntos.getElementos() == total);
+        Assert.assertTrue(conjuntos.getConjuntos() == total);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(conjuntos.encuentra(i) == i);
+        try {
+            new ConjuntosDisjuntosConcurrentes(-1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            conjuntos.encuentra(total);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        try {
+            conjuntos.une(-1, 0);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntosDisjuntosConcurrentes#une} y
+     * {@link ConjuntosDisjuntosConcurrentes#mismoConjunto} desde un solo
+     * hilo, contra {@link ConjuntosDisjuntos}.
+     */
+    @Test public void testUne() {
+        ConjuntosDisjuntosConcurrentes conjuntos =
+            new ConjuntosDisjuntosConcurrentes(total);
+        ConjuntosDisjuntos<Integer> secuenciales =
+            new ConjuntosDisjuntos<Integer>();
+        for (int i = 0; i < total; i++)
+            secuenciales.agrega(i);
+        for (int k = 0; k < total; k++) {
+            int a = random.nextInt(total), b = random.nextInt(total);
+            Assert.assertTrue(conjuntos.une(a, b) == secuenciales.une(a, b));
+            Assert.assertTrue(conjuntos.getConjuntos() ==
+                              secuenciales.getConjuntos());
+        }
+        for (int i = 0; i < total; i++)
+            for (int j = 0; j < total; j++)
+                Assert.assertTrue(conjuntos.mismoConjunto(i, j) ==
+                                  secuenciales.mismoConjunto(i, j));
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntosDisjuntosConcurrentes#une} desde
+     * varios hilos: el resultado no depende del orden de las uniones.
+     */
+    @Test public void testUneConcurrente() {
+        int n = 10000 + random.nextInt(10000);
+        int m = n;
+        int[] a = new int[m], b = new int[m];
+        ConjuntosDisjuntos<Integer> secuenciales =
+            new ConjuntosDisjuntos<Integer>();
+        for (int i = 0; i < n; i++)
+            secuenciales.agrega(i);
+        for (int k = 0; k < m; k++) {
+            a[k] = random.nextInt(n);
+            b[k] = random.nextInt(n);
+            secuenciales.une(a[k], b[k]);
+        }
+        ConjuntosDisjuntosConcurrentes conjuntos =
+            new ConjuntosDisjuntosConcurrentes(n);
+        long uniones = IntStream.range(0, m).parallel()
+            .filter(k -> conjuntos.une(a[k], b[k])).count();
+        Assert.assertTrue(uniones == n - secuenciales.getConjuntos());
+        Assert.assertTrue(conjuntos.getConjuntos() ==
+                          secuenciales.getConjuntos());
+        for (int k = 0; k < m; k++) {
+            int i = random.nextInt(n), j = random.nextInt(n);
+            Assert.assertTrue(conjuntos.mismoConjunto(i, j) ==
+                              secuenciales.mismoConjunto(i, j));
+            Assert.assertTrue(conjuntos.mismoConjunto(a[k], b[k]));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import mx.unam.ciencias.edd.DeltaStepping;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCompacta;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link DeltaStepping}.
+ */
+public class TestDeltaStepping {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica compacta. */
+    private GraficaCompacta<Integer> compacta;
+
+    /**
+     * Crea una gráfica aleatoria para cada prueba.
+     */
+    public TestDeltaStepping() {
+        random = new Random();
+        total = 10 + random.nextInt(90);
+        Grafica<Integer> grafica = new Grafica<Integer>();
+        UtilTestGrafica.llena(grafica, total, 2, 50, random);
+        compacta = new GraficaCompacta<Integer>(grafica);
+    }
+
+    /* Verifica que el delta-stepping calcule las mismas distancias que
+     * Dijkstra desde todos los vértices. */
+    private void verifica(DeltaStepping<Integer> delta) {
+        for (int i = 0; i < total; i++) {
+            double[] d = compacta.distancias(i);
+            double[] ds = delta.distancias(i);
+            Assert.assertTrue(d.length == ds.length);
+            for (int j = 0; j < d.length; j++)
+                Assert.assertTrue(d[j] == ds[j]);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link DeltaStepping#DeltaStepping} y {@link
+     * DeltaStepping#getDelta}.
+     */
+    @Test public void testConstructor() {
+        DeltaStepping<Integer> delta = new DeltaStepping<Integer>(compacta);
+        Assert.assertTrue(delta.getDelta() ==
+                          DeltaStepping.deltaSugerida(compacta));
+        delta = new DeltaStepping<Integer>(compacta, 3.5,
+                                           ForkJoinPool.commonPool());
+        Assert.assertTrue(delta.getDelta() == 3.5);
+        try {
+            new DeltaStepping<Integer>(compacta, 0, ForkJoinPool.commonPool());
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new DeltaStepping<Integer>(compacta, Double.NaN,
+                                       ForkJoinPool.commonPool());
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new DeltaStepping<Integer>(compacta, 1, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link DeltaStepping#deltaSugerida}.
+     */
+    @Test public void testDeltaSugerida() {
+        double delta = DeltaStepping.deltaSugerida(compacta);
+        Assert.assertTrue(delta >= 1);
+        Assert.assertTrue(delta <= 50);
+        GraficaCompacta<Integer> vacia =
+            new GraficaCompacta<Integer>(new Grafica<Integer>());
+        Assert.assertTrue(DeltaStepping.deltaSugerida(vacia) > 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link DeltaStepping#distancias}.
+     */
+    @Test public void testDistancias() {
+        verifica(new DeltaStepping<Integer>(compacta));
+        try {
+            new DeltaStepping<Integer>(compacta).distancias(total);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link DeltaStepping#distancias} con anchos de
+     * cubeta extremos y varios hilos.
+     */
+    @Test public void testDistanciasDeltas() {
+        ForkJoinPool grupo = new ForkJoinPool(4);
+        double[] deltas = { 0.01, 1, 7, 50, 1000, Double.MAX_VALUE };
+        for (double d : deltas)
+            verifica(new DeltaStepping<Integer>(compacta, d, grupo));
+        grupo.shutdown();
+    }
+
+    /**
+     * Prueba unitaria para {@link DeltaStepping#distancias} en una gráfica
+     * grande, para que las tareas se dividan.
+     */
+    @Test public void testDistanciasGrande() {
+        total = 5000 + random.nextInt(5000);
+        Grafica<Integer> grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++) {
+            grafica.conecta(i - 1, i, 1 + random.nextInt(50));
+            int j = random.nextInt(i);
+            if (j != i - 1)
+                grafica.conecta(j, i, 1 + random.nextInt(50));
+        }
+        compacta = new GraficaCompacta<Integer>(grafica);
+        ForkJoinPool grupo = new ForkJoinPool(4);
+        DeltaStepping<Integer> delta =
+            new DeltaStepping<Integer>(compacta, 1000, grupo);
+        double[] d = compacta.distancias(0);
+        double[] ds = delta.distancias(0);
+        for (int j = 0; j < d.length; j++)
+            Assert.assertTrue(d[j] == ds[j]);
+        grupo.shutdown();
+    }
+}
@@ -0,0 +1,277 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.AlgoritmoDispersor;
+import mx.unam.ciencias.edd.DiccionarioCuckoo;
+import mx.unam.ciencias.edd.Dispersor;
+import mx.unam.ciencias.edd.FabricaDispersores;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link DiccionarioCuckoo}.
+ */
+public class TestDiccionarioCuckoo {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* El diccionario. */
+    private DiccionarioCuckoo<String, String> diccionario;
+
+    /**
+     * Crea un diccionario para cada prueba.
+     */
+    public TestDiccionarioCuckoo() {
+        int N = 64;
+        random = new Random();
+        total = N + random.nextInt(N);
+        diccionario = new DiccionarioCuckoo<String, String>(total);
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioCuckoo#DiccionarioCuckoo}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(diccionario.esVacia());
+        Assert.assertTrue(diccionario.getElementos() == 0);
+        Assert.assertTrue(diccionario.carga() == 0.0);
+        Assert.assertTrue(diccionario.escondidas() == 0);
+        Assert.assertFalse(diccionario.iteradorLlaves().hasNext());
+        Assert.assertFalse(diccionario.iterator().hasNext());
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioCuckoo#agrega}.
+     */
+    @Test public void testAgrega() {
+        int ini = random.nextInt(10000);
+        for (int i = 0; i < total * 40; i++) {
+            String s = String.format("%x", ini + i * 1000);
+            Assert.assertFalse(diccionario.contiene(s));
+            diccionario.agrega(s, s);
+            Assert.assertTrue(diccionario.getElementos() == i+1);
+            Assert.assertTrue(diccionario.contiene(s));
+            Assert.assertTrue(diccionario.get(s).equals(s));
+            Assert.assertTrue(diccionario.carga() <=
+                              DiccionarioCuckoo.MAXIMA_CARGA);
+        }
+        for (int i = 0; i < total * 40; i++) {
+            String s = String.format("%x", ini + i * 1000);
+            Assert.assertTrue(diccionario.get(s).equals(s));
+        }
+        String k = String.format("%x", ini);
+        diccionario.agrega(k, "X");
+        Assert.assertTrue(diccionario.getElementos() == total*40);
+        Assert.assertTrue(diccionario.get(k).equals("X"));
+        try {
+            diccionario.agrega(null, "X");
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            diccionario.agrega("X", null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioCuckoo#agrega} con dispersores
+     * de {@link FabricaDispersores}.
+     */
+    @Test public void testAgregaDispersores() {
+        Dispersor<String> bj =
+            FabricaDispersores.dispersorCadena(AlgoritmoDispersor.BJ_STRING);
+        Dispersor<String> djb =
+            FabricaDispersores.dispersorCadena(AlgoritmoDispersor.DJB_STRING);
+        diccionario = new DiccionarioCuckoo<String, String>(bj, djb);
+        for (int i = 0; i < total * 10; i++) {
+            String s = String.format("%d", i);
+            diccionario.agrega(s, s);
+        }
+        Assert.assertTrue(diccionario.getElementos() == total * 10);
+        for (int i = 0; i < total * 10; i++) {
+            String s = String.format("%d", i);
+            Assert.assertTrue(diccionario.get(s).equals(s));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioCuckoo#agrega} cuando todas las
+     * llaves tienen la misma dispersión.
+     */
+    @Test public void testAgregaColisiones() {
+        diccionario = new DiccionarioCuckoo<String, String>(s -> 7, s -> 7);
+        for (int i = 0; i < total; i++) {
+            String s = String.format("%d", i);
+            diccionario.agrega(s, s);
+        }
+        Assert.assertTrue(diccionario.getElementos() == total);
+        Assert.assertTrue(diccionario.escondidas() ==
+                          total - 2 * DiccionarioCuckoo.RANURAS);
+        for (int i = 0; i < total; i++) {
+            String s = String.format("%d", i);
+            Assert.assertTrue(diccionario.get(s).equals(s));
+            diccionario.elimina(s);
+            Assert.assertFalse(diccionario.contiene(s));
+        }
+        Assert.assertTrue(diccionario.esVacia());
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioCuckoo#agrega} con muchas
+     * llaves; si las dispersiones no se repiten, el escondite nunca pasa de
+     * {@link DiccionarioCuckoo#ESCONDITE} entradas.
+     */
+    @Test public void testAgregaEscondite() {
+        for (int i = 0; i < total * 10; i++) {
+            String s = String.format("%d", i);
+            diccionario.agrega(s, s);
+            Assert.assertTrue(diccionario.escondidas() <=
+                              DiccionarioCuckoo.ESCONDITE);
+        }
+        Assert.assertTrue(diccionario.getElementos() == total * 10);
+        for (int i = 0; i < total * 10; i++) {
+            String s = String.format("%d", i);
+            Assert.assertTrue(diccionario.get(s).equals(s));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioCuckoo#get}.
+     */
+    @Test public void testGet() {
+        int ini = 1 + random.nextInt(10000);
+        for (int i = 0; i < total; i++) {
+            String s = String.format("%x", ini + i * 1000);
+            diccionario.agrega(s, s);
+            Assert.assertTrue(diccionario.get(s).equals(s));
+        }
+        try {
+            diccionario.get("00000");
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            diccionario.get(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioCuckoo#contiene}.
+     */
+    @Test public void testContiene() {
+        int ini = random.nextInt(10000);
+        for (int i = 0; i < total; i++) {
+            String s = String.format("%x", ini + i * 1000);
+            Assert.assertFalse(diccionario.contiene(s));
+            diccionario.agrega(s, s);
+            Assert.assertTrue(diccionario.contiene(s));
+        }
+        Assert.assertFalse(diccionario.contiene(null));
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioCuckoo#elimina}.
+     */
+    @Test public void testElimina() {
+        int ini = random.nextInt(10000);
+        String[] a = new String[total * 4];
+        for (int i = 0; i < total * 4; i++) {
+            a[i] = String.format("%x", ini + i * 1000);
+            diccionario.agrega(a[i], a[i]);
+        }
+        for (int i = 0; i < total * 4; i++) {
+            Assert.assertTrue(diccionario.contiene(a[i]));
+            diccionario.elimina(a[i]);
+            Assert.assertFalse(diccionario.contiene(a[i]));
+            Assert.assertTrue(diccionario.getElementos() == total * 4 - i - 1);
+            for (int j = i+1; j < Math.min(i + 10, total * 4); j++)
+                Assert.assertTrue(diccionario.contiene(a[j]));
+        }
+        try {
+            diccionario.elimina(a[0]);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            diccionario.elimina(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioCuckoo#limpia}.
+     */
+    @Test public void testLimpia() {
+        for (int i = 0; i < total; i++) {
+            String s = String.format("%x", i);
+            diccionario.agrega(s, s);
+        }
+        diccionario.limpia();
+        Assert.assertTrue(diccionario.esVacia());
+        Assert.assertTrue(diccionario.getElementos() == 0);
+        Assert.assertFalse(diccionario.iterator().hasNext());
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioCuckoo#equals} y {@link
+     * DiccionarioCuckoo#hashCode}.
+     */
+    @Test public void testEquals() {
+        DiccionarioCuckoo<String, String> otro =
+            new DiccionarioCuckoo<String, String>();
+        Assert.assertTrue(diccionario.equals(otro));
+        for (int i = 0; i < total; i++) {
+            String s = String.format("%x", i);
+            diccionario.agrega(s, s);
+            Assert.assertFalse(diccionario.equals(otro));
+            otro.agrega(s, s);
+            Assert.assertTrue(diccionario.equals(otro));
+            Assert.assertTrue(diccionario.hashCode() == otro.hashCode());
+        }
+        otro.agrega("0", "X");
+        Assert.assertFalse(diccionario.equals(otro));
+        Assert.assertFalse(diccionario.equals(null));
+        Assert.assertFalse(diccionario.equals("una cadena"));
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioCuckoo#iterator} y {@link
+     * DiccionarioCuckoo#iteradorLlaves}.
+     */
+    @Test public void testIteradores() {
+        diccionario = new DiccionarioCuckoo<String, String>(s -> s.length(),
+                                                            s -> 0);
+        boolean[] vistos = new boolean[total];
+        for (int i = 0; i < total; i++) {
+            String s = String.format("%d", i);
+            diccionario.agrega(s, s);
+        }
+        Iterator<String> llaves = diccionario.iteradorLlaves();
+        int c = 0;
+        while (llaves.hasNext()) {
+            int i = Integer.parseInt(llaves.next());
+            Assert.assertFalse(vistos[i]);
+            vistos[i] = true;
+            c++;
+        }
+        Assert.assertTrue(c == total);
+        c = 0;
+        for (String s : diccionario) {
+            Assert.assertTrue(diccionario.contiene(s));
+            c++;
+        }
+        Assert.assertTrue(c == total);
+        try {
+            llaves.next();
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+}
@@ -0,0 +1,137 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.FlujoMaximo;
+import mx.unam.ciencias.edd.Grafica;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link FlujoMaximo}.
+ */
+public class TestFlujoMaximo {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica aleatoria pequeña para cada prueba, con capacidades
+     * enteras.
+     */
+    public TestFlujoMaximo() {
+        random = new Random();
+        total = 2 + random.nextInt(11);
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = i + 1; j < total; j++)
+                if (random.nextInt(3) == 0)
+                    grafica.conecta(i, j, 1 + random.nextInt(10));
+    }
+
+    /* Regresa la capacidad del corte dado por los bits de lado. */
+    private double capacidad(int lado) {
+        double c = 0;
+        for (int i = 0; i < total; i++)
+            for (int j = i + 1; j < total; j++)
+                if (grafica.sonVecinos(i, j) &&
+                    ((lado >> i) & 1) != ((lado >> j) & 1))
+                    c += grafica.getPeso(i, j);
+        return c;
+    }
+
+    /* Calcula por fuerza bruta la capacidad del corte mínimo. */
+    private double corteMinimo(int s, int t) {
+        double minimo = Double.POSITIVE_INFINITY;
+        for (int lado = 0; lado < (1 << total); lado++)
+            if (((lado >> s) & 1) == 1 && ((lado >> t) & 1) == 0)
+                minimo = Math.min(minimo, capacidad(lado));
+        return minimo;
+    }
+
+    /* Valida que el flujo sea el corte mínimo, y que el corte regresado
+     * separe al origen del destino con la misma capacidad. */
+    private void valida(FlujoMaximo<Integer> flujo, int s, int t) {
+        Assert.assertTrue(flujo.getFlujo() == corteMinimo(s, t));
+        Assert.assertTrue(flujo.esLadoOrigen(s));
+        Assert.assertFalse(flujo.esLadoOrigen(t));
+        int lado = 0;
+        for (int v : flujo.getLadoOrigen()) {
+            Assert.assertTrue(flujo.esLadoOrigen(v));
+            lado |= 1 << v;
+        }
+        for (int v = 0; v < total; v++)
+            Assert.assertTrue(flujo.esLadoOrigen(v) == (((lado >> v) & 1) == 1));
+        Assert.assertTrue(capacidad(lado) == flujo.getFlujo());
+    }
+
+    /**
+     * Prueba unitaria para {@link FlujoMaximo#dinic}.
+     */
+    @Test public void testDinic() {
+        int s = random.nextInt(total);
+        int t = (s + 1 + random.nextInt(total - 1)) % total;
+        valida(FlujoMaximo.dinic(grafica, s, t), s, t);
+        try {
+            FlujoMaximo.dinic(grafica, s, s);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            FlujoMaximo.dinic(grafica, s, total);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link FlujoMaximo#pushRelabel}.
+     */
+    @Test public void testPushRelabel() {
+        int s = random.nextInt(total);
+        int t = (s + 1 + random.nextInt(total - 1)) % total;
+        valida(FlujoMaximo.pushRelabel(grafica, s, t), s, t);
+        try {
+            FlujoMaximo.pushRelabel(grafica, t, t);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            FlujoMaximo.pushRelabel(grafica, total, t);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para que los dos algoritmos coincidan en una gráfica
+     * grande.
+     */
+    @Test public void testCoinciden() {
+        int n = 2000;
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < 4 * n; i++) {
+            int a = random.nextInt(n), b = random.nextInt(n);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b, 1 + random.nextInt(100));
+        }
+        for (int vez = 0; vez < 5; vez++) {
+            int s = random.nextInt(n), t = random.nextInt(n);
+            if (s == t)
+                continue;
+            FlujoMaximo<Integer> dinic = FlujoMaximo.dinic(grafica, s, t);
+            FlujoMaximo<Integer> pushRelabel =
+                FlujoMaximo.pushRelabel(grafica, s, t);
+            Assert.assertTrue(dinic.getFlujo() == pushRelabel.getFlujo());
+        }
+    }
+}
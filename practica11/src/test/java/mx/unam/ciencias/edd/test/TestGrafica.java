@@ -5,6 +5,7 @@ import java.util.Random;
 import mx.unam.ciencias.edd.AccionVerticeGrafica;
 import mx.unam.ciencias.edd.Color;
 import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.Heuristica;
 import mx.unam.ciencias.edd.Lista;
 import mx.unam.ciencias.edd.VerticeGrafica;
 import org.junit.Assert;
@@ -434,6 +435,48 @@ public class TestGrafica {
         Assert.assertTrue(grafica.esConexa());
     }
 
+    /**
+     * Prueba unitaria para {@link Grafica#getComponentes} y {@link
+     * Grafica#mismaComponente}.
+     */
+    @Test public void testComponentes() {
+        Assert.assertTrue(grafica.getComponentes() == 0);
+        for (int i = 0; i < total; i++) {
+            grafica.agrega(i);
+            Assert.assertTrue(grafica.getComponentes() == i + 1);
+        }
+        for (int i = 2; i < total; i++) {
+            grafica.conecta(i - 2, i);
+            Assert.assertTrue(grafica.getComponentes() == total - i + 1);
+            Assert.assertTrue(grafica.mismaComponente(i % 2, i));
+            Assert.assertTrue(grafica.mismaComponente(i, i % 2));
+            Assert.assertFalse(grafica.mismaComponente(1 - i % 2, i));
+        }
+        int componentes = grafica.getComponentes();
+        grafica.conecta(0, 1);
+        Assert.assertTrue(grafica.getComponentes() == componentes - 1);
+        Assert.assertTrue(grafica.mismaComponente(0, total - 1));
+        grafica.desconecta(0, 1);
+        Assert.assertTrue(grafica.getComponentes() == componentes);
+        Assert.assertFalse(grafica.mismaComponente(0, 1));
+        grafica.conecta(0, 1);
+        int medio = total / 2;
+        grafica.elimina(medio);
+        Assert.assertTrue(grafica.getComponentes() ==
+                          (medio >= 2 && medio + 2 < total ? 2 : 1));
+        try {
+            grafica.mismaComponente(0, medio);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        grafica.agrega(medio);
+        Assert.assertFalse(grafica.mismaComponente(0, medio));
+        grafica.limpia();
+        Assert.assertTrue(grafica.getComponentes() == 0);
+        Assert.assertTrue(grafica.esConexa());
+        grafica.agrega(0);
+        Assert.assertTrue(grafica.esConexa());
+    }
+
    /**
      * Prueba unitaria para {@link Grafica#paraCadaVertice}.
      */
@@ -519,6 +562,34 @@ public class TestGrafica {
                                                        Color.NINGUNO));
     }
 
+    /**
+     * Prueba unitaria para recorridos sucesivos con {@link Grafica#bfs},
+     * {@link Grafica#dfs} y {@link Grafica#esConexa}: cada recorrido visita
+     * todos los vértices de su componente sin importar los anteriores.
+     */
+    @Test public void testRecorridosSucesivos() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++)
+            grafica.conecta(i - 1, i);
+        grafica.agrega(total);
+        for (int k = 0; k < 3; k++) {
+            int[] c = { 0 };
+            int origen = random.nextInt(total);
+            grafica.bfs(origen, v -> c[0]++);
+            Assert.assertTrue(c[0] == total);
+            grafica.dfs(origen, v -> c[0]++);
+            Assert.assertTrue(c[0] == 2 * total);
+            grafica.bfs(total, v -> c[0]++);
+            Assert.assertTrue(c[0] == 2 * total + 1);
+            Assert.assertFalse(grafica.esConexa());
+        }
+        grafica.conecta(0, total);
+        Assert.assertTrue(grafica.esConexa());
+        grafica.paraCadaVertice(v -> Assert.assertTrue(v.getColor() ==
+                                                       Color.NINGUNO));
+    }
+
     /**
      * Prueba unitaria para {@link Grafica#esVacia}.
      */
@@ -737,4 +808,178 @@ public class TestGrafica {
             Assert.assertTrue(lista.equals(dijkstra));
         }
     }
+
+    /* Regresa el peso de una trayectoria. */
+    private double peso(Lista<VerticeGrafica<Integer>> trayectoria) {
+        double peso = 0;
+        VerticeGrafica<Integer> anterior = null;
+        for (VerticeGrafica<Integer> v : trayectoria) {
+            if (anterior != null)
+                peso += grafica.getPeso(anterior.get(), v.get());
+            anterior = v;
+        }
+        return peso;
+    }
+
+    /* Llena la gráfica con vértices conectados al azar. */
+    private void llenaAleatoria() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                if (random.nextInt(total) < 3)
+                    grafica.conecta(i, j, 1 + random.nextInt(20));
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#dijkstra}, que termina en cuanto
+     * fija la distancia del destino: sus trayectorias deben pesar lo mismo
+     * que las distancias de una ejecución completa (Floyd-Warshall).
+     */
+    @Test public void testDijkstraCorte() {
+        llenaAleatoria();
+        double[][] d = new double[total][total];
+        for (int i = 0; i < total; i++)
+            for (int j = 0; j < total; j++)
+                d[i][j] = (i == j) ? 0 : grafica.sonVecinos(i, j) ?
+                    grafica.getPeso(i, j) : Double.POSITIVE_INFINITY;
+        for (int k = 0; k < total; k++)
+            for (int i = 0; i < total; i++)
+                for (int j = 0; j < total; j++)
+                    d[i][j] = Math.min(d[i][j], d[i][k] + d[k][j]);
+        for (int k = 0; k < total * 4; k++) {
+            int i = random.nextInt(total), j = random.nextInt(total);
+            Lista<VerticeGrafica<Integer>> dijkstra = grafica.dijkstra(i, j);
+            if (d[i][j] == Double.POSITIVE_INFINITY) {
+                Assert.assertTrue(dijkstra.esVacia());
+                continue;
+            }
+            Assert.assertTrue(dijkstra.getPrimero().get() == i);
+            Assert.assertTrue(dijkstra.getUltimo().get() == j);
+            Assert.assertTrue(peso(dijkstra) == d[i][j]);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#trayectoriaMinimaBidireccional}.
+     */
+    @Test public void testTrayectoriaMinimaBidireccional() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        Lista<VerticeGrafica<Integer>> lista =
+            new Lista<VerticeGrafica<Integer>>();
+        lista.agrega(grafica.vertice(0));
+        Assert.assertTrue(lista.equals(
+                              grafica.trayectoriaMinimaBidireccional(0, 0)));
+        Assert.assertTrue(
+            grafica.trayectoriaMinimaBidireccional(0, 1).esVacia());
+        for (int i = 1; i < total; i++) {
+            grafica.conecta(i-1, i);
+            lista.agrega(grafica.vertice(i));
+            Assert.assertTrue(lista.equals(
+                                  grafica.trayectoriaMinimaBidireccional(0, i)));
+        }
+        grafica = new Grafica<Integer>();
+        llenaAleatoria();
+        for (int i = 0; i < total; i++) {
+            int j = random.nextInt(total);
+            Lista<VerticeGrafica<Integer>> tm =
+                grafica.trayectoriaMinima(i, j);
+            Lista<VerticeGrafica<Integer>> tmb =
+                grafica.trayectoriaMinimaBidireccional(i, j);
+            Assert.assertTrue(tm.getLongitud() == tmb.getLongitud());
+            if (tmb.esVacia())
+                continue;
+            Assert.assertTrue(tmb.getPrimero().get() == i);
+            Assert.assertTrue(tmb.getUltimo().get() == j);
+            Assert.assertTrue(peso(tmb) >= tmb.getLongitud() - 1);
+        }
+        try {
+            grafica.trayectoriaMinimaBidireccional(0, total);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#dijkstraBidireccional}.
+     */
+    @Test public void testDijkstraBidireccional() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        Lista<VerticeGrafica<Integer>> lista =
+            new Lista<VerticeGrafica<Integer>>();
+        for (int i = 0; i < total; i++) {
+            for (int j = i+1; j < total; j++) {
+                double peso = (i + 1 == j) ? 1 :
+                    total * 5.0 + random.nextDouble() * total * 5.0;
+                grafica.conecta(i, j, peso);
+            }
+        }
+        for (int i = 0; i < total; i++) {
+            lista.agrega(grafica.vertice(i));
+            Assert.assertTrue(lista.equals(
+                                  grafica.dijkstraBidireccional(0, i)));
+        }
+        grafica = new Grafica<Integer>();
+        llenaAleatoria();
+        for (int i = 0; i < total; i++) {
+            int j = random.nextInt(total);
+            Lista<VerticeGrafica<Integer>> d = grafica.dijkstra(i, j);
+            Lista<VerticeGrafica<Integer>> db =
+                grafica.dijkstraBidireccional(i, j);
+            Assert.assertTrue(d.esVacia() == db.esVacia());
+            Assert.assertTrue(peso(d) == peso(db));
+            if (db.esVacia())
+                continue;
+            Assert.assertTrue(db.getPrimero().get() == i);
+            Assert.assertTrue(db.getUltimo().get() == j);
+        }
+        try {
+            grafica.dijkstraBidireccional(total, 0);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#aEstrella}.
+     */
+    @Test public void testAEstrella() {
+        int lado = 2 + random.nextInt(10);
+        for (int i = 0; i < lado * lado; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < lado; i++) {
+            for (int j = 0; j < lado; j++) {
+                int v = i * lado + j;
+                if (j + 1 < lado)
+                    grafica.conecta(v, v + 1, 1 + random.nextInt(10));
+                if (i + 1 < lado)
+                    grafica.conecta(v, v + lado, 1 + random.nextInt(10));
+            }
+        }
+        Heuristica<Integer> manhattan = (v, d) ->
+            Math.abs(v.get() / lado - d.get() / lado) +
+            Math.abs(v.get() % lado - d.get() % lado);
+        for (int i = 0; i < lado * lado; i++) {
+            int a = random.nextInt(lado * lado);
+            Lista<VerticeGrafica<Integer>> d = grafica.dijkstra(a, i);
+            Lista<VerticeGrafica<Integer>> ae =
+                grafica.aEstrella(a, i, manhattan);
+            Assert.assertTrue(peso(d) == peso(ae));
+            Assert.assertTrue(ae.getPrimero().get() == a);
+            Assert.assertTrue(ae.getUltimo().get() == i);
+            ae = grafica.aEstrella(a, i, (v, w) -> 0);
+            Assert.assertTrue(peso(d) == peso(ae));
+        }
+        grafica.agrega(-1);
+        Assert.assertTrue(grafica.aEstrella(0, -1, manhattan).esVacia());
+        try {
+            grafica.aEstrella(0, lado * lado, manhattan);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            grafica.aEstrella(0, 1, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
 }
+
@@ -0,0 +1,306 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.Color;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCompacta;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.VerticeGrafica;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link GraficaCompacta}.
+ */
+public class TestGraficaCompacta {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica para cada prueba.
+     */
+    public TestGraficaCompacta() {
+        random = new Random();
+        total = 2 + random.nextInt(100);
+        grafica = new Grafica<Integer>();
+    }
+
+    /* Regresa la lista de elementos de una trayectoria. */
+    private Lista<Integer> elementos(Lista<VerticeGrafica<Integer>> l) {
+        Lista<Integer> r = new Lista<Integer>();
+        for (VerticeGrafica<Integer> v : l)
+            r.agrega(v.get());
+        return r;
+    }
+
+    /* Regresa el peso de una trayectoria. */
+    private double peso(GraficaCompacta<Integer> compacta,
+                        Lista<VerticeGrafica<Integer>> l) {
+        double p = 0;
+        Integer anterior = null;
+        for (VerticeGrafica<Integer> v : l) {
+            if (anterior != null)
+                p += compacta.getPeso(anterior, v.get());
+            anterior = v.get();
+        }
+        return p;
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCompacta#GraficaCompacta}.
+     */
+    @Test public void testConstructor() {
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        Assert.assertTrue(compacta.esVacia());
+        Assert.assertTrue(compacta.getElementos() == 0);
+        Assert.assertTrue(compacta.getAristas() == 0);
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++)
+            grafica.conecta(i - 1, i);
+        compacta = new GraficaCompacta<Integer>(grafica);
+        Assert.assertFalse(compacta.esVacia());
+        Assert.assertTrue(compacta.getElementos() == total);
+        Assert.assertTrue(compacta.getAristas() == total - 1);
+        grafica.agrega(total);
+        grafica.conecta(0, total);
+        Assert.assertTrue(compacta.getElementos() == total);
+        Assert.assertFalse(compacta.contiene(total));
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCompacta#indice} y {@link
+     * GraficaCompacta#elemento}.
+     */
+    @Test public void testIndice() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i * 3);
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        boolean[] vistos = new boolean[total];
+        for (int i = 0; i < total; i++) {
+            int k = compacta.indice(i * 3);
+            Assert.assertTrue(k >= 0 && k < total);
+            Assert.assertFalse(vistos[k]);
+            vistos[k] = true;
+            Assert.assertTrue(compacta.elemento(k) == i * 3);
+        }
+        try {
+            compacta.indice(1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            compacta.elemento(total);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        try {
+            compacta.elemento(-1);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCompacta#sonVecinos} y {@link
+     * GraficaCompacta#getPeso}.
+     */
+    @Test public void testGetPeso() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = i + 1; j < total; j++)
+                if (random.nextBoolean())
+                    grafica.conecta(i, j, 1 + random.nextInt(100));
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        Assert.assertTrue(compacta.getAristas() == grafica.getAristas());
+        for (int i = 0; i < total; i++) {
+            for (int j = 0; j < total; j++) {
+                Assert.assertTrue(compacta.sonVecinos(i, j) ==
+                                  grafica.sonVecinos(i, j));
+                if (grafica.sonVecinos(i, j))
+                    Assert.assertTrue(compacta.getPeso(i, j) ==
+                                      grafica.getPeso(i, j));
+                else
+                    try {
+                        compacta.getPeso(i, j);
+                        Assert.fail();
+                    } catch (IllegalArgumentException iae) {}
+            }
+        }
+        try {
+            compacta.sonVecinos(0, total);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCompacta#vertice}.
+     */
+    @Test public void testVertice() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++)
+            grafica.conecta(0, i);
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        VerticeGrafica<Integer> v = compacta.vertice(0);
+        Assert.assertTrue(v.get() == 0);
+        Assert.assertTrue(v.getGrado() == total - 1);
+        Assert.assertTrue(v.getColor() == Color.NINGUNO);
+        Assert.assertTrue(v.equals(compacta.vertice(0)));
+        Assert.assertFalse(v.equals(compacta.vertice(1)));
+        boolean[] vistos = new boolean[total];
+        int anterior = -1;
+        for (VerticeGrafica<Integer> vecino : v.vecinos()) {
+            Assert.assertFalse(vistos[vecino.get()]);
+            vistos[vecino.get()] = true;
+            Assert.assertTrue(vecino.getGrado() == 1);
+            int k = compacta.indice(vecino.get());
+            Assert.assertTrue(anterior < k);
+            anterior = k;
+        }
+        for (int i = 1; i < total; i++)
+            Assert.assertTrue(vistos[i]);
+        Assert.assertFalse(vistos[0]);
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCompacta#bfs}.
+     */
+    @Test public void testBfs() {
+        for (int i = 0; i < 7; i++)
+            grafica.agrega(i);
+        grafica.conecta(0, 1);
+        grafica.conecta(0, 2);
+        grafica.conecta(1, 3);
+        grafica.conecta(1, 4);
+        grafica.conecta(3, 5);
+        grafica.conecta(3, 6);
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        int[] c = { 0 };
+        int[] a = { 0, 1, 2, 3, 4, 5, 6 };
+        compacta.bfs(0, v -> Assert.assertTrue(v.get() == a[c[0]++]));
+        Assert.assertTrue(c[0] == 7);
+        try {
+            compacta.bfs(7, v -> {});
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCompacta#dfs}.
+     */
+    @Test public void testDfs() {
+        for (int i = 0; i < 7; i++)
+            grafica.agrega(i);
+        grafica.conecta(0, 1);
+        grafica.conecta(0, 2);
+        grafica.conecta(1, 3);
+        grafica.conecta(1, 4);
+        grafica.conecta(3, 5);
+        grafica.conecta(3, 6);
+        grafica.agrega(7);
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        int[] c = { 0 };
+        int[] a = { 0, 2, 1, 4, 3, 6, 5 };
+        compacta.dfs(0, v -> Assert.assertTrue(v.get() == a[c[0]++]));
+        Assert.assertTrue(c[0] == 7);
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCompacta#trayectoriaMinima}.
+     */
+    @Test public void testTrayectoriaMinima() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        grafica.agrega(total);
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        Lista<Integer> lista = new Lista<Integer>();
+        lista.agrega(0);
+        Assert.assertTrue(lista.equals(
+                              elementos(compacta.trayectoriaMinima(0, 0))));
+        for (int i = 1; i < total; i++)
+            grafica.conecta(i-1, i);
+        compacta = new GraficaCompacta<Integer>(grafica);
+        for (int i = 1; i < total; i++) {
+            lista.agrega(i);
+            Assert.assertTrue(lista.equals(
+                                  elementos(compacta.trayectoriaMinima(0, i))));
+        }
+        Assert.assertTrue(compacta.trayectoriaMinima(0, total).esVacia());
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCompacta#dijkstra}.
+     */
+    @Test public void testDijkstra() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++) {
+            for (int j = i+1; j < total; j++) {
+                double peso = (i + 1 == j) ? 1 :
+                    total * 5.0 + random.nextDouble() * total * 5.0;
+                grafica.conecta(i, j, peso);
+            }
+        }
+        grafica.agrega(total);
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        Lista<Integer> lista = new Lista<Integer>();
+        for (int i = 0; i < total; i++) {
+            lista.agrega(i);
+            Assert.assertTrue(lista.equals(elementos(compacta.dijkstra(0, i))));
+        }
+        Assert.assertTrue(compacta.dijkstra(0, total).esVacia());
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = i + 1; j < total; j++)
+                if (random.nextInt(4) == 0)
+                    grafica.conecta(i, j, 1 + random.nextInt(20));
+        compacta = new GraficaCompacta<Integer>(grafica);
+        for (int i = 0; i < total; i++) {
+            Lista<VerticeGrafica<Integer>> d = grafica.dijkstra(0, i);
+            Lista<VerticeGrafica<Integer>> c = compacta.dijkstra(0, i);
+            Assert.assertTrue(d.getElementos() == 0 ==
+                              (c.getElementos() == 0));
+            Assert.assertTrue(peso(compacta, c) == peso(compacta, d));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCompacta#iterator}.
+     */
+    @Test public void testIterator() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        Iterator<Integer> iterador = compacta.iterator();
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(iterador.next() == compacta.elemento(i));
+        Assert.assertFalse(iterador.hasNext());
+        try {
+            iterador.next();
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+}
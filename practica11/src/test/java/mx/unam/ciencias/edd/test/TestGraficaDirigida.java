@@ -0,0 +1,338 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.Color;
+import mx.unam.ciencias.edd.GraficaDirigida;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.VerticeGrafica;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link GraficaDirigida}.
+ */
+public class TestGraficaDirigida {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private GraficaDirigida<Integer> grafica;
+
+    /**
+     * Crea una gráfica dirigida para cada prueba.
+     */
+    public TestGraficaDirigida() {
+        random = new Random();
+        total = 3 + random.nextInt(100);
+        grafica = new GraficaDirigida<Integer>();
+    }
+
+    /* Llena la gráfica con aristas aleatorias; si acíclica es verdadero,
+     * todas van de un elemento menor a uno mayor. */
+    private void llena(boolean aciclica) {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = 0; j < total; j++)
+                if (i != j && (!aciclica || i < j) &&
+                    random.nextInt(total) < 2)
+                    grafica.conecta(i, j, 1 + random.nextInt(20));
+    }
+
+    /* Regresa el peso de una trayectoria. */
+    private double peso(Lista<VerticeGrafica<Integer>> trayectoria) {
+        double peso = 0;
+        Integer anterior = null;
+        for (VerticeGrafica<Integer> v : trayectoria) {
+            if (anterior != null)
+                peso += grafica.getPeso(anterior, v.get());
+            anterior = v.get();
+        }
+        return peso;
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#agrega} y {@link
+     * GraficaDirigida#contiene}.
+     */
+    @Test public void testAgrega() {
+        Assert.assertTrue(grafica.esVacia());
+        for (int i = 0; i < total; i++) {
+            grafica.agrega(i);
+            Assert.assertTrue(grafica.contiene(i));
+            Assert.assertTrue(grafica.getElementos() == i + 1);
+        }
+        Assert.assertFalse(grafica.contiene(total));
+        try {
+            grafica.agrega(0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            grafica.agrega(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#conecta}, {@link
+     * GraficaDirigida#sonVecinos} y {@link GraficaDirigida#getPeso}.
+     */
+    @Test public void testConecta() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++) {
+            grafica.conecta(i - 1, i, i);
+            Assert.assertTrue(grafica.getAristas() == i);
+            Assert.assertTrue(grafica.sonVecinos(i - 1, i));
+            Assert.assertFalse(grafica.sonVecinos(i, i - 1));
+            Assert.assertTrue(grafica.getPeso(i - 1, i) == i);
+        }
+        grafica.conecta(1, 0);
+        Assert.assertTrue(grafica.sonVecinos(1, 0));
+        Assert.assertTrue(grafica.getPeso(1, 0) == 1);
+        Assert.assertTrue(grafica.getAristas() == total);
+        grafica.setPeso(1, 0, 5);
+        Assert.assertTrue(grafica.getPeso(1, 0) == 5);
+        Assert.assertTrue(grafica.getPeso(0, 1) == 1);
+        try {
+            grafica.conecta(0, 1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            grafica.conecta(0, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            grafica.conecta(2, 0, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            grafica.conecta(0, total);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            grafica.getPeso(2, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#desconecta} y {@link
+     * GraficaDirigida#elimina}.
+     */
+    @Test public void testDesconecta() {
+        llena(false);
+        int aristas = grafica.getAristas();
+        for (int i = 0; i < total; i++)
+            for (int j = 0; j < total; j++)
+                if (grafica.sonVecinos(i, j) && random.nextBoolean()) {
+                    grafica.desconecta(i, j);
+                    Assert.assertFalse(grafica.sonVecinos(i, j));
+                    Assert.assertTrue(grafica.getAristas() == --aristas);
+                }
+        try {
+            grafica.desconecta(0, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        int v = random.nextInt(total);
+        int salida = grafica.vertice(v).getGrado();
+        int entrada = grafica.getGradoEntrada(v);
+        grafica.elimina(v);
+        Assert.assertFalse(grafica.contiene(v));
+        Assert.assertTrue(grafica.getAristas() == aristas - salida - entrada);
+        for (Integer i : grafica) {
+            for (VerticeGrafica<Integer> w : grafica.vertice(i).vecinos())
+                Assert.assertFalse(w.get() == v);
+            for (VerticeGrafica<Integer> w : grafica.entrantes(i))
+                Assert.assertFalse(w.get() == v);
+        }
+        try {
+            grafica.elimina(v);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#vertice} y {@link
+     * GraficaDirigida#entrantes}.
+     */
+    @Test public void testVertice() {
+        llena(false);
+        int aristas = 0;
+        for (int i = 0; i < total; i++) {
+            VerticeGrafica<Integer> v = grafica.vertice(i);
+            Assert.assertTrue(v.get() == i);
+            Assert.assertTrue(v.getColor() == Color.NINGUNO);
+            int grado = 0;
+            for (VerticeGrafica<Integer> w : v.vecinos()) {
+                Assert.assertTrue(grafica.sonVecinos(i, w.get()));
+                grado++;
+            }
+            Assert.assertTrue(grado == v.getGrado());
+            grado = 0;
+            for (VerticeGrafica<Integer> w : grafica.entrantes(i)) {
+                Assert.assertTrue(grafica.sonVecinos(w.get(), i));
+                grado++;
+            }
+            Assert.assertTrue(grado == grafica.getGradoEntrada(i));
+            aristas += grado;
+            grafica.setColor(v, Color.ROJO);
+            Assert.assertTrue(v.getColor() == Color.ROJO);
+        }
+        Assert.assertTrue(aristas == grafica.getAristas());
+        try {
+            grafica.setColor(null, Color.ROJO);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#bfs} y {@link
+     * GraficaDirigida#dfs}.
+     */
+    @Test public void testRecorridos() {
+        for (int i = 0; i < 7; i++)
+            grafica.agrega(i);
+        grafica.conecta(0, 1);
+        grafica.conecta(0, 2);
+        grafica.conecta(1, 3);
+        grafica.conecta(1, 4);
+        grafica.conecta(3, 5);
+        grafica.conecta(3, 6);
+        grafica.conecta(5, 1);
+        int[] c = { 0 };
+        int[] a = { 0, 1, 2, 3, 4, 5, 6 };
+        grafica.bfs(0, v -> Assert.assertTrue(v.get() == a[c[0]++]));
+        Assert.assertTrue(c[0] == 7);
+        c[0] = 0;
+        int[] b = { 0, 2, 1, 4, 3, 6, 5 };
+        grafica.dfs(0, v -> Assert.assertTrue(v.get() == b[c[0]++]));
+        Assert.assertTrue(c[0] == 7);
+        c[0] = 0;
+        grafica.bfs(3, v -> c[0]++);
+        Assert.assertTrue(c[0] == 5);
+        c[0] = 0;
+        grafica.dfs(6, v -> c[0]++);
+        Assert.assertTrue(c[0] == 1);
+        grafica.paraCadaVertice(v -> Assert.assertTrue(v.getColor() ==
+                                                       Color.NINGUNO));
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#trayectoriaMinima} y
+     * {@link GraficaDirigida#dijkstra}, contra Floyd-Warshall.
+     */
+    @Test public void testDijkstra() {
+        llena(false);
+        double[][] d = new double[total][total];
+        for (int i = 0; i < total; i++)
+            for (int j = 0; j < total; j++)
+                d[i][j] = i == j ? 0 : grafica.sonVecinos(i, j) ?
+                    grafica.getPeso(i, j) : Double.POSITIVE_INFINITY;
+        for (int k = 0; k < total; k++)
+            for (int i = 0; i < total; i++)
+                for (int j = 0; j < total; j++)
+                    d[i][j] = Math.min(d[i][j], d[i][k] + d[k][j]);
+        int s = random.nextInt(total);
+        for (int t = 0; t < total; t++) {
+            Lista<VerticeGrafica<Integer>> trayectoria = grafica.dijkstra(s, t);
+            Lista<VerticeGrafica<Integer>> saltos =
+                grafica.trayectoriaMinima(s, t);
+            if (d[s][t] == Double.POSITIVE_INFINITY) {
+                Assert.assertTrue(trayectoria.esVacia());
+                Assert.assertTrue(saltos.esVacia());
+                continue;
+            }
+            Assert.assertTrue(trayectoria.getPrimero().get() == s);
+            Assert.assertTrue(trayectoria.getUltimo().get() == t);
+            Assert.assertTrue(peso(trayectoria) == d[s][t]);
+            Assert.assertTrue(saltos.getPrimero().get() == s);
+            Assert.assertTrue(saltos.getUltimo().get() == t);
+            Assert.assertTrue(saltos.getElementos() <=
+                              trayectoria.getElementos());
+            peso(saltos);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#ordenTopologico}.
+     */
+    @Test public void testOrdenTopologico() {
+        llena(true);
+        Assert.assertTrue(grafica.esAciclica());
+        Assert.assertTrue(grafica.ciclo().esVacia());
+        Lista<Integer> orden = grafica.ordenTopologico();
+        Assert.assertTrue(orden.getElementos() == total);
+        int[] posiciones = new int[total];
+        int k = 0;
+        for (Integer i : orden)
+            posiciones[i] = k++;
+        for (int i = 0; i < total; i++)
+            for (int j = 0; j < total; j++)
+                if (grafica.sonVecinos(i, j))
+                    Assert.assertTrue(posiciones[i] < posiciones[j]);
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#ciclo}.
+     */
+    @Test public void testCiclo() {
+        llena(true);
+        int a = random.nextInt(total - 1);
+        int b = a + 1 + random.nextInt(total - a - 1);
+        if (!grafica.sonVecinos(a, b))
+            grafica.conecta(a, b);
+        grafica.conecta(b, a);
+        Assert.assertFalse(grafica.esAciclica());
+        try {
+            grafica.ordenTopologico();
+            Assert.fail();
+        } catch (IllegalStateException ise) {}
+        Lista<Integer> ciclo = grafica.ciclo();
+        Assert.assertTrue(ciclo.getElementos() >= 2);
+        Iterator<Integer> iterador = ciclo.iterator();
+        Integer anterior = ciclo.getUltimo();
+        boolean[] vistos = new boolean[total];
+        while (iterador.hasNext()) {
+            Integer v = iterador.next();
+            Assert.assertFalse(vistos[v]);
+            vistos[v] = true;
+            Assert.assertTrue(grafica.sonVecinos(anterior, v));
+            anterior = v;
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#equals}, {@link
+     * GraficaDirigida#hashCode} y {@link GraficaDirigida#toString}.
+     */
+    @Test public void testEquals() {
+        GraficaDirigida<Integer> otra = new GraficaDirigida<Integer>();
+        Assert.assertTrue(grafica.equals(otra));
+        for (int i = 0; i < 3; i++) {
+            grafica.agrega(i);
+            otra.agrega(i);
+        }
+        grafica.conecta(0, 1);
+        otra.conecta(1, 0);
+        Assert.assertFalse(grafica.equals(otra));
+        otra.desconecta(1, 0);
+        otra.conecta(0, 1);
+        Assert.assertTrue(grafica.equals(otra));
+        Assert.assertTrue(grafica.hashCode() == otra.hashCode());
+        Assert.assertFalse(grafica.equals(null));
+        Assert.assertTrue(grafica.toString().equals("{0, 1, 2, }, {(0, 1), }"));
+        grafica.limpia();
+        Assert.assertTrue(grafica.esVacia());
+        Assert.assertTrue(grafica.getAristas() == 0);
+    }
+}
@@ -0,0 +1,304 @@
+package mx.unam.ciencias.edd.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.CargadorAristas;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import mx.unam.ciencias.edd.FormatoAristas;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCompacta;
+import mx.unam.ciencias.edd.GraficaMapeada;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.VerticeGrafica;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link GraficaMapeada}.
+ */
+public class TestGraficaMapeada {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+    /* El archivo de la gráfica. */
+    private File archivo;
+
+    /**
+     * Crea una gráfica aleatoria para cada prueba, con pesos enteros.
+     * @throws IOException si no se puede crear el archivo de la gráfica.
+     */
+    public TestGraficaMapeada() throws IOException {
+        random = new Random();
+        total = 2 + random.nextInt(100);
+        grafica = new Grafica<Integer>();
+        UtilTestGrafica.llena(grafica, total, 3, 10, random);
+        archivo = File.createTempFile("grafica", ".edd");
+    }
+
+    /**
+     * Borra el archivo de la gráfica.
+     */
+    @After public void borra() {
+        archivo.delete();
+    }
+
+    /* Regresa la lista de elementos de un recorrido o una trayectoria. */
+    private <T> Lista<T> elementos(Iterable<VerticeGrafica<T>> l) {
+        Lista<T> r = new Lista<T>();
+        for (VerticeGrafica<T> v : l)
+            r.agrega(v.get());
+        return r;
+    }
+
+    /* Valida que la gráfica mapeada sea igual a la gráfica compacta, con los
+     * mismos índices. */
+    private <T> void valida(GraficaCompacta<T> compacta,
+                            GraficaMapeada<T> mapeada) {
+        int n = compacta.getElementos();
+        Assert.assertTrue(mapeada.getElementos() == n);
+        Assert.assertTrue(mapeada.getAristas() == compacta.getAristas());
+        Assert.assertTrue(mapeada.esVacia() == compacta.esVacia());
+        for (int i = 0; i < n; i++) {
+            T a = compacta.elemento(i);
+            Assert.assertEquals(a, mapeada.elemento(i));
+            Assert.assertTrue(mapeada.contiene(a));
+            Assert.assertTrue(mapeada.indice(a) == i);
+            Assert.assertTrue(mapeada.grado(i) == compacta.grado(i));
+            Assert.assertTrue(mapeada.vertice(a).getGrado() ==
+                              compacta.grado(i));
+            for (int j = 0; j < n; j++) {
+                T b = compacta.elemento(j);
+                Assert.assertTrue(mapeada.sonVecinos(a, b) ==
+                                  compacta.sonVecinos(a, b));
+                if (compacta.sonVecinos(a, b))
+                    Assert.assertTrue(mapeada.getPeso(a, b) ==
+                                      compacta.getPeso(a, b));
+            }
+        }
+        Lista<T> l = new Lista<T>();
+        for (T elemento : mapeada)
+            l.agrega(elemento);
+        Lista<T> r = new Lista<T>();
+        for (T elemento : compacta)
+            r.agrega(elemento);
+        Assert.assertEquals(r, l);
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaMapeada#guarda} y {@link
+     * GraficaMapeada#carga}.
+     * @throws IOException si ocurre un error de entrada/salida.
+     */
+    @Test public void testGuardaCarga() throws IOException {
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        GraficaMapeada.guarda(compacta, archivo.getPath());
+        GraficaMapeada<Integer> mapeada =
+            GraficaMapeada.carga(archivo.getPath());
+        valida(compacta, mapeada);
+        Assert.assertFalse(mapeada.contiene(total));
+        Assert.assertFalse(mapeada.contiene(null));
+        try {
+            mapeada.indice(total);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            mapeada.elemento(total);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        GraficaMapeada.guarda(new Grafica<Integer>(), archivo.getPath());
+        mapeada = GraficaMapeada.carga(archivo.getPath());
+        Assert.assertTrue(mapeada.esVacia());
+        Assert.assertTrue(mapeada.getAristas() == 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaMapeada#carga} con elementos que no
+     * son enteros.
+     * @throws IOException si ocurre un error de entrada/salida.
+     */
+    @Test public void testCargaCadenas() throws IOException {
+        Grafica<String> cadenas = new Grafica<String>();
+        for (int i = 0; i < total; i++)
+            cadenas.agrega("v" + i);
+        for (int i = 0; i < total; i++)
+            for (int j = 0; j < total; j++)
+                if (i < j && grafica.sonVecinos(i, j))
+                    cadenas.conecta("v" + i, "v" + j, grafica.getPeso(i, j));
+        GraficaMapeada.guarda(cadenas, archivo.getPath());
+        GraficaMapeada<String> mapeada =
+            GraficaMapeada.carga(archivo.getPath());
+        valida(new GraficaCompacta<String>(cadenas), mapeada);
+        Assert.assertFalse(mapeada.contiene("v" + total));
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaMapeada#carga} con los enteros en
+     * orden creciente de {@link CargadorAristas}.
+     * @throws IOException si ocurre un error de entrada/salida.
+     */
+    @Test public void testCargaOrdenados() throws IOException {
+        StringBuilder aristas = new StringBuilder();
+        for (int i = 0; i < total; i++)
+            for (int j = 0; j < total; j++)
+                if (i < j && grafica.sonVecinos(i, j))
+                    aristas.append(String.format("%d %d %d\n", 7 * i - 50,
+                                                 7 * j - 50,
+                                                 (int)grafica.getPeso(i, j)));
+        Files.write(archivo.toPath(),
+                    aristas.toString().getBytes(StandardCharsets.UTF_8));
+        GraficaCompacta<Integer> compacta =
+            new CargadorAristas().carga(archivo.getPath(),
+                                        FormatoAristas.TEXTO, false);
+        GraficaMapeada.guarda(compacta, archivo.getPath());
+        GraficaMapeada<Integer> mapeada =
+            GraficaMapeada.carga(archivo.getPath());
+        valida(compacta, mapeada);
+        Assert.assertFalse(mapeada.contiene(7 * total - 50));
+        Assert.assertFalse(mapeada.contiene(-49));
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaMapeada#compacta}.
+     * @throws IOException si ocurre un error de entrada/salida.
+     */
+    @Test public void testCompacta() throws IOException {
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        GraficaMapeada.guarda(compacta, archivo.getPath());
+        GraficaMapeada<Integer> mapeada =
+            GraficaMapeada.carga(archivo.getPath());
+        GraficaMapeada.guarda(mapeada.compacta(), archivo.getPath());
+        valida(compacta, GraficaMapeada.<Integer>carga(archivo.getPath()));
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaMapeada#bfs} y {@link
+     * GraficaMapeada#dfs}.
+     * @throws IOException si ocurre un error de entrada/salida.
+     */
+    @Test public void testRecorridos() throws IOException {
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        GraficaMapeada.guarda(compacta, archivo.getPath());
+        GraficaMapeada<Integer> mapeada =
+            GraficaMapeada.carga(archivo.getPath());
+        int origen = random.nextInt(total);
+        Lista<Integer> l = new Lista<Integer>();
+        Lista<Integer> r = new Lista<Integer>();
+        mapeada.bfs(origen, v -> l.agrega(v.get()));
+        compacta.bfs(origen, v -> r.agrega(v.get()));
+        Assert.assertEquals(r, l);
+        l.limpia();
+        r.limpia();
+        mapeada.dfs(origen, v -> l.agrega(v.get()));
+        compacta.dfs(origen, v -> r.agrega(v.get()));
+        Assert.assertEquals(r, l);
+        l.limpia();
+        r.limpia();
+        for (VerticeGrafica<Integer> v : mapeada.vertice(origen).vecinos())
+            l.agrega(v.get());
+        for (VerticeGrafica<Integer> v : compacta.vertice(origen).vecinos())
+            r.agrega(v.get());
+        Assert.assertEquals(r, l);
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaMapeada#trayectoriaMinima}, {@link
+     * GraficaMapeada#dijkstra} y {@link GraficaMapeada#distancias}.
+     * @throws IOException si ocurre un error de entrada/salida.
+     */
+    @Test public void testTrayectorias() throws IOException {
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        GraficaMapeada.guarda(compacta, archivo.getPath());
+        GraficaMapeada<Integer> mapeada =
+            GraficaMapeada.carga(archivo.getPath());
+        for (int i = 0; i < 10; i++) {
+            int a = random.nextInt(total), b = random.nextInt(total);
+            Assert.assertEquals(elementos(compacta.trayectoriaMinima(a, b)),
+                                elementos(mapeada.trayectoriaMinima(a, b)));
+            Assert.assertEquals(elementos(compacta.dijkstra(a, b)),
+                                elementos(mapeada.dijkstra(a, b)));
+            Assert.assertTrue(Arrays.equals(compacta.distancias(a),
+                                            mapeada.distancias(a)));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaMapeada#carga} con archivos
+     * inválidos, incluyendo destinos fuera de rango y pesos no positivos, y
+     * para {@link GraficaMapeada#guarda} con elementos que no se pueden
+     * guardar.
+     * @throws IOException si ocurre un error de entrada/salida.
+     */
+    @Test public void testCargaInvalida() throws IOException {
+        GraficaMapeada.guarda(grafica, archivo.getPath());
+        byte[] bytes = Files.readAllBytes(archivo.toPath());
+        byte[][] invalidos = {
+            new byte[0],
+            Arrays.copyOf(bytes, 63),
+            Arrays.copyOf(bytes, bytes.length - 1),
+            bytes.clone(),
+            bytes.clone()
+        };
+        invalidos[3][0] ^= 1;
+        invalidos[4][random.nextInt(8) + 48] ^= 4;
+        for (byte[] invalido : invalidos) {
+            Files.write(archivo.toPath(), invalido);
+            try {
+                GraficaMapeada.carga(archivo.getPath());
+                Assert.fail();
+            } catch (IOException ioe) {}
+        }
+        ByteBuffer cabecera = ByteBuffer.wrap(bytes);
+        cabecera.order(ByteOrder.LITTLE_ENDIAN);
+        for (int destino : new int[] { -1, total }) {
+            if (cabecera.getLong(16) == 0)
+                break;
+            byte[] invalido = bytes.clone();
+            ByteBuffer.wrap(invalido).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt((int)cabecera.getLong(48), destino);
+            Files.write(archivo.toPath(), invalido);
+            try {
+                GraficaMapeada.carga(archivo.getPath());
+                Assert.fail();
+            } catch (IOException ioe) {}
+        }
+        for (double peso : new double[] { -1, 0, Double.NaN }) {
+            if (cabecera.getLong(16) == 0)
+                break;
+            byte[] invalido = bytes.clone();
+            ByteBuffer.wrap(invalido).order(ByteOrder.LITTLE_ENDIAN)
+                .putDouble((int)cabecera.getLong(56), peso);
+            Files.write(archivo.toPath(), invalido);
+            try {
+                GraficaMapeada.carga(archivo.getPath());
+                Assert.fail();
+            } catch (IOException ioe) {}
+        }
+        Grafica<Object> objetos = new Grafica<Object>();
+        objetos.agrega(new StringBuilder("a"));
+        try {
+            GraficaMapeada.guarda(objetos, archivo.getPath());
+            Assert.fail();
+        } catch (IOException ioe) {}
+    }
+}
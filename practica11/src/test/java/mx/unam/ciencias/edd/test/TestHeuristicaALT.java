@@ -0,0 +1,148 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCompacta;
+import mx.unam.ciencias.edd.HeuristicaALT;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.VerticeGrafica;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link HeuristicaALT}.
+ */
+public class TestHeuristicaALT {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica aleatoria para cada prueba.
+     */
+    public TestHeuristicaALT() {
+        random = new Random();
+        total = 10 + random.nextInt(90);
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++)
+            grafica.conecta(random.nextInt(i), i, 1 + random.nextInt(20));
+        for (int i = 0; i < total; i++) {
+            int a = random.nextInt(total), b = random.nextInt(total);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b, 1 + random.nextInt(20));
+        }
+    }
+
+    /* Regresa el peso de una trayectoria. */
+    private double peso(Lista<VerticeGrafica<Integer>> trayectoria) {
+        double peso = 0;
+        VerticeGrafica<Integer> anterior = null;
+        for (VerticeGrafica<Integer> v : trayectoria) {
+            if (anterior != null)
+                peso += grafica.getPeso(anterior.get(), v.get());
+            anterior = v;
+        }
+        return peso;
+    }
+
+    /**
+     * Prueba unitaria para {@link HeuristicaALT#HeuristicaALT}.
+     */
+    @Test public void testConstructor() {
+        HeuristicaALT<Integer> alt = new HeuristicaALT<Integer>(grafica, 4);
+        Lista<Integer> marcas = alt.getMarcas();
+        Assert.assertTrue(marcas.getLongitud() == 4);
+        boolean[] vistas = new boolean[total];
+        for (Integer marca : marcas) {
+            Assert.assertFalse(vistas[marca]);
+            vistas[marca] = true;
+        }
+        alt = new HeuristicaALT<Integer>(grafica, total * 2);
+        Assert.assertTrue(alt.getMarcas().getLongitud() == total);
+        try {
+            new HeuristicaALT<Integer>(grafica, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link HeuristicaALT#getMarcas} en gráficas
+     * disconexas.
+     */
+    @Test public void testGetMarcas() {
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 2; i < total; i++)
+            grafica.conecta(i - 2, i);
+        HeuristicaALT<Integer> alt = new HeuristicaALT<Integer>(grafica, 2);
+        int pares = 0;
+        for (Integer marca : alt.getMarcas())
+            if (marca % 2 == 0)
+                pares++;
+        Assert.assertTrue(pares == 1);
+    }
+
+    /**
+     * Prueba unitaria para {@link HeuristicaALT#estima}.
+     */
+    @Test public void testEstima() {
+        HeuristicaALT<Integer> alt = new HeuristicaALT<Integer>(grafica, 3);
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        for (int i = 0; i < total; i++) {
+            double[] d = compacta.distancias(i);
+            VerticeGrafica<Integer> t = grafica.vertice(i);
+            Assert.assertTrue(alt.estima(t, t) == 0);
+            for (int j = 0; j < total; j++) {
+                VerticeGrafica<Integer> v = grafica.vertice(j);
+                double h = alt.estima(v, t);
+                Assert.assertTrue(h >= 0);
+                Assert.assertTrue(h <= d[compacta.indice(j)]);
+                for (VerticeGrafica<Integer> w : v.vecinos())
+                    Assert.assertTrue(h <= grafica.getPeso(j, w.get()) +
+                                      alt.estima(w, t));
+            }
+        }
+        for (Integer marca : alt.getMarcas()) {
+            VerticeGrafica<Integer> m = grafica.vertice(marca);
+            double[] d = compacta.distancias(marca);
+            for (int j = 0; j < total; j++)
+                Assert.assertTrue(alt.estima(grafica.vertice(j), m) ==
+                                  d[compacta.indice(j)]);
+        }
+        grafica.agrega(total);
+        try {
+            alt.estima(grafica.vertice(total), grafica.vertice(0));
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link HeuristicaALT} con {@link
+     * mx.unam.ciencias.edd.Grafica#aEstrella}.
+     */
+    @Test public void testAEstrella() {
+        HeuristicaALT<Integer> alt = new HeuristicaALT<Integer>(grafica, 4);
+        for (int i = 0; i < total; i++) {
+            int a = random.nextInt(total), b = random.nextInt(total);
+            Lista<VerticeGrafica<Integer>> d = grafica.dijkstra(a, b);
+            Lista<VerticeGrafica<Integer>> ae = grafica.aEstrella(a, b, alt);
+            Assert.assertTrue(peso(d) == peso(ae));
+            Assert.assertTrue(ae.getPrimero().get() == a);
+            Assert.assertTrue(ae.getUltimo().get() == b);
+        }
+    }
+}
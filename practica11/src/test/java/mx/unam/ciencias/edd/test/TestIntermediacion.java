@@ -0,0 +1,155 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCompacta;
+import mx.unam.ciencias.edd.Intermediacion;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link Intermediacion}.
+ */
+public class TestIntermediacion {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+    /* La gráfica compacta. */
+    private GraficaCompacta<Integer> compacta;
+
+    /**
+     * Crea una gráfica aleatoria para cada prueba, con pesos enteros
+     * repetidos para que haya varias trayectorias mínimas.
+     */
+    public TestIntermediacion() {
+        random = new Random();
+        total = 1 + random.nextInt(40);
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = i + 1; j < total; j++)
+                if (random.nextInt(total) < 4)
+                    grafica.conecta(i, j, 1 + random.nextInt(3));
+        compacta = new GraficaCompacta<Integer>(grafica);
+    }
+
+    /* Calcula la intermediación por fuerza bruta: cuenta las trayectorias
+     * mínimas entre cada par y las que pasan por cada vértice. */
+    private double[] intermediacion(boolean pesos) {
+        double[][] d = new double[total][total];
+        double[][] sigma = new double[total][total];
+        for (int s = 0; s < total; s++) {
+            for (int t = 0; t < total; t++)
+                d[s][t] = (s == t) ? 0 : Double.POSITIVE_INFINITY;
+            for (int t = 0; t < total; t++)
+                if (grafica.sonVecinos(s, t))
+                    d[s][t] = pesos ? grafica.getPeso(s, t) : 1;
+        }
+        for (int k = 0; k < total; k++)
+            for (int s = 0; s < total; s++)
+                for (int t = 0; t < total; t++)
+                    d[s][t] = Math.min(d[s][t], d[s][k] + d[k][t]);
+        for (int s = 0; s < total; s++) {
+            Integer[] orden = new Integer[total];
+            for (int t = 0; t < total; t++)
+                orden[t] = t;
+            final int f = s;
+            Arrays.sort(orden, (a, b) -> Double.compare(d[f][a], d[f][b]));
+            sigma[s][s] = 1;
+            for (int t : orden)
+                for (int u = 0; u < total; u++)
+                    if (grafica.sonVecinos(u, t) &&
+                        d[s][u] + (pesos ? grafica.getPeso(u, t) : 1) ==
+                        d[s][t])
+                        sigma[s][t] += sigma[s][u];
+        }
+        double[] b = new double[total];
+        for (int v = 0; v < total; v++)
+            for (int s = 0; s < total; s++)
+                for (int t = s + 1; t < total; t++)
+                    if (s != v && t != v && sigma[s][t] > 0 &&
+                        d[s][v] + d[v][t] == d[s][t])
+                        b[v] += sigma[s][v] * sigma[v][t] / sigma[s][t];
+        return b;
+    }
+
+    /* Compara la intermediación calculada contra la esperada. */
+    private void compara(double[] calculada, double[] esperada) {
+        Assert.assertTrue(calculada.length == total);
+        for (int v = 0; v < total; v++)
+            Assert.assertTrue(Math.abs(calculada[compacta.indice(v)] -
+                                       esperada[v]) < 1e-6);
+    }
+
+    /**
+     * Prueba unitaria para {@link Intermediacion#exacta} sin pesos.
+     */
+    @Test public void testExactaSinPesos() {
+        double[] esperada = intermediacion(false);
+        compara(new Intermediacion<Integer>(compacta, false).exacta(),
+                esperada);
+        compara(new Intermediacion<Integer>(compacta, false,
+                                            new ForkJoinPool(4)).exacta(),
+                esperada);
+        try {
+            new Intermediacion<Integer>(compacta, false, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Intermediacion#exacta} con pesos.
+     */
+    @Test public void testExactaConPesos() {
+        double[] esperada = intermediacion(true);
+        compara(new Intermediacion<Integer>(compacta, true).exacta(),
+                esperada);
+        compara(new Intermediacion<Integer>(compacta, true,
+                                            new ForkJoinPool(4)).exacta(),
+                esperada);
+    }
+
+    /**
+     * Prueba unitaria para {@link Intermediacion#aproximada} y {@link
+     * Intermediacion#muestras}.
+     */
+    @Test public void testAproximada() {
+        double epsilon = 0.1;
+        int k = Intermediacion.muestras(total, epsilon, 1e-6);
+        Assert.assertTrue(k > Intermediacion.muestras(total, 2 * epsilon,
+                                                      1e-6));
+        double[] esperada = intermediacion(false);
+        double[] aproximada =
+            new Intermediacion<Integer>(compacta, false).aproximada(k, random);
+        Assert.assertTrue(aproximada.length == total);
+        for (int v = 0; v < total; v++)
+            Assert.assertTrue(Math.abs(aproximada[compacta.indice(v)] -
+                                       esperada[v]) <=
+                              epsilon * total * Math.max(total - 2, 0) / 2 +
+                              1e-9);
+        try {
+            new Intermediacion<Integer>(compacta, false).aproximada(0, random);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            Intermediacion.muestras(total, 0, 0.5);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            Intermediacion.muestras(total, 0.1, 1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+}
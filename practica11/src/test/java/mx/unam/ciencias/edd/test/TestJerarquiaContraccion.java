@@ -0,0 +1,175 @@
+package mx.unam.ciencias.edd.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCompacta;
+import mx.unam.ciencias.edd.JerarquiaContraccion;
+import mx.unam.ciencias.edd.Lista;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link JerarquiaContraccion}.
+ */
+public class TestJerarquiaContraccion {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica aleatoria para cada prueba.
+     */
+    public TestJerarquiaContraccion() {
+        random = new Random();
+        total = 10 + random.nextInt(90);
+        grafica = new Grafica<Integer>();
+        UtilTestGrafica.llena(grafica, total, 2, 20, random);
+    }
+
+    /* Verifica que la trayectoria vaya de a a b y tenga el peso dado. */
+    private void verifica(Lista<Integer> trayectoria, int a, int b,
+                          double peso) {
+        if (peso == Double.POSITIVE_INFINITY) {
+            Assert.assertTrue(trayectoria.esVacia());
+            return;
+        }
+        Assert.assertTrue(trayectoria.getPrimero() == a);
+        Assert.assertTrue(trayectoria.getUltimo() == b);
+        double suma = 0;
+        Integer anterior = null;
+        for (Integer v : trayectoria) {
+            if (anterior != null)
+                suma += grafica.getPeso(anterior, v);
+            anterior = v;
+        }
+        Assert.assertTrue(suma == peso);
+    }
+
+    /**
+     * Prueba unitaria para {@link JerarquiaContraccion#JerarquiaContraccion}.
+     */
+    @Test public void testConstructor() {
+        JerarquiaContraccion<Integer> jerarquia =
+            new JerarquiaContraccion<Integer>(grafica);
+        Assert.assertTrue(jerarquia.getElementos() == total);
+        Assert.assertTrue(jerarquia.getAtajos() >= 0);
+        jerarquia = new JerarquiaContraccion<Integer>(new Grafica<Integer>());
+        Assert.assertTrue(jerarquia.getElementos() == 0);
+        Assert.assertTrue(jerarquia.getAtajos() == 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link JerarquiaContraccion#distancia}.
+     */
+    @Test public void testDistancia() {
+        JerarquiaContraccion<Integer> jerarquia =
+            new JerarquiaContraccion<Integer>(grafica);
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        for (int i = 0; i < total; i++) {
+            double[] d = compacta.distancias(i);
+            for (int j = 0; j < total; j++)
+                Assert.assertTrue(jerarquia.distancia(i, j) ==
+                                  d[compacta.indice(j)]);
+        }
+        try {
+            jerarquia.distancia(0, total);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            jerarquia.distancia(null, 0);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link JerarquiaContraccion#trayectoria}.
+     */
+    @Test public void testTrayectoria() {
+        JerarquiaContraccion<Integer> jerarquia =
+            new JerarquiaContraccion<Integer>(grafica);
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        for (int i = 0; i < total; i++) {
+            double[] d = compacta.distancias(i);
+            for (int j = 0; j < total; j++)
+                verifica(jerarquia.trayectoria(i, j), i, j,
+                         d[compacta.indice(j)]);
+        }
+        Lista<Integer> trayectoria = jerarquia.trayectoria(0, 0);
+        Assert.assertTrue(trayectoria.getLongitud() == 1);
+        Assert.assertTrue(trayectoria.getPrimero() == 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link JerarquiaContraccion#trayectoria} en una
+     * malla, donde se necesitan muchos atajos anidados.
+     */
+    @Test public void testTrayectoriaMalla() {
+        int lado = 5 + random.nextInt(20);
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < lado * lado; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < lado; i++) {
+            for (int j = 0; j < lado; j++) {
+                int v = i * lado + j;
+                if (j + 1 < lado)
+                    grafica.conecta(v, v + 1, 1 + random.nextInt(10));
+                if (i + 1 < lado)
+                    grafica.conecta(v, v + lado, 1 + random.nextInt(10));
+            }
+        }
+        JerarquiaContraccion<Integer> jerarquia =
+            new JerarquiaContraccion<Integer>(grafica);
+        Assert.assertTrue(jerarquia.getAtajos() > 0);
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        for (int k = 0; k < lado; k++) {
+            int i = random.nextInt(lado * lado);
+            double[] d = compacta.distancias(i);
+            for (int j = 0; j < lado * lado; j++)
+                verifica(jerarquia.trayectoria(i, j), i, j,
+                         d[compacta.indice(j)]);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link JerarquiaContraccion#guarda} y {@link
+     * JerarquiaContraccion#carga}.
+     */
+    @Test public void testGuardaCarga() throws IOException {
+        JerarquiaContraccion<Integer> jerarquia =
+            new JerarquiaContraccion<Integer>(grafica);
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        jerarquia.guarda(salida);
+        JerarquiaContraccion<Integer> cargada = JerarquiaContraccion.carga(
+            new ByteArrayInputStream(salida.toByteArray()));
+        Assert.assertTrue(cargada.getElementos() == jerarquia.getElementos());
+        Assert.assertTrue(cargada.getAtajos() == jerarquia.getAtajos());
+        for (int i = 0; i < total; i++) {
+            int a = random.nextInt(total), b = random.nextInt(total);
+            Assert.assertTrue(cargada.distancia(a, b) ==
+                              jerarquia.distancia(a, b));
+            Assert.assertTrue(cargada.trayectoria(a, b).equals(
+                                  jerarquia.trayectoria(a, b)));
+        }
+        try {
+            JerarquiaContraccion.carga(
+                new ByteArrayInputStream(new byte[] { 1, 2, 3 }));
+            Assert.fail();
+        } catch (IOException ioe) {}
+    }
+}
@@ -0,0 +1,250 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.MultiDiccionario;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link MultiDiccionario}.
+ */
+public class TestMultiDiccionario {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* El multidiccionario. */
+    private MultiDiccionario<Integer, Integer> diccionario;
+
+    /**
+     * Crea un multidiccionario para cada prueba.
+     */
+    public TestMultiDiccionario() {
+        random = new Random();
+        total = 10 + random.nextInt(90);
+        diccionario = new MultiDiccionario<Integer, Integer>();
+    }
+
+    /**
+     * Prueba unitaria para {@link MultiDiccionario#MultiDiccionario}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(diccionario.esVacia());
+        Assert.assertTrue(diccionario.getElementos() == 0);
+        Assert.assertTrue(diccionario.getLlaves() == 0);
+        Assert.assertFalse(diccionario.iterator().hasNext());
+        Assert.assertFalse(diccionario.iteradorLlaves().hasNext());
+    }
+
+    /**
+     * Prueba unitaria para {@link MultiDiccionario#agrega(Object,Object)}.
+     */
+    @Test public void testAgrega() {
+        for (int i = 0; i < total; i++) {
+            diccionario.agrega(i % 7, i);
+            Assert.assertTrue(diccionario.getElementos() == i+1);
+            Assert.assertTrue(diccionario.contiene(i % 7));
+        }
+        Assert.assertTrue(diccionario.getLlaves() == 7);
+        for (int k = 0; k < 7; k++) {
+            int n = diccionario.getElementos(k);
+            for (int j = 0; j < n; j++)
+                Assert.assertTrue(diccionario.get(k, j) == k + 7 * j);
+        }
+        try {
+            diccionario.agrega(null, 1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            diccionario.agrega(1, (Integer)null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link MultiDiccionario#agrega(Object,Object[])} y
+     * {@link MultiDiccionario#agrega(Object,mx.unam.ciencias.edd.Coleccion)}.
+     */
+    @Test public void testAgregaTodos() {
+        Integer[] a = new Integer[total];
+        Lista<Integer> l = new Lista<Integer>();
+        for (int i = 0; i < total; i++) {
+            a[i] = random.nextInt(total);
+            l.agrega(total + i);
+        }
+        diccionario.agrega(0, 5);
+        diccionario.agrega(0, a);
+        diccionario.agrega(0, l);
+        Assert.assertTrue(diccionario.getElementos() == 2 * total + 1);
+        Assert.assertTrue(diccionario.getElementos(0) == 2 * total + 1);
+        Assert.assertTrue(diccionario.get(0, 0) == 5);
+        for (int i = 0; i < total; i++) {
+            Assert.assertTrue(diccionario.get(0, i + 1).equals(a[i]));
+            Assert.assertTrue(diccionario.get(0, total + i + 1) == total + i);
+        }
+        a[total/2] = null;
+        try {
+            diccionario.agrega(1, a);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        Assert.assertFalse(diccionario.contiene(1));
+        diccionario.agrega(1, new Integer[0]);
+        diccionario.agrega(1, new Lista<Integer>());
+        Assert.assertFalse(diccionario.contiene(1));
+        Assert.assertTrue(diccionario.getElementos() == 2 * total + 1);
+    }
+
+    /**
+     * Prueba unitaria para {@link MultiDiccionario#get}.
+     */
+    @Test public void testGet() {
+        for (int i = 0; i < total; i++)
+            diccionario.agrega(1, i);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(diccionario.get(1, i) == i);
+        try {
+            diccionario.get(1, total);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        try {
+            diccionario.get(1, -1);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        try {
+            diccionario.get(2, 0);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            diccionario.get(null, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link MultiDiccionario#paraCadaValor}.
+     */
+    @Test public void testParaCadaValor() {
+        for (int i = 0; i < total; i++)
+            diccionario.agrega(i % 3, i);
+        for (int k = 0; k < 3; k++) {
+            Lista<Integer> l = new Lista<Integer>();
+            diccionario.paraCadaValor(k, v -> l.agrega(v));
+            Assert.assertTrue(l.getLongitud() == diccionario.getElementos(k));
+            int c = k;
+            for (Integer v : l) {
+                Assert.assertTrue(v == c);
+                c += 3;
+            }
+        }
+        try {
+            diccionario.paraCadaValor(3, v -> {});
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link MultiDiccionario#elimina}.
+     */
+    @Test public void testElimina() {
+        for (int i = 0; i < total; i++)
+            diccionario.agrega(i % 5, i);
+        int n = diccionario.getElementos(2);
+        diccionario.elimina(2);
+        Assert.assertFalse(diccionario.contiene(2));
+        Assert.assertTrue(diccionario.getElementos(2) == 0);
+        Assert.assertTrue(diccionario.getElementos() == total - n);
+        Assert.assertTrue(diccionario.getLlaves() == 4);
+        try {
+            diccionario.elimina(2);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        diccionario.limpia();
+        Assert.assertTrue(diccionario.esVacia());
+        Assert.assertTrue(diccionario.getElementos() == 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link MultiDiccionario#compacta}.
+     */
+    @Test public void testCompacta() {
+        for (int i = 0; i < total; i++)
+            diccionario.agrega(i % 4, i);
+        diccionario.compacta();
+        Assert.assertTrue(diccionario.getElementos() == total);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(diccionario.get(i % 4, i / 4) == i);
+        diccionario.agrega(0, -1);
+        Assert.assertTrue(diccionario.get(0, diccionario.getElementos(0) - 1)
+                          == -1);
+    }
+
+    /**
+     * Prueba unitaria para {@link MultiDiccionario#equals} y {@link
+     * MultiDiccionario#hashCode}.
+     */
+    @Test public void testEquals() {
+        MultiDiccionario<Integer, Integer> otro =
+            new MultiDiccionario<Integer, Integer>(total);
+        Assert.assertTrue(diccionario.equals(otro));
+        for (int i = 0; i < total; i++) {
+            diccionario.agrega(i % 6, i);
+            Assert.assertFalse(diccionario.equals(otro));
+            otro.agrega(i % 6, i);
+            Assert.assertTrue(diccionario.equals(otro));
+            Assert.assertTrue(diccionario.hashCode() == otro.hashCode());
+        }
+        otro.elimina(0);
+        otro.agrega(0, -1);
+        Assert.assertFalse(diccionario.equals(otro));
+        Assert.assertFalse(diccionario.equals(null));
+        Assert.assertFalse(diccionario.equals("una cadena"));
+    }
+
+    /**
+     * Prueba unitaria para {@link MultiDiccionario#iterator}.
+     */
+    @Test public void testIterator() {
+        int[] cuentas = new int[total];
+        for (int i = 0; i < total; i++)
+            diccionario.agrega(i % 9, i);
+        int c = 0;
+        int anterior = -1;
+        for (Integer v : diccionario) {
+            if (anterior != -1 && anterior % 9 == v % 9)
+                Assert.assertTrue(anterior < v);
+            cuentas[v]++;
+            anterior = v;
+            c++;
+        }
+        Assert.assertTrue(c == total);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(cuentas[i] == 1);
+        Iterator<Integer> iterador = diccionario.iterator();
+        while (iterador.hasNext())
+            iterador.next();
+        try {
+            iterador.next();
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link MultiDiccionario#toString}.
+     */
+    @Test public void testToString() {
+        Assert.assertTrue(diccionario.toString().equals("{}"));
+        diccionario.agrega(1, 2);
+        diccionario.agrega(1, 3);
+        Assert.assertTrue(diccionario.toString().equals("{ '1': ['2', '3'], }"));
+    }
+}
@@ -0,0 +1,166 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import mx.unam.ciencias.edd.Diccionario;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCompacta;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.PageRank;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link PageRank}.
+ */
+public class TestPageRank {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica compacta. */
+    private GraficaCompacta<Integer> grafica;
+
+    /**
+     * Crea una gráfica aleatoria para cada prueba, probablemente con varias
+     * componentes y vértices sin vecinos.
+     */
+    public TestPageRank() {
+        random = new Random();
+        total = 1 + random.nextInt(100);
+        Grafica<Integer> g = new Grafica<Integer>();
+        UtilTestGrafica.llena(g, total, 1, random);
+        grafica = new GraficaCompacta<Integer>(g);
+    }
+
+    /* Calcula el PageRank con iteración de potencias directa sobre la
+     * gráfica, con el vector de teletransporte recibido. */
+    private double[] potencias(double[] teletransporte) {
+        double[] rango = teletransporte.clone();
+        for (int k = 0; k < 500; k++) {
+            double[] nuevo = new double[total];
+            for (int u = 0; u < total; u++) {
+                int grado = grafica.grado(u);
+                for (int v = 0; v < total; v++) {
+                    double paso = (grado == 0) ? teletransporte[v] :
+                        (grafica.sonVecinos(u, v) ? 1.0 / grado : 0);
+                    nuevo[v] += rango[u] * (0.85 * paso +
+                                            0.15 * teletransporte[v]);
+                }
+            }
+            rango = nuevo;
+        }
+        return rango;
+    }
+
+    /* Compara dos vectores de rangos. */
+    private void compara(double[] a, double[] b) {
+        Assert.assertTrue(a.length == b.length);
+        double suma = 0;
+        for (int i = 0; i < a.length; i++) {
+            Assert.assertTrue(Math.abs(a[i] - b[i]) < 1e-6);
+            suma += a[i];
+        }
+        Assert.assertTrue(Math.abs(suma - 1) < 1e-6);
+    }
+
+    /**
+     * Prueba unitaria para {@link PageRank#rangos()}.
+     */
+    @Test public void testRangos() {
+        double[] t = new double[total];
+        for (int i = 0; i < total; i++)
+            t[i] = 1.0 / total;
+        double[] esperados = potencias(t);
+        PageRank<Integer> pr = new PageRank<Integer>(grafica);
+        compara(pr.rangos(), esperados);
+        Assert.assertTrue(pr.getIteraciones() > 0);
+        Assert.assertTrue(pr.getIteraciones() <= PageRank.MAXIMO_ITERACIONES);
+        pr = new PageRank<Integer>(grafica, 0.85, 1e-12, new ForkJoinPool(4));
+        compara(pr.rangos(), esperados);
+        try {
+            new PageRank<Integer>(grafica, 1, 1e-9, new ForkJoinPool(1));
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new PageRank<Integer>(grafica, 0.85, 0, new ForkJoinPool(1));
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new PageRank<Integer>(grafica, 0.85, 1e-9, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link PageRank#rangos(Lista)}.
+     */
+    @Test public void testPersonalizado() {
+        Lista<Integer> lista = new Lista<Integer>();
+        double[] t = new double[total];
+        int k = 1 + random.nextInt(total);
+        for (int i = 0; i < k; i++) {
+            int e = random.nextInt(total);
+            lista.agrega(e);
+            t[e] = 1;
+        }
+        double s = 0;
+        for (int i = 0; i < total; i++)
+            s += t[i];
+        for (int i = 0; i < total; i++)
+            t[i] /= s;
+        PageRank<Integer> pr = new PageRank<Integer>(grafica);
+        compara(pr.rangos(lista), potencias(t));
+        try {
+            pr.rangos(new Lista<Integer>());
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        lista.agrega(total);
+        try {
+            pr.rangos(lista);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link PageRank#local}.
+     */
+    @Test public void testLocal() {
+        PageRank<Integer> pr = new PageRank<Integer>(grafica);
+        int origen = random.nextInt(total);
+        Lista<Integer> lista = new Lista<Integer>();
+        lista.agrega(origen);
+        double[] exactos = pr.rangos(lista);
+        double epsilon = 1e-4;
+        for (int vez = 0; vez < 2; vez++) {
+            Diccionario<Integer, Double> aproximados =
+                pr.local(origen, epsilon);
+            double falta = 0;
+            for (int i = 0; i < total; i++) {
+                double a = aproximados.contiene(i) ? aproximados.get(i) : 0;
+                Assert.assertTrue(a <= exactos[i] + 1e-9);
+                if (exactos[i] == 0)
+                    Assert.assertFalse(aproximados.contiene(i));
+                falta += exactos[i] - a;
+            }
+            Assert.assertTrue(falta <=
+                              epsilon * Math.max(2 * grafica.getAristas(),
+                                                 1) + 1e-9);
+        }
+        try {
+            pr.local(origen, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            pr.local(total, epsilon);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+}
@@ -0,0 +1,153 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCompacta;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.TrayectoriasAlternativas;
+import mx.unam.ciencias.edd.VerticeGrafica;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link TrayectoriasAlternativas}.
+ */
+public class TestTrayectoriasAlternativas {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+    /* La gráfica compacta. */
+    private GraficaCompacta<Integer> compacta;
+    /* Los pesos de todas las trayectorias sin ciclos. */
+    private double[] pesos;
+    /* El número de trayectorias sin ciclos. */
+    private int trayectorias;
+
+    /**
+     * Crea una gráfica aleatoria pequeña para cada prueba, con pesos
+     * repetidos.
+     */
+    public TestTrayectoriasAlternativas() {
+        random = new Random();
+        total = 2 + random.nextInt(8);
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = i + 1; j < total; j++)
+                if (random.nextBoolean())
+                    grafica.conecta(i, j, 1 + random.nextInt(5));
+        compacta = new GraficaCompacta<Integer>(grafica);
+    }
+
+    /* Enumera los pesos de todas las trayectorias sin ciclos de u al destino
+     * que extienden la trayectoria actual. */
+    private void enumera(int u, int destino, boolean[] vistos, double peso) {
+        if (u == destino) {
+            if (trayectorias == pesos.length)
+                pesos = Arrays.copyOf(pesos, 2 * trayectorias);
+            pesos[trayectorias++] = peso;
+            return;
+        }
+        vistos[u] = true;
+        for (int v = 0; v < total; v++)
+            if (!vistos[v] && grafica.sonVecinos(u, v))
+                enumera(v, destino, vistos, peso + grafica.getPeso(u, v));
+        vistos[u] = false;
+    }
+
+    /* Valida que las trayectorias no tengan ciclos, sean distintas, vayan
+     * del origen al destino por aristas de la gráfica, y que sus pesos sean
+     * los menores de todas las trayectorias sin ciclos, en orden. */
+    private void valida(Lista<Lista<VerticeGrafica<Integer>>> calculadas,
+                        int origen, int destino, int k) {
+        pesos = new double[16];
+        trayectorias = 0;
+        enumera(origen, destino, new boolean[total], 0);
+        Arrays.sort(pesos, 0, trayectorias);
+        Assert.assertTrue(calculadas.getLongitud() ==
+                          Math.min(k, trayectorias));
+        int i = 0;
+        Lista<String> vistas = new Lista<String>();
+        for (Lista<VerticeGrafica<Integer>> trayectoria : calculadas) {
+            Assert.assertTrue(trayectoria.getPrimero().get() == origen);
+            Assert.assertTrue(trayectoria.getUltimo().get() == destino);
+            boolean[] vistos = new boolean[total];
+            double peso = 0;
+            String llave = "";
+            VerticeGrafica<Integer> anterior = null;
+            for (VerticeGrafica<Integer> v : trayectoria) {
+                llave += v.get() + ",";
+                Assert.assertFalse(vistos[v.get()]);
+                vistos[v.get()] = true;
+                if (anterior != null) {
+                    Assert.assertTrue(grafica.sonVecinos(anterior.get(),
+                                                         v.get()));
+                    peso += grafica.getPeso(anterior.get(), v.get());
+                }
+                anterior = v;
+            }
+            Assert.assertTrue(peso == pesos[i++]);
+            Assert.assertFalse(vistas.contiene(llave));
+            vistas.agrega(llave);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link TrayectoriasAlternativas#trayectorias}.
+     */
+    @Test public void testTrayectorias() {
+        TrayectoriasAlternativas<Integer> alternativas =
+            new TrayectoriasAlternativas<Integer>(compacta);
+        for (int vez = 0; vez < 10; vez++) {
+            int origen = random.nextInt(total);
+            int destino = random.nextInt(total);
+            int k = 1 + random.nextInt(20);
+            valida(alternativas.trayectorias(origen, destino, k),
+                   origen, destino, k);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link TrayectoriasAlternativas#trayectorias} en
+     * una gráfica completa, con muchas trayectorias sin ciclos.
+     */
+    @Test public void testCompleta() {
+        for (int i = 0; i < total; i++)
+            for (int j = i + 1; j < total; j++)
+                if (!grafica.sonVecinos(i, j))
+                    grafica.conecta(i, j, 1 + random.nextInt(5));
+        compacta = new GraficaCompacta<Integer>(grafica);
+        TrayectoriasAlternativas<Integer> alternativas =
+            new TrayectoriasAlternativas<Integer>(compacta);
+        valida(alternativas.trayectorias(0, total - 1, 50), 0, total - 1, 50);
+    }
+
+    /**
+     * Prueba unitaria para {@link TrayectoriasAlternativas#trayectorias} con
+     * argumentos inválidos.
+     */
+    @Test public void testInvalidos() {
+        TrayectoriasAlternativas<Integer> alternativas =
+            new TrayectoriasAlternativas<Integer>(compacta);
+        try {
+            alternativas.trayectorias(0, 1, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            alternativas.trayectorias(0, total, 1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+}
@@ -0,0 +1,128 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCompacta;
+import mx.unam.ciencias.edd.Triangulos;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link Triangulos}.
+ */
+public class TestTriangulos {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica aleatoria para cada prueba, con algunos vértices de
+     * grado grande.
+     */
+    public TestTriangulos() {
+        random = new Random();
+        total = 3 + random.nextInt(60);
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++) {
+            int grado = (random.nextInt(8) == 0) ? total : 3;
+            for (int j = 0; j < grado; j++) {
+                int k = random.nextInt(total);
+                if (k != i && !grafica.sonVecinos(i, k))
+                    grafica.conecta(i, k);
+            }
+        }
+    }
+
+    /* Regresa por fuerza bruta los triángulos de cada vértice de la gráfica
+     * compacta. */
+    private long[] triangulos(GraficaCompacta<Integer> compacta) {
+        long[] r = new long[total];
+        for (int a = 0; a < total; a++)
+            for (int b = a + 1; b < total; b++)
+                for (int c = b + 1; c < total; c++) {
+                    Integer x = compacta.elemento(a);
+                    Integer y = compacta.elemento(b);
+                    Integer z = compacta.elemento(c);
+                    if (grafica.sonVecinos(x, y) && grafica.sonVecinos(y, z) &&
+                        grafica.sonVecinos(x, z)) {
+                        r[a]++;
+                        r[b]++;
+                        r[c]++;
+                    }
+                }
+        return r;
+    }
+
+    /* Valida los triángulos y coeficientes contra la fuerza bruta. */
+    private void valida(GraficaCompacta<Integer> compacta,
+                        Triangulos<Integer> triangulos) {
+        long[] esperados = triangulos(compacta);
+        long[] obtenidos = triangulos.getTriangulosVertices();
+        Assert.assertArrayEquals(esperados, obtenidos);
+        long suma = 0;
+        double cunas = 0, promedio = 0;
+        double[] agrupamiento = triangulos.getAgrupamiento();
+        for (int v = 0; v < total; v++) {
+            suma += esperados[v];
+            long g = compacta.grado(v);
+            cunas += g * (g - 1) / 2;
+            double c = (g < 2) ? 0 : esperados[v] / (g * (g - 1) / 2.0);
+            Assert.assertEquals(c, agrupamiento[v], 1e-9);
+            promedio += c;
+        }
+        Assert.assertTrue(triangulos.getTriangulos() * 3 == suma);
+        Assert.assertEquals(promedio / total,
+                            triangulos.getAgrupamientoPromedio(), 1e-9);
+        Assert.assertEquals(cunas == 0 ? 0 : suma / cunas,
+                            triangulos.getTransitividad(), 1e-9);
+    }
+
+    /**
+     * Prueba unitaria para {@link Triangulos#Triangulos(GraficaCompacta)}.
+     */
+    @Test public void testTriangulos() {
+        GraficaCompacta<Integer> compacta =
+            new GraficaCompacta<Integer>(grafica);
+        valida(compacta, new Triangulos<Integer>(compacta));
+        ForkJoinPool grupo = new ForkJoinPool(2);
+        valida(compacta, new Triangulos<Integer>(compacta, grupo));
+        grupo.shutdown();
+        try {
+            new Triangulos<Integer>(compacta, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para una gráfica completa, donde todos los coeficientes
+     * son 1.
+     */
+    @Test public void testCompleta() {
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++) {
+            grafica.agrega(i);
+            for (int j = 0; j < i; j++)
+                grafica.conecta(i, j);
+        }
+        Triangulos<Integer> triangulos =
+            new Triangulos<Integer>(new GraficaCompacta<Integer>(grafica));
+        long n = total;
+        Assert.assertTrue(triangulos.getTriangulos() ==
+                          n * (n - 1) * (n - 2) / 6);
+        for (double c : triangulos.getAgrupamiento())
+            Assert.assertEquals(1.0, c, 1e-9);
+        Assert.assertEquals(1.0, triangulos.getTransitividad(), 1e-9);
+    }
+}
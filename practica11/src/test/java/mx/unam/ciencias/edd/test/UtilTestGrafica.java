@@ -0,0 +1,48 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.Grafica;
+
+/**
+ * Clase de métodos utilitarios para las pruebas unitarias de las clases que
+ * trabajan sobre una {@link Grafica}.
+ */
+public class UtilTestGrafica {
+
+    /**
+     * Llena la gráfica con los enteros de 0 a n-1 y aristas aleatorias: cada
+     * vértice intenta conectarse con <code>grado</code> vértices al azar, así
+     * que el grado promedio es alrededor de 2·<code>grado</code>. Todas las
+     * aristas tienen peso 1.
+     * @param grafica la gráfica a llenar.
+     * @param n el número de vértices.
+     * @param grado el número de aristas que intenta agregar cada vértice.
+     * @param random el generador de números aleatorios.
+     */
+    public static void llena(Grafica<Integer> grafica, int n, int grado,
+                             Random random) {
+        llena(grafica, n, grado, 1, random);
+    }
+
+    /**
+     * Llena la gráfica con los enteros de 0 a n-1 y aristas aleatorias como
+     * {@link #llena(Grafica,int,int,Random)}, pero con pesos enteros
+     * aleatorios entre 1 y <code>pesoMaximo</code>.
+     * @param grafica la gráfica a llenar.
+     * @param n el número de vértices.
+     * @param grado el número de aristas que intenta agregar cada vértice.
+     * @param pesoMaximo el peso máximo de las aristas.
+     * @param random el generador de números aleatorios.
+     */
+    public static void llena(Grafica<Integer> grafica, int n, int grado,
+                             int pesoMaximo, Random random) {
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < grado; j++) {
+                int k = random.nextInt(n);
+                if (k != i && !grafica.sonVecinos(i, k))
+                    grafica.conecta(i, k, 1 + random.nextInt(pesoMaximo));
+            }
+    }
+}